@@ -0,0 +1,219 @@
+package com.example.fitnessapp.repository;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.util.Log;
+
+import androidx.room.Room;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import androidx.sqlite.db.SupportSQLiteStatement;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.fitnessapp.data.AppDatabase;
+import com.example.fitnessapp.util.EpochDays;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.text.SimpleDateFormat;
+import java.util.Calendar;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Compares (userId, date) range queries over 'YYYY-MM-DD' TEXT dates (the schema before v13)
+ * against INTEGER epoch days, including the per-query cost of producing the bound values
+ * (SimpleDateFormat vs EpochDays arithmetic). Both variants are scratch tables with
+ * identical rows in one in-memory database, shaped like meals (three rows per user per day)
+ * and indexed like index_meals_userId_date.
+ * Runs as an instrumented test (SQLite on the device).
+ */
+@RunWith(AndroidJUnit4.class)
+public class DateColumnBenchmark {
+
+    private static final String TAG = "DateColumnBenchmark";
+
+    private static final int ROWS_PER_DAY = 3;
+    private static final int RANGE_DAYS = 30;
+    private static final int WARM_UP_QUERIES = 200;
+
+    @Test
+    public void textAndEpochDayRangesAgree() {
+        BenchmarkReport report = run(InstrumentationRegistry.getInstrumentation().getTargetContext(),
+                50, 365, 1_000);
+        assertTrue(report.toString(), report.isResultsMatch());
+    }
+
+    /**
+     * @param context Any context (for the in-memory database)
+     * @param users Users in the scratch tables
+     * @param days Days of history per user
+     * @param queries Measured range queries per variant (after warm-up)
+     * @return Query latency and index size of both variants
+     */
+    public static BenchmarkReport run(Context context, int users, int days, int queries) {
+        AppDatabase db = Room.inMemoryDatabaseBuilder(context, AppDatabase.class).build();
+        try {
+            SupportSQLiteDatabase sqlite = db.getOpenHelper().getWritableDatabase();
+            long firstDay = EpochDays.of(2020, 1, 1);
+
+            long textIndexPages = createTable(sqlite, "bench_dates_text", "TEXT", users, days, firstDay, true);
+            long epochIndexPages = createTable(sqlite, "bench_dates_epoch", "INTEGER", users, days, firstDay, false);
+
+            long textNanos = 0;
+            long epochNanos = 0;
+            double textChecksum = 0;
+            double epochChecksum = 0;
+            Random random = new Random(42);
+            SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd", Locale.US);
+            Calendar calendar = Calendar.getInstance();
+            for (int q = -WARM_UP_QUERIES; q < queries; q++) {
+                int userId = 1 + random.nextInt(users);
+                int offset = random.nextInt(Math.max(1, days - RANGE_DAYS));
+
+                long start = System.nanoTime();
+                calendar.clear();
+                calendar.set(2020, Calendar.JANUARY, 1 + offset);
+                String startText = format.format(calendar.getTime());
+                calendar.add(Calendar.DAY_OF_MONTH, RANGE_DAYS - 1);
+                String endText = format.format(calendar.getTime());
+                double text = sumInRange(sqlite, "bench_dates_text", userId, startText, endText);
+                long textElapsed = System.nanoTime() - start;
+
+                start = System.nanoTime();
+                long startDay = firstDay + offset;
+                double epoch = sumInRange(sqlite, "bench_dates_epoch", userId,
+                        startDay, startDay + RANGE_DAYS - 1);
+                long epochElapsed = System.nanoTime() - start;
+
+                if (q >= 0) {
+                    textNanos += textElapsed;
+                    epochNanos += epochElapsed;
+                    textChecksum += text;
+                    epochChecksum += epoch;
+                }
+            }
+
+            BenchmarkReport report = new BenchmarkReport(users * days * ROWS_PER_DAY, queries,
+                    textNanos, epochNanos, textIndexPages, epochIndexPages,
+                    Math.abs(textChecksum - epochChecksum) < 1e-6);
+            Log.d(TAG, report.toString());
+            return report;
+        } finally {
+            db.close();
+        }
+    }
+
+    /**
+     * Creates and fills one scratch table, then its (userId, date) index.
+     *
+     * @return Pages added by the index
+     */
+    private static long createTable(SupportSQLiteDatabase sqlite, String table, String dateType,
+                                    int users, int days, long firstDay, boolean textDates) {
+        sqlite.execSQL("DROP TABLE IF EXISTS `" + table + "`");
+        sqlite.execSQL("CREATE TABLE `" + table + "` (`id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, " +
+                "`userId` INTEGER NOT NULL, `date` " + dateType + " NOT NULL, `totalCalories` REAL NOT NULL)");
+
+        Random random = new Random(7);
+        sqlite.beginTransaction();
+        try (SupportSQLiteStatement insert = sqlite.compileStatement("INSERT INTO `" + table + "` " +
+                "(`userId`, `date`, `totalCalories`) VALUES (?, ?, ?)")) {
+            for (int userId = 1; userId <= users; userId++) {
+                for (int day = 0; day < days; day++) {
+                    for (int meal = 0; meal < ROWS_PER_DAY; meal++) {
+                        insert.bindLong(1, userId);
+                        if (textDates) {
+                            insert.bindString(2, EpochDays.format(firstDay + day));
+                        } else {
+                            insert.bindLong(2, firstDay + day);
+                        }
+                        insert.bindDouble(3, 200 + random.nextInt(800));
+                        insert.executeInsert();
+                    }
+                }
+            }
+            sqlite.setTransactionSuccessful();
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to fill " + table, e);
+        } finally {
+            sqlite.endTransaction();
+        }
+
+        long pagesBefore = pageCount(sqlite);
+        sqlite.execSQL("CREATE INDEX `" + table + "_userId_date` ON `" + table + "` (`userId`, `date`)");
+        return pageCount(sqlite) - pagesBefore;
+    }
+
+    private static double sumInRange(SupportSQLiteDatabase sqlite, String table, int userId,
+                                     Object startDate, Object endDate) {
+        try (Cursor cursor = sqlite.query("SELECT COUNT(*), SUM(`totalCalories`) FROM `" + table + "` " +
+                "WHERE `userId` = ? AND `date` BETWEEN ? AND ?", new Object[]{userId, startDate, endDate})) {
+            return cursor.moveToFirst() ? cursor.getLong(0) + cursor.getDouble(1) : 0.0;
+        }
+    }
+
+    private static long pageCount(SupportSQLiteDatabase sqlite) {
+        try (Cursor cursor = sqlite.query("PRAGMA page_count")) {
+            return cursor.moveToFirst() ? cursor.getLong(0) : 0;
+        }
+    }
+
+    /**
+     * Result of one benchmark run.
+     */
+    public static class BenchmarkReport {
+        private final int rows;
+        private final int queries;
+        private final long textNanos;
+        private final long epochNanos;
+        private final long textIndexPages;
+        private final long epochIndexPages;
+        private final boolean resultsMatch;
+
+        BenchmarkReport(int rows, int queries, long textNanos, long epochNanos,
+                        long textIndexPages, long epochIndexPages, boolean resultsMatch) {
+            this.rows = rows;
+            this.queries = queries;
+            this.textNanos = textNanos;
+            this.epochNanos = epochNanos;
+            this.textIndexPages = textIndexPages;
+            this.epochIndexPages = epochIndexPages;
+            this.resultsMatch = resultsMatch;
+        }
+
+        public double getTextMicrosPerQuery() {
+            return queries == 0 ? 0.0 : textNanos / 1000.0 / queries;
+        }
+
+        public double getEpochMicrosPerQuery() {
+            return queries == 0 ? 0.0 : epochNanos / 1000.0 / queries;
+        }
+
+        public long getTextIndexPages() {
+            return textIndexPages;
+        }
+
+        public long getEpochIndexPages() {
+            return epochIndexPages;
+        }
+
+        /**
+         * True if both variants returned the same counts and sums.
+         */
+        public boolean isResultsMatch() {
+            return resultsMatch;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("DateColumns{rows=%d, queries=%d, text=%.1f µs/query, epochDay=%.1f µs/query, " +
+                            "index pages text=%d epochDay=%d, match=%b}",
+                    rows, queries, getTextMicrosPerQuery(), getEpochMicrosPerQuery(),
+                    textIndexPages, epochIndexPages, resultsMatch);
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.fitnessapp.repository;
+
+import androidx.room.Room;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.fitnessapp.algorithm.NutritionCalculator;
+import com.example.fitnessapp.data.AppDatabase;
+import com.example.fitnessapp.data.NutritionGoal;
+import com.example.fitnessapp.data.NutritionGoalDao;
+import com.example.fitnessapp.data.User;
+import com.example.fitnessapp.data.WeightEntry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * GoalRecalculationJob on an in-memory database driven by a fake clock.
+ * Runs as an instrumented test (Room needs SQLite on the device).
+ */
+@RunWith(AndroidJUnit4.class)
+public class GoalRecalculationJobTest {
+
+    // Goals written at T0; the job runs just past the recalculation interval
+    private static final long T0 = 1_700_000_000_000L;
+    private static final long NOW = T0 + NutritionGoal.RECALCULATION_INTERVAL_MS + 1;
+
+    private static final int USERS_WITH_WEIGHT = 250;   // two full batches of 100 plus 50
+    private static final int USERS_WITHOUT_WEIGHT = 5;
+
+    private AppDatabase db;
+    private NutritionGoalDao goalDao;
+    private long clock;
+
+    @Before
+    public void setUp() {
+        db = Room.inMemoryDatabaseBuilder(InstrumentationRegistry.getInstrumentation().getTargetContext(),
+                AppDatabase.class).build();
+        goalDao = db.nutritionGoalDao();
+        clock = NOW;
+    }
+
+    @After
+    public void tearDown() {
+        db.close();
+    }
+
+    @Test
+    public void recalculatesStaleGoalsInBatchesAndSkipsUsersWithoutWeight() {
+        int[] weighedIds = new int[USERS_WITH_WEIGHT];
+        for (int i = 0; i < USERS_WITH_WEIGHT; i++) {
+            weighedIds[i] = insertUserWithGoal("weighed" + i, T0);
+            db.weightEntryDao().insert(new WeightEntry(weighedIds[i], 90.0, T0));
+            // Latest entry wins
+            db.weightEntryDao().insert(new WeightEntry(weighedIds[i], 80.0 + i % 10, T0 + 1000));
+        }
+        int[] unweighedIds = new int[USERS_WITHOUT_WEIGHT];
+        for (int i = 0; i < USERS_WITHOUT_WEIGHT; i++) {
+            unweighedIds[i] = insertUserWithGoal("unweighed" + i, T0);
+        }
+        // Recalculated a second before NOW; not stale
+        int freshUserId = insertUserWithGoal("fresh", NOW - 1000);
+        db.weightEntryDao().insert(new WeightEntry(freshUserId, 75.0, T0));
+
+        GoalRecalculationJob job = new GoalRecalculationJob(db, () -> clock);
+        GoalRecalculationJob.RecalculationReport report = job.run();
+
+        assertEquals(USERS_WITH_WEIGHT + USERS_WITHOUT_WEIGHT, report.getStaleCount());
+        assertEquals(USERS_WITH_WEIGHT, report.getRecalculatedCount());
+        assertEquals(USERS_WITHOUT_WEIGHT, report.getSkippedCount());
+        assertEquals(3, report.getTransactionCount());
+
+        for (int i = 0; i < USERS_WITH_WEIGHT; i++) {
+            NutritionGoal goal = goalDao.getGoalForUserSync(weighedIds[i]);
+            assertEquals(NOW, goal.getCalculatedAt());
+            assertEquals(NutritionCalculator.calculateBMR(80.0 + i % 10, 180.0, 30,
+                    NutritionCalculator.Gender.MALE), goal.getBmr(), 1e-9);
+        }
+        for (int i = 0; i < USERS_WITHOUT_WEIGHT; i++) {
+            NutritionGoal goal = goalDao.getGoalForUserSync(unweighedIds[i]);
+            assertEquals(T0, goal.getCalculatedAt());
+            assertEquals(0.0, goal.getBmr(), 0.0);
+        }
+        assertEquals(NOW - 1000, goalDao.getGoalForUserSync(freshUserId).getCalculatedAt());
+    }
+
+    @Test
+    public void secondRunFindsOnlySkippedGoals() {
+        int weighedId = insertUserWithGoal("weighed", T0);
+        db.weightEntryDao().insert(new WeightEntry(weighedId, 80.0, T0));
+        insertUserWithGoal("unweighed", T0);
+
+        GoalRecalculationJob job = new GoalRecalculationJob(db, () -> clock);
+        job.run();
+        clock += 1000;
+        GoalRecalculationJob.RecalculationReport report = job.run();
+
+        assertEquals(1, report.getStaleCount());
+        assertEquals(0, report.getRecalculatedCount());
+        assertEquals(1, report.getSkippedCount());
+        assertEquals(0, report.getTransactionCount());
+    }
+
+    @Test
+    public void skipsGoalsWithMalformedProfile() {
+        int[] userIds = {
+                insertUserWithGoal("badGender", T0, "male", "MODERATE", "MAINTENANCE"),
+                insertUserWithGoal("badActivity", T0, "FEMALE", "EXTREME", "MAINTENANCE"),
+                insertUserWithGoal("badGoal", T0, "FEMALE", "MODERATE", "BULK")
+        };
+        for (int userId : userIds) {
+            db.weightEntryDao().insert(new WeightEntry(userId, 80.0, T0));
+        }
+        int validId = insertUserWithGoal("valid", T0);
+        db.weightEntryDao().insert(new WeightEntry(validId, 80.0, T0));
+
+        GoalRecalculationJob.RecalculationReport report = new GoalRecalculationJob(db, () -> clock).run();
+
+        assertEquals(4, report.getStaleCount());
+        assertEquals(1, report.getRecalculatedCount());
+        assertEquals(3, report.getSkippedCount());
+        for (int userId : userIds) {
+            NutritionGoal goal = goalDao.getGoalForUserSync(userId);
+            assertEquals(T0, goal.getCalculatedAt());
+            assertEquals(0.0, goal.getBmr(), 0.0);
+        }
+        assertEquals(NOW, goalDao.getGoalForUserSync(validId).getCalculatedAt());
+    }
+
+    private int insertUserWithGoal(String username, long calculatedAt) {
+        return insertUserWithGoal(username, calculatedAt, "MALE", "MODERATE", "MAINTENANCE");
+    }
+
+    private int insertUserWithGoal(String username, long calculatedAt, String gender,
+                                   String activityLevel, String goalType) {
+        int userId = (int) db.userDao().insert(new User(username, "", 75.0, ""));
+        NutritionGoal goal = new NutritionGoal(userId, 180.0, 30, gender, activityLevel, goalType);
+        goal.setCalculatedAt(calculatedAt);
+        goalDao.insert(goal);
+        return userId;
+    }
+}
@@ -0,0 +1,236 @@
+package com.example.fitnessapp.repository;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.room.Room;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.fitnessapp.data.AppDatabase;
+import com.example.fitnessapp.data.DailyNutritionSummary;
+import com.example.fitnessapp.data.DailyNutritionSummaryDao;
+import com.example.fitnessapp.data.Food;
+import com.example.fitnessapp.data.Meal;
+import com.example.fitnessapp.data.MealDao;
+import com.example.fitnessapp.data.MealFood;
+import com.example.fitnessapp.data.NutritionTotalTriggers;
+import com.example.fitnessapp.data.User;
+import com.example.fitnessapp.util.EpochDays;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Compares the throughput of maintaining meal and daily totals in app code
+ * (read food, read/update meal, read/update summary per MealFood) against the
+ * NutritionTotalTriggers path (a single meal_foods insert).
+ * Each approach runs on its own in-memory database with identical seed data,
+ * one transaction per MealFood as in normal logging (four foods per meal, three meals a day).
+ * Runs as an instrumented test (SQLite on the device).
+ */
+@RunWith(AndroidJUnit4.class)
+public class NutritionTotalsBenchmark {
+
+    private static final String TAG = "NutritionTotalsBenchmark";
+
+    private static final int FOOD_COUNT = 50;
+    private static final int FOODS_PER_MEAL = 4;
+    private static final String[] MEAL_TYPES = {"breakfast", "lunch", "dinner"};
+
+    @Test
+    public void appSideAndTriggerTotalsAgree() {
+        BenchmarkReport report = run(InstrumentationRegistry.getInstrumentation().getTargetContext(), 2_000);
+        assertEquals(report.toString(), 0.0, report.getMaxCalorieDifference(), 1e-6);
+    }
+
+    /**
+     * Runs both approaches with the same pseudo-random MealFood rows.
+     *
+     * @param context Any context (for the in-memory databases)
+     * @param mealFoodCount Number of MealFood rows logged per approach
+     * @return Throughput of both approaches and the largest daily-total disagreement
+     */
+    public static BenchmarkReport run(Context context, int mealFoodCount) {
+        AppDatabase manualDb = Room.inMemoryDatabaseBuilder(context, AppDatabase.class).build();
+        AppDatabase triggerDb = Room.inMemoryDatabaseBuilder(context, AppDatabase.class).build();
+        try {
+            NutritionTotalTriggers.install(triggerDb.getOpenHelper().getWritableDatabase());
+            int mealCount = (mealFoodCount + FOODS_PER_MEAL - 1) / FOODS_PER_MEAL;
+            int days = (mealCount + MEAL_TYPES.length - 1) / MEAL_TYPES.length;
+            int manualUser = seed(manualDb, mealCount);
+            int triggerUser = seed(triggerDb, mealCount);
+
+            List<MealFood> rows = generateRows(manualDb.mealDao(), manualUser, days, mealFoodCount);
+
+            long start = System.nanoTime();
+            for (MealFood row : rows) {
+                manualDb.runInTransaction(() -> logManually(manualDb, copyOf(row)));
+            }
+            long manualNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (MealFood row : rows) {
+                triggerDb.runInTransaction(() -> {
+                    triggerDb.mealFoodDao().insert(copyOf(row));
+                });
+            }
+            long triggerNanos = System.nanoTime() - start;
+
+            double maxDifference = maxCalorieDifference(
+                    manualDb.dailyNutritionSummaryDao(), manualUser,
+                    triggerDb.dailyNutritionSummaryDao(), triggerUser, days);
+
+            BenchmarkReport report = new BenchmarkReport(rows.size(), manualNanos, triggerNanos, maxDifference);
+            Log.d(TAG, report.toString());
+            return report;
+        } finally {
+            manualDb.close();
+            triggerDb.close();
+        }
+    }
+
+    /**
+     * The pre-trigger approach: five statements and three entity reads per MealFood.
+     */
+    private static void logManually(AppDatabase db, MealFood mealFood) {
+        db.mealFoodDao().insert(mealFood);
+
+        Food food = db.foodDao().getFoodByIdSync(mealFood.getFoodId());
+        double[] nutrition = food.calculateForServing(mealFood.getGramsConsumed());
+
+        Meal meal = db.mealDao().getMealByIdSync(mealFood.getMealId());
+        meal.addFoodNutrition(nutrition[0], nutrition[1], nutrition[2], nutrition[3]);
+        db.mealDao().update(meal);
+
+        DailyNutritionSummaryDao summaryDao = db.dailyNutritionSummaryDao();
+        DailyNutritionSummary summary = summaryDao.getSummaryForDateSync(meal.getUserId(), meal.getDate());
+        if (summary == null) {
+            summary = new DailyNutritionSummary(meal.getUserId(), meal.getDate());
+            summary.addMealNutrition(nutrition[0], nutrition[1], nutrition[2], nutrition[3]);
+            summaryDao.insert(summary);
+        } else {
+            summary.setTotalCalories(summary.getTotalCalories() + nutrition[0]);
+            summary.setTotalProtein(summary.getTotalProtein() + nutrition[1]);
+            summary.setTotalCarbs(summary.getTotalCarbs() + nutrition[2]);
+            summary.setTotalFats(summary.getTotalFats() + nutrition[3]);
+            summary.setLastUpdated(System.currentTimeMillis());
+            summaryDao.update(summary);
+        }
+    }
+
+    /**
+     * Inserts one user, FOOD_COUNT foods and {@code mealCount} meals, three per day
+     * (ids are identical across databases).
+     *
+     * @return The user ID
+     */
+    private static int seed(AppDatabase db, int mealCount) {
+        int userId = (int) db.userDao().insert(new User("benchmark", "", 70.0, ""));
+
+        Random random = new Random(7);
+        List<Food> foods = new ArrayList<>();
+        for (int i = 0; i < FOOD_COUNT; i++) {
+            foods.add(new Food("Food " + i, 50 + random.nextInt(450),
+                    random.nextInt(30), random.nextInt(60), random.nextInt(30)));
+        }
+        db.foodDao().insertAll(foods);
+
+        MealDao mealDao = db.mealDao();
+        for (int i = 0; i < mealCount; i++) {
+            mealDao.insert(new Meal(userId, MEAL_TYPES[i % MEAL_TYPES.length],
+                    dateFor(i / MEAL_TYPES.length)));
+        }
+        return userId;
+    }
+
+    /**
+     * Rows in logging order: FOODS_PER_MEAL foods for each meal in turn.
+     */
+    private static List<MealFood> generateRows(MealDao mealDao, int userId, int days, int count) {
+        List<Integer> mealIds = new ArrayList<>();
+        for (int day = 0; day < days; day++) {
+            for (Meal meal : mealDao.getMealsByDateSync(userId, dateFor(day))) {
+                mealIds.add(meal.getId());
+            }
+        }
+
+        Random random = new Random(42);
+        List<MealFood> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            rows.add(new MealFood(mealIds.get(i / FOODS_PER_MEAL),
+                    1 + random.nextInt(FOOD_COUNT), 20 + random.nextInt(280)));
+        }
+        return rows;
+    }
+
+    /**
+     * Epoch day {@code dayIndex} days after 2024-01-01.
+     */
+    private static long dateFor(int dayIndex) {
+        return EpochDays.of(2024, 1, 1) + dayIndex;
+    }
+
+    private static MealFood copyOf(MealFood row) {
+        return new MealFood(row.getMealId(), row.getFoodId(), row.getGramsConsumed());
+    }
+
+    private static double maxCalorieDifference(DailyNutritionSummaryDao manual, int manualUser,
+                                               DailyNutritionSummaryDao triggered, int triggerUser,
+                                               int days) {
+        double max = 0.0;
+        for (int day = 0; day < days; day++) {
+            long date = dateFor(day);
+            DailyNutritionSummary a = manual.getSummaryForDateSync(manualUser, date);
+            DailyNutritionSummary b = triggered.getSummaryForDateSync(triggerUser, date);
+            double caloriesA = a == null ? 0.0 : a.getTotalCalories();
+            double caloriesB = b == null ? 0.0 : b.getTotalCalories();
+            max = Math.max(max, Math.abs(caloriesA - caloriesB));
+        }
+        return max;
+    }
+
+    /**
+     * Result of one benchmark run.
+     */
+    public static class BenchmarkReport {
+        private final int rows;
+        private final long manualNanos;
+        private final long triggerNanos;
+        private final double maxCalorieDifference;
+
+        BenchmarkReport(int rows, long manualNanos, long triggerNanos, double maxCalorieDifference) {
+            this.rows = rows;
+            this.manualNanos = manualNanos;
+            this.triggerNanos = triggerNanos;
+            this.maxCalorieDifference = maxCalorieDifference;
+        }
+
+        public double getManualRowsPerSecond() {
+            return manualNanos == 0 ? 0.0 : rows * 1_000_000_000.0 / manualNanos;
+        }
+
+        public double getTriggerRowsPerSecond() {
+            return triggerNanos == 0 ? 0.0 : rows * 1_000_000_000.0 / triggerNanos;
+        }
+
+        /**
+         * Largest disagreement between the two approaches' daily calorie totals.
+         */
+        public double getMaxCalorieDifference() {
+            return maxCalorieDifference;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("NutritionTotals{rows=%d, appSide=%.0f rows/s, triggers=%.0f rows/s, maxCalorieDiff=%.6f}",
+                    rows, getManualRowsPerSecond(), getTriggerRowsPerSecond(), maxCalorieDifference);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.fitnessapp;
+
+import android.app.Application;
+
+import com.example.fitnessapp.repository.GoalRecalculationJob;
+import com.example.fitnessapp.repository.WeightTrendBatchJob;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Application class. Starts the periodic background jobs once per process, on a single
+ * scheduler thread so the jobs never run concurrently with each other.
+ */
+public class FitnessApplication extends Application {
+
+    // Goals go stale after NutritionGoal.RECALCULATION_INTERVAL_MS (30 days); checking every
+    // 6 hours picks them up the same day. The check itself is one query when nothing is stale.
+    private static final long GOAL_RECALCULATION_PERIOD_MS = TimeUnit.HOURS.toMillis(6);
+
+    // Nightly trend cache refresh; the first run waits so it does not compete with app startup
+    private static final long WEIGHT_TREND_BATCH_PERIOD_MS = TimeUnit.DAYS.toMillis(1);
+    private static final long WEIGHT_TREND_BATCH_DELAY_MS = TimeUnit.MINUTES.toMillis(5);
+
+    private ScheduledExecutorService jobScheduler;
+
+    @Override
+    public void onCreate() {
+        super.onCreate();
+        jobScheduler = Executors.newSingleThreadScheduledExecutor();
+        new GoalRecalculationJob(this).schedule(jobScheduler, GOAL_RECALCULATION_PERIOD_MS);
+        new WeightTrendBatchJob(this).schedule(jobScheduler,
+                WEIGHT_TREND_BATCH_DELAY_MS, WEIGHT_TREND_BATCH_PERIOD_MS);
+    }
+}
@@ -2,6 +2,7 @@ package com.example.fitnessapp.algorithm;
 
 import com.example.fitnessapp.data.WeightEntry;
 import com.example.fitnessapp.model.NutritionProfile;
+import com.example.fitnessapp.model.WeightSeries;
 import com.example.fitnessapp.model.WeightTrendAnalysis;
 import com.example.fitnessapp.model.WorkoutMetrics;
 
@@ -18,8 +19,13 @@ public class AlgorithmService {
 
     /**
      * Performs complete weight trend analysis.
+     * All metrics come from one traversal: a {@link WeightTrendAccumulator} collects the
+     * regression sums and Welford variance while the trailing 7/30-entry window sums are
+     * collected alongside. Results are identical to calling the individual
+     * StatisticalAnalyzer methods; a standard deviation on a rounding tie is re-checked with
+     * the two-pass sum, which costs a second traversal for those histories only.
      *
-     * Time Complexity: O(n) where n is number of entries
+     * Time Complexity: O(n) where n is number of entries (single pass)
      *
      * @param entries List of weight entries (sorted by date)
      * @param goalWeight User's goal weight
@@ -30,38 +36,206 @@ public class AlgorithmService {
             return null;
         }
 
-        // Current weight
-        double currentWeight = entries.get(entries.size() - 1).getWeight();
+        int n = entries.size();
+        int shortWindow = FormulaConstants.MOVING_AVERAGE_SHORT_WINDOW;
+        int longWindow = FormulaConstants.MOVING_AVERAGE_LONG_WINDOW;
 
-        // Moving averages
-        List<Double> sevenDayAvg = StatisticalAnalyzer.calculateMovingAverage(entries, 7);
-        List<Double> thirtyDayAvg = StatisticalAnalyzer.calculateMovingAverage(entries, 30);
+        WeightTrendAccumulator accumulator = new WeightTrendAccumulator(entries.get(0).getTimestamp());
+        double shortSum = 0.0;
+        double longSum = 0.0;
 
-        double sevenDayValue = sevenDayAvg.isEmpty() ? currentWeight :
-                sevenDayAvg.get(sevenDayAvg.size() - 1);
-        double thirtyDayValue = thirtyDayAvg.isEmpty() ? currentWeight :
-                thirtyDayAvg.get(thirtyDayAvg.size() - 1);
+        for (int i = 0; i < n; i++) {
+            WeightEntry entry = entries.get(i);
+            double weight = entry.getWeight();
+            accumulator.add(entry.getTimestamp(), weight);
 
-        // Trend analysis
-        double weeklyChangeRate = StatisticalAnalyzer.calculateWeightChangeRatePerWeek(entries);
-        String trend = StatisticalAnalyzer.detectTrend(entries);
+            // Trailing window sums, in the same order as MovingAverageCalculator.calculateLatest
+            if (i >= n - shortWindow) {
+                shortSum += weight;
+            }
+            if (i >= n - longWindow) {
+                longSum += weight;
+            }
+        }
+
+        double standardDeviation = accumulator.getStandardDeviation();
+        if (accumulator.isStandardDeviationNearRoundingTie()) {
+            standardDeviation = StatisticalAnalyzer.calculateStandardDeviation(entries);
+        }
+
+        double currentWeight = entries.get(n - 1).getWeight();
+        return buildAnalysis(accumulator, standardDeviation, currentWeight,
+                n >= shortWindow ? Math.round(shortSum / shortWindow * 10.0) / 10.0 : currentWeight,
+                n >= longWindow ? Math.round(longSum / longWindow * 10.0) / 10.0 : currentWeight,
+                goalWeight);
+    }
+
+    /**
+     * Performs complete weight trend analysis over a columnar series.
+     * Same single-pass kernel as the List overload, without touching entities.
+     *
+     * Time Complexity: O(n) where n is the series size (single pass)
+     *
+     * @param series Weight series (sorted by date)
+     * @param goalWeight User's goal weight
+     * @return WeightTrendAnalysis object with all metrics
+     */
+    public static WeightTrendAnalysis analyzeWeightTrend(WeightSeries series, double goalWeight) {
+        if (series == null || series.isEmpty()) {
+            return null;
+        }
+
+        int n = series.size();
+        int shortWindow = FormulaConstants.MOVING_AVERAGE_SHORT_WINDOW;
+        int longWindow = FormulaConstants.MOVING_AVERAGE_LONG_WINDOW;
+
+        WeightTrendAccumulator accumulator = new WeightTrendAccumulator(series.getTimestamp(0));
+        double shortSum = 0.0;
+        double longSum = 0.0;
+
+        for (int i = 0; i < n; i++) {
+            double weight = series.getWeight(i);
+            accumulator.add(series.getTimestamp(i), weight);
+
+            if (i >= n - shortWindow) {
+                shortSum += weight;
+            }
+            if (i >= n - longWindow) {
+                longSum += weight;
+            }
+        }
+
+        double standardDeviation = accumulator.getStandardDeviation();
+        if (accumulator.isStandardDeviationNearRoundingTie()) {
+            standardDeviation = twoPassStandardDeviation(series, accumulator.getSumY());
+        }
+
+        double currentWeight = series.getLatestWeight();
+        return buildAnalysis(accumulator, standardDeviation, currentWeight,
+                n >= shortWindow ? Math.round(shortSum / shortWindow * 10.0) / 10.0 : currentWeight,
+                n >= longWindow ? Math.round(longSum / longWindow * 10.0) / 10.0 : currentWeight,
+                goalWeight);
+    }
+
+    /**
+     * Performs complete weight trend analysis, optionally ignoring outlier weigh-ins.
+     * With {@code excludeOutliers}, points flagged by the Hampel filter
+     * ({@link OutlierDetector}) are dropped before any metric is computed.
+     *
+     * Time Complexity: O(n log² w) with outlier exclusion, O(n) without
+     *
+     * @param entries List of weight entries (sorted by date)
+     * @param goalWeight User's goal weight
+     * @param excludeOutliers Whether to drop Hampel-flagged points
+     * @return WeightTrendAnalysis object with all metrics
+     */
+    public static WeightTrendAnalysis analyzeWeightTrend(List<WeightEntry> entries, double goalWeight,
+                                                         boolean excludeOutliers) {
+        if (!excludeOutliers) {
+            return analyzeWeightTrend(entries, goalWeight);
+        }
+        return analyzeWeightTrend(WeightSeries.fromEntries(entries), goalWeight, true);
+    }
+
+    /**
+     * Columnar variant of {@link #analyzeWeightTrend(List, double, boolean)}.
+     *
+     * @param series Weight series (sorted by date)
+     * @param goalWeight User's goal weight
+     * @param excludeOutliers Whether to drop Hampel-flagged points
+     * @return WeightTrendAnalysis object with all metrics
+     */
+    public static WeightTrendAnalysis analyzeWeightTrend(WeightSeries series, double goalWeight,
+                                                         boolean excludeOutliers) {
+        if (excludeOutliers) {
+            series = OutlierDetector.removeOutliers(series);
+        }
+        return analyzeWeightTrend(series, goalWeight);
+    }
+
+    /**
+     * Performs weight trend analysis from a persisted running accumulator.
+     * Only the most recent entries are needed (for current weight and moving averages),
+     * so the full history is never scanned. Without the weights a standard deviation on a
+     * rounding tie cannot be re-checked, so it may differ from
+     * StatisticalAnalyzer.calculateStandardDeviation by 0.01 in such cases.
+     *
+     * Time Complexity: O(w) where w is the long moving-average window
+     *
+     * @param accumulator Running regression/variance sums for the whole history
+     * @param recentEntries Most recent entries, newest first (at least 30 if available)
+     * @param goalWeight User's goal weight
+     * @return WeightTrendAnalysis object with all metrics, or null if there is no data
+     */
+    public static WeightTrendAnalysis analyzeWeightTrend(WeightTrendAccumulator accumulator,
+                                                         List<WeightEntry> recentEntries,
+                                                         double goalWeight) {
+        if (accumulator == null || accumulator.getCount() == 0
+                || recentEntries == null || recentEntries.isEmpty()) {
+            return null;
+        }
+
+        double currentWeight = recentEntries.get(0).getWeight();
+        return buildAnalysis(accumulator, accumulator.getStandardDeviation(), currentWeight,
+                latestAverage(recentEntries, FormulaConstants.MOVING_AVERAGE_SHORT_WINDOW, currentWeight),
+                latestAverage(recentEntries, FormulaConstants.MOVING_AVERAGE_LONG_WINDOW, currentWeight),
+                goalWeight);
+    }
+
+    /**
+     * Latest moving average from newest-first entries, summed oldest to newest.
+     */
+    private static double latestAverage(List<WeightEntry> newestFirst, int windowSize, double fallback) {
+        if (newestFirst.size() < windowSize) {
+            return fallback;
+        }
 
-        // Predictions
-        double predictedWeight = StatisticalAnalyzer.predictWeight(entries, 30);
-        int daysToGoal = StatisticalAnalyzer.daysToGoal(entries, goalWeight);
+        double sum = 0.0;
+        for (int i = windowSize - 1; i >= 0; i--) {
+            sum += newestFirst.get(i).getWeight();
+        }
+        return Math.round(sum / windowSize * 10.0) / 10.0;
+    }
 
-        // Consistency metric
-        double stdDev = StatisticalAnalyzer.calculateStandardDeviation(entries);
+    /**
+     * Population standard deviation with StatisticalAnalyzer's two passes.
+     *
+     * @param sumY Sum of the series' weights, oldest first
+     */
+    private static double twoPassStandardDeviation(WeightSeries series, double sumY) {
+        double mean = sumY / series.size();
+        double varianceSum = 0.0;
+        for (int i = 0; i < series.size(); i++) {
+            double diff = series.getWeight(i) - mean;
+            varianceSum += diff * diff;
+        }
+        return StatisticalAnalyzer.roundStandardDeviation(varianceSum / series.size());
+    }
+
+    /**
+     * Derives every WeightTrendAnalysis field from a filled accumulator.
+     *
+     * Time Complexity: O(1)
+     */
+    static WeightTrendAnalysis buildAnalysis(WeightTrendAccumulator accumulator,
+                                             double standardDeviation,
+                                             double currentWeight,
+                                             double sevenDayValue,
+                                             double thirtyDayValue,
+                                             double goalWeight) {
+        int count = accumulator.getCount();
+        double dailyRate = accumulator.getDailyRate();
+        double weeklyChangeRate = dailyRate * 7.0;
 
         return new WeightTrendAnalysis(
                 currentWeight,
                 sevenDayValue,
                 thirtyDayValue,
                 weeklyChangeRate,
-                trend,
-                predictedWeight,
-                daysToGoal,
-                stdDev
+                StatisticalAnalyzer.classifyTrend(count, weeklyChangeRate),
+                StatisticalAnalyzer.projectWeight(count, currentWeight, dailyRate, 30),
+                StatisticalAnalyzer.daysToGoal(currentWeight, dailyRate, goalWeight),
+                standardDeviation
         );
     }
 
@@ -121,6 +295,36 @@ public class AlgorithmService {
         );
     }
 
+    /**
+     * Memoized variant of {@link #calculateNutritionProfile}: weight and height are rounded
+     * to 0.1 and the result is shared through a bounded process-wide cache.
+     *
+     * Time Complexity: O(1)
+     *
+     * @return Complete NutritionProfile for the rounded inputs
+     */
+    public static NutritionProfile calculateNutritionProfileMemoized(
+            double weightKg,
+            double heightCm,
+            int age,
+            NutritionCalculator.Gender gender,
+            NutritionCalculator.ActivityLevel activityLevel,
+            NutritionCalculator.Goal goal) {
+        return NutritionProfileMemo.getShared().get(weightKg, heightCm, age, gender, activityLevel, goal);
+    }
+
+    /**
+     * Computes nutrition profiles for every row of a batch in place (no per-row allocation).
+     * Used to recompute all users' profiles after formula constants change.
+     *
+     * Time Complexity: O(n)
+     *
+     * @param batch Inputs filled with NutritionProfileBatch.add
+     */
+    public static void calculateNutritionProfiles(NutritionProfileBatch batch) {
+        batch.compute();
+    }
+
     /**
      * Analyzes a single workout set.
      *
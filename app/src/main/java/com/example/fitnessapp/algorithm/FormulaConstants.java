@@ -60,6 +60,21 @@ public class FormulaConstants {
     public static final double CALORIES_PER_GRAM_CARBS = 4.0;
     public static final double CALORIES_PER_GRAM_FATS = 9.0;
 
+    /**
+     * Meal plan acceptance: day totals within these fractions of the targets.
+     */
+    public static final double MEAL_PLAN_CALORIE_TOLERANCE = 0.05;   // ±5% calories
+    public static final double MEAL_PLAN_MACRO_TOLERANCE = 0.10;     // ±10% per macro
+
+    /**
+     * Meal plan portion limits: one portion is 25-350 g (in 5 g steps) and supplies at most
+     * 20% of the day's calories, so a plan spreads over at least five foods.
+     */
+    public static final double MEAL_PLAN_MIN_PORTION_GRAMS = 25.0;
+    public static final double MEAL_PLAN_MAX_PORTION_GRAMS = 350.0;
+    public static final double MEAL_PLAN_PORTION_STEP_GRAMS = 5.0;
+    public static final double MEAL_PLAN_MAX_ITEM_CALORIE_SHARE = 0.20;
+
     // ===== WORKOUT FORMULAS =====
 
     /**
@@ -105,6 +120,16 @@ public class FormulaConstants {
      */
     public static final double TREND_THRESHOLD_KG_PER_WEEK = 0.2; // 0.2 kg/week
 
+    /**
+     * Hampel outlier filter: a weigh-in is flagged when it deviates from the median of the
+     * surrounding window by more than THRESHOLD scaled MADs (MAD × 1.4826 ≈ σ for normal data).
+     * The minimum deviation stops repeated identical weights (MAD = 0) from flagging normal noise.
+     */
+    public static final int HAMPEL_HALF_WINDOW = 3;             // 7-point centered window
+    public static final double HAMPEL_THRESHOLD = 3.0;          // 3 scaled MADs
+    public static final double HAMPEL_MAD_SCALE = 1.4826;
+    public static final double HAMPEL_MIN_DEVIATION_KG = 0.5;
+
     // ===== BMI CATEGORIES =====
 
     /**
@@ -0,0 +1,213 @@
+package com.example.fitnessapp.algorithm;
+
+import java.util.Random;
+
+/**
+ * Sorted multiset of doubles with O(log n) insert, remove, rank and index-by-position.
+ * Each forward link stores its width (number of elements it skips), which makes the
+ * k-th smallest value reachable in one top-down walk. Used as the sliding window
+ * for {@link OutlierDetector}.
+ */
+final class IndexableSkipList {
+
+    private static final class Node {
+        final double value;
+        final Node[] next;
+        final int[] width;
+
+        Node(double value, int levels) {
+            this.value = value;
+            this.next = new Node[levels];
+            this.width = new int[levels];
+        }
+    }
+
+    private final int maxLevels;
+    private final Node head;
+    private final Random random = new Random(42); // Fixed seed: deterministic layout
+    private int size;
+
+    /**
+     * @param expectedSize Expected maximum number of elements (sets the level count)
+     */
+    IndexableSkipList(int expectedSize) {
+        maxLevels = 1 + (31 - Integer.numberOfLeadingZeros(Math.max(2, expectedSize)));
+        Node tail = new Node(Double.POSITIVE_INFINITY, 0);
+        head = new Node(Double.NaN, maxLevels);
+        for (int level = 0; level < maxLevels; level++) {
+            head.next[level] = tail;
+            head.width[level] = 1;
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Returns the element at sorted position {@code index} (0 = smallest).
+     *
+     * Time Complexity: O(log n) expected
+     */
+    double get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + ", size " + size);
+        }
+        Node node = head;
+        int remaining = index + 1;
+        for (int level = maxLevels - 1; level >= 0; level--) {
+            while (node.width[level] <= remaining) {
+                remaining -= node.width[level];
+                node = node.next[level];
+            }
+        }
+        return node.value;
+    }
+
+    /**
+     * Number of elements strictly smaller than {@code value}.
+     *
+     * Time Complexity: O(log n) expected
+     */
+    int countLessThan(double value) {
+        Node node = head;
+        int rank = 0;
+        for (int level = maxLevels - 1; level >= 0; level--) {
+            while (node.next[level].value < value) {
+                rank += node.width[level];
+                node = node.next[level];
+            }
+        }
+        return rank;
+    }
+
+    /**
+     * Inserts a value (duplicates allowed).
+     *
+     * Time Complexity: O(log n) expected
+     */
+    void insert(double value) {
+        Node[] chain = new Node[maxLevels];
+        int[] stepsAtLevel = new int[maxLevels];
+        Node node = head;
+        for (int level = maxLevels - 1; level >= 0; level--) {
+            while (node.next[level].value <= value) {
+                stepsAtLevel[level] += node.width[level];
+                node = node.next[level];
+            }
+            chain[level] = node;
+        }
+
+        int levels = randomLevel();
+        Node newNode = new Node(value, levels);
+        int steps = 0;
+        for (int level = 0; level < levels; level++) {
+            Node previous = chain[level];
+            newNode.next[level] = previous.next[level];
+            previous.next[level] = newNode;
+            newNode.width[level] = previous.width[level] - steps;
+            previous.width[level] = steps + 1;
+            steps += stepsAtLevel[level];
+        }
+        for (int level = levels; level < maxLevels; level++) {
+            chain[level].width[level]++;
+        }
+        size++;
+    }
+
+    /**
+     * Removes one occurrence of a value.
+     *
+     * Time Complexity: O(log n) expected
+     *
+     * @throws IllegalArgumentException if the value is not present
+     */
+    void remove(double value) {
+        Node[] chain = new Node[maxLevels];
+        Node node = head;
+        for (int level = maxLevels - 1; level >= 0; level--) {
+            while (node.next[level].value < value) {
+                node = node.next[level];
+            }
+            chain[level] = node;
+        }
+
+        Node target = chain[0].next[0];
+        if (target.value != value) {
+            throw new IllegalArgumentException("Value not in list: " + value);
+        }
+
+        int levels = target.next.length;
+        for (int level = 0; level < levels; level++) {
+            Node previous = chain[level];
+            previous.width[level] += target.width[level] - 1;
+            previous.next[level] = target.next[level];
+        }
+        for (int level = levels; level < maxLevels; level++) {
+            chain[level].width[level]--;
+        }
+        size--;
+    }
+
+    /**
+     * Median of the current elements (mean of the middle two for an even count).
+     */
+    double median() {
+        int middle = size / 2;
+        if ((size & 1) == 1) {
+            return get(middle);
+        }
+        return (get(middle - 1) + get(middle)) / 2.0;
+    }
+
+    /**
+     * Median absolute deviation from {@code center} without materializing the deviations.
+     * The deviations form two sorted runs (below and above center), so each order statistic
+     * is a k-th-of-two-sorted-lists selection over O(log n) positions.
+     *
+     * Time Complexity: O(log² n) expected
+     */
+    double medianAbsoluteDeviation(double center) {
+        int below = countLessThan(center);
+        int middle = size / 2;
+        if ((size & 1) == 1) {
+            return kthDeviation(center, below, middle);
+        }
+        return (kthDeviation(center, below, middle - 1) + kthDeviation(center, below, middle)) / 2.0;
+    }
+
+    /**
+     * k-th smallest (0-based) of |x - center| over all elements.
+     * Run A: center - get(below - 1 - i), i in [0, below). Run B: get(below + i) - center.
+     */
+    private double kthDeviation(double center, int below, int k) {
+        int sizeA = below;
+        int sizeB = size - below;
+        int lo = Math.max(0, k + 1 - sizeB);
+        int hi = Math.min(k + 1, sizeA);
+
+        // Smallest i (elements taken from A) with A[i] >= B[k - i]
+        while (lo < hi) {
+            int i = (lo + hi) >>> 1;
+            double a = center - get(below - 1 - i);
+            double b = get(below + k - i) - center;
+            if (a < b) {
+                lo = i + 1;
+            } else {
+                hi = i;
+            }
+        }
+
+        int takenA = lo;
+        int takenB = k + 1 - takenA;
+        double lastA = takenA > 0 ? center - get(below - takenA) : Double.NEGATIVE_INFINITY;
+        double lastB = takenB > 0 ? get(below + takenB - 1) - center : Double.NEGATIVE_INFINITY;
+        return Math.max(lastA, lastB);
+    }
+
+    private int randomLevel() {
+        // Geometric distribution with p = 1/2, capped at maxLevels
+        int levels = 1 + Integer.numberOfTrailingZeros(random.nextInt() | (1 << (maxLevels - 1)));
+        return Math.min(levels, maxLevels);
+    }
+}
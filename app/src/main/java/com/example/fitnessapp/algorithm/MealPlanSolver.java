@@ -0,0 +1,460 @@
+package com.example.fitnessapp.algorithm;
+
+import com.example.fitnessapp.data.Food;
+import com.example.fitnessapp.data.NutritionGoal;
+import com.example.fitnessapp.model.MealPlan;
+import com.example.fitnessapp.model.NutrientTotals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Proposes a day of meals whose totals hit a calorie and macro target.
+ *
+ * Each nutrient is scaled by sqrt(weight) / target, so the objective is the squared length of
+ * the residual vector (weighted squared relative error; calories weigh most). For one food the
+ * best portion is then a 1-D least-squares step, g = (r·b) / (b·b), clamped to the portion
+ * limits and rounded to the portion step (the nearest grid point is optimal for a parabola).
+ * That makes evaluating a candidate O(1), so the solver can afford to scan the whole pool:
+ *
+ * 1. Greedy: repeatedly add the unused food whose best portion reduces the error most.
+ * 2. Local search: for each item, try re-portioning it, swapping it for any unused food at
+ *    that food's best portion, or dropping it; apply the best improving move, then try to
+ *    add again. Repeats until a pass finds no improvement or the time budget runs out.
+ * 3. Items are assigned to breakfast, lunch, dinner and snack, largest first, to the meal
+ *    furthest below its share of the day's calories.
+ *
+ * Deterministic for the same pool and targets. Stateless; one instance may be shared.
+ *
+ * Time Complexity: O(P × N) per pass, P = plan items (at most 4 × itemsPerMeal), N = candidates
+ * Space Complexity: O(N) (one used-flag per candidate)
+ */
+public class MealPlanSolver {
+
+    public static final String[] MEAL_TYPES = {"breakfast", "lunch", "dinner", "snack"};
+    private static final double[] MEAL_CALORIE_SHARES = {0.25, 0.35, 0.30, 0.10};
+
+    public static final int DEFAULT_ITEMS_PER_MEAL = 3;
+    public static final long DEFAULT_TIME_BUDGET_MILLIS = 150;
+
+    // Objective weights: calories, protein, carbs, fats
+    private static final double[] WEIGHTS = {4.0, 2.0, 1.0, 1.0};
+    private static final int NUTRIENTS = 4;
+
+    private static final double MIN_GAIN = 1e-9;
+    private static final int MAX_PASSES = 100;
+
+    private final int itemsPerMeal;
+    private final long timeBudgetNanos;
+
+    public MealPlanSolver() {
+        this(DEFAULT_ITEMS_PER_MEAL, DEFAULT_TIME_BUDGET_MILLIS);
+    }
+
+    /**
+     * @param itemsPerMeal Maximum foods per meal (at least 1)
+     * @param timeBudgetMillis Local search stops after this long and returns the best plan so far
+     */
+    public MealPlanSolver(int itemsPerMeal, long timeBudgetMillis) {
+        this.itemsPerMeal = Math.max(1, itemsPerMeal);
+        this.timeBudgetNanos = Math.max(1, timeBudgetMillis) * 1_000_000L;
+    }
+
+    /**
+     * Plans a day for a stored goal. Missing macro targets (0) are derived from the calorie
+     * target and fitness goal with NutritionCalculator.calculateMacros.
+     *
+     * @return The plan; empty if the goal has no calorie target or no candidate fits
+     */
+    public MealPlan solve(CandidatePool pool, NutritionGoal goal) {
+        double protein = goal.getProteinTarget();
+        double carbs = goal.getCarbsTarget();
+        double fats = goal.getFatsTarget();
+        if (protein <= 0 && carbs <= 0 && fats <= 0) {
+            double[] macros = NutritionCalculator.calculateMacros(goal.getCalorieTarget(), parseGoal(goal.getGoal()));
+            protein = macros[0];
+            carbs = macros[1];
+            fats = macros[2];
+        }
+        return solve(pool, goal.getCalorieTarget(), protein, carbs, fats);
+    }
+
+    /**
+     * Plans a day for explicit targets. A macro target of 0 or less is ignored.
+     *
+     * @return The plan; empty if calorieTarget is not positive or no candidate fits
+     */
+    public MealPlan solve(CandidatePool pool, double calorieTarget, double proteinTarget,
+                          double carbsTarget, double fatsTarget) {
+        long start = System.nanoTime();
+        long deadline = start + timeBudgetNanos;
+        double[] targets = {calorieTarget, proteinTarget, carbsTarget, fatsTarget};
+        if (!(calorieTarget > 0) || pool.size == 0) {
+            return buildPlan(pool, targets, new int[0], new double[0], 0, start);
+        }
+
+        Search search = new Search(pool, targets, MEAL_TYPES.length * itemsPerMeal);
+        search.addGreedily();
+        for (int pass = 0; pass < MAX_PASSES && System.nanoTime() < deadline; pass++) {
+            boolean improved = search.improveItems(deadline);
+            improved |= search.addGreedily();
+            if (!improved) {
+                break;
+            }
+        }
+        return buildPlan(pool, targets, search.itemFood, search.itemGrams, search.count, start);
+    }
+
+    private static NutritionCalculator.Goal parseGoal(String goal) {
+        try {
+            return NutritionCalculator.Goal.valueOf(goal);
+        } catch (IllegalArgumentException | NullPointerException e) {
+            return NutritionCalculator.Goal.MAINTENANCE;
+        }
+    }
+
+    /**
+     * Working state of one solve (not shared between threads).
+     */
+    private static final class Search {
+        final CandidatePool pool;
+        final int n;
+        final double[] scale = new double[NUTRIENTS];
+        final double[] residual = new double[NUTRIENTS];
+        final double maxItemCalories;
+
+        final int[] itemFood;
+        final double[] itemGrams;
+        int count;
+        final boolean[] used;
+
+        // Output of bestPortion()
+        double portion;
+
+        Search(CandidatePool pool, double[] targets, int maxItems) {
+            this.pool = pool;
+            this.n = pool.size;
+            for (int j = 0; j < NUTRIENTS; j++) {
+                if (targets[j] > 0) {
+                    double root = Math.sqrt(WEIGHTS[j]);
+                    scale[j] = root / targets[j];
+                    residual[j] = root;      // Nothing planned yet: 100% of each target missing
+                }
+            }
+            maxItemCalories = FormulaConstants.MEAL_PLAN_MAX_ITEM_CALORIE_SHARE * targets[0];
+            itemFood = new int[maxItems];
+            itemGrams = new double[maxItems];
+            used = new boolean[n];
+        }
+
+        /**
+         * Error reduction from adding food f at its best portion against residual r
+         * (portion left in this.portion), or 0 if the food cannot help.
+         */
+        double bestPortion(int f, double r0, double r1, double r2, double r3) {
+            double b0 = pool.caloriesPerGram[f] * scale[0];
+            double b1 = pool.proteinPerGram[f] * scale[1];
+            double b2 = pool.carbsPerGram[f] * scale[2];
+            double b3 = pool.fatsPerGram[f] * scale[3];
+            double rb = r0 * b0 + r1 * b1 + r2 * b2 + r3 * b3;
+            if (rb <= 0) {
+                portion = 0;
+                return 0;
+            }
+            double bb = b0 * b0 + b1 * b1 + b2 * b2 + b3 * b3;
+
+            double step = FormulaConstants.MEAL_PLAN_PORTION_STEP_GRAMS;
+            double max = Math.min(FormulaConstants.MEAL_PLAN_MAX_PORTION_GRAMS,
+                    maxItemCalories / pool.caloriesPerGram[f]);
+            max = Math.floor(max / step) * step;
+            if (max < FormulaConstants.MEAL_PLAN_MIN_PORTION_GRAMS) {
+                portion = 0;
+                return 0;
+            }
+            double g = Math.round(rb / bb / step) * step;
+            g = Math.max(FormulaConstants.MEAL_PLAN_MIN_PORTION_GRAMS, Math.min(max, g));
+
+            portion = g;
+            return g * (2 * rb - g * bb);
+        }
+
+        /**
+         * Adds the best food while it reduces the error and the plan has room.
+         *
+         * @return true if anything was added
+         */
+        boolean addGreedily() {
+            boolean added = false;
+            while (count < itemFood.length) {
+                double r0 = residual[0], r1 = residual[1], r2 = residual[2], r3 = residual[3];
+                int best = -1;
+                double bestGain = MIN_GAIN;
+                double bestGrams = 0;
+                for (int f = 0; f < n; f++) {
+                    if (used[f]) {
+                        continue;
+                    }
+                    double gain = bestPortion(f, r0, r1, r2, r3);
+                    if (gain > bestGain) {
+                        bestGain = gain;
+                        best = f;
+                        bestGrams = portion;
+                    }
+                }
+                if (best < 0) {
+                    break;
+                }
+                itemFood[count] = best;
+                itemGrams[count] = bestGrams;
+                count++;
+                used[best] = true;
+                apply(best, -bestGrams);
+                added = true;
+            }
+            return added;
+        }
+
+        /**
+         * One local search pass over the plan's items.
+         *
+         * @return true if any item was changed, swapped or dropped
+         */
+        boolean improveItems(long deadline) {
+            boolean improved = false;
+            int i = 0;
+            while (i < count) {
+                if (System.nanoTime() >= deadline) {
+                    break;
+                }
+                int food = itemFood[i];
+                double grams = itemGrams[i];
+                // Residual without item i; dropping it leaves error |r|²
+                apply(food, grams);
+                double r0 = residual[0], r1 = residual[1], r2 = residual[2], r3 = residual[3];
+                double currentGain = gainOf(food, grams, r0, r1, r2, r3);
+
+                int bestFood = -1;                 // -1 = drop the item
+                double bestGain = 0;
+                double bestGrams = 0;
+                double keepGain = bestPortion(food, r0, r1, r2, r3);
+                if (keepGain > bestGain) {
+                    bestFood = food;
+                    bestGain = keepGain;
+                    bestGrams = portion;
+                }
+                for (int f = 0; f < n; f++) {
+                    if (used[f]) {
+                        continue;
+                    }
+                    double gain = bestPortion(f, r0, r1, r2, r3);
+                    if (gain > bestGain) {
+                        bestFood = f;
+                        bestGain = gain;
+                        bestGrams = portion;
+                    }
+                }
+
+                if (bestGain <= currentGain + MIN_GAIN) {
+                    // No better move: put the item back unchanged
+                    apply(food, -grams);
+                    i++;
+                    continue;
+                }
+                improved = true;
+                if (bestFood < 0) {
+                    used[food] = false;
+                    count--;
+                    itemFood[i] = itemFood[count];
+                    itemGrams[i] = itemGrams[count];
+                    // Revisit slot i, now holding the last item
+                    continue;
+                }
+                used[food] = false;
+                used[bestFood] = true;
+                itemFood[i] = bestFood;
+                itemGrams[i] = bestGrams;
+                apply(bestFood, -bestGrams);
+                i++;
+            }
+            return improved;
+        }
+
+        double gainOf(int f, double g, double r0, double r1, double r2, double r3) {
+            double b0 = pool.caloriesPerGram[f] * scale[0];
+            double b1 = pool.proteinPerGram[f] * scale[1];
+            double b2 = pool.carbsPerGram[f] * scale[2];
+            double b3 = pool.fatsPerGram[f] * scale[3];
+            double rb = r0 * b0 + r1 * b1 + r2 * b2 + r3 * b3;
+            double bb = b0 * b0 + b1 * b1 + b2 * b2 + b3 * b3;
+            return g * (2 * rb - g * bb);
+        }
+
+        /**
+         * Adds grams × food to the residual (negative grams plan the food).
+         */
+        void apply(int f, double grams) {
+            residual[0] += pool.caloriesPerGram[f] * scale[0] * grams;
+            residual[1] += pool.proteinPerGram[f] * scale[1] * grams;
+            residual[2] += pool.carbsPerGram[f] * scale[2] * grams;
+            residual[3] += pool.fatsPerGram[f] * scale[3] * grams;
+        }
+    }
+
+    /**
+     * Totals, tolerance check and meal assignment of the final items.
+     */
+    private MealPlan buildPlan(CandidatePool pool, double[] targets, int[] itemFood,
+                               double[] itemGrams, int count, long start) {
+        double[] itemCalories = new double[count];
+        double[] totals = new double[NUTRIENTS];
+        for (int i = 0; i < count; i++) {
+            int f = itemFood[i];
+            itemCalories[i] = pool.caloriesPerGram[f] * itemGrams[i];
+            totals[0] += itemCalories[i];
+            totals[1] += pool.proteinPerGram[f] * itemGrams[i];
+            totals[2] += pool.carbsPerGram[f] * itemGrams[i];
+            totals[3] += pool.fatsPerGram[f] * itemGrams[i];
+        }
+
+        double score = 0;
+        boolean withinTolerance = count > 0;
+        for (int j = 0; j < NUTRIENTS; j++) {
+            if (targets[j] > 0) {
+                double error = (totals[j] - targets[j]) / targets[j];
+                score += WEIGHTS[j] * error * error;
+                double tolerance = j == 0
+                        ? FormulaConstants.MEAL_PLAN_CALORIE_TOLERANCE
+                        : FormulaConstants.MEAL_PLAN_MACRO_TOLERANCE;
+                withinTolerance &= Math.abs(error) <= tolerance;
+            }
+        }
+
+        // Largest items first, each to the meal furthest below its calorie share
+        Integer[] order = new Integer[count];
+        for (int i = 0; i < count; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(itemCalories[b], itemCalories[a]));
+        int[] mealOf = new int[count];
+        double[] mealCalories = new double[MEAL_TYPES.length];
+        int[] mealItems = new int[MEAL_TYPES.length];
+        for (int i : order) {
+            int bestMeal = 0;
+            double bestRoom = Double.NEGATIVE_INFINITY;
+            for (int m = 0; m < MEAL_TYPES.length; m++) {
+                double room = MEAL_CALORIE_SHARES[m] * totals[0] - mealCalories[m];
+                if (mealItems[m] < itemsPerMeal && room > bestRoom) {
+                    bestRoom = room;
+                    bestMeal = m;
+                }
+            }
+            mealOf[i] = bestMeal;
+            mealCalories[bestMeal] += itemCalories[i];
+            mealItems[bestMeal]++;
+        }
+
+        List<MealPlan.Item> items = new ArrayList<>(count);
+        for (int m = 0; m < MEAL_TYPES.length; m++) {
+            for (int i : order) {
+                if (mealOf[i] != m) {
+                    continue;
+                }
+                int f = itemFood[i];
+                double g = itemGrams[i];
+                items.add(new MealPlan.Item(pool.ids[f], pool.names[f], MEAL_TYPES[m], g,
+                        itemCalories[i], pool.proteinPerGram[f] * g,
+                        pool.carbsPerGram[f] * g, pool.fatsPerGram[f] * g));
+            }
+        }
+        return new MealPlan(items, totals[0], totals[1], totals[2], totals[3],
+                targets[0], targets[1], targets[2], targets[3],
+                withinTolerance, score, pool.size, System.nanoTime() - start);
+    }
+
+    /**
+     * Structure-of-arrays pool of candidate foods with per-gram nutrients.
+     * Foods that cannot be planned (no calories, bad serving size, implausible values)
+     * are rejected on add, so the solver's scans touch only usable rows.
+     * A pool can be cleared and refilled to reuse its arrays.
+     */
+    public static class CandidatePool {
+
+        // Above pure fat (9 kcal/g) plus rounding: bad data
+        private static final double MAX_CALORIES_PER_GRAM = 9.5;
+
+        private int size;
+        private final int[] ids;
+        private final String[] names;
+        private final double[] caloriesPerGram;
+        private final double[] proteinPerGram;
+        private final double[] carbsPerGram;
+        private final double[] fatsPerGram;
+        private final NutrientTotals perGram = new NutrientTotals();   // addFood scratch
+
+        public CandidatePool(int capacity) {
+            ids = new int[capacity];
+            names = new String[capacity];
+            caloriesPerGram = new double[capacity];
+            proteinPerGram = new double[capacity];
+            carbsPerGram = new double[capacity];
+            fatsPerGram = new double[capacity];
+        }
+
+        /**
+         * Appends a food given its values per serving.
+         *
+         * @return Row index, or -1 if the food was rejected
+         */
+        public int add(int id, String name, double servingSize, double calories,
+                       double protein, double carbs, double fats) {
+            if (size == ids.length) {
+                throw new IllegalStateException("Pool is full (capacity " + size + ")");
+            }
+            if (!(servingSize > 0) || !(calories > 0)
+                    || !(protein >= 0) || !(carbs >= 0) || !(fats >= 0)) {
+                return -1;
+            }
+            double perGram = 1.0 / servingSize;
+            double kcal = calories * perGram;
+            if (kcal > MAX_CALORIES_PER_GRAM || Double.isInfinite(kcal)) {
+                return -1;
+            }
+            int i = size++;
+            ids[i] = id;
+            names[i] = name;
+            caloriesPerGram[i] = kcal;
+            proteinPerGram[i] = protein * perGram;
+            carbsPerGram[i] = carbs * perGram;
+            fatsPerGram[i] = fats * perGram;
+            return i;
+        }
+
+        /**
+         * Appends a Food entity (values for one gram via Food.addServingTo).
+         *
+         * @return Row index, or -1 if the food was rejected
+         */
+        public int addFood(Food food) {
+            food.addServingTo(1.0, perGram.reset());
+            return add(food.getId(), food.getName(), 1.0, perGram.getCalories(), perGram.getProtein(),
+                    perGram.getCarbs(), perGram.getFats());
+        }
+
+        /**
+         * Removes all rows, keeping the arrays for reuse.
+         */
+        public void clear() {
+            Arrays.fill(names, 0, size, null);
+            size = 0;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public int capacity() {
+            return ids.length;
+        }
+    }
+}
@@ -0,0 +1,258 @@
+package com.example.fitnessapp.algorithm;
+
+import com.example.fitnessapp.data.WeightEntry;
+import com.example.fitnessapp.model.WeightSeries;
+
+import java.util.List;
+
+/**
+ * Sliding-window moving average engine for weight data.
+ * Keeps a compensated (Neumaier) running sum so each window position costs O(1) instead of
+ * O(windowSize), and returns primitive arrays to avoid boxing every averaged value.
+ *
+ * Outputs are identical to re-summing every window: the compensated sum stays within a few
+ * ulps of the exact window sum, and the rare averages that land on a rounding tie (x.x5) are
+ * re-summed left to right, exactly as the original implementation did.
+ */
+public class MovingAverageCalculator {
+
+    private static final double[] EMPTY = new double[0];
+
+    // Distance (in tenths) from a .5 rounding tie below which a window is re-summed exactly;
+    // far above the accumulated error of either summation for any realistic window
+    private static final double ROUNDING_TIE_TOLERANCE = 1e-6;
+
+    /**
+     * Calculates a simple moving average using a running window sum.
+     *
+     * Time Complexity: O(n) where n is the number of entries
+     * Space Complexity: O(n - windowSize + 1) for the result array
+     *
+     * @param entries List of weight entries (must be sorted by date)
+     * @param windowSize Number of entries in the moving average window
+     * @return Averaged weights rounded to 1 decimal, empty if there is not enough data
+     */
+    public static double[] calculate(List<WeightEntry> entries, int windowSize) {
+        if (entries == null || windowSize <= 0 || entries.size() < windowSize) {
+            return EMPTY;
+        }
+
+        int n = entries.size();
+        double[] weights = new double[n];
+        for (int i = 0; i < n; i++) {
+            weights[i] = entries.get(i).getWeight();
+        }
+        return calculate(weights, n, windowSize);
+    }
+
+    /**
+     * Calculates a simple moving average over a columnar series (no copying).
+     *
+     * Time Complexity: O(n)
+     *
+     * @param series Weight series (sorted by date)
+     * @param windowSize Number of entries in the moving average window
+     * @return Averaged weights rounded to 1 decimal, empty if there is not enough data
+     */
+    public static double[] calculate(WeightSeries series, int windowSize) {
+        if (series == null) {
+            return EMPTY;
+        }
+        return calculate(series.getWeights(), series.size(), windowSize);
+    }
+
+    /**
+     * Calculates a simple moving average over the first {@code count} values of an array.
+     *
+     * Time Complexity: O(n)
+     *
+     * @param weights Weight values (sorted by date)
+     * @param count Number of valid values in the array
+     * @param windowSize Number of entries in the moving average window
+     * @return Averaged weights rounded to 1 decimal, empty if there is not enough data
+     */
+    public static double[] calculate(double[] weights, int count, int windowSize) {
+        if (weights == null || windowSize <= 0 || count < windowSize) {
+            return EMPTY;
+        }
+
+        double[] averages = new double[count - windowSize + 1];
+
+        // Prime the window with the first windowSize values
+        CompensatedSum sum = new CompensatedSum();
+        for (int i = 0; i < windowSize; i++) {
+            sum.add(weights[i]);
+        }
+        averages[0] = roundAverage(sum.value(), weights, 0, windowSize);
+
+        // Slide: add the entering value, drop the leaving one
+        for (int i = windowSize; i < count; i++) {
+            sum.add(weights[i]);
+            sum.add(-weights[i - windowSize]);
+            int start = i - windowSize + 1;
+            averages[start] = roundAverage(sum.value(), weights, start, windowSize);
+        }
+
+        return averages;
+    }
+
+    /**
+     * Calculates moving averages for several window sizes in a single pass over the data.
+     * Each window keeps its own running sum; result[k] corresponds to windowSizes[k]
+     * and is empty when there are fewer entries than that window.
+     *
+     * Time Complexity: O(n * k) where k is the number of windows (independent of window length)
+     *
+     * @param entries List of weight entries (must be sorted by date)
+     * @param windowSizes Window sizes to compute
+     * @return One averaged series per window size
+     */
+    public static double[][] calculateMultiple(List<WeightEntry> entries, int... windowSizes) {
+        int k = windowSizes.length;
+        double[][] results = new double[k][];
+        int n = entries == null ? 0 : entries.size();
+
+        CompensatedSum[] sums = new CompensatedSum[k];
+        for (int w = 0; w < k; w++) {
+            int size = windowSizes[w];
+            results[w] = (size <= 0 || n < size) ? EMPTY : new double[n - size + 1];
+            sums[w] = new CompensatedSum();
+        }
+        if (n == 0) {
+            return results;
+        }
+
+        // Ring buffer holding the current value plus the last maxWindow weights,
+        // so the value leaving each window can still be subtracted
+        int maxWindow = 0;
+        for (int size : windowSizes) {
+            maxWindow = Math.max(maxWindow, Math.min(size, n));
+        }
+        double[] ring = new double[maxWindow + 1];
+
+        for (int i = 0; i < n; i++) {
+            double weight = entries.get(i).getWeight();
+            ring[i % ring.length] = weight;
+
+            for (int w = 0; w < k; w++) {
+                int size = windowSizes[w];
+                if (results[w].length == 0) {
+                    continue;
+                }
+                sums[w].add(weight);
+                if (i >= size) {
+                    sums[w].add(-ring[(i - size) % ring.length]);
+                }
+                if (i >= size - 1) {
+                    double average = sums[w].value() / size;
+                    if (nearRoundingTie(average)) {
+                        // Re-sum the window oldest first from the ring buffer
+                        double exact = 0.0;
+                        for (int j = i - size + 1; j <= i; j++) {
+                            exact += ring[j % ring.length];
+                        }
+                        average = exact / size;
+                    }
+                    results[w][i - size + 1] = round1(average);
+                }
+            }
+        }
+
+        return results;
+    }
+
+    /**
+     * Fast path: the most recent moving average value only.
+     * Sums just the trailing window instead of building the whole series.
+     *
+     * Time Complexity: O(windowSize)
+     * Space Complexity: O(1)
+     *
+     * @param entries List of weight entries (must be sorted by date)
+     * @param windowSize Number of entries in the moving average window
+     * @return Latest averaged weight rounded to 1 decimal, or NaN if there is not enough data
+     */
+    public static double calculateLatest(List<WeightEntry> entries, int windowSize) {
+        if (entries == null || windowSize <= 0 || entries.size() < windowSize) {
+            return Double.NaN;
+        }
+
+        int n = entries.size();
+        double sum = 0.0;
+        for (int i = n - windowSize; i < n; i++) {
+            sum += entries.get(i).getWeight();
+        }
+        return round1(sum / windowSize);
+    }
+
+    /**
+     * Fast path over a columnar series: the most recent moving average value only.
+     *
+     * Time Complexity: O(windowSize)
+     *
+     * @param series Weight series (sorted by date)
+     * @param windowSize Number of entries in the moving average window
+     * @return Latest averaged weight rounded to 1 decimal, or NaN if there is not enough data
+     */
+    public static double calculateLatest(WeightSeries series, int windowSize) {
+        if (series == null || windowSize <= 0 || series.size() < windowSize) {
+            return Double.NaN;
+        }
+
+        int n = series.size();
+        double sum = 0.0;
+        for (int i = n - windowSize; i < n; i++) {
+            sum += series.getWeight(i);
+        }
+        return round1(sum / windowSize);
+    }
+
+    /**
+     * Rounds a window average, re-summing the window left to right when the running sum
+     * puts it on a rounding tie.
+     */
+    private static double roundAverage(double runningSum, double[] weights, int start, int windowSize) {
+        double average = runningSum / windowSize;
+        if (nearRoundingTie(average)) {
+            double exact = 0.0;
+            for (int j = start; j < start + windowSize; j++) {
+                exact += weights[j];
+            }
+            average = exact / windowSize;
+        }
+        return round1(average);
+    }
+
+    private static boolean nearRoundingTie(double average) {
+        double scaled = average * 10.0;
+        return Math.abs(scaled - Math.floor(scaled) - 0.5) < ROUNDING_TIE_TOLERANCE;
+    }
+
+    private static double round1(double value) {
+        return Math.round(value * 10.0) / 10.0; // Round to 1 decimal
+    }
+
+    /**
+     * Neumaier-compensated running sum: tracks the low-order bits lost by each addition,
+     * so adding and removing values over a long slide does not drift.
+     */
+    private static final class CompensatedSum {
+
+        private double sum;
+        private double compensation;
+
+        void add(double value) {
+            double t = sum + value;
+            if (Math.abs(sum) >= Math.abs(value)) {
+                compensation += (sum - t) + value;
+            } else {
+                compensation += (value - t) + sum;
+            }
+            sum = t;
+        }
+
+        double value() {
+            return sum + compensation;
+        }
+    }
+}
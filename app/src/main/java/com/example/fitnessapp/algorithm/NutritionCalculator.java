@@ -79,29 +79,32 @@ public class NutritionCalculator {
      * @return TDEE in calories per day
      */
     public static double calculateTDEE(double bmr, ActivityLevel activityLevel) {
-        double multiplier;
+        return Math.round(bmr * getActivityMultiplier(activityLevel));
+    }
 
+    /**
+     * Gets the TDEE multiplier for an activity level.
+     *
+     * Time Complexity: O(1)
+     *
+     * @param activityLevel Activity level
+     * @return Activity multiplier
+     */
+    public static double getActivityMultiplier(ActivityLevel activityLevel) {
         switch (activityLevel) {
             case SEDENTARY:
-                multiplier = FormulaConstants.ACTIVITY_SEDENTARY;
-                break;
+                return FormulaConstants.ACTIVITY_SEDENTARY;
             case LIGHT:
-                multiplier = FormulaConstants.ACTIVITY_LIGHT;
-                break;
+                return FormulaConstants.ACTIVITY_LIGHT;
             case MODERATE:
-                multiplier = FormulaConstants.ACTIVITY_MODERATE;
-                break;
+                return FormulaConstants.ACTIVITY_MODERATE;
             case ACTIVE:
-                multiplier = FormulaConstants.ACTIVITY_ACTIVE;
-                break;
+                return FormulaConstants.ACTIVITY_ACTIVE;
             case VERY_ACTIVE:
-                multiplier = FormulaConstants.ACTIVITY_VERY_ACTIVE;
-                break;
+                return FormulaConstants.ACTIVITY_VERY_ACTIVE;
             default:
-                multiplier = FormulaConstants.ACTIVITY_MODERATE;
+                return FormulaConstants.ACTIVITY_MODERATE;
         }
-
-        return Math.round(bmr * multiplier);
     }
 
     /**
@@ -163,41 +166,75 @@ public class NutritionCalculator {
      * @return Array of [protein, carbs, fats] in grams
      */
     public static double[] calculateMacros(double totalCalories, Goal goal) {
-        double proteinPercent, carbsPercent, fatsPercent;
+        return new double[]{
+                calculateProteinGrams(totalCalories, goal),
+                calculateCarbsGrams(totalCalories, goal),
+                calculateFatsGrams(totalCalories, goal)
+        };
+    }
 
+    /**
+     * Protein share of a calorie target in grams (first element of calculateMacros,
+     * without the array allocation).
+     *
+     * Time Complexity: O(1)
+     */
+    public static double calculateProteinGrams(double totalCalories, Goal goal) {
+        double proteinPercent;
         switch (goal) {
             case CUTTING:
                 proteinPercent = FormulaConstants.MACRO_CUTTING_PROTEIN;
-                carbsPercent = FormulaConstants.MACRO_CUTTING_CARBS;
-                fatsPercent = FormulaConstants.MACRO_CUTTING_FATS;
                 break;
             case BULKING:
                 proteinPercent = FormulaConstants.MACRO_BULKING_PROTEIN;
-                carbsPercent = FormulaConstants.MACRO_BULKING_CARBS;
-                fatsPercent = FormulaConstants.MACRO_BULKING_FATS;
                 break;
             case MAINTENANCE:
             default:
                 proteinPercent = FormulaConstants.MACRO_BALANCED_PROTEIN;
-                carbsPercent = FormulaConstants.MACRO_BALANCED_CARBS;
-                fatsPercent = FormulaConstants.MACRO_BALANCED_FATS;
         }
+        return Math.round(totalCalories * proteinPercent / FormulaConstants.CALORIES_PER_GRAM_PROTEIN);
+    }
 
-        // Calculate calories for each macro
-        double proteinCalories = totalCalories * proteinPercent;
-        double carbsCalories = totalCalories * carbsPercent;
-        double fatsCalories = totalCalories * fatsPercent;
-
-        // Convert to grams
-        double proteinGrams = proteinCalories / FormulaConstants.CALORIES_PER_GRAM_PROTEIN;
-        double carbsGrams = carbsCalories / FormulaConstants.CALORIES_PER_GRAM_CARBS;
-        double fatsGrams = fatsCalories / FormulaConstants.CALORIES_PER_GRAM_FATS;
+    /**
+     * Carbohydrate share of a calorie target in grams.
+     *
+     * Time Complexity: O(1)
+     */
+    public static double calculateCarbsGrams(double totalCalories, Goal goal) {
+        double carbsPercent;
+        switch (goal) {
+            case CUTTING:
+                carbsPercent = FormulaConstants.MACRO_CUTTING_CARBS;
+                break;
+            case BULKING:
+                carbsPercent = FormulaConstants.MACRO_BULKING_CARBS;
+                break;
+            case MAINTENANCE:
+            default:
+                carbsPercent = FormulaConstants.MACRO_BALANCED_CARBS;
+        }
+        return Math.round(totalCalories * carbsPercent / FormulaConstants.CALORIES_PER_GRAM_CARBS);
+    }
 
-        return new double[]{
-                Math.round(proteinGrams),
-                Math.round(carbsGrams),
-                Math.round(fatsGrams)
-        };
+    /**
+     * Fat share of a calorie target in grams.
+     *
+     * Time Complexity: O(1)
+     */
+    public static double calculateFatsGrams(double totalCalories, Goal goal) {
+        double fatsPercent;
+        switch (goal) {
+            case CUTTING:
+                fatsPercent = FormulaConstants.MACRO_CUTTING_FATS;
+                break;
+            case BULKING:
+                fatsPercent = FormulaConstants.MACRO_BULKING_FATS;
+                break;
+            case MAINTENANCE:
+            default:
+                fatsPercent = FormulaConstants.MACRO_BALANCED_FATS;
+        }
+        return Math.round(totalCalories * fatsPercent / FormulaConstants.CALORIES_PER_GRAM_FATS);
     }
 
     /**
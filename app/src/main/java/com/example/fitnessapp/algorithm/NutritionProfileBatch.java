@@ -0,0 +1,181 @@
+package com.example.fitnessapp.algorithm;
+
+import com.example.fitnessapp.model.NutritionProfile;
+
+/**
+ * Structure-of-arrays batch of nutrition profile inputs and results.
+ * Each input and output field is a parallel primitive array, so computing profiles for
+ * many users allocates nothing per row (no NutritionProfile, no macro array).
+ * A batch can be cleared and refilled to reuse its arrays across runs.
+ *
+ * Results are identical to AlgorithmService.calculateNutritionProfile for the same inputs.
+ */
+public class NutritionProfileBatch {
+
+    private static final NutritionCalculator.Gender[] GENDERS = NutritionCalculator.Gender.values();
+    private static final NutritionCalculator.ActivityLevel[] ACTIVITY_LEVELS = NutritionCalculator.ActivityLevel.values();
+    private static final NutritionCalculator.Goal[] GOALS = NutritionCalculator.Goal.values();
+
+    private int size;
+
+    // --- Inputs ---
+    private final double[] weightKg;
+    private final double[] heightCm;
+    private final int[] age;
+    private final byte[] gender;             // Gender ordinal
+    private final byte[] activityLevel;      // ActivityLevel ordinal
+    private final byte[] goal;               // Goal ordinal
+
+    // --- Outputs ---
+    private final double[] bmr;
+    private final double[] tdee;
+    private final double[] calorieTarget;
+    private final double[] proteinGrams;
+    private final double[] carbsGrams;
+    private final double[] fatsGrams;
+    private final double[] bmi;
+    private final double[] waterIntakeLiters;
+
+    public NutritionProfileBatch(int capacity) {
+        weightKg = new double[capacity];
+        heightCm = new double[capacity];
+        age = new int[capacity];
+        gender = new byte[capacity];
+        activityLevel = new byte[capacity];
+        goal = new byte[capacity];
+
+        bmr = new double[capacity];
+        tdee = new double[capacity];
+        calorieTarget = new double[capacity];
+        proteinGrams = new double[capacity];
+        carbsGrams = new double[capacity];
+        fatsGrams = new double[capacity];
+        bmi = new double[capacity];
+        waterIntakeLiters = new double[capacity];
+    }
+
+    /**
+     * Appends one row of inputs.
+     *
+     * @return Row index
+     */
+    public int add(double weightKg, double heightCm, int age,
+                   NutritionCalculator.Gender gender,
+                   NutritionCalculator.ActivityLevel activityLevel,
+                   NutritionCalculator.Goal goal) {
+        if (size == this.weightKg.length) {
+            throw new IllegalStateException("Batch is full (capacity " + size + ")");
+        }
+        int i = size++;
+        this.weightKg[i] = weightKg;
+        this.heightCm[i] = heightCm;
+        this.age[i] = age;
+        this.gender[i] = (byte) gender.ordinal();
+        this.activityLevel[i] = (byte) activityLevel.ordinal();
+        this.goal[i] = (byte) goal.ordinal();
+        return i;
+    }
+
+    /**
+     * Removes all rows, keeping the arrays for reuse.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Computes the profile outputs for every row.
+     *
+     * Time Complexity: O(n)
+     * Space Complexity: O(1) beyond the batch arrays
+     */
+    public void compute() {
+        compute(0, size);
+    }
+
+    /**
+     * Computes the profile outputs for rows [from, to).
+     * Disjoint ranges may be computed from different threads.
+     */
+    public void compute(int from, int to) {
+        for (int i = from; i < to; i++) {
+            NutritionCalculator.Gender g = GENDERS[gender[i]];
+            NutritionCalculator.ActivityLevel activity = ACTIVITY_LEVELS[activityLevel[i]];
+            NutritionCalculator.Goal target = GOALS[goal[i]];
+
+            double rowBmr = NutritionCalculator.calculateBMR(weightKg[i], heightCm[i], age[i], g);
+            double rowTdee = NutritionCalculator.calculateTDEE(rowBmr, activity);
+            double calories = NutritionCalculator.validateCalorieTarget(
+                    NutritionCalculator.calculateCalorieTarget(rowTdee, target), g);
+
+            bmr[i] = rowBmr;
+            tdee[i] = rowTdee;
+            calorieTarget[i] = calories;
+            proteinGrams[i] = NutritionCalculator.calculateProteinGrams(calories, target);
+            carbsGrams[i] = NutritionCalculator.calculateCarbsGrams(calories, target);
+            fatsGrams[i] = NutritionCalculator.calculateFatsGrams(calories, target);
+            bmi[i] = NutritionCalculator.calculateBMI(weightKg[i], heightCm[i]);
+            waterIntakeLiters[i] = NutritionCalculator.calculateWaterIntake(weightKg[i], activity);
+        }
+    }
+
+    /**
+     * Materializes one computed row as a NutritionProfile (allocates; for callers that need the object).
+     */
+    public NutritionProfile toProfile(int i) {
+        return new NutritionProfile(
+                bmr[i],
+                tdee[i],
+                calorieTarget[i],
+                proteinGrams[i],
+                carbsGrams[i],
+                fatsGrams[i],
+                bmi[i],
+                NutritionCalculator.getBMICategory(bmi[i]),
+                waterIntakeLiters[i],
+                GOALS[goal[i]],
+                ACTIVITY_LEVELS[activityLevel[i]]
+        );
+    }
+
+    // Getters
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return weightKg.length;
+    }
+
+    public double getBmr(int i) {
+        return bmr[i];
+    }
+
+    public double getTdee(int i) {
+        return tdee[i];
+    }
+
+    public double getCalorieTarget(int i) {
+        return calorieTarget[i];
+    }
+
+    public double getProteinGrams(int i) {
+        return proteinGrams[i];
+    }
+
+    public double getCarbsGrams(int i) {
+        return carbsGrams[i];
+    }
+
+    public double getFatsGrams(int i) {
+        return fatsGrams[i];
+    }
+
+    public double getBmi(int i) {
+        return bmi[i];
+    }
+
+    public double getWaterIntakeLiters(int i) {
+        return waterIntakeLiters[i];
+    }
+}
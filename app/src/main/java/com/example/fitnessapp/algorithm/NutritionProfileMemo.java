@@ -0,0 +1,146 @@
+package com.example.fitnessapp.algorithm;
+
+import com.example.fitnessapp.model.NutritionProfile;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded, process-wide memo of nutrition profiles keyed by quantized inputs.
+ * Weight and height are rounded to 0.1 (the precision users enter them with) and the profile
+ * is computed from the rounded values, so a cached result never depends on which caller
+ * filled the entry. The key packs all six inputs into one long:
+ *
+ *   weight×10 (14 bits) | height×10 (13 bits) | age (8 bits) | gender | activity | goal
+ *
+ * Inputs outside the packable range bypass the memo. Profiles depend only on inputs and
+ * FormulaConstants, so entries never go stale within a process.
+ */
+public class NutritionProfileMemo {
+
+    public static final int DEFAULT_CAPACITY = 256;
+
+    private static final NutritionProfileMemo SHARED = new NutritionProfileMemo(DEFAULT_CAPACITY);
+
+    private static final int WEIGHT_BITS = 14;   // up to 1638.3 kg
+    private static final int HEIGHT_BITS = 13;   // up to 819.1 cm
+    private static final int AGE_BITS = 8;       // up to 255 years
+
+    private final Map<Long, NutritionProfile> entries;
+    private long hits;
+    private long misses;
+
+    public NutritionProfileMemo(int capacity) {
+        this.entries = new LinkedHashMap<Long, NutritionProfile>(capacity * 4 / 3 + 1, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, NutritionProfile> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * Shared instance used by AlgorithmService.
+     */
+    public static NutritionProfileMemo getShared() {
+        return SHARED;
+    }
+
+    /**
+     * Returns the profile for the quantized inputs, computing it on a miss.
+     *
+     * Time Complexity: O(1)
+     */
+    public NutritionProfile get(double weightKg, double heightCm, int age,
+                                NutritionCalculator.Gender gender,
+                                NutritionCalculator.ActivityLevel activityLevel,
+                                NutritionCalculator.Goal goal) {
+        double quantizedWeight = quantize(weightKg);
+        double quantizedHeight = quantize(heightCm);
+        long key = packKey(quantizedWeight, quantizedHeight, age, gender, activityLevel, goal);
+        if (key < 0) {
+            return AlgorithmService.calculateNutritionProfile(
+                    weightKg, heightCm, age, gender, activityLevel, goal);
+        }
+
+        synchronized (entries) {
+            NutritionProfile cached = entries.get(key);
+            if (cached != null) {
+                hits++;
+                return cached;
+            }
+            misses++;
+        }
+
+        // Computed outside the lock; concurrent misses on one key produce equal profiles
+        NutritionProfile profile = AlgorithmService.calculateNutritionProfile(
+                quantizedWeight, quantizedHeight, age, gender, activityLevel, goal);
+        synchronized (entries) {
+            entries.put(key, profile);
+        }
+        return profile;
+    }
+
+    /**
+     * Drops all entries (e.g. in tests that swap formula behaviour).
+     */
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+            hits = 0;
+            misses = 0;
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public double getHitRate() {
+        synchronized (entries) {
+            long total = hits + misses;
+            return total == 0 ? 0.0 : (double) hits / total;
+        }
+    }
+
+    /**
+     * Rounds to one decimal place.
+     */
+    static double quantize(double value) {
+        return Math.round(value * 10.0) / 10.0;
+    }
+
+    /**
+     * Packs quantized inputs into a non-negative key, or returns -1 if any is out of range.
+     */
+    static long packKey(double weightKg, double heightCm, int age,
+                        NutritionCalculator.Gender gender,
+                        NutritionCalculator.ActivityLevel activityLevel,
+                        NutritionCalculator.Goal goal) {
+        long weightTenths = Math.round(weightKg * 10.0);
+        long heightTenths = Math.round(heightCm * 10.0);
+        if (weightTenths < 0 || weightTenths >= (1L << WEIGHT_BITS)
+                || heightTenths < 0 || heightTenths >= (1L << HEIGHT_BITS)
+                || age < 0 || age >= (1 << AGE_BITS)
+                || gender == null || activityLevel == null || goal == null) {
+            return -1;
+        }
+
+        long key = weightTenths;
+        key = (key << HEIGHT_BITS) | heightTenths;
+        key = (key << AGE_BITS) | age;
+        key = (key << 1) | gender.ordinal();
+        key = (key << 3) | activityLevel.ordinal();
+        key = (key << 2) | goal.ordinal();
+        return key;
+    }
+
+    @Override
+    public String toString() {
+        synchronized (entries) {
+            return String.format("NutritionProfileMemo{size=%d, hits=%d, misses=%d}", entries.size(), hits, misses);
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.fitnessapp.algorithm;
+
+import com.example.fitnessapp.model.WeightSeries;
+
+/**
+ * Hampel outlier detection for weight histories.
+ * Flags weigh-ins that sit far from the median of their neighbours (unit mix-ups, typos),
+ * which would otherwise drag the least-squares slope in StatisticalAnalyzer.
+ *
+ * The centered window slides over an {@link IndexableSkipList}, so each step is one insert
+ * and one remove instead of re-sorting the window.
+ */
+public class OutlierDetector {
+
+    /**
+     * Flags outliers using the default window and threshold from FormulaConstants.
+     *
+     * @param series Weight series (sorted by date)
+     * @return One flag per point; true = outlier
+     */
+    public static boolean[] detectOutliers(WeightSeries series) {
+        return detectOutliers(series.getWeights(), series.size(),
+                FormulaConstants.HAMPEL_HALF_WINDOW, FormulaConstants.HAMPEL_THRESHOLD);
+    }
+
+    /**
+     * Hampel filter over the first {@code count} weights.
+     * Point i is compared with the window [i - halfWindow, i + halfWindow] (clipped at the ends):
+     * it is flagged when |x_i - median| > threshold * max(1.4826 * MAD, minimum deviation).
+     *
+     * Time Complexity: O(n log² w) where w = 2 * halfWindow + 1
+     *
+     * @param weights Weight values in chronological order
+     * @param count Number of values to use
+     * @param halfWindow Neighbours on each side of the point
+     * @param threshold Number of scaled MADs a point may deviate
+     * @return One flag per point; true = outlier
+     */
+    public static boolean[] detectOutliers(double[] weights, int count, int halfWindow, double threshold) {
+        boolean[] flags = new boolean[count];
+        if (count < 3 || halfWindow < 1) {
+            return flags;
+        }
+
+        IndexableSkipList window = new IndexableSkipList(2 * halfWindow + 1);
+        for (int j = 0; j < Math.min(count, halfWindow + 1); j++) {
+            window.insert(weights[j]);
+        }
+
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                // Slide: window for i is [i - halfWindow, i + halfWindow]
+                int entering = i + halfWindow;
+                int leaving = i - halfWindow - 1;
+                if (entering < count) {
+                    window.insert(weights[entering]);
+                }
+                if (leaving >= 0) {
+                    window.remove(weights[leaving]);
+                }
+            }
+
+            double median = window.median();
+            double scale = Math.max(
+                    FormulaConstants.HAMPEL_MAD_SCALE * window.medianAbsoluteDeviation(median),
+                    FormulaConstants.HAMPEL_MIN_DEVIATION_KG);
+            flags[i] = Math.abs(weights[i] - median) > threshold * scale;
+        }
+
+        return flags;
+    }
+
+    /**
+     * Returns a copy of the series without the flagged points.
+     *
+     * Time Complexity: O(n)
+     *
+     * @param series Weight series
+     * @param flags Flags from {@link #detectOutliers}
+     * @return Filtered series (the same instance if nothing was flagged)
+     */
+    public static WeightSeries removeFlagged(WeightSeries series, boolean[] flags) {
+        int n = series.size();
+        int kept = 0;
+        for (int i = 0; i < n; i++) {
+            if (!flags[i]) {
+                kept++;
+            }
+        }
+        if (kept == n) {
+            return series;
+        }
+
+        long[] timestamps = new long[kept];
+        double[] weights = new double[kept];
+        int k = 0;
+        for (int i = 0; i < n; i++) {
+            if (!flags[i]) {
+                timestamps[k] = series.getTimestamp(i);
+                weights[k] = series.getWeight(i);
+                k++;
+            }
+        }
+        return new WeightSeries(timestamps, weights, kept);
+    }
+
+    /**
+     * Detects and removes outliers in one call.
+     *
+     * @param series Weight series (sorted by date)
+     * @return Series without Hampel outliers
+     */
+    public static WeightSeries removeOutliers(WeightSeries series) {
+        if (series == null || series.size() < 3) {
+            return series;
+        }
+        return removeFlagged(series, detectOutliers(series));
+    }
+
+    /**
+     * Counts flagged points.
+     */
+    public static int countFlagged(boolean[] flags) {
+        int count = 0;
+        for (boolean flag : flags) {
+            if (flag) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
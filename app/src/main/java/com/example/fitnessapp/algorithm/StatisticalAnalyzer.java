@@ -13,6 +13,9 @@ public class StatisticalAnalyzer {
 
     /**
      * Calculates simple moving average for weight data.
+     * Delegates to {@link MovingAverageCalculator}, which keeps a running window sum.
+     * Prefer {@link MovingAverageCalculator#calculate(List, int)} when a primitive
+     * array is sufficient.
      *
      * Time Complexity: O(n) where n is the number of entries
      * Space Complexity: O(n) for storing averages
@@ -22,22 +25,11 @@ public class StatisticalAnalyzer {
      * @return List of averaged weights
      */
     public static List<Double> calculateMovingAverage(List<WeightEntry> entries, int windowSize) {
-        List<Double> averages = new ArrayList<>();
+        double[] values = MovingAverageCalculator.calculate(entries, windowSize);
+        List<Double> averages = new ArrayList<>(values.length);
 
-        if (entries == null || entries.size() < windowSize) {
-            return averages; // Not enough data
-        }
-
-        for (int i = 0; i <= entries.size() - windowSize; i++) {
-            double sum = 0.0;
-
-            // Sum weights in the window
-            for (int j = i; j < i + windowSize; j++) {
-                sum += entries.get(j).getWeight();
-            }
-
-            double average = sum / windowSize;
-            averages.add(Math.round(average * 10.0) / 10.0); // Round to 1 decimal
+        for (double value : values) {
+            averages.add(value);
         }
 
         return averages;
@@ -79,6 +71,22 @@ public class StatisticalAnalyzer {
             sumX2 += x * x;
         }
 
+        return slopeFromSums(n, sumX, sumY, sumXY, sumX2);
+    }
+
+    /**
+     * Least-squares slope from precomputed regression sums.
+     * Shared by {@link #calculateWeightChangeRate} and {@link WeightTrendAccumulator}.
+     *
+     * Time Complexity: O(1)
+     *
+     * @return Slope rounded to 3 decimals, 0 if fewer than two points or degenerate
+     */
+    static double slopeFromSums(int n, double sumX, double sumY, double sumXY, double sumX2) {
+        if (n < 2) {
+            return 0.0;
+        }
+
         // Calculate slope using least squares formula
         double denominator = (n * sumX2 - sumX * sumX);
         if (Math.abs(denominator) < 0.0001) {
@@ -113,7 +121,22 @@ public class StatisticalAnalyzer {
             return "INSUFFICIENT_DATA";
         }
 
-        double ratePerWeek = calculateWeightChangeRatePerWeek(entries);
+        return classifyTrend(entries.size(), calculateWeightChangeRatePerWeek(entries));
+    }
+
+    /**
+     * Classifies a weekly change rate into a trend label.
+     *
+     * Time Complexity: O(1)
+     *
+     * @param count Number of data points the rate was computed from
+     * @param ratePerWeek Weight change rate in kg per week
+     * @return "LOSING", "GAINING", "MAINTAINING", or "INSUFFICIENT_DATA"
+     */
+    static String classifyTrend(int count, double ratePerWeek) {
+        if (count < FormulaConstants.MIN_DATA_POINTS_FOR_TREND) {
+            return "INSUFFICIENT_DATA";
+        }
 
         if (ratePerWeek < -FormulaConstants.TREND_THRESHOLD_KG_PER_WEEK) {
             return "LOSING";
@@ -140,7 +163,25 @@ public class StatisticalAnalyzer {
         }
 
         double currentWeight = entries.get(entries.size() - 1).getWeight();
-        double dailyRate = calculateWeightChangeRate(entries);
+        return projectWeight(entries.size(), currentWeight, calculateWeightChangeRate(entries), daysAhead);
+    }
+
+    /**
+     * Projects weight forward from a known daily rate.
+     *
+     * Time Complexity: O(1)
+     *
+     * @param count Number of data points the rate was computed from
+     * @param currentWeight Most recent weight
+     * @param dailyRate Weight change rate in kg per day
+     * @param daysAhead Number of days to predict forward
+     * @return Predicted weight rounded to 1 decimal, 0 if there is not enough data
+     */
+    static double projectWeight(int count, double currentWeight, double dailyRate, int daysAhead) {
+        if (count < FormulaConstants.MIN_DATA_POINTS_FOR_PREDICTION) {
+            return 0.0; // Not enough data for prediction
+        }
+
         double predictedWeight = currentWeight + (dailyRate * daysAhead);
 
         return Math.round(predictedWeight * 10.0) / 10.0;
@@ -162,8 +203,20 @@ public class StatisticalAnalyzer {
         }
 
         double currentWeight = entries.get(entries.size() - 1).getWeight();
-        double dailyRate = calculateWeightChangeRate(entries);
+        return daysToGoal(currentWeight, calculateWeightChangeRate(entries), goalWeight);
+    }
 
+    /**
+     * Calculates days to reach goal weight from a known daily rate.
+     *
+     * Time Complexity: O(1)
+     *
+     * @param currentWeight Most recent weight
+     * @param dailyRate Weight change rate in kg per day
+     * @param goalWeight Target weight in kg
+     * @return Days to reach goal, or -1 if not achievable
+     */
+    static int daysToGoal(double currentWeight, double dailyRate, double goalWeight) {
         // Check if trend is moving toward goal
         double difference = goalWeight - currentWeight;
 
@@ -208,7 +261,15 @@ public class StatisticalAnalyzer {
         }
         double variance = varianceSum / entries.size();
 
+        return roundStandardDeviation(variance);
+    }
+
+    /**
+     * Standard deviation from a variance, rounded to 2 decimals.
+     * Shared by {@link #calculateStandardDeviation} and {@link WeightTrendAccumulator}.
+     */
+    static double roundStandardDeviation(double variance) {
         // Standard deviation is square root of variance
         return Math.round(Math.sqrt(variance) * 100.0) / 100.0;
     }
-}
\ No newline at end of file
+}
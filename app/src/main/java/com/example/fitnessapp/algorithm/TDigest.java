@@ -0,0 +1,322 @@
+package com.example.fitnessapp.algorithm;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Mergeable streaming quantile sketch (merging t-digest, Dunning & Ertl).
+ * Values are buffered and periodically merged into O(compression) centroids,
+ * with small centroids near the tails, so extreme quantiles stay accurate.
+ * Digests built for different periods can be merged without the raw values.
+ *
+ * With fewer values than the centroid budget (e.g. one month of daily weigh-ins) every
+ * value keeps its own centroid and quantiles are exact (linear interpolation).
+ */
+public class TDigest {
+
+    public static final double DEFAULT_COMPRESSION = 100.0;
+
+    private static final int SERIAL_VERSION = 1;
+
+    private final double compression;
+
+    // Merged centroids, sorted by mean
+    private double[] means;
+    private double[] weights;
+    private int centroidCount;
+
+    // Unmerged incoming values
+    private final double[] bufferValues;
+    private final double[] bufferWeights;
+    private int bufferCount;
+
+    private double totalWeight;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    public TDigest() {
+        this(DEFAULT_COMPRESSION);
+    }
+
+    /**
+     * @param compression Accuracy/size trade-off (centroid budget is about this many)
+     */
+    public TDigest(double compression) {
+        this.compression = compression;
+        int capacity = (int) Math.ceil(compression) * 2 + 8;
+        this.means = new double[capacity];
+        this.weights = new double[capacity];
+        int bufferSize = (int) Math.ceil(compression) * 5;
+        this.bufferValues = new double[bufferSize];
+        this.bufferWeights = new double[bufferSize];
+    }
+
+    /**
+     * Adds one value.
+     *
+     * Time Complexity: O(1) amortized (O(b log b) merge every b values)
+     */
+    public void add(double value) {
+        add(value, 1.0);
+    }
+
+    /**
+     * Adds a value with a weight (used when merging centroids).
+     */
+    public void add(double value, double weight) {
+        if (Double.isNaN(value) || weight <= 0) {
+            return;
+        }
+        if (bufferCount == bufferValues.length) {
+            compress();
+        }
+        bufferValues[bufferCount] = value;
+        bufferWeights[bufferCount] = weight;
+        bufferCount++;
+        totalWeight += weight;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    /**
+     * Merges another digest into this one (the other digest is not modified logically).
+     *
+     * Time Complexity: O(c) where c is the other digest's centroid count
+     */
+    public void merge(TDigest other) {
+        if (other == null || other.totalWeight == 0) {
+            return;
+        }
+        other.compress();
+        for (int i = 0; i < other.centroidCount; i++) {
+            add(other.means[i], other.weights[i]);
+        }
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    /**
+     * Total number (weight) of values added.
+     */
+    public long size() {
+        return Math.round(totalWeight);
+    }
+
+    public boolean isEmpty() {
+        return totalWeight == 0;
+    }
+
+    public double getMin() {
+        return totalWeight == 0 ? Double.NaN : min;
+    }
+
+    public double getMax() {
+        return totalWeight == 0 ? Double.NaN : max;
+    }
+
+    /**
+     * Number of centroids after merging buffered values.
+     */
+    public int centroidCount() {
+        compress();
+        return centroidCount;
+    }
+
+    /**
+     * Estimated value at quantile q.
+     *
+     * Time Complexity: O(c), bounded by the compression (constant per digest)
+     *
+     * @param q Quantile in [0, 1]
+     * @return Estimated value, or NaN if the digest is empty
+     */
+    public double quantile(double q) {
+        if (q < 0.0 || q > 1.0) {
+            throw new IllegalArgumentException("Quantile must be in [0, 1]: " + q);
+        }
+        compress();
+        int n = centroidCount;
+        if (n == 0) {
+            return Double.NaN;
+        }
+        if (n == 1) {
+            return means[0];
+        }
+
+        double index = q * (totalWeight - 1);    // 0-based rank, as for exact quantiles
+        if (index <= 0) {
+            return min;
+        }
+        if (index >= totalWeight - 1) {
+            return max;
+        }
+
+        // Centroid i is centred at rank (weight before it) + (weight_i - 1) / 2
+        double rankBefore = 0.0;
+        double previousCenter = 0.0;
+        double previousMean = min;
+        for (int i = 0; i < n; i++) {
+            double center = rankBefore + (weights[i] - 1.0) / 2.0;
+            if (index <= center) {
+                if (center == previousCenter) {
+                    return means[i];
+                }
+                double fraction = (index - previousCenter) / (center - previousCenter);
+                return previousMean + fraction * (means[i] - previousMean);
+            }
+            previousCenter = center;
+            previousMean = means[i];
+            rankBefore += weights[i];
+        }
+
+        // Between the last centroid's centre and the maximum
+        double last = totalWeight - 1.0;
+        if (last == previousCenter) {
+            return max;
+        }
+        double fraction = (index - previousCenter) / (last - previousCenter);
+        return previousMean + fraction * (max - previousMean);
+    }
+
+    public double getMedian() {
+        return quantile(0.5);
+    }
+
+    /**
+     * Interquartile range (p75 - p25).
+     */
+    public double getInterquartileRange() {
+        return quantile(0.75) - quantile(0.25);
+    }
+
+    /**
+     * Serializes the digest (merged centroids only) for storage in a BLOB column.
+     */
+    public byte[] toBytes() {
+        compress();
+        ByteBuffer buffer = ByteBuffer.allocate(4 + 8 * 4 + 4 + centroidCount * 16);
+        buffer.putInt(SERIAL_VERSION);
+        buffer.putDouble(compression);
+        buffer.putDouble(totalWeight);
+        buffer.putDouble(min);
+        buffer.putDouble(max);
+        buffer.putInt(centroidCount);
+        for (int i = 0; i < centroidCount; i++) {
+            buffer.putDouble(means[i]);
+            buffer.putDouble(weights[i]);
+        }
+        return buffer.array();
+    }
+
+    /**
+     * Restores a digest written by {@link #toBytes()}.
+     */
+    public static TDigest fromBytes(byte[] data) {
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        int version = buffer.getInt();
+        if (version != SERIAL_VERSION) {
+            throw new IllegalArgumentException("Unsupported digest version " + version);
+        }
+        TDigest digest = new TDigest(buffer.getDouble());
+        digest.totalWeight = buffer.getDouble();
+        digest.min = buffer.getDouble();
+        digest.max = buffer.getDouble();
+        int count = buffer.getInt();
+        digest.ensureCapacity(count);
+        for (int i = 0; i < count; i++) {
+            digest.means[i] = buffer.getDouble();
+            digest.weights[i] = buffer.getDouble();
+        }
+        digest.centroidCount = count;
+        return digest;
+    }
+
+    /**
+     * Merges buffered values into the centroid list.
+     * Adjacent items are combined while the result stays under the size bound
+     * 4 * N * q * (1 - q) / compression, which keeps tail centroids small.
+     */
+    private void compress() {
+        if (bufferCount == 0) {
+            return;
+        }
+
+        int total = centroidCount + bufferCount;
+        double[] allMeans = Arrays.copyOf(means, total);
+        double[] allWeights = Arrays.copyOf(weights, total);
+        System.arraycopy(bufferValues, 0, allMeans, centroidCount, bufferCount);
+        System.arraycopy(bufferWeights, 0, allWeights, centroidCount, bufferCount);
+        sortByMean(allMeans, allWeights, total);
+        bufferCount = 0;
+
+        ensureCapacity(total);
+        int out = 0;
+        double weightSoFar = 0.0;
+        double currentMean = allMeans[0];
+        double currentWeight = allWeights[0];
+
+        for (int i = 1; i < total; i++) {
+            double proposed = currentWeight + allWeights[i];
+            double q0 = weightSoFar / totalWeight;
+            double q2 = (weightSoFar + proposed) / totalWeight;
+            double limit = 4.0 * totalWeight * Math.min(q0 * (1 - q0), q2 * (1 - q2)) / compression;
+
+            if (proposed <= limit) {
+                currentMean += (allMeans[i] - currentMean) * allWeights[i] / proposed;
+                currentWeight = proposed;
+            } else {
+                means[out] = currentMean;
+                weights[out] = currentWeight;
+                out++;
+                weightSoFar += currentWeight;
+                currentMean = allMeans[i];
+                currentWeight = allWeights[i];
+            }
+        }
+        means[out] = currentMean;
+        weights[out] = currentWeight;
+        centroidCount = out + 1;
+    }
+
+    private void ensureCapacity(int count) {
+        if (means.length < count) {
+            means = Arrays.copyOf(means, count);
+            weights = Arrays.copyOf(weights, count);
+        }
+    }
+
+    /**
+     * Sorts parallel arrays by mean (insertion sort for short runs, otherwise index sort).
+     */
+    private static void sortByMean(double[] values, double[] valueWeights, int count) {
+        if (count <= 32) {
+            for (int i = 1; i < count; i++) {
+                double v = values[i];
+                double w = valueWeights[i];
+                int j = i - 1;
+                while (j >= 0 && values[j] > v) {
+                    values[j + 1] = values[j];
+                    valueWeights[j + 1] = valueWeights[j];
+                    j--;
+                }
+                values[j + 1] = v;
+                valueWeights[j + 1] = w;
+            }
+            return;
+        }
+
+        Integer[] order = new Integer[count];
+        for (int i = 0; i < count; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(values[a], values[b]));
+        double[] sortedValues = new double[count];
+        double[] sortedWeights = new double[count];
+        for (int i = 0; i < count; i++) {
+            sortedValues[i] = values[order[i]];
+            sortedWeights[i] = valueWeights[order[i]];
+        }
+        System.arraycopy(sortedValues, 0, values, 0, count);
+        System.arraycopy(sortedWeights, 0, valueWeights, 0, count);
+    }
+}
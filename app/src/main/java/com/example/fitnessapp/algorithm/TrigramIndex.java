@@ -0,0 +1,510 @@
+package com.example.fitnessapp.algorithm;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory trigram index over short names (foods, exercises) for typo-tolerant autocomplete.
+ *
+ * Names are folded (lower case, diacritics removed) and split into words; each word is padded
+ * with two leading blanks, so "oat" yields "  o", " oa", "oat". Padding makes one- and two-letter
+ * queries word-prefix lookups, and a typo only loses the two or three trigrams that cover it.
+ *
+ * Each trigram's posting list is an ascending list of document numbers stored as varint deltas
+ * in a byte array (about 1-2 bytes per entry), so the index costs little more than the names.
+ * Documents are only appended, which keeps every posting list sorted without re-encoding.
+ *
+ * Bulk loads should add names shortest first: document numbers then follow name length, and
+ * search first intersects the query's posting lists in document order, stopping after a few
+ * times k names that contain every query trigram (a handful of list steps for a typical prefix).
+ * Only when that yields fewer than k names (a typo) does it count shared trigrams over the full lists,
+ * rarest first, in a reusable per-document array. Either way the small candidate pool is
+ * re-ranked by per-word prefix edit distance (full-name prefix matches first).
+ * All methods are thread-safe.
+ */
+public class TrigramIndex {
+
+    /** Owner of shared catalog entries; visible to every user. */
+    public static final int SHARED = 0;
+
+    // Candidates kept per result slot before re-ranking
+    private static final int POOL_FACTOR = 8;
+    private static final double MIN_COVERAGE = 0.5;
+    private static final double PREFIX_BONUS = 0.5;
+    private static final int MAX_QUERY_LENGTH = 64;
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SPACES = Pattern.compile(" +");
+
+    private int size;
+    private int[] ids;
+    private int[] owners;
+    private String[] names;
+    private int[] nameLengths;
+    private int maxId = Integer.MIN_VALUE;
+
+    private final Map<Long, Postings> postings = new HashMap<>();
+
+    // Search scratch, reused across queries (guarded by this)
+    private byte[] counts;       // Shared trigrams per document (queries have < 128)
+    private int[] touched;
+    private long[] gramScratch = new long[64];
+    private Postings[] listScratch = new Postings[16];
+    private int[] cursorScratch = new int[32];
+
+    public TrigramIndex(int expectedSize) {
+        int capacity = Math.max(16, expectedSize);
+        ids = new int[capacity];
+        owners = new int[capacity];
+        names = new String[capacity];
+        nameLengths = new int[capacity];
+        counts = new byte[capacity];
+        touched = new int[capacity];
+    }
+
+    /**
+     * Adds a name. Entries are never removed; ids may repeat if a caller re-adds a row.
+     *
+     * Time Complexity: O(L log L) for a name of length L
+     *
+     * @param id Row ID returned with matches
+     * @param ownerId User ID for custom entries, SHARED for catalog entries
+     * @param name Display name (null is ignored)
+     */
+    public synchronized void add(int id, int ownerId, String name) {
+        if (name == null) {
+            return;
+        }
+        if (size == ids.length) {
+            int capacity = size * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            owners = Arrays.copyOf(owners, capacity);
+            names = Arrays.copyOf(names, capacity);
+            nameLengths = Arrays.copyOf(nameLengths, capacity);
+            counts = new byte[capacity];
+            touched = new int[capacity];
+        }
+
+        int doc = size++;
+        ids[doc] = id;
+        owners[doc] = ownerId;
+        names[doc] = name;
+        nameLengths[doc] = name.length();
+        maxId = Math.max(maxId, id);
+
+        int gramCount = distinctTrigrams(fold(name));
+        for (int i = 0; i < gramCount; i++) {
+            Postings list = postings.get(gramScratch[i]);
+            if (list == null) {
+                list = new Postings();
+                postings.put(gramScratch[i], list);
+            }
+            list.append(doc);
+        }
+    }
+
+    /**
+     * Top-k names matching a (possibly misspelled) query, visible to the given user.
+     * A name matches if it shares at least half of the query's trigrams (all of them for
+     * queries of one or two letters). Ranking: how closely each query word matches the start
+     * of some word of the name (edit distance), +0.5 if the folded name starts with the
+     * folded query, then shorter names first.
+     *
+     * Time Complexity: O(k) list steps when enough names contain every query trigram
+     * (names added shortest first); otherwise O(P + c) where P is the total length of the
+     * query's posting lists and c the number of candidates
+     *
+     * @param query Text as typed
+     * @param userId User whose custom entries are included
+     * @param k Maximum number of matches
+     * @return Matches, best first
+     */
+    public synchronized List<Match> search(String query, int userId, int k) {
+        List<Match> results = new ArrayList<>();
+        if (query == null || k <= 0 || size == 0) {
+            return results;
+        }
+        String foldedQuery = fold(query).trim();
+        if (foldedQuery.length() > MAX_QUERY_LENGTH) {
+            foldedQuery = foldedQuery.substring(0, MAX_QUERY_LENGTH).trim();
+        }
+        int gramCount = distinctTrigrams(foldedQuery);
+        if (gramCount == 0) {
+            return results;
+        }
+
+        if (listScratch.length < gramCount) {
+            listScratch = new Postings[gramCount];
+            cursorScratch = new int[gramCount * 2];
+        }
+        int listCount = 0;
+        for (int g = 0; g < gramCount; g++) {
+            Postings list = postings.get(gramScratch[g]);
+            if (list != null) {
+                listScratch[listCount++] = list;
+            }
+        }
+        Arrays.sort(listScratch, 0, listCount, (x, y) -> Integer.compare(x.count, y.count));
+
+        int[] poolDocs = new int[k * POOL_FACTOR];
+        int[] poolShared = new int[poolDocs.length];
+        int pooled = 0;
+        if (listCount == gramCount) {
+            pooled = collectFullMatches(listCount, userId, poolDocs);
+            Arrays.fill(poolShared, 0, pooled, gramCount);
+        }
+        // Typo candidates rank below full matches, so k full matches make the full pass moot
+        if (pooled < k) {
+            int minShared = gramCount <= 2 ? gramCount : Math.max(2, (int) Math.ceil(gramCount * MIN_COVERAGE));
+            pooled = collectByCoverage(listCount, gramCount - minShared + 1, minShared, userId,
+                    poolDocs, poolShared);
+        }
+        Arrays.fill(listScratch, 0, listCount, null);
+
+        // --- Re-rank the pool ---
+        String[] queryWords = SPACES.split(foldedQuery);
+        for (int p = 0; p < pooled; p++) {
+            int doc = poolDocs[p];
+            String foldedName = fold(names[doc]).trim();
+            String[] nameWords = SPACES.split(foldedName);
+            double score = 0.0;
+            for (String queryWord : queryWords) {
+                int best = queryWord.length();
+                for (String nameWord : nameWords) {
+                    best = Math.min(best, prefixEditDistance(queryWord, nameWord));
+                }
+                score += 1.0 - (double) best / queryWord.length();
+            }
+            score /= queryWords.length;
+            if (poolShared[p] < gramCount) {
+                // Typo match: never ahead of a name containing the query as typed
+                score = Math.min(score, 1.0 - 1.0 / foldedQuery.length());
+            }
+            if (foldedName.startsWith(foldedQuery)) {
+                score += PREFIX_BONUS;
+            }
+            results.add(new Match(ids[doc], names[doc], score));
+        }
+        results.sort(Match.BEST_FIRST);
+        return results.size() > k ? new ArrayList<>(results.subList(0, k)) : results;
+    }
+
+    /**
+     * Walks the rarest list and keeps documents found in every other list (cursors advance
+     * monotonically), stopping once the pool is full. Documents are numbered in insertion
+     * order, so with shortest-first loading these are the shortest full matches.
+     *
+     * @return Number of documents written to poolDocs
+     */
+    private int collectFullMatches(int listCount, int userId, int[] poolDocs) {
+        // cursorScratch[2l]: byte position in list l, cursorScratch[2l + 1]: last decoded doc (-1 before the first)
+        for (int l = 0; l < listCount; l++) {
+            cursorScratch[2 * l] = 0;
+            cursorScratch[2 * l + 1] = -1;
+        }
+        int pooled = 0;
+        Postings rarest = listScratch[0];
+        while (pooled < poolDocs.length && cursorScratch[0] < rarest.length) {
+            int doc = next(rarest, 0);
+            boolean inAll = true;
+            for (int l = 1; l < listCount && inAll; l++) {
+                Postings list = listScratch[l];
+                while (cursorScratch[2 * l + 1] < doc && cursorScratch[2 * l] < list.length) {
+                    next(list, l);
+                }
+                inAll = cursorScratch[2 * l + 1] == doc;
+            }
+            if (inAll && isVisible(doc, userId)) {
+                poolDocs[pooled++] = doc;
+            }
+        }
+        return pooled;
+    }
+
+    /**
+     * Decodes the next document of list {@code l} into its cursor.
+     */
+    private int next(Postings list, int l) {
+        int pos = cursorScratch[2 * l];
+        int delta = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = list.data[pos++];
+            delta |= (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        int doc = Math.max(cursorScratch[2 * l + 1], 0) + delta;
+        cursorScratch[2 * l] = pos;
+        cursorScratch[2 * l + 1] = doc;
+        return doc;
+    }
+
+    /**
+     * Counts shared trigrams per document over all lists, rarest first, and keeps the best
+     * documents by (shared desc, length asc). A document absent from the first
+     * {@code admitting} lists cannot reach minShared, so later (more common) lists only add
+     * to documents already seen.
+     *
+     * @return Number of documents written to poolDocs
+     */
+    private int collectByCoverage(int listCount, int admitting, int minShared, int userId,
+                                  int[] poolDocs, int[] poolShared) {
+        int touchedCount = 0;
+        for (int l = 0; l < listCount; l++) {
+            Postings list = listScratch[l];
+            boolean admit = l < admitting;
+            byte[] data = list.data;
+            int doc = 0;
+            int pos = 0;
+            while (pos < list.length) {
+                int delta = 0;
+                int shift = 0;
+                byte b;
+                do {
+                    b = data[pos++];
+                    delta |= (b & 0x7F) << shift;
+                    shift += 7;
+                } while (b < 0);
+                doc += delta;
+                if (counts[doc] != 0) {
+                    counts[doc]++;
+                } else if (admit) {
+                    counts[doc] = 1;
+                    touched[touchedCount++] = doc;
+                }
+            }
+        }
+
+        int poolSize = poolDocs.length;
+        long[] poolKeys = new long[poolSize];
+        int pooled = 0;
+        for (int t = 0; t < touchedCount; t++) {
+            int doc = touched[t];
+            int shared = counts[doc];
+            counts[doc] = 0;
+            if (shared < minShared || !isVisible(doc, userId)) {
+                continue;
+            }
+            long key = ((long) shared << 32) - nameLengths[doc];
+            if (pooled == poolSize && key <= poolKeys[pooled - 1]) {
+                continue;
+            }
+            // Insertion into the descending pool
+            int at = pooled == poolSize ? pooled - 1 : pooled++;
+            while (at > 0 && poolKeys[at - 1] < key) {
+                poolKeys[at] = poolKeys[at - 1];
+                poolDocs[at] = poolDocs[at - 1];
+                poolShared[at] = poolShared[at - 1];
+                at--;
+            }
+            poolKeys[at] = key;
+            poolDocs[at] = doc;
+            poolShared[at] = shared;
+        }
+        return pooled;
+    }
+
+    private boolean isVisible(int doc, int userId) {
+        return owners[doc] == SHARED || owners[doc] == userId;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Largest ID added so far (Integer.MIN_VALUE if empty); rows with a greater ID are
+     * not indexed yet.
+     */
+    public synchronized int getMaxId() {
+        return maxId;
+    }
+
+    /**
+     * Approximate heap used by posting lists, in bytes.
+     */
+    public synchronized long getPostingBytes() {
+        long bytes = 0;
+        for (Postings list : postings.values()) {
+            bytes += list.data.length;
+        }
+        return bytes;
+    }
+
+    /**
+     * Lower case, diacritics removed, every character other than a letter or digit turned
+     * into a blank.
+     */
+    static String fold(String text) {
+        char[] chars = text.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            char c = chars[i];
+            if (c >= 0x80) {
+                // Non-ASCII: full Unicode folding
+                chars = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD))
+                        .replaceAll("").toLowerCase(Locale.ROOT).toCharArray();
+                for (int j = 0; j < chars.length; j++) {
+                    if (!Character.isLetterOrDigit(chars[j])) {
+                        chars[j] = ' ';
+                    }
+                }
+                return new String(chars);
+            }
+            if (c >= 'A' && c <= 'Z') {
+                chars[i] = (char) (c + ('a' - 'A'));
+            } else if (!(c >= 'a' && c <= 'z') && !(c >= '0' && c <= '9')) {
+                chars[i] = ' ';
+            }
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Smallest edit distance (insert, delete, substitute, swap adjacent) between
+     * {@code query} and any prefix of {@code word}, so "chik" scores 1 against "chicken".
+     *
+     * Time Complexity: O(|query| × |word|)
+     */
+    static int prefixEditDistance(String query, String word) {
+        int n = query.length();
+        int m = word.length();
+        // rows[i][j]: distance between query[0, i) and word[0, j)
+        int[][] rows = new int[n + 1][m + 1];
+        for (int j = 0; j <= m; j++) {
+            rows[0][j] = j;
+        }
+        for (int i = 1; i <= n; i++) {
+            rows[i][0] = i;
+            for (int j = 1; j <= m; j++) {
+                int cost = query.charAt(i - 1) == word.charAt(j - 1) ? 0 : 1;
+                int d = Math.min(Math.min(rows[i - 1][j] + 1, rows[i][j - 1] + 1), rows[i - 1][j - 1] + cost);
+                if (i > 1 && j > 1 && query.charAt(i - 1) == word.charAt(j - 2)
+                        && query.charAt(i - 2) == word.charAt(j - 1)) {
+                    d = Math.min(d, rows[i - 2][j - 2] + 1);
+                }
+                rows[i][j] = d;
+            }
+        }
+        int best = n;
+        for (int j = 0; j <= m; j++) {
+            best = Math.min(best, rows[n][j]);
+        }
+        return best;
+    }
+
+    /**
+     * Writes the distinct padded-word trigrams of a folded string into gramScratch.
+     *
+     * @return Number of trigrams written
+     */
+    private int distinctTrigrams(String folded) {
+        int count = 0;
+        int i = 0;
+        int length = folded.length();
+        while (i < length) {
+            if (folded.charAt(i) == ' ') {
+                i++;
+                continue;
+            }
+            // Word starts at i; the window begins with two padding blanks
+            char a = ' ';
+            char b = ' ';
+            for (; i < length && folded.charAt(i) != ' '; i++) {
+                char c = folded.charAt(i);
+                if (count == gramScratch.length) {
+                    gramScratch = Arrays.copyOf(gramScratch, count * 2);
+                }
+                gramScratch[count++] = ((long) a << 32) | ((long) b << 16) | c;
+                a = b;
+                b = c;
+            }
+        }
+
+        Arrays.sort(gramScratch, 0, count);
+        int distinct = 0;
+        for (int j = 0; j < count; j++) {
+            if (j == 0 || gramScratch[j] != gramScratch[j - 1]) {
+                gramScratch[distinct++] = gramScratch[j];
+            }
+        }
+        return distinct;
+    }
+
+    /**
+     * Ascending document numbers of one trigram, varint delta encoded.
+     */
+    private static final class Postings {
+        byte[] data = new byte[4];
+        int length;
+        int count;
+        int last;
+
+        void append(int doc) {
+            count++;
+            int delta = doc - last;
+            last = doc;
+            if (length + 5 > data.length) {
+                data = Arrays.copyOf(data, Math.max(data.length * 2, length + 5));
+            }
+            while ((delta & ~0x7F) != 0) {
+                data[length++] = (byte) ((delta & 0x7F) | 0x80);
+                delta >>>= 7;
+            }
+            data[length++] = (byte) delta;
+        }
+    }
+
+    /**
+     * One autocomplete result.
+     */
+    public static final class Match {
+
+        /** Search order: score descending, then shorter names, then alphabetical. */
+        public static final Comparator<Match> BEST_FIRST = (a, b) -> {
+            int byScore = Double.compare(b.score, a.score);
+            if (byScore != 0) {
+                return byScore;
+            }
+            int byLength = Integer.compare(a.name.length(), b.name.length());
+            return byLength != 0 ? byLength : a.name.compareTo(b.name);
+        };
+
+        private final int id;
+        private final String name;
+        private final double score;
+
+        Match(int id, String name, double score) {
+            this.id = id;
+            this.name = name;
+            this.score = score;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Fraction of query trigrams found, plus 0.5 for a full-name prefix match.
+         */
+        public double getScore() {
+            return score;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.US, "Match{id=%d, name='%s', score=%.2f}", id, name, score);
+        }
+    }
+}
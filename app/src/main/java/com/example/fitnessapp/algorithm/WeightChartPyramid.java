@@ -0,0 +1,446 @@
+package com.example.fitnessapp.algorithm;
+
+import com.example.fitnessapp.model.WeightSeries;
+
+import java.util.Arrays;
+
+/**
+ * Multi-resolution downsampling pyramid for weight history charts.
+ * Uses Largest-Triangle-Three-Buckets (LTTB) point selection so the visual shape
+ * (peaks, dips, plateaus) survives downsampling.
+ *
+ * Each level splits the timeline into fixed time buckets (1 day, 1 week, ~1 month by default)
+ * and keeps one representative point per bucket. Appending an entry only reselects the last
+ * two buckets of each level, and a zoom query picks the finest level that fits the screen,
+ * so it costs O(log n + points returned).
+ */
+public class WeightChartPyramid {
+
+    public static final long DAY_MS = 24L * 60 * 60 * 1000;
+    public static final long WEEK_MS = 7 * DAY_MS;
+    public static final long MONTH_MS = 30 * DAY_MS; // Fixed-length month bucket
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    // Raw points (chronological)
+    private long[] timestamps = new long[INITIAL_CAPACITY];
+    private double[] weights = new double[INITIAL_CAPACITY];
+    private int size;
+
+    private final Level[] levels;
+
+    /**
+     * One resolution of the pyramid: time buckets and the raw index selected in each.
+     */
+    private static final class Level {
+        final long span;
+        int bucketCount;
+        long[] bucketKeys = new long[INITIAL_CAPACITY];   // floor(timestamp / span)
+        int[] bucketStarts = new int[INITIAL_CAPACITY];   // First raw index in the bucket
+        int[] selected = new int[INITIAL_CAPACITY];       // Raw index chosen by LTTB
+
+        Level(long span) {
+            this.span = span;
+        }
+    }
+
+    /**
+     * Creates an empty pyramid with day, week and month levels.
+     */
+    public WeightChartPyramid() {
+        this(DAY_MS, WEEK_MS, MONTH_MS);
+    }
+
+    /**
+     * Creates an empty pyramid with custom bucket spans (finest first).
+     *
+     * @param bucketSpans Bucket length of each level in milliseconds, ascending
+     */
+    public WeightChartPyramid(long... bucketSpans) {
+        levels = new Level[bucketSpans.length];
+        for (int i = 0; i < bucketSpans.length; i++) {
+            if (bucketSpans[i] <= 0 || (i > 0 && bucketSpans[i] <= bucketSpans[i - 1])) {
+                throw new IllegalArgumentException("Bucket spans must be positive and ascending");
+            }
+            levels[i] = new Level(bucketSpans[i]);
+        }
+    }
+
+    /**
+     * Builds a pyramid from a chronological series.
+     *
+     * Time Complexity: O(n * L) where L is the number of levels
+     *
+     * @param series Weight series (sorted by date)
+     * @return Populated pyramid
+     */
+    public static WeightChartPyramid build(WeightSeries series) {
+        WeightChartPyramid pyramid = new WeightChartPyramid();
+        pyramid.appendAll(series);
+        return pyramid;
+    }
+
+    /**
+     * Appends a batch of chronological points, reselecting each level once at the end.
+     *
+     * @param series Points to append (sorted by date)
+     */
+    public void appendAll(WeightSeries series) {
+        if (series == null || series.isEmpty()) {
+            return;
+        }
+        if (size > 0 && series.getTimestamp(0) < timestamps[size - 1]) {
+            throw new IllegalArgumentException("Points must be appended in chronological order");
+        }
+
+        int[] firstNewBucket = new int[levels.length];
+        for (int l = 0; l < levels.length; l++) {
+            firstNewBucket[l] = Math.max(0, levels[l].bucketCount - 1);
+        }
+
+        for (int i = 0; i < series.size(); i++) {
+            addRawPoint(series.getTimestamp(i), series.getWeight(i));
+        }
+
+        for (int l = 0; l < levels.length; l++) {
+            Level level = levels[l];
+            // The bucket before the old last one saw its "next bucket average" change too
+            for (int b = Math.max(0, firstNewBucket[l] - 1); b < level.bucketCount; b++) {
+                select(level, b);
+            }
+        }
+    }
+
+    /**
+     * Appends a single weigh-in (must not be older than the latest point).
+     *
+     * Time Complexity: O(L * B) where B is the number of points in the last two buckets
+     *
+     * @param timestamp Entry timestamp in milliseconds
+     * @param weight Entry weight
+     */
+    public void append(long timestamp, double weight) {
+        if (size > 0 && timestamp < timestamps[size - 1]) {
+            throw new IllegalArgumentException("Points must be appended in chronological order");
+        }
+
+        addRawPoint(timestamp, weight);
+
+        for (Level level : levels) {
+            int last = level.bucketCount - 1;
+            // Only the last bucket and its predecessor depend on the new point
+            for (int b = Math.max(0, last - 1); b <= last; b++) {
+                select(level, b);
+            }
+        }
+    }
+
+    /**
+     * Returns the points to draw for a time range, at most {@code maxPoints} of them.
+     * Uses raw points when they fit, otherwise the finest pyramid level that fits,
+     * and falls back to running LTTB over the coarsest level for very wide ranges.
+     *
+     * Time Complexity: O(log n + points returned) in the common case
+     *
+     * @param startTime Inclusive range start
+     * @param endTime Inclusive range end
+     * @param maxPoints Maximum number of points (usually the chart width in pixels)
+     * @return Chronological points to plot
+     */
+    public WeightSeries query(long startTime, long endTime, int maxPoints) {
+        if (size == 0 || endTime < startTime || maxPoints <= 0) {
+            return WeightSeries.empty();
+        }
+
+        // Raw points, if they already fit
+        int rawFrom = lowerBound(timestamps, size, startTime);
+        int rawTo = upperBound(timestamps, size, endTime);
+        if (rawTo - rawFrom <= maxPoints) {
+            return copyRange(rawFrom, rawTo);
+        }
+
+        // Finest level whose bucket count in range fits on screen
+        int[] candidates = null;
+        int candidateCount = 0;
+        for (int l = 0; l < levels.length; l++) {
+            Level level = levels[l];
+            int from = lowerBound(level.bucketKeys, level.bucketCount, Math.floorDiv(startTime, level.span));
+            int to = upperBound(level.bucketKeys, level.bucketCount, Math.floorDiv(endTime, level.span));
+
+            // Skip levels that cannot fit without touching their points
+            // (the two edge buckets may still be filtered out below)
+            if (to - from > maxPoints + 2 && l < levels.length - 1) {
+                continue;
+            }
+
+            candidates = new int[to - from];
+            candidateCount = 0;
+            for (int b = from; b < to; b++) {
+                int index = level.selected[b];
+                if (timestamps[index] >= startTime && timestamps[index] <= endTime) {
+                    candidates[candidateCount++] = index;
+                }
+            }
+            if (candidateCount <= maxPoints) {
+                return toSeries(candidates, candidateCount);
+            }
+        }
+
+        // Even the coarsest level is too dense: downsample its points directly
+        if (candidates == null) {
+            candidates = new int[rawTo - rawFrom];
+            for (int i = rawFrom; i < rawTo; i++) {
+                candidates[candidateCount++] = i;
+            }
+        }
+        int[] sampled = lttb(timestamps, weights, candidates, candidateCount, maxPoints);
+        return toSeries(sampled, sampled.length);
+    }
+
+    /**
+     * Number of raw points held by the pyramid.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Number of representative points stored for a level.
+     *
+     * @param levelIndex 0 for the finest level
+     */
+    public int getLevelSize(int levelIndex) {
+        return levels[levelIndex].bucketCount;
+    }
+
+    /**
+     * Classic LTTB over a whole series.
+     *
+     * Time Complexity: O(n)
+     *
+     * @param series Weight series (sorted by date)
+     * @param threshold Number of points to keep
+     * @return Downsampled series (the original if it already has threshold points or fewer)
+     */
+    public static WeightSeries downsample(WeightSeries series, int threshold) {
+        if (series == null || series.size() <= threshold || threshold <= 0) {
+            return series;
+        }
+
+        int n = series.size();
+        int[] points = new int[n];
+        for (int i = 0; i < n; i++) {
+            points[i] = i;
+        }
+
+        int[] sampled = lttb(series.getTimestamps(), series.getWeights(), points, n, threshold);
+        long[] outTimestamps = new long[sampled.length];
+        double[] outWeights = new double[sampled.length];
+        for (int i = 0; i < sampled.length; i++) {
+            outTimestamps[i] = series.getTimestamp(sampled[i]);
+            outWeights[i] = series.getWeight(sampled[i]);
+        }
+        return new WeightSeries(outTimestamps, outWeights, sampled.length);
+    }
+
+    /**
+     * Largest-Triangle-Three-Buckets over a subset of points.
+     * Keeps the first and last point; for every bucket in between keeps the point forming
+     * the largest triangle with the previously kept point and the next bucket's average.
+     *
+     * Time Complexity: O(count)
+     *
+     * @param ts Timestamps
+     * @param ws Weights
+     * @param points Indices into ts/ws, chronological
+     * @param count Number of valid indices in points
+     * @param threshold Number of points to keep
+     * @return Indices of the kept points
+     */
+    static int[] lttb(long[] ts, double[] ws, int[] points, int count, int threshold) {
+        if (threshold >= count || threshold < 3) {
+            int keep = Math.min(count, Math.max(threshold, 0));
+            if (keep == count) {
+                return Arrays.copyOf(points, count);
+            }
+            // Fewer than three points requested: keep the endpoints
+            return keep == 1 ? new int[]{points[count - 1]} : new int[]{points[0], points[count - 1]};
+        }
+
+        long origin = ts[points[0]];
+        int[] sampled = new int[threshold];
+        int sampledCount = 0;
+        sampled[sampledCount++] = points[0];
+
+        double every = (double) (count - 2) / (threshold - 2);
+        int a = 0;
+
+        for (int i = 0; i < threshold - 2; i++) {
+            // Average of the next bucket
+            int avgStart = (int) Math.floor((i + 1) * every) + 1;
+            int avgEnd = Math.min((int) Math.floor((i + 2) * every) + 1, count);
+            double avgX = 0.0;
+            double avgY = 0.0;
+            for (int j = avgStart; j < avgEnd; j++) {
+                avgX += toDays(ts[points[j]], origin);
+                avgY += ws[points[j]];
+            }
+            int avgLength = avgEnd - avgStart;
+            avgX /= avgLength;
+            avgY /= avgLength;
+
+            // Current bucket
+            int rangeStart = (int) Math.floor(i * every) + 1;
+            int rangeEnd = (int) Math.floor((i + 1) * every) + 1;
+
+            double ax = toDays(ts[points[a]], origin);
+            double ay = ws[points[a]];
+            double maxArea = -1.0;
+            int next = rangeStart;
+
+            for (int j = rangeStart; j < rangeEnd; j++) {
+                double area = Math.abs((ax - avgX) * (ws[points[j]] - ay)
+                        - (ax - toDays(ts[points[j]], origin)) * (avgY - ay));
+                if (area > maxArea) {
+                    maxArea = area;
+                    next = j;
+                }
+            }
+
+            sampled[sampledCount++] = points[next];
+            a = next;
+        }
+
+        sampled[sampledCount] = points[count - 1];
+        return sampled;
+    }
+
+    // ===== Internal helpers =====
+
+    private void addRawPoint(long timestamp, double weight) {
+        if (size == timestamps.length) {
+            timestamps = Arrays.copyOf(timestamps, size * 2);
+            weights = Arrays.copyOf(weights, size * 2);
+        }
+        timestamps[size] = timestamp;
+        weights[size] = weight;
+
+        for (Level level : levels) {
+            long key = Math.floorDiv(timestamp, level.span);
+            if (level.bucketCount == 0 || level.bucketKeys[level.bucketCount - 1] != key) {
+                if (level.bucketCount == level.bucketKeys.length) {
+                    int capacity = level.bucketCount * 2;
+                    level.bucketKeys = Arrays.copyOf(level.bucketKeys, capacity);
+                    level.bucketStarts = Arrays.copyOf(level.bucketStarts, capacity);
+                    level.selected = Arrays.copyOf(level.selected, capacity);
+                }
+                level.bucketKeys[level.bucketCount] = key;
+                level.bucketStarts[level.bucketCount] = size;
+                level.selected[level.bucketCount] = size;
+                level.bucketCount++;
+            }
+        }
+
+        size++;
+    }
+
+    /**
+     * Chooses the representative point of one bucket (time-bucketed LTTB step).
+     */
+    private void select(Level level, int bucket) {
+        int start = level.bucketStarts[bucket];
+        int end = bucketEnd(level, bucket);
+
+        if (bucket == level.bucketCount - 1) {
+            level.selected[bucket] = end - 1; // Always show the latest reading
+            return;
+        }
+        if (bucket == 0) {
+            level.selected[bucket] = start;   // Anchor the chart at the first reading
+            return;
+        }
+
+        long origin = timestamps[0];
+        int previous = level.selected[bucket - 1];
+        double ax = toDays(timestamps[previous], origin);
+        double ay = weights[previous];
+
+        int nextStart = level.bucketStarts[bucket + 1];
+        int nextEnd = bucketEnd(level, bucket + 1);
+        double avgX = 0.0;
+        double avgY = 0.0;
+        for (int j = nextStart; j < nextEnd; j++) {
+            avgX += toDays(timestamps[j], origin);
+            avgY += weights[j];
+        }
+        avgX /= (nextEnd - nextStart);
+        avgY /= (nextEnd - nextStart);
+
+        double maxArea = -1.0;
+        int best = start;
+        for (int j = start; j < end; j++) {
+            double area = Math.abs((ax - avgX) * (weights[j] - ay)
+                    - (ax - toDays(timestamps[j], origin)) * (avgY - ay));
+            if (area > maxArea) {
+                maxArea = area;
+                best = j;
+            }
+        }
+        level.selected[bucket] = best;
+    }
+
+    private int bucketEnd(Level level, int bucket) {
+        return bucket + 1 < level.bucketCount ? level.bucketStarts[bucket + 1] : size;
+    }
+
+    private WeightSeries copyRange(int from, int to) {
+        return new WeightSeries(
+                Arrays.copyOfRange(timestamps, from, to),
+                Arrays.copyOfRange(weights, from, to),
+                to - from);
+    }
+
+    private WeightSeries toSeries(int[] indices, int count) {
+        long[] outTimestamps = new long[count];
+        double[] outWeights = new double[count];
+        for (int i = 0; i < count; i++) {
+            outTimestamps[i] = timestamps[indices[i]];
+            outWeights[i] = weights[indices[i]];
+        }
+        return new WeightSeries(outTimestamps, outWeights, count);
+    }
+
+    private static double toDays(long timestamp, long origin) {
+        return (timestamp - origin) / (double) DAY_MS;
+    }
+
+    /** First index with values[i] >= key. */
+    private static int lowerBound(long[] values, int count, long key) {
+        int lo = 0;
+        int hi = count;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (values[mid] < key) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /** First index with values[i] > key. */
+    private static int upperBound(long[] values, int count, long key) {
+        int lo = 0;
+        int hi = count;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (values[mid] <= key) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+}
@@ -0,0 +1,228 @@
+package com.example.fitnessapp.algorithm;
+
+import com.example.fitnessapp.data.WeightTrendState;
+
+/**
+ * Running accumulator for weight trend statistics.
+ * Collects the least-squares sums (Σx, Σy, Σxy, Σx²) and a Welford mean/variance
+ * so the regression slope and standard deviation come out of a single traversal.
+ * Points can also be removed, which lets a persisted {@link WeightTrendState} be kept
+ * current in O(1) as entries are inserted, edited and deleted.
+ *
+ * x is measured in days since {@code originTimestamp}; y is the weight.
+ *
+ * Welford's M2 and the two-pass sum of StatisticalAnalyzer.calculateStandardDeviation differ
+ * in the last bits, which only matters when the standard deviation sits on a rounding tie;
+ * see {@link #isStandardDeviationNearRoundingTie}.
+ */
+public class WeightTrendAccumulator {
+
+    static final double MILLIS_PER_DAY = 1000.0 * 60 * 60 * 24;
+
+    // Distance (in hundredths) from a .5 rounding tie below which the standard deviation is
+    // re-checked with two passes; far above the rounding error of either variance sum
+    private static final double ROUNDING_TIE_TOLERANCE = 1e-6;
+
+    private final long originTimestamp;
+
+    private int count;
+    private double sumX;     // Sum of days
+    private double sumY;     // Sum of weights
+    private double sumXY;    // Sum of (days * weight)
+    private double sumX2;    // Sum of (days²)
+
+    // Welford running mean and sum of squared deviations
+    private double mean;
+    private double m2;
+
+    /**
+     * @param originTimestamp Timestamp treated as day 0 (normally the first entry's timestamp)
+     */
+    public WeightTrendAccumulator(long originTimestamp) {
+        this.originTimestamp = originTimestamp;
+    }
+
+    /**
+     * Adds one weigh-in to the accumulator.
+     *
+     * Time Complexity: O(1)
+     *
+     * @param timestamp Entry timestamp in milliseconds
+     * @param weight Entry weight
+     */
+    public void add(long timestamp, double weight) {
+        double x = (timestamp - originTimestamp) / MILLIS_PER_DAY;
+
+        count++;
+        sumX += x;
+        sumY += weight;
+        sumXY += x * weight;
+        sumX2 += x * x;
+
+        double delta = weight - mean;
+        mean += delta / count;
+        m2 += delta * (weight - mean);
+    }
+
+    /**
+     * Removes a previously added weigh-in (inverse of {@link #add}).
+     *
+     * Time Complexity: O(1)
+     *
+     * @param timestamp Entry timestamp in milliseconds
+     * @param weight Entry weight
+     */
+    public void remove(long timestamp, double weight) {
+        if (count <= 1) {
+            count = 0;
+            sumX = sumY = sumXY = sumX2 = 0.0;
+            mean = m2 = 0.0;
+            return;
+        }
+
+        double x = (timestamp - originTimestamp) / MILLIS_PER_DAY;
+
+        sumX -= x;
+        sumY -= weight;
+        sumXY -= x * weight;
+        sumX2 -= x * x;
+
+        // Reverse Welford step
+        double oldMean = mean;
+        count--;
+        mean = (oldMean * (count + 1) - weight) / count;
+        m2 -= (weight - oldMean) * (weight - mean);
+        if (m2 < 0.0) {
+            m2 = 0.0; // Guard against rounding drift
+        }
+    }
+
+    /**
+     * Creates an accumulator from sums computed elsewhere (e.g. an SQL aggregate).
+     * The Welford terms are derived as mean = Σy/n and M2 = Σy² - Σy·mean.
+     *
+     * @param originTimestamp Timestamp the x values are measured from
+     * @param count Number of points
+     * @param sumX Σx (days)
+     * @param sumY Σy (weights)
+     * @param sumXY Σxy
+     * @param sumX2 Σx²
+     * @param sumY2 Σy²
+     * @return Accumulator holding the given sums
+     */
+    public static WeightTrendAccumulator fromSums(long originTimestamp, int count,
+                                                  double sumX, double sumY, double sumXY,
+                                                  double sumX2, double sumY2) {
+        WeightTrendAccumulator accumulator = new WeightTrendAccumulator(originTimestamp);
+        accumulator.count = count;
+        accumulator.sumX = sumX;
+        accumulator.sumY = sumY;
+        accumulator.sumXY = sumXY;
+        accumulator.sumX2 = sumX2;
+        if (count > 0) {
+            accumulator.mean = sumY / count;
+            accumulator.m2 = Math.max(0.0, sumY2 - sumY * accumulator.mean);
+        }
+        return accumulator;
+    }
+
+    /**
+     * Restores an accumulator from its persisted form.
+     *
+     * @param state Persisted state row
+     * @return Accumulator holding the same sums
+     */
+    public static WeightTrendAccumulator fromState(WeightTrendState state) {
+        WeightTrendAccumulator accumulator = new WeightTrendAccumulator(state.getOriginTimestamp());
+        accumulator.count = state.getEntryCount();
+        accumulator.sumX = state.getSumX();
+        accumulator.sumY = state.getSumY();
+        accumulator.sumXY = state.getSumXY();
+        accumulator.sumX2 = state.getSumX2();
+        accumulator.mean = state.getMean();
+        accumulator.m2 = state.getM2();
+        return accumulator;
+    }
+
+    /**
+     * Converts this accumulator into its persisted form.
+     *
+     * @param userId Owner of the weight history
+     * @return State row ready to upsert
+     */
+    public WeightTrendState toState(int userId) {
+        WeightTrendState state = new WeightTrendState(userId, originTimestamp);
+        state.setEntryCount(count);
+        state.setSumX(sumX);
+        state.setSumY(sumY);
+        state.setSumXY(sumXY);
+        state.setSumX2(sumX2);
+        state.setMean(mean);
+        state.setM2(m2);
+        return state;
+    }
+
+    public long getOriginTimestamp() {
+        return originTimestamp;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public double getMean() {
+        return mean;
+    }
+
+    /**
+     * Sum of the added weights, in insertion order (the same sum StatisticalAnalyzer takes
+     * the mean from).
+     */
+    public double getSumY() {
+        return sumY;
+    }
+
+    /**
+     * Weight change rate in kg per day from the least-squares slope.
+     * Matches {@link StatisticalAnalyzer#calculateWeightChangeRate}.
+     *
+     * @return Slope rounded to 3 decimals, 0 with fewer than two points
+     */
+    public double getDailyRate() {
+        return StatisticalAnalyzer.slopeFromSums(count, sumX, sumY, sumXY, sumX2);
+    }
+
+    /**
+     * Weight change rate in kg per week.
+     */
+    public double getWeeklyRate() {
+        return getDailyRate() * 7.0;
+    }
+
+    /**
+     * Population standard deviation of the weights from the Welford terms.
+     * Matches {@link StatisticalAnalyzer#calculateStandardDeviation} unless
+     * {@link #isStandardDeviationNearRoundingTie} is true.
+     *
+     * @return Standard deviation rounded to 2 decimals, 0 with fewer than two points
+     */
+    public double getStandardDeviation() {
+        if (count < 2) {
+            return 0.0;
+        }
+        return StatisticalAnalyzer.roundStandardDeviation(Math.max(0.0, m2 / count));
+    }
+
+    /**
+     * True if the unrounded standard deviation is so close to a rounding tie that the
+     * two-pass variance of StatisticalAnalyzer may round to the other side. Callers that
+     * still hold the weights recompute it with two passes in that case.
+     */
+    public boolean isStandardDeviationNearRoundingTie() {
+        if (count < 2) {
+            return false;
+        }
+        double scaled = Math.sqrt(Math.max(0.0, m2 / count)) * 100.0;
+        return Math.abs(scaled - Math.floor(scaled) - 0.5) < ROUNDING_TIE_TOLERANCE;
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.fitnessapp.data;
 
 import android.content.Context;
+import android.database.Cursor;
 import androidx.annotation.NonNull;
 import androidx.room.Database;
 import androidx.room.Room;
@@ -9,8 +10,10 @@ import androidx.room.TypeConverters;
 import androidx.room.migration.Migration;
 import androidx.sqlite.db.SupportSQLiteDatabase;
 
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.function.Function;
 
 /**
  * The Room Database implementation for the FitnessApp.
@@ -19,6 +22,17 @@ import java.util.concurrent.Executors;
  * - v2: Previous updates
  * - v3: Changed password to passwordHash for BCrypt security
  * - v4: Added nutrition module (5 tables) + workout module (5 tables)
+ * - v5: Added weight_trend_state (incremental trend sums) + (userId, timestamp) index on weight entries
+ * - v6: Added weight_rollups (materialized day/week/month weight aggregates)
+ * - v7: Added weight_trend_cache (batch-computed trend analysis per user)
+ * - v8: Added weight_chunks (compressed sealed months of weight history)
+ * - v9: Added weight_sketches (mergeable per-bucket weight quantile sketches)
+ * - v10: Added triggers maintaining meal and daily nutrition totals (NutritionTotalTriggers)
+ * - v11: Added foods_fts (FTS4 index over food name, brand and category)
+ * - v12: Added unique partial barcode index on foods (catalog foods only)
+ * - v13: Meal, DailyNutritionSummary, WorkoutSession and PersonalRecord dates stored as INTEGER epoch days
+ * - v14: Added recipes + recipe_ingredients with flattened recipe foods (RecipeTriggers)
+ * - v15: Dropped weight_chunks (sealed months duplicated rows that had to stay authoritative)
  */
 @TypeConverters(Converters.class)
 @Database(
@@ -31,14 +45,22 @@ import java.util.concurrent.Executors;
                 MealFood.class,
                 DailyNutritionSummary.class,
                 NutritionGoal.class,
+                FoodFts.class,
+                Recipe.class,
+                RecipeIngredient.class,
                 // Workout Module (v4)
                 Exercise.class,
                 WorkoutSession.class,
                 WorkoutSet.class,
                 PersonalRecord.class,
-                WorkoutTemplate.class
+                WorkoutTemplate.class,
+                // Weight analytics (v5)
+                WeightTrendState.class,
+                WeightRollup.class,
+                WeightTrendCache.class,
+                WeightSketch.class
         },
-        version = 4,
+        version = 15,
         exportSchema = false
 )
 public abstract class AppDatabase extends RoomDatabase {
@@ -53,6 +75,7 @@ public abstract class AppDatabase extends RoomDatabase {
     public abstract MealFoodDao mealFoodDao();
     public abstract DailyNutritionSummaryDao dailyNutritionSummaryDao();
     public abstract NutritionGoalDao nutritionGoalDao();
+    public abstract RecipeDao recipeDao();
 
     // Workout DAOs
     public abstract ExerciseDao exerciseDao();
@@ -61,6 +84,12 @@ public abstract class AppDatabase extends RoomDatabase {
     public abstract PersonalRecordDao personalRecordDao();
     public abstract WorkoutTemplateDao workoutTemplateDao();
 
+    // Weight analytics DAOs
+    public abstract WeightTrendStateDao weightTrendStateDao();
+    public abstract WeightRollupDao weightRollupDao();
+    public abstract WeightTrendCacheDao weightTrendCacheDao();
+    public abstract WeightSketchDao weightSketchDao();
+
     // Singleton instance and name
     private static volatile AppDatabase INSTANCE;
     private static final String DATABASE_NAME = "fitness_app_db";
@@ -70,6 +99,19 @@ public abstract class AppDatabase extends RoomDatabase {
     public static final ExecutorService databaseWriteExecutor =
             Executors.newFixedThreadPool(NUMBER_OF_THREADS);
 
+    // In-memory caches bound to this instance (see getOrCreateCache)
+    private final ConcurrentHashMap<Class<?>, Object> caches = new ConcurrentHashMap<>();
+
+    /**
+     * Returns this database's instance of a cache, creating it on first use.
+     * Caches observing tables through the InvalidationTracker live exactly as long as the
+     * database they observe, so an in-memory test database or a reopened database gets its own.
+     * The factory must not request another cache.
+     */
+    public <T> T getOrCreateCache(Class<T> type, Function<AppDatabase, T> factory) {
+        return type.cast(caches.computeIfAbsent(type, key -> factory.apply(this)));
+    }
+
     /**
      * Migration from version 3 to version 4.
      * Adds nutrition module tables while preserving existing data.
@@ -191,6 +233,431 @@ public abstract class AppDatabase extends RoomDatabase {
         }
     };
 
+    /**
+     * Migration from version 4 to version 5.
+     * Adds the per-user weight trend accumulator table and the (userId, timestamp) index.
+     * Trend state rows are rebuilt lazily by EntryRepository on first use.
+     */
+    static final Migration MIGRATION_4_5 = new Migration(4, 5) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase database) {
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_weight_entry_table_userId_timestamp` " +
+                    "ON `weight_entry_table` (`userId`, `timestamp`)");
+
+            database.execSQL(
+                    "CREATE TABLE IF NOT EXISTS `weight_trend_state` (" +
+                            "`userId` INTEGER NOT NULL, " +
+                            "`originTimestamp` INTEGER NOT NULL, " +
+                            "`entryCount` INTEGER NOT NULL, " +
+                            "`sumX` REAL NOT NULL, " +
+                            "`sumY` REAL NOT NULL, " +
+                            "`sumXY` REAL NOT NULL, " +
+                            "`sumX2` REAL NOT NULL, " +
+                            "`mean` REAL NOT NULL, " +
+                            "`m2` REAL NOT NULL, " +
+                            "`lastUpdated` INTEGER NOT NULL, " +
+                            "PRIMARY KEY(`userId`), " +
+                            "FOREIGN KEY(`userId`) REFERENCES `user_table`(`id`) ON UPDATE NO ACTION ON DELETE CASCADE)"
+            );
+
+            android.util.Log.d("AppDatabase", "Migration 4 → 5 complete: Added weight_trend_state");
+        }
+    };
+
+    /**
+     * Migration from version 5 to version 6.
+     * Adds the materialized weight rollup table.
+     * Rollup rows are rebuilt lazily by EntryRepository on first use.
+     */
+    static final Migration MIGRATION_5_6 = new Migration(5, 6) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase database) {
+            database.execSQL(
+                    "CREATE TABLE IF NOT EXISTS `weight_rollups` (" +
+                            "`userId` INTEGER NOT NULL, " +
+                            "`resolution` TEXT NOT NULL, " +
+                            "`bucketStart` INTEGER NOT NULL, " +
+                            "`bucketEnd` INTEGER NOT NULL, " +
+                            "`entryCount` INTEGER NOT NULL, " +
+                            "`sumWeight` REAL NOT NULL, " +
+                            "`minWeight` REAL NOT NULL, " +
+                            "`maxWeight` REAL NOT NULL, " +
+                            "`firstTimestamp` INTEGER NOT NULL, " +
+                            "`firstWeight` REAL NOT NULL, " +
+                            "`lastTimestamp` INTEGER NOT NULL, " +
+                            "`lastWeight` REAL NOT NULL, " +
+                            "PRIMARY KEY(`userId`, `resolution`, `bucketStart`), " +
+                            "FOREIGN KEY(`userId`) REFERENCES `user_table`(`id`) ON UPDATE NO ACTION ON DELETE CASCADE)"
+            );
+
+            android.util.Log.d("AppDatabase", "Migration 5 → 6 complete: Added weight_rollups");
+        }
+    };
+
+    /**
+     * Migration from version 6 to version 7.
+     * Adds the cached trend analysis table filled by WeightTrendBatchJob.
+     */
+    static final Migration MIGRATION_6_7 = new Migration(6, 7) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase database) {
+            database.execSQL(
+                    "CREATE TABLE IF NOT EXISTS `weight_trend_cache` (" +
+                            "`userId` INTEGER NOT NULL, " +
+                            "`entryCount` INTEGER NOT NULL, " +
+                            "`goalWeight` REAL NOT NULL, " +
+                            "`currentWeight` REAL NOT NULL, " +
+                            "`sevenDayAverage` REAL NOT NULL, " +
+                            "`thirtyDayAverage` REAL NOT NULL, " +
+                            "`weeklyChangeRate` REAL NOT NULL, " +
+                            "`trend` TEXT, " +
+                            "`predictedWeightIn30Days` REAL NOT NULL, " +
+                            "`daysToGoal` INTEGER NOT NULL, " +
+                            "`standardDeviation` REAL NOT NULL, " +
+                            "`computedAt` INTEGER NOT NULL, " +
+                            "PRIMARY KEY(`userId`), " +
+                            "FOREIGN KEY(`userId`) REFERENCES `user_table`(`id`) ON UPDATE NO ACTION ON DELETE CASCADE)"
+            );
+
+            android.util.Log.d("AppDatabase", "Migration 6 → 7 complete: Added weight_trend_cache");
+        }
+    };
+
+    /**
+     * Migration from version 7 to version 8.
+     * Adds the compressed weight chunk table (dropped again in MIGRATION_14_15).
+     */
+    static final Migration MIGRATION_7_8 = new Migration(7, 8) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase database) {
+            database.execSQL(
+                    "CREATE TABLE IF NOT EXISTS `weight_chunks` (" +
+                            "`userId` INTEGER NOT NULL, " +
+                            "`monthStart` INTEGER NOT NULL, " +
+                            "`monthEnd` INTEGER NOT NULL, " +
+                            "`pointCount` INTEGER NOT NULL, " +
+                            "`firstTimestamp` INTEGER NOT NULL, " +
+                            "`lastTimestamp` INTEGER NOT NULL, " +
+                            "`data` BLOB NOT NULL, " +
+                            "`sealedAt` INTEGER NOT NULL, " +
+                            "PRIMARY KEY(`userId`, `monthStart`), " +
+                            "FOREIGN KEY(`userId`) REFERENCES `user_table`(`id`) ON UPDATE NO ACTION ON DELETE CASCADE)"
+            );
+
+            android.util.Log.d("AppDatabase", "Migration 7 → 8 complete: Added weight_chunks");
+        }
+    };
+
+    /**
+     * Migration from version 8 to version 9.
+     * Adds the weight quantile sketch table; sketches are built lazily by EntryRepository.
+     */
+    static final Migration MIGRATION_8_9 = new Migration(8, 9) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase database) {
+            database.execSQL(
+                    "CREATE TABLE IF NOT EXISTS `weight_sketches` (" +
+                            "`userId` INTEGER NOT NULL, " +
+                            "`resolution` TEXT NOT NULL, " +
+                            "`bucketStart` INTEGER NOT NULL, " +
+                            "`bucketEnd` INTEGER NOT NULL, " +
+                            "`entryCount` INTEGER NOT NULL, " +
+                            "`p10` REAL NOT NULL, " +
+                            "`p25` REAL NOT NULL, " +
+                            "`median` REAL NOT NULL, " +
+                            "`p75` REAL NOT NULL, " +
+                            "`p90` REAL NOT NULL, " +
+                            "`digest` BLOB NOT NULL, " +
+                            "`updatedAt` INTEGER NOT NULL, " +
+                            "PRIMARY KEY(`userId`, `resolution`, `bucketStart`), " +
+                            "FOREIGN KEY(`userId`) REFERENCES `user_table`(`id`) ON UPDATE NO ACTION ON DELETE CASCADE)"
+            );
+
+            android.util.Log.d("AppDatabase", "Migration 8 → 9 complete: Added weight_sketches");
+        }
+    };
+
+    /**
+     * Migration from version 9 to version 10.
+     * Installs the nutrition total triggers and repairs totals that were maintained by hand.
+     */
+    static final Migration MIGRATION_9_10 = new Migration(9, 10) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase database) {
+            NutritionTotalTriggers.install(database);
+            NutritionTotalTriggers.recomputeAll(database);
+
+            android.util.Log.d("AppDatabase", "Migration 9 → 10 complete: Added nutrition total triggers");
+        }
+    };
+
+    /**
+     * Migration from version 10 to version 11.
+     * Adds the food full-text index with the content-sync triggers Room generates for
+     * FoodFts, then indexes the existing foods.
+     */
+    static final Migration MIGRATION_10_11 = new Migration(10, 11) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase database) {
+            database.execSQL("CREATE VIRTUAL TABLE IF NOT EXISTS `foods_fts` USING FTS4(" +
+                    "`name` TEXT, `brand` TEXT, `category` TEXT, " +
+                    "tokenize=unicode61, content=`foods`, prefix=`2,3`)");
+
+            database.execSQL("CREATE TRIGGER IF NOT EXISTS room_fts_content_sync_foods_fts_BEFORE_UPDATE " +
+                    "BEFORE UPDATE ON `foods` BEGIN DELETE FROM `foods_fts` WHERE `docid`=OLD.`rowid`; END");
+            database.execSQL("CREATE TRIGGER IF NOT EXISTS room_fts_content_sync_foods_fts_BEFORE_DELETE " +
+                    "BEFORE DELETE ON `foods` BEGIN DELETE FROM `foods_fts` WHERE `docid`=OLD.`rowid`; END");
+            database.execSQL("CREATE TRIGGER IF NOT EXISTS room_fts_content_sync_foods_fts_AFTER_UPDATE " +
+                    "AFTER UPDATE ON `foods` BEGIN INSERT INTO `foods_fts`(`docid`, `name`, `brand`, `category`) " +
+                    "VALUES (NEW.`rowid`, NEW.`name`, NEW.`brand`, NEW.`category`); END");
+            database.execSQL("CREATE TRIGGER IF NOT EXISTS room_fts_content_sync_foods_fts_AFTER_INSERT " +
+                    "AFTER INSERT ON `foods` BEGIN INSERT INTO `foods_fts`(`docid`, `name`, `brand`, `category`) " +
+                    "VALUES (NEW.`rowid`, NEW.`name`, NEW.`brand`, NEW.`category`); END");
+
+            database.execSQL("INSERT INTO `foods_fts`(`foods_fts`) VALUES('rebuild')");
+
+            android.util.Log.d("AppDatabase", "Migration 10 → 11 complete: Added foods_fts");
+        }
+    };
+
+    /**
+     * Migration from version 11 to version 12.
+     * Adds the barcode index. Catalog foods sharing a barcode (possible from earlier imports)
+     * keep it on the oldest row only; the others lose the barcode but keep their data.
+     */
+    static final Migration MIGRATION_11_12 = new Migration(11, 12) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase database) {
+            database.execSQL("UPDATE `foods` SET `barcode` = NULL " +
+                    "WHERE `isCustom` = 0 AND `barcode` IS NOT NULL AND `id` NOT IN (" +
+                    "SELECT MIN(`id`) FROM `foods` WHERE `isCustom` = 0 AND `barcode` IS NOT NULL " +
+                    "GROUP BY `barcode`)");
+            createBarcodeIndex(database);
+
+            android.util.Log.d("AppDatabase", "Migration 11 → 12 complete: Added barcode index");
+        }
+    };
+
+    /**
+     * Migration from version 12 to version 13.
+     * Converts the 'YYYY-MM-DD' TEXT date columns to INTEGER epoch days (EpochDays) by rebuilding
+     * the four tables, since SQLite cannot change a column type in place; the (userId, date)
+     * indexes are recreated over the integer columns and personal_records gains one.
+     * Unparseable meal and session dates fall back to the local day of the row's timestamp,
+     * unparseable PR dates become 0 (1970-01-01). Summaries are derived data: rows whose date
+     * cannot be parsed are dropped and all days are recomputed from meals afterwards.
+     * The nutrition triggers reference meals and daily_nutrition_summary, so they are dropped
+     * for the rebuild (SQLite rejects renaming a table while a trigger names a missing one).
+     */
+    static final Migration MIGRATION_12_13 = new Migration(12, 13) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase database) {
+            NutritionTotalTriggers.uninstall(database);
+
+            rebuildTable(database, "meals",
+                    "`id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, " +
+                            "`userId` INTEGER NOT NULL, " +
+                            "`mealType` TEXT, " +
+                            "`date` INTEGER NOT NULL, " +
+                            "`timestamp` INTEGER NOT NULL, " +
+                            "`notes` TEXT, " +
+                            "`totalCalories` REAL NOT NULL, " +
+                            "`totalProtein` REAL NOT NULL, " +
+                            "`totalCarbs` REAL NOT NULL, " +
+                            "`totalFats` REAL NOT NULL, " +
+                            "FOREIGN KEY(`userId`) REFERENCES `user_table`(`id`) ON UPDATE NO ACTION ON DELETE CASCADE",
+                    "`id`, `userId`, `mealType`, `date`, `timestamp`, `notes`, " +
+                            "`totalCalories`, `totalProtein`, `totalCarbs`, `totalFats`",
+                    "`id`, `userId`, `mealType`, " +
+                            "COALESCE(" + epochDay("`date`") + ", " + timestampEpochDay() + "), " +
+                            "`timestamp`, `notes`, `totalCalories`, `totalProtein`, `totalCarbs`, `totalFats` " +
+                            "FROM `meals`");
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_meals_userId` ON `meals` (`userId`)");
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_meals_date` ON `meals` (`date`)");
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_meals_userId_date` ON `meals` (`userId`, `date`)");
+
+            rebuildTable(database, "daily_nutrition_summary",
+                    "`id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, " +
+                            "`userId` INTEGER NOT NULL, " +
+                            "`date` INTEGER NOT NULL, " +
+                            "`totalCalories` REAL NOT NULL, " +
+                            "`totalProtein` REAL NOT NULL, " +
+                            "`totalCarbs` REAL NOT NULL, " +
+                            "`totalFats` REAL NOT NULL, " +
+                            "`mealsLogged` INTEGER NOT NULL, " +
+                            "`lastUpdated` INTEGER NOT NULL, " +
+                            "FOREIGN KEY(`userId`) REFERENCES `user_table`(`id`) ON UPDATE NO ACTION ON DELETE CASCADE",
+                    "`id`, `userId`, `date`, `totalCalories`, `totalProtein`, `totalCarbs`, `totalFats`, " +
+                            "`mealsLogged`, `lastUpdated`",
+                    "`id`, `userId`, " + epochDay("`date`") + ", `totalCalories`, `totalProtein`, " +
+                            "`totalCarbs`, `totalFats`, `mealsLogged`, `lastUpdated` " +
+                            "FROM `daily_nutrition_summary` WHERE " + epochDay("`date`") + " IS NOT NULL");
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_daily_nutrition_summary_userId` ON `daily_nutrition_summary` (`userId`)");
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_daily_nutrition_summary_date` ON `daily_nutrition_summary` (`date`)");
+            database.execSQL("CREATE UNIQUE INDEX IF NOT EXISTS `index_daily_nutrition_summary_userId_date` ON `daily_nutrition_summary` (`userId`, `date`)");
+
+            rebuildTable(database, "workout_sessions",
+                    "`id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, " +
+                            "`userId` INTEGER NOT NULL, " +
+                            "`date` INTEGER NOT NULL, " +
+                            "`timestamp` INTEGER NOT NULL, " +
+                            "`durationMinutes` INTEGER NOT NULL, " +
+                            "`notes` TEXT, " +
+                            "`totalVolume` REAL NOT NULL, " +
+                            "`totalSets` INTEGER NOT NULL, " +
+                            "FOREIGN KEY(`userId`) REFERENCES `user_table`(`id`) ON UPDATE NO ACTION ON DELETE CASCADE",
+                    "`id`, `userId`, `date`, `timestamp`, `durationMinutes`, `notes`, `totalVolume`, `totalSets`",
+                    "`id`, `userId`, " +
+                            "COALESCE(" + epochDay("`date`") + ", " + timestampEpochDay() + "), " +
+                            "`timestamp`, `durationMinutes`, `notes`, `totalVolume`, `totalSets` " +
+                            "FROM `workout_sessions`");
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_workout_sessions_userId` ON `workout_sessions` (`userId`)");
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_workout_sessions_date` ON `workout_sessions` (`date`)");
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_workout_sessions_userId_date` ON `workout_sessions` (`userId`, `date`)");
+
+            rebuildTable(database, "personal_records",
+                    "`id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, " +
+                            "`userId` INTEGER NOT NULL, " +
+                            "`exerciseId` INTEGER NOT NULL, " +
+                            "`recordType` TEXT, " +
+                            "`recordValue` REAL NOT NULL, " +
+                            "`reps` INTEGER, " +
+                            "`dateAchieved` INTEGER NOT NULL, " +
+                            "`workoutSetId` INTEGER, " +
+                            "FOREIGN KEY(`userId`) REFERENCES `user_table`(`id`) ON UPDATE NO ACTION ON DELETE CASCADE, " +
+                            "FOREIGN KEY(`exerciseId`) REFERENCES `exercises`(`id`) ON UPDATE NO ACTION ON DELETE CASCADE, " +
+                            "FOREIGN KEY(`workoutSetId`) REFERENCES `workout_sets`(`id`) ON UPDATE NO ACTION ON DELETE SET NULL",
+                    "`id`, `userId`, `exerciseId`, `recordType`, `recordValue`, `reps`, `dateAchieved`, `workoutSetId`",
+                    "`id`, `userId`, `exerciseId`, `recordType`, `recordValue`, `reps`, " +
+                            "COALESCE(" + epochDay("`dateAchieved`") + ", 0), `workoutSetId` " +
+                            "FROM `personal_records`");
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_personal_records_userId` ON `personal_records` (`userId`)");
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_personal_records_exerciseId` ON `personal_records` (`exerciseId`)");
+            database.execSQL("CREATE UNIQUE INDEX IF NOT EXISTS `index_personal_records_userId_exerciseId_recordType` " +
+                    "ON `personal_records` (`userId`, `exerciseId`, `recordType`)");
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_personal_records_userId_dateAchieved` " +
+                    "ON `personal_records` (`userId`, `dateAchieved`)");
+
+            NutritionTotalTriggers.install(database);
+            NutritionTotalTriggers.recomputeAll(database);
+
+            android.util.Log.d("AppDatabase", "Migration 12 → 13 complete: Dates stored as epoch days");
+        }
+    };
+
+    /**
+     * Migration from version 13 to version 14.
+     * Adds the recipe tables and the triggers that flatten recipe nutrition into recipe foods.
+     */
+    static final Migration MIGRATION_13_14 = new Migration(13, 14) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase database) {
+            database.execSQL(
+                    "CREATE TABLE IF NOT EXISTS `recipes` (" +
+                            "`id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, " +
+                            "`userId` INTEGER NOT NULL, " +
+                            "`foodId` INTEGER NOT NULL, " +
+                            "`yieldGrams` REAL NOT NULL, " +
+                            "`createdAt` INTEGER NOT NULL, " +
+                            "`updatedAt` INTEGER NOT NULL, " +
+                            "FOREIGN KEY(`userId`) REFERENCES `user_table`(`id`) ON UPDATE NO ACTION ON DELETE CASCADE, " +
+                            "FOREIGN KEY(`foodId`) REFERENCES `foods`(`id`) ON UPDATE NO ACTION ON DELETE CASCADE)"
+            );
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_recipes_userId` ON `recipes` (`userId`)");
+            database.execSQL("CREATE UNIQUE INDEX IF NOT EXISTS `index_recipes_foodId` ON `recipes` (`foodId`)");
+
+            database.execSQL(
+                    "CREATE TABLE IF NOT EXISTS `recipe_ingredients` (" +
+                            "`id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, " +
+                            "`recipeId` INTEGER NOT NULL, " +
+                            "`foodId` INTEGER NOT NULL, " +
+                            "`grams` REAL NOT NULL, " +
+                            "FOREIGN KEY(`recipeId`) REFERENCES `recipes`(`id`) ON UPDATE NO ACTION ON DELETE CASCADE, " +
+                            "FOREIGN KEY(`foodId`) REFERENCES `foods`(`id`) ON UPDATE NO ACTION ON DELETE RESTRICT)"
+            );
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_recipe_ingredients_recipeId` ON `recipe_ingredients` (`recipeId`)");
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_recipe_ingredients_foodId` ON `recipe_ingredients` (`foodId`)");
+
+            RecipeTriggers.install(database);
+
+            android.util.Log.d("AppDatabase", "Migration 13 → 14 complete: Added recipes");
+        }
+    };
+
+    /**
+     * Migration from version 14 to version 15.
+     * Drops the compressed weight chunk table. weight_entry_table stays the only copy of the
+     * weight history; sealing kept every row, so nothing needs restoring.
+     */
+    static final Migration MIGRATION_14_15 = new Migration(14, 15) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase database) {
+            database.execSQL("DROP TABLE IF EXISTS `weight_chunks`");
+
+            android.util.Log.d("AppDatabase", "Migration 14 → 15 complete: Dropped weight_chunks");
+        }
+    };
+
+    /**
+     * Replaces a table with a copy using a new column layout (create, copy, drop, rename).
+     * Foreign keys are not enforced during migrations, so dropping the old table does not
+     * cascade into child tables; their references resolve to the renamed copy.
+     *
+     * @param columnDefinitions Column and constraint definitions of the new table
+     * @param columns Column list of the copy
+     * @param select Select list and FROM clause producing those columns
+     */
+    private static void rebuildTable(SupportSQLiteDatabase database, String table, String columnDefinitions,
+                                     String columns, String select) {
+        database.execSQL("CREATE TABLE `" + table + "_new` (" + columnDefinitions + ")");
+        database.execSQL("INSERT OR IGNORE INTO `" + table + "_new` (" + columns + ") SELECT " + select);
+        database.execSQL("DROP TABLE `" + table + "`");
+        database.execSQL("ALTER TABLE `" + table + "_new` RENAME TO `" + table + "`");
+    }
+
+    /**
+     * SQL for the epoch day of a 'YYYY-MM-DD' text column (NULL if it does not parse).
+     */
+    private static String epochDay(String column) {
+        return "CAST(julianday(" + column + ") - 2440587.5 AS INTEGER)";
+    }
+
+    /**
+     * SQL for the epoch day of the local calendar day of the row's `timestamp` (epoch millis).
+     */
+    private static String timestampEpochDay() {
+        return "CAST(julianday(`timestamp` / 1000, 'unixepoch', 'localtime', 'start of day') - 2440587.5 AS INTEGER)";
+    }
+
+    /**
+     * Creates index_foods_barcode as a partial unique index: a scanned code maps to at most
+     * one database food, custom foods are not constrained, and rows without a barcode are
+     * not indexed. Room cannot declare partial indexes; it validates only the name, columns
+     * and uniqueness, which match the @Index on Food.
+     */
+    private static void createBarcodeIndex(SupportSQLiteDatabase database) {
+        database.execSQL("CREATE UNIQUE INDEX IF NOT EXISTS `index_foods_barcode` ON `foods` (`barcode`) " +
+                "WHERE `barcode` IS NOT NULL AND `isCustom` = 0");
+    }
+
+    /**
+     * Replaces index_foods_barcode with the partial index if the database holds Room's full
+     * unique index (created by createAllTables on a fresh install or a destructive migration).
+     * Called on every open; normally a single sqlite_master lookup.
+     */
+    private static void ensureBarcodeIndex(SupportSQLiteDatabase database) {
+        String sql;
+        try (Cursor cursor = database.query(
+                "SELECT sql FROM sqlite_master WHERE type = 'index' AND name = ?",
+                new Object[]{"index_foods_barcode"})) {
+            sql = cursor.moveToFirst() ? cursor.getString(0) : null;
+        }
+        if (sql == null || !sql.contains("WHERE")) {
+            database.execSQL("DROP INDEX IF EXISTS `index_foods_barcode`");
+            createBarcodeIndex(database);
+        }
+    }
+
     /**
      * Gets the singleton instance of the database
      */
@@ -202,6 +669,9 @@ public abstract class AppDatabase extends RoomDatabase {
                                     AppDatabase.class, DATABASE_NAME)
                             // TEMPORARY: Use destructive migration for development
                             .fallbackToDestructiveMigration()
+                            .addMigrations(MIGRATION_4_5, MIGRATION_5_6, MIGRATION_6_7, MIGRATION_7_8, MIGRATION_8_9, MIGRATION_9_10,
+                                    MIGRATION_10_11, MIGRATION_11_12, MIGRATION_12_13, MIGRATION_13_14,
+                                    MIGRATION_14_15)
                             // Callback for database events
                             .addCallback(sRoomDatabaseCallback)
                             .build();
@@ -218,12 +688,20 @@ public abstract class AppDatabase extends RoomDatabase {
         @Override
         public void onCreate(@NonNull SupportSQLiteDatabase db) {
             super.onCreate(db);
-            android.util.Log.d("AppDatabase", "Database created - Version 4");
+            android.util.Log.d("AppDatabase", "Database created - Version 15");
         }
 
         @Override
         public void onOpen(@NonNull SupportSQLiteDatabase db) {
             super.onOpen(db);
+            // Idempotent; also covers fallbackToDestructiveMigration, which recreates the
+            // tables without calling onCreate
+            NutritionTotalTriggers.install(db);
+            RecipeTriggers.install(db);
+            // Room creates index_foods_barcode over every row; make it partial
+            ensureBarcodeIndex(db);
+            // Recovers the foods_fts insert trigger if a bulk food import was interrupted
+            FoodFts.repairInsertSync(db);
             android.util.Log.d("AppDatabase", "Database opened - Version " + db.getVersion());
         }
     };
@@ -5,9 +5,12 @@ import androidx.room.ForeignKey;
 import androidx.room.Index;
 import androidx.room.PrimaryKey;
 
+import com.example.fitnessapp.util.EpochDays;
+
 /**
  * Entity storing auto-calculated daily nutrition totals.
- * One record per user per day, updated when meals are logged.
+ * One record per user per day, maintained from meals by SQLite triggers
+ * (see NutritionTotalTriggers); a day with no meals has no record.
  */
 @Entity(
         tableName = "daily_nutrition_summary",
@@ -29,7 +32,7 @@ public class DailyNutritionSummary {
     private int id;
 
     private int userId;
-    private String date;             // 'YYYY-MM-DD'
+    private long date;               // Epoch day (EpochDays)
 
     // Daily totals (sum of all meals for this day)
     private double totalCalories;
@@ -41,7 +44,7 @@ public class DailyNutritionSummary {
     private long lastUpdated;        // Timestamp of last update
 
     // Constructor
-    public DailyNutritionSummary(int userId, String date) {
+    public DailyNutritionSummary(int userId, long date) {
         this.userId = userId;
         this.date = date;
         this.totalCalories = 0.0;
@@ -69,11 +72,11 @@ public class DailyNutritionSummary {
         this.userId = userId;
     }
 
-    public String getDate() {
+    public long getDate() {
         return date;
     }
 
-    public void setDate(String date) {
+    public void setDate(long date) {
         this.date = date;
     }
 
@@ -127,6 +130,7 @@ public class DailyNutritionSummary {
 
     /**
      * Update daily totals with a meal's nutrition.
+     * In-memory only: stored totals are maintained by NutritionTotalTriggers.
      */
     public void addMealNutrition(double calories, double protein, double carbs, double fats) {
         this.totalCalories += calories;
@@ -154,7 +158,7 @@ public class DailyNutritionSummary {
 
     @Override
     public String toString() {
-        return "DailyNutritionSummary{" + date + ", " +
+        return "DailyNutritionSummary{" + EpochDays.format(date) + ", " +
                 String.format("%.0f cal", totalCalories) +
                 ", " + mealsLogged + " meals}";
     }
@@ -13,6 +13,7 @@ import java.util.List;
 /**
  * DAO for DailyNutritionSummary entity.
  * Manages daily nutrition totals (one record per user per day).
+ * Dates are epoch days (EpochDays); ranges are inclusive.
  */
 @Dao
 public interface DailyNutritionSummaryDao {
@@ -45,7 +46,7 @@ public interface DailyNutritionSummaryDao {
      * Delete summary for a specific date.
      */
     @Query("DELETE FROM daily_nutrition_summary WHERE userId = :userId AND date = :date")
-    void deleteSummaryForDate(int userId, String date);
+    void deleteSummaryForDate(int userId, long date);
 
     // ===== QUERIES =====
 
@@ -54,13 +55,13 @@ public interface DailyNutritionSummaryDao {
      * This is the most common query - "How did I do today?"
      */
     @Query("SELECT * FROM daily_nutrition_summary WHERE userId = :userId AND date = :date")
-    LiveData<DailyNutritionSummary> getSummaryForDate(int userId, String date);
+    LiveData<DailyNutritionSummary> getSummaryForDate(int userId, long date);
 
     /**
      * Get summary for a specific date (non-LiveData for immediate access).
      */
     @Query("SELECT * FROM daily_nutrition_summary WHERE userId = :userId AND date = :date")
-    DailyNutritionSummary getSummaryForDateSync(int userId, String date);
+    DailyNutritionSummary getSummaryForDateSync(int userId, long date);
 
     /**
      * Get all summaries for a user (entire history).
@@ -72,13 +73,13 @@ public interface DailyNutritionSummaryDao {
      * Get summaries within a date range (for weekly/monthly views).
      */
     @Query("SELECT * FROM daily_nutrition_summary WHERE userId = :userId AND date BETWEEN :startDate AND :endDate ORDER BY date ASC")
-    LiveData<List<DailyNutritionSummary>> getSummariesInRange(int userId, String startDate, String endDate);
+    LiveData<List<DailyNutritionSummary>> getSummariesInRange(int userId, long startDate, long endDate);
 
     /**
      * Get summaries within a date range (non-LiveData).
      */
     @Query("SELECT * FROM daily_nutrition_summary WHERE userId = :userId AND date BETWEEN :startDate AND :endDate ORDER BY date ASC")
-    List<DailyNutritionSummary> getSummariesInRangeSync(int userId, String startDate, String endDate);
+    List<DailyNutritionSummary> getSummariesInRangeSync(int userId, long startDate, long endDate);
 
     /**
      * Get recent summaries (last N days).
@@ -90,13 +91,13 @@ public interface DailyNutritionSummaryDao {
      * Get average calories over a date range.
      */
     @Query("SELECT AVG(totalCalories) FROM daily_nutrition_summary WHERE userId = :userId AND date BETWEEN :startDate AND :endDate")
-    LiveData<Double> getAverageCaloriesInRange(int userId, String startDate, String endDate);
+    LiveData<Double> getAverageCaloriesInRange(int userId, long startDate, long endDate);
 
     /**
      * Get average protein over a date range.
      */
     @Query("SELECT AVG(totalProtein) FROM daily_nutrition_summary WHERE userId = :userId AND date BETWEEN :startDate AND :endDate")
-    LiveData<Double> getAverageProteinInRange(int userId, String startDate, String endDate);
+    LiveData<Double> getAverageProteinInRange(int userId, long startDate, long endDate);
 
     /**
      * Count days with logged nutrition.
@@ -120,7 +121,7 @@ public interface DailyNutritionSummaryDao {
      * Get all dates with logged nutrition (for calendar view).
      */
     @Query("SELECT DISTINCT date FROM daily_nutrition_summary WHERE userId = :userId ORDER BY date DESC")
-    LiveData<List<String>> getDatesWithNutrition(int userId);
+    LiveData<List<Long>> getDatesWithNutrition(int userId);
 
     /**
      * Get highest calorie day.
@@ -133,4 +134,123 @@ public interface DailyNutritionSummaryDao {
      */
     @Query("SELECT * FROM daily_nutrition_summary WHERE userId = :userId ORDER BY totalProtein DESC LIMIT 1")
     LiveData<DailyNutritionSummary> getBestProteinDay(int userId);
-}
\ No newline at end of file
+
+    // ===== ADHERENCE DASHBOARD =====
+
+    /**
+     * All adherence metrics of an inclusive date range in one scan of the (userId, date) index,
+     * so the stats screen observes one query instead of seven.
+     * The best days are carried through MAX() as packed keys (value in tenths × 10^8 + epoch day,
+     * later date wins ties) because SQLite 3.9 has no window functions; see AdherenceStats.
+     */
+    @Query("SELECT COUNT(*) AS daysLogged, " +
+            "IFNULL(SUM(mealsLogged), 0) AS mealsLogged, " +
+            "IFNULL(AVG(totalCalories), 0) AS averageCalories, " +
+            "IFNULL(AVG(totalProtein), 0) AS averageProtein, " +
+            "IFNULL(SUM(totalCalories BETWEEN :targetCalories - :threshold AND :targetCalories + :threshold), 0) " +
+            "AS daysCalorieTargetMet, " +
+            "IFNULL(MAX(CAST(ROUND(totalCalories * 10) AS INTEGER) * 100000000 " +
+            "+ date), 0) AS highestCalorieKey, " +
+            "IFNULL(MAX(CAST(ROUND(totalProtein * 10) AS INTEGER) * 100000000 " +
+            "+ date), 0) AS bestProteinKey " +
+            "FROM daily_nutrition_summary WHERE userId = :userId AND date BETWEEN :startDate AND :endDate")
+    LiveData<AdherenceStats> getAdherenceStatsInRange(int userId, long startDate, long endDate,
+                                                      double targetCalories, double threshold);
+
+    /**
+     * Adherence metrics of a date range (non-LiveData).
+     */
+    @Query("SELECT COUNT(*) AS daysLogged, " +
+            "IFNULL(SUM(mealsLogged), 0) AS mealsLogged, " +
+            "IFNULL(AVG(totalCalories), 0) AS averageCalories, " +
+            "IFNULL(AVG(totalProtein), 0) AS averageProtein, " +
+            "IFNULL(SUM(totalCalories BETWEEN :targetCalories - :threshold AND :targetCalories + :threshold), 0) " +
+            "AS daysCalorieTargetMet, " +
+            "IFNULL(MAX(CAST(ROUND(totalCalories * 10) AS INTEGER) * 100000000 " +
+            "+ date), 0) AS highestCalorieKey, " +
+            "IFNULL(MAX(CAST(ROUND(totalProtein * 10) AS INTEGER) * 100000000 " +
+            "+ date), 0) AS bestProteinKey " +
+            "FROM daily_nutrition_summary WHERE userId = :userId AND date BETWEEN :startDate AND :endDate")
+    AdherenceStats getAdherenceStatsInRangeSync(int userId, long startDate, long endDate,
+                                                double targetCalories, double threshold);
+
+    // ===== TOTALS REBUILD =====
+
+    /**
+     * Rebuilds the summaries of an inclusive date range from meal totals with one GROUP BY
+     * (replaces existing rows through the unique (userId, date) index).
+     */
+    @Query("INSERT OR REPLACE INTO daily_nutrition_summary (userId, date, totalCalories, totalProtein, " +
+            "totalCarbs, totalFats, mealsLogged, lastUpdated) " +
+            "SELECT userId, date, SUM(totalCalories), SUM(totalProtein), SUM(totalCarbs), SUM(totalFats), " +
+            "COUNT(*), :now FROM meals WHERE userId = :userId AND date BETWEEN :startDate AND :endDate " +
+            "GROUP BY date")
+    void rebuildFromMealsInRange(int userId, long startDate, long endDate, long now);
+
+    /**
+     * Delete summaries in an inclusive date range whose day no longer has any meals.
+     *
+     * @return Number of summaries deleted
+     */
+    @Query("DELETE FROM daily_nutrition_summary WHERE userId = :userId AND date BETWEEN :startDate AND :endDate " +
+            "AND NOT EXISTS (SELECT 1 FROM meals m WHERE m.userId = daily_nutrition_summary.userId " +
+            "AND m.date = daily_nutrition_summary.date)")
+    int deleteSummariesWithoutMealsInRange(int userId, long startDate, long endDate);
+
+    /**
+     * Count summaries in an inclusive date range.
+     */
+    @Query("SELECT COUNT(*) FROM daily_nutrition_summary WHERE userId = :userId AND date BETWEEN :startDate AND :endDate")
+    int countSummariesInRange(int userId, long startDate, long endDate);
+
+    // ===== POJO CLASSES =====
+
+    /**
+     * Adherence metrics of a date range (getAdherenceStatsInRange). All values are 0 and the
+     * best-day dates null when no day in the range was logged.
+     */
+    class AdherenceStats {
+        public int daysLogged;
+        public int mealsLogged;
+        public double averageCalories;
+        public double averageProtein;
+        public int daysCalorieTargetMet;
+        public long highestCalorieKey;       // Packed: calories × 10 × 10^8 + epoch day
+        public long bestProteinKey;          // Packed: protein × 10 × 10^8 + epoch day
+
+        private static final long DAY_FACTOR = 100_000_000L;
+
+        /**
+         * Fraction of logged days within the calorie threshold (0-1).
+         */
+        public double getCalorieAdherenceRate() {
+            return daysLogged == 0 ? 0 : (double) daysCalorieTargetMet / daysLogged;
+        }
+
+        public double getHighestCalories() {
+            return highestCalorieKey / DAY_FACTOR / 10.0;
+        }
+
+        /**
+         * Epoch day of the highest calorie day, or null if nothing was logged.
+         */
+        public Long getHighestCalorieDay() {
+            return unpackDay(highestCalorieKey);
+        }
+
+        public double getBestProtein() {
+            return bestProteinKey / DAY_FACTOR / 10.0;
+        }
+
+        /**
+         * Epoch day of the best protein day, or null if nothing was logged.
+         */
+        public Long getBestProteinDay() {
+            return unpackDay(bestProteinKey);
+        }
+
+        private Long unpackDay(long key) {
+            return daysLogged == 0 ? null : key % DAY_FACTOR;
+        }
+    }
+}
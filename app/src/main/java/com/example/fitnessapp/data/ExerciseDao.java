@@ -1,5 +1,7 @@
 package com.example.fitnessapp.data;
 
+import android.database.Cursor;
+
 import androidx.lifecycle.LiveData;
 import androidx.room.Dao;
 import androidx.room.Delete;
@@ -91,4 +93,13 @@ public interface ExerciseDao {
      */
     @Query("SELECT COUNT(*) FROM exercises")
     LiveData<Integer> getExerciseCount();
-}
\ No newline at end of file
+
+    // AUTOCOMPLETE
+
+    /**
+     * (id, name, userId) of every exercise with an ID above afterId, shortest name first.
+     * Used to build and catch up AutocompleteIndex; the caller must close the cursor.
+     */
+    @Query("SELECT id, name, userId FROM exercises WHERE id > :afterId ORDER BY length(name) ASC, id ASC")
+    Cursor queryExerciseNamesAfter(int afterId);
+}
@@ -5,9 +5,16 @@ import androidx.room.ForeignKey;
 import androidx.room.Index;
 import androidx.room.PrimaryKey;
 
+import com.example.fitnessapp.model.NutrientTotals;
+
 /**
  * Entity representing a food item in the database.
  * Nutritional values are per 100g by default.
+ *
+ * index_foods_barcode is declared here so Room's schema validation expects it, but the index
+ * in the database is partial (catalog foods with a barcode only; see
+ * AppDatabase.createBarcodeIndex), so a user's custom food may reuse a catalog barcode.
+ * AppDatabase swaps Room's full index for the partial one on every open.
  */
 @Entity(
         tableName = "foods",
@@ -20,7 +27,8 @@ import androidx.room.PrimaryKey;
         indices = {
                 @Index(value = "name"),
                 @Index(value = "category"),
-                @Index(value = "userId")
+                @Index(value = "userId"),
+                @Index(value = "barcode", unique = true)
         }
 )
 public class Food {
@@ -38,7 +46,7 @@ public class Food {
     private double fiber;
     private double sugar;
     private String category;         // 'protein', 'vegetable', 'grain', 'fruit', 'dairy', 'snack'
-    private String barcode;          // For future barcode scanning
+    private String barcode;          // EAN/UPC as scanned; unique among database foods
     private boolean isCustom;        // false = database food, true = user-created
     private Integer userId;          // NULL for database foods, user ID for custom foods
     private long createdAt;
@@ -180,6 +188,7 @@ public class Food {
 
     /**
      * Helper method: Calculate nutrition for a specific serving.
+     * Allocates per call; use addServingTo when summing many rows.
      */
     public double[] calculateForServing(double grams) {
         double ratio = grams / servingSize;
@@ -191,6 +200,13 @@ public class Food {
         };
     }
 
+    /**
+     * Adds the nutrition of a serving to running totals without allocating.
+     */
+    public void addServingTo(double grams, NutrientTotals totals) {
+        totals.addScaled(calories, protein, carbs, fats, grams / servingSize);
+    }
+
     @Override
     public String toString() {
         return "Food{name='" + name + "', cal=" + calories + ", P=" + protein + "g, C=" + carbs + "g, F=" + fats + "g}";
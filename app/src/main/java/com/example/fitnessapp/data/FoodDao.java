@@ -1,5 +1,7 @@
 package com.example.fitnessapp.data;
 
+import android.database.Cursor;
+
 import androidx.lifecycle.LiveData;
 import androidx.room.Dao;
 import androidx.room.Delete;
@@ -7,7 +9,11 @@ import androidx.room.Insert;
 import androidx.room.Query;
 import androidx.room.Update;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 
 /**
  * DAO for Food entity.
@@ -59,6 +65,7 @@ public interface FoodDao {
 
     /**
      * Search foods by name.
+     * Substring scan of the whole table; use searchFoodsRanked for interactive search.
      */
     @Query("SELECT * FROM foods WHERE name LIKE '%' || :searchQuery || '%' ORDER BY name ASC")
     LiveData<List<Food>> searchFoodsByName(String searchQuery);
@@ -98,4 +105,248 @@ public interface FoodDao {
      */
     @Query("SELECT COUNT(*) FROM foods WHERE name = :name AND userId = :userId")
     int checkFoodExists(String name, int userId);
-}
\ No newline at end of file
+
+    // ===== FULL-TEXT SEARCH =====
+
+    /**
+     * Foods whose name, brand or category match an FTS expression, ranked by name length.
+     * Every match visible to the user (catalog foods and their own custom foods) is ranked
+     * before the limit is applied: one rowid lookup per FTS hit plus a top-:limit sort, so
+     * a short exact match is never lost behind earlier-inserted hits.
+     */
+    @Query("SELECT f.id, f.name, f.brand, f.category, f.servingSize, f.calories, f.protein, f.carbs, f.fats, f.isCustom " +
+            "FROM foods_fts JOIN foods f ON f.id = foods_fts.docid " +
+            "WHERE foods_fts MATCH :match AND (f.isCustom = 0 OR f.userId = :userId) " +
+            "ORDER BY length(f.name) ASC, f.name ASC LIMIT :limit")
+    List<FoodSearchResult> searchFoodsFts(String match, int userId, int limit);
+
+    /**
+     * Foods whose name starts with one of three prefix spellings, ranked by name length.
+     * Each spelling is a range scan on the covering index_foods_name that keeps only its
+     * shortest :candidates names, so the cost is bounded by the range size rather than by
+     * every FTS hit, and only those candidates are looked up in foods. Candidates are padded
+     * by the caller for other users' custom foods, which are filtered out afterwards.
+     * Pass an empty range (end equal to start) for a spelling that repeats another.
+     */
+    @Query("SELECT id, name, brand, category, servingSize, calories, protein, carbs, fats, isCustom " +
+            "FROM foods WHERE id IN (" +
+            "SELECT id FROM (SELECT id FROM foods WHERE name >= :lower AND name < :lowerEnd " +
+            "ORDER BY length(name) ASC, name ASC LIMIT :candidates) " +
+            "UNION ALL SELECT id FROM (SELECT id FROM foods WHERE name >= :title AND name < :titleEnd " +
+            "ORDER BY length(name) ASC, name ASC LIMIT :candidates) " +
+            "UNION ALL SELECT id FROM (SELECT id FROM foods WHERE name >= :upper AND name < :upperEnd " +
+            "ORDER BY length(name) ASC, name ASC LIMIT :candidates)) " +
+            "AND (isCustom = 0 OR userId = :userId) " +
+            "ORDER BY length(name) ASC, name ASC LIMIT :limit")
+    List<FoodSearchResult> searchFoodsByNameRanges(String lower, String lowerEnd, String title, String titleEnd,
+                                                   String upper, String upperEnd, int userId,
+                                                   int candidates, int limit);
+
+    /**
+     * Foods whose name starts with a search token written in lower case, capitalized or in
+     * upper case (how catalog names are stored), shortest name first. index_foods_name
+     * compares names as stored, so each spelling is its own range.
+     *
+     * @param token Token from FoodFts.tokenize (lower case, at least two characters)
+     */
+    default List<FoodSearchResult> searchFoodsByNamePrefix(String token, int userId, int limit) {
+        String title = Character.toUpperCase(token.charAt(0)) + token.substring(1);
+        String upper = token.toUpperCase(Locale.ROOT);
+        return searchFoodsByNameRanges(
+                token, prefixRangeEnd(token),
+                title, title.equals(token) ? title : prefixRangeEnd(title),
+                upper, upper.equals(token) || upper.equals(title) ? upper : prefixRangeEnd(upper),
+                userId, limit * 2, limit);
+    }
+
+    /**
+     * Smallest string greater than every string starting with {@code prefix}.
+     */
+    static String prefixRangeEnd(String prefix) {
+        int last = prefix.length() - 1;
+        return prefix.substring(0, last) + (char) (prefix.charAt(last) + 1);
+    }
+
+    /**
+     * All custom foods of a user as search projections (a small set; filtered in memory
+     * by searchFoodsRanked, which is cheaper than one FTS lookup per row).
+     */
+    @Query("SELECT id, name, brand, category, servingSize, calories, protein, carbs, fats, isCustom " +
+            "FROM foods WHERE userId = :userId AND isCustom = 1 ORDER BY length(name) ASC, name ASC")
+    List<FoodSearchResult> getCustomFoodsForSearchSync(int userId);
+
+    /**
+     * Ranked prefix search for the food picker. Every word of the query is matched as a
+     * prefix of a word in the name, brand or category. Results in order:
+     * 1. the user's custom foods,
+     * 2. foods whose name starts with the first word,
+     * 3. other matches,
+     * each group shortest name first.
+     * A one-word query fills group 2 from bounded name-index range scans
+     * (searchFoodsByNamePrefix), so a two-letter prefix never ranks every FTS hit; the FTS
+     * stages only run for what those scans cannot fill (names starting with punctuation or
+     * accents, or fewer matches than the limit).
+     * MUST be called on a background thread.
+     *
+     * @param query Raw search text; words shorter than FoodFts.MIN_TOKEN_LENGTH are ignored
+     * @param userId The ID of the user whose custom foods are included
+     * @param limit Maximum number of results
+     * @return Matching foods, empty if the query has no usable word
+     */
+    default List<FoodSearchResult> searchFoodsRanked(String query, int userId, int limit) {
+        String[] tokens = FoodFts.tokenize(query);
+        if (tokens.length == 0 || limit <= 0) {
+            return new ArrayList<>();
+        }
+
+        Map<Integer, FoodSearchResult> ranked = new LinkedHashMap<>();
+        for (FoodSearchResult result : getCustomFoodsForSearchSync(userId)) {
+            if (ranked.size() >= limit) {
+                break;
+            }
+            if (FoodFts.matchesPrefixes(tokens, result.name, result.brand, result.category)) {
+                ranked.put(result.id, result);
+            }
+        }
+
+        if (tokens.length == 1 && ranked.size() < limit) {
+            for (FoodSearchResult result : searchFoodsByNamePrefix(tokens[0], userId, limit + ranked.size())) {
+                if (ranked.size() >= limit) {
+                    break;
+                }
+                if (!ranked.containsKey(result.id)) {
+                    ranked.put(result.id, result);
+                }
+            }
+        }
+
+        String[] stages = {FoodFts.toPrefixMatch(query, true), FoodFts.toPrefixMatch(query, false)};
+        for (String match : stages) {
+            if (ranked.size() >= limit) {
+                break;
+            }
+            // Ask for enough rows to fill the page after dropping ones already ranked
+            for (FoodSearchResult result : searchFoodsFts(match, userId, limit + ranked.size())) {
+                if (ranked.size() >= limit) {
+                    break;
+                }
+                if (!ranked.containsKey(result.id)) {
+                    ranked.put(result.id, result);
+                }
+            }
+        }
+        return new ArrayList<>(ranked.values());
+    }
+
+    // ===== BARCODE =====
+
+    /**
+     * Database food with the given barcode (a lookup on the partial index_foods_barcode).
+     */
+    @Query("SELECT * FROM foods WHERE barcode = :barcode AND isCustom = 0")
+    Food getCatalogFoodByBarcodeSync(String barcode);
+
+    /**
+     * The user's most recent custom food with the given barcode.
+     */
+    @Query("SELECT * FROM foods WHERE userId = :userId AND isCustom = 1 AND barcode = :barcode " +
+            "ORDER BY id DESC LIMIT 1")
+    Food getCustomFoodByBarcodeSync(String barcode, int userId);
+
+    /**
+     * Resolves a scanned barcode. The user's own custom food wins over the database food,
+     * so users can correct a catalog entry by saving their own version.
+     * MUST be called on a background thread.
+     *
+     * @param barcode Code as scanned (exact match, trimmed by the caller)
+     * @param userId The ID of the user whose custom foods are checked
+     * @return The food, or null if the barcode is unknown
+     */
+    default Food getFoodByBarcodeSync(String barcode, int userId) {
+        Food custom = getCustomFoodByBarcodeSync(barcode, userId);
+        return custom != null ? custom : getCatalogFoodByBarcodeSync(barcode);
+    }
+
+    // ===== MEAL PLANNING =====
+
+    /**
+     * Foods the user has logged or created, most logged first (the preferred meal plan
+     * candidates). Catalog foods are reached through meal_foods.foodId, so the catalog is
+     * not scanned.
+     */
+    @Query("SELECT f.id, f.name, f.servingSize, f.calories, f.protein, f.carbs, f.fats FROM foods f " +
+            "LEFT JOIN (SELECT mf.foodId, COUNT(*) AS uses FROM meal_foods mf " +
+            "JOIN meals m ON m.id = mf.mealId WHERE m.userId = :userId GROUP BY mf.foodId) u ON u.foodId = f.id " +
+            "WHERE f.id IN (SELECT mf.foodId FROM meal_foods mf JOIN meals m ON m.id = mf.mealId WHERE m.userId = :userId " +
+            "UNION SELECT id FROM foods WHERE userId = :userId AND isCustom = 1) " +
+            "ORDER BY IFNULL(u.uses, 0) DESC LIMIT :limit")
+    List<MealPlanCandidate> getUserMealPlanCandidatesSync(int userId, int limit);
+
+    /**
+     * Catalog foods with calories, either unbranded (generic = true) or branded.
+     * Unordered, so the scan stops after :limit rows.
+     */
+    @Query("SELECT id, name, servingSize, calories, protein, carbs, fats FROM foods " +
+            "WHERE isCustom = 0 AND calories > 0 AND (brand IS NULL) = :generic LIMIT :limit")
+    List<MealPlanCandidate> getCatalogMealPlanCandidatesSync(boolean generic, int limit);
+
+    // ===== AUTOCOMPLETE =====
+
+    /**
+     * (id, name, userId) of every food with an ID above afterId, shortest name first
+     * (the bulk-load order TrigramIndex expects). Used to build and catch up AutocompleteIndex.
+     *
+     * @param afterId Highest ID already indexed (Integer.MIN_VALUE for a full load)
+     * @return Cursor over the three columns; the caller must close it.
+     */
+    @Query("SELECT id, name, userId FROM foods WHERE id > :afterId ORDER BY length(name) ASC, id ASC")
+    Cursor queryFoodNamesAfter(int afterId);
+
+    // ===== IMPORT =====
+
+    /**
+     * (name, brand, barcode) of every catalog food, streamed so FoodImporter can seed its
+     * dedupe set without materializing Food objects.
+     *
+     * @return Cursor over the three columns; the caller must close it.
+     */
+    @Query("SELECT name, brand, barcode FROM foods WHERE isCustom = 0")
+    Cursor queryCatalogFoodKeys();
+
+    /**
+     * Highest food ID (0 if empty); foods inserted later have larger IDs.
+     */
+    @Query("SELECT IFNULL(MAX(id), 0) FROM foods")
+    int getMaxFoodIdSync();
+
+    // ===== POJO CLASSES =====
+
+    /**
+     * Lightweight projection of a food for search result lists.
+     */
+    class FoodSearchResult {
+        public int id;
+        public String name;
+        public String brand;
+        public String category;
+        public double servingSize;
+        public double calories;
+        public double protein;
+        public double carbs;
+        public double fats;
+        public boolean isCustom;
+    }
+
+    /**
+     * Per-serving nutrients of a food for MealPlanSolver.CandidatePool.
+     */
+    class MealPlanCandidate {
+        public int id;
+        public String name;
+        public double servingSize;
+        public double calories;
+        public double protein;
+        public double carbs;
+        public double fats;
+    }
+}
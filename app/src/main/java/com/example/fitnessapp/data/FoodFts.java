@@ -0,0 +1,217 @@
+package com.example.fitnessapp.data;
+
+import android.database.Cursor;
+
+import androidx.room.Entity;
+import androidx.room.Fts4;
+import androidx.room.FtsOptions;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * FTS4 index over the searchable text columns of the foods table.
+ * External-content table (content=foods): text is read from foods, only the index is stored.
+ * Room keeps it in sync with BEFORE/AFTER triggers on foods (created by MIGRATION_10_11 for
+ * upgraded databases); docid is the foods row id.
+ * The prefix index on 2 and 3 characters makes short prefix queries ("ch*") index lookups.
+ */
+@Fts4(contentEntity = Food.class, tokenizer = FtsOptions.TOKENIZER_UNICODE61, prefix = {2, 3})
+@Entity(tableName = "foods_fts")
+public class FoodFts {
+
+    /** Shortest token used in a prefix query; single characters are dropped (no 1-char prefix index). */
+    public static final int MIN_TOKEN_LENGTH = 2;
+
+    private static final int MAX_TOKENS = 8;
+
+    /** Room's content-sync trigger that indexes each inserted food. */
+    private static final String INSERT_SYNC_TRIGGER = "room_fts_content_sync_foods_fts_AFTER_INSERT";
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+
+    private String name;
+    private String brand;
+    private String category;
+
+    // Constructor
+    public FoodFts(String name, String brand, String category) {
+        this.name = name;
+        this.brand = brand;
+        this.category = category;
+    }
+
+    /**
+     * Builds an FTS MATCH expression where every token of the user's input is a prefix term
+     * (implicit AND). Tokens come from tokenize(), so FTS operators, quotes and column
+     * filters typed by the user are never passed through.
+     *
+     * @param query Raw search text
+     * @param anchorToName If true, the first token must start the food name ("name:^tok*")
+     * @return The MATCH expression, or null if no token is long enough
+     */
+    public static String toPrefixMatch(String query, boolean anchorToName) {
+        String[] tokens = tokenize(query);
+        if (tokens.length == 0) {
+            return null;
+        }
+
+        StringBuilder match = new StringBuilder();
+        for (int i = 0; i < tokens.length; i++) {
+            if (i > 0) {
+                match.append(' ');
+            } else if (anchorToName) {
+                match.append("name:^");
+            }
+            match.append(tokens[i]).append('*');
+        }
+        return match.toString();
+    }
+
+    /**
+     * Splits search text the way the unicode61 tokenizer does for the queries built here:
+     * lower case, diacritics removed, letters and digits only. Tokens shorter than
+     * MIN_TOKEN_LENGTH are dropped; at most MAX_TOKENS are kept.
+     */
+    public static String[] tokenize(String query) {
+        List<String> tokens = words(query, MIN_TOKEN_LENGTH);
+        if (tokens.size() > MAX_TOKENS) {
+            tokens = tokens.subList(0, MAX_TOKENS);
+        }
+        return tokens.toArray(new String[0]);
+    }
+
+    /**
+     * In-memory equivalent of the prefix MATCH: true if every token starts a word of
+     * name, brand or category. Used for small row sets where an FTS lookup per row
+     * would cost more than the comparison.
+     *
+     * @param tokens Tokens from tokenize()
+     */
+    public static boolean matchesPrefixes(String[] tokens, String name, String brand, String category) {
+        List<String> words = words(name, 1);
+        words.addAll(words(brand, 1));
+        words.addAll(words(category, 1));
+        for (String token : tokens) {
+            boolean found = false;
+            for (String word : words) {
+                if (word.startsWith(token)) {
+                    found = true;
+                    break;
+                }
+            }
+            if (!found) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static List<String> words(String text, int minLength) {
+        List<String> words = new ArrayList<>();
+        if (text == null) {
+            return words;
+        }
+
+        String folded = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD))
+                .replaceAll("").toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= folded.length(); i++) {
+            boolean letterOrDigit = i < folded.length() && Character.isLetterOrDigit(folded.charAt(i));
+            if (letterOrDigit && start < 0) {
+                start = i;
+            } else if (!letterOrDigit && start >= 0) {
+                if (i - start >= minLength) {
+                    words.add(folded.substring(start, i));
+                }
+                start = -1;
+            }
+        }
+        return words;
+    }
+
+    // --- Bulk loading ---
+
+    /**
+     * Stops indexing inserted foods until resumeInsertSync() (for bulk imports).
+     * FTS4 flushes its pending terms at every statement boundary, so the per-row sync trigger
+     * writes one index segment per food and merging them dominates a large import. Indexing
+     * the new rows afterwards with one INSERT ... SELECT builds the segments in bulk.
+     * Updates and deletes stay synchronized meanwhile.
+     */
+    public static void suspendInsertSync(SupportSQLiteDatabase database) {
+        database.execSQL("DROP TRIGGER IF EXISTS " + INSERT_SYNC_TRIGGER);
+    }
+
+    /**
+     * Indexes every food with an ID above afterId and restores the insert trigger,
+     * in one transaction.
+     *
+     * @param afterId Highest food ID before insert sync was suspended
+     */
+    public static void resumeInsertSync(SupportSQLiteDatabase database, int afterId) {
+        database.beginTransaction();
+        try {
+            database.execSQL("INSERT INTO `foods_fts`(`docid`, `name`, `brand`, `category`) " +
+                    "SELECT `id`, `name`, `brand`, `category` FROM `foods` WHERE `id` > " + afterId);
+            createInsertTrigger(database);
+            database.setTransactionSuccessful();
+        } finally {
+            database.endTransaction();
+        }
+    }
+
+    /**
+     * Restores the insert trigger and rebuilds the index if a bulk import was interrupted
+     * (process killed between suspendInsertSync and resumeInsertSync). Called on every open;
+     * normally a single sqlite_master lookup.
+     */
+    public static void repairInsertSync(SupportSQLiteDatabase database) {
+        boolean present;
+        try (Cursor cursor = database.query(
+                "SELECT 1 FROM sqlite_master WHERE type = 'trigger' AND name = ?",
+                new Object[]{INSERT_SYNC_TRIGGER})) {
+            present = cursor.moveToFirst();
+        }
+        if (!present) {
+            createInsertTrigger(database);
+            database.execSQL("INSERT INTO `foods_fts`(`foods_fts`) VALUES('rebuild')");
+        }
+    }
+
+    private static void createInsertTrigger(SupportSQLiteDatabase database) {
+        // Same definition Room generates for the contentEntity
+        database.execSQL("CREATE TRIGGER IF NOT EXISTS " + INSERT_SYNC_TRIGGER + " " +
+                "AFTER INSERT ON `foods` BEGIN INSERT INTO `foods_fts`(`docid`, `name`, `brand`, `category`) " +
+                "VALUES (NEW.`rowid`, NEW.`name`, NEW.`brand`, NEW.`category`); END");
+    }
+
+    // Getters and Setters
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getBrand() {
+        return brand;
+    }
+
+    public void setBrand(String brand) {
+        this.brand = brand;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public void setCategory(String category) {
+        this.category = category;
+    }
+}
@@ -5,9 +5,12 @@ import androidx.room.ForeignKey;
 import androidx.room.Index;
 import androidx.room.PrimaryKey;
 
+import com.example.fitnessapp.util.EpochDays;
+
 /**
  * Entity representing a meal (breakfast, lunch, dinner, or snack).
- * Total nutrition values are calculated from associated meal_foods.
+ * Total nutrition values are calculated from associated meal_foods by SQLite triggers
+ * (see NutritionTotalTriggers); values written through Room are recomputed on update.
  */
 @Entity(
         tableName = "meals",
@@ -30,7 +33,7 @@ public class Meal {
 
     private int userId;
     private String mealType;         // 'breakfast', 'lunch', 'dinner', 'snack'
-    private String date;             // 'YYYY-MM-DD' format
+    private long date;               // Epoch day (EpochDays)
     private long timestamp;
     private String notes;
 
@@ -41,7 +44,7 @@ public class Meal {
     private double totalFats;
 
     // Constructor
-    public Meal(int userId, String mealType, String date) {
+    public Meal(int userId, String mealType, long date) {
         this.userId = userId;
         this.mealType = mealType;
         this.date = date;
@@ -77,11 +80,11 @@ public class Meal {
         this.mealType = mealType;
     }
 
-    public String getDate() {
+    public long getDate() {
         return date;
     }
 
-    public void setDate(String date) {
+    public void setDate(long date) {
         this.date = date;
     }
 
@@ -135,6 +138,7 @@ public class Meal {
 
     /**
      * Update meal totals by adding food nutrition.
+     * In-memory only: stored totals are maintained by NutritionTotalTriggers.
      */
     public void addFoodNutrition(double calories, double protein, double carbs, double fats) {
         this.totalCalories += calories;
@@ -153,7 +157,7 @@ public class Meal {
 
     @Override
     public String toString() {
-        return "Meal{" + mealType + " on " + date + ", " +
+        return "Meal{" + mealType + " on " + EpochDays.format(date) + ", " +
                 String.format("%.0f cal", totalCalories) + "}";
     }
 }
\ No newline at end of file
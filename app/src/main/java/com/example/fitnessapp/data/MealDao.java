@@ -1,5 +1,7 @@
 package com.example.fitnessapp.data;
 
+import android.database.Cursor;
+
 import androidx.lifecycle.LiveData;
 import androidx.room.Dao;
 import androidx.room.Delete;
@@ -12,6 +14,7 @@ import java.util.List;
 /**
  * DAO for Meal entity.
  * Provides methods to interact with the meals table.
+ * Dates are epoch days (EpochDays); ranges are inclusive.
  */
 @Dao
 public interface MealDao {
@@ -41,7 +44,7 @@ public interface MealDao {
      * Delete all meals for a specific date.
      */
     @Query("DELETE FROM meals WHERE userId = :userId AND date = :date")
-    void deleteMealsByDate(int userId, String date);
+    void deleteMealsByDate(int userId, long date);
 
     // ===== QUERIES =====
 
@@ -55,13 +58,13 @@ public interface MealDao {
      * Get meals for a specific date.
      */
     @Query("SELECT * FROM meals WHERE userId = :userId AND date = :date ORDER BY timestamp ASC")
-    LiveData<List<Meal>> getMealsByDate(int userId, String date);
+    LiveData<List<Meal>> getMealsByDate(int userId, long date);
 
     /**
      * Get meals for a specific date (non-LiveData for immediate access).
      */
     @Query("SELECT * FROM meals WHERE userId = :userId AND date = :date ORDER BY timestamp ASC")
-    List<Meal> getMealsByDateSync(int userId, String date);
+    List<Meal> getMealsByDateSync(int userId, long date);
 
     /**
      * Get meal by ID.
@@ -79,13 +82,13 @@ public interface MealDao {
      * Get meals by type for a specific date.
      */
     @Query("SELECT * FROM meals WHERE userId = :userId AND date = :date AND mealType = :mealType")
-    LiveData<List<Meal>> getMealsByTypeAndDate(int userId, String date, String mealType);
+    LiveData<List<Meal>> getMealsByTypeAndDate(int userId, long date, String mealType);
 
     /**
      * Get meals within a date range.
      */
     @Query("SELECT * FROM meals WHERE userId = :userId AND date BETWEEN :startDate AND :endDate ORDER BY date ASC, timestamp ASC")
-    LiveData<List<Meal>> getMealsInDateRange(int userId, String startDate, String endDate);
+    LiveData<List<Meal>> getMealsInDateRange(int userId, long startDate, long endDate);
 
     /**
      * Get recent meals (last N meals).
@@ -97,23 +100,69 @@ public interface MealDao {
      * Count meals for today.
      */
     @Query("SELECT COUNT(*) FROM meals WHERE userId = :userId AND date = :date")
-    LiveData<Integer> getMealCountForDate(int userId, String date);
+    LiveData<Integer> getMealCountForDate(int userId, long date);
 
     /**
      * Get total calories for a specific date.
      */
     @Query("SELECT SUM(totalCalories) FROM meals WHERE userId = :userId AND date = :date")
-    LiveData<Double> getTotalCaloriesForDate(int userId, String date);
+    LiveData<Double> getTotalCaloriesForDate(int userId, long date);
 
     /**
      * Check if a meal type exists for a date (to prevent duplicates).
      */
     @Query("SELECT COUNT(*) FROM meals WHERE userId = :userId AND date = :date AND mealType = :mealType")
-    int checkMealExists(int userId, String date, String mealType);
+    int checkMealExists(int userId, long date, String mealType);
 
     /**
      * Get all unique dates where user has logged meals.
      */
     @Query("SELECT DISTINCT date FROM meals WHERE userId = :userId ORDER BY date DESC")
-    LiveData<List<String>> getDatesWithMeals(int userId);
+    LiveData<List<Long>> getDatesWithMeals(int userId);
+
+    /**
+     * Get the distinct dates with meals in an inclusive date range, oldest first.
+     */
+    @Query("SELECT DISTINCT date FROM meals WHERE userId = :userId AND date BETWEEN :startDate AND :endDate " +
+            "ORDER BY date ASC")
+    List<Long> getMealDatesInRangeSync(int userId, long startDate, long endDate);
+
+    // ===== NUTRIENT AGGREGATION =====
+
+    /**
+     * Streams every food logged in an inclusive date range as (gramsConsumed, servingSize,
+     * calories, protein, carbs, fats) rows, for allocation-free summing
+     * (NutritionRepository.sumNutritionInRangeSync). Meals are found through
+     * index_meals_userId_date and their foods through index_meal_foods_mealId.
+     * The caller must close the cursor.
+     */
+    @Query("SELECT mf.gramsConsumed, f.servingSize, f.calories, f.protein, f.carbs, f.fats " +
+            "FROM meals m " +
+            "INNER JOIN meal_foods mf ON mf.mealId = m.id " +
+            "INNER JOIN foods f ON f.id = mf.foodId " +
+            "WHERE m.userId = :userId AND m.date BETWEEN :startDate AND :endDate")
+    Cursor queryMealFoodNutritionInRange(int userId, long startDate, long endDate);
+
+    // ===== TOTALS REBUILD =====
+
+    /**
+     * Recomputes the totals of every meal in an inclusive date range from meal_foods × foods
+     * in one statement (each meal's foods are read through index_meal_foods_mealId).
+     * An UPDATE rather than INSERT OR REPLACE: replacing a meals row would cascade-delete its meal_foods.
+     * Run with NutritionTotalTriggers uninstalled (NutritionRepository.rebuildNutritionTotalsSync);
+     * otherwise meals_after_update recomputes each meal and its day again per row.
+     *
+     * @return Number of meals updated
+     */
+    @Query("UPDATE meals SET " +
+            "totalCalories = (SELECT COALESCE(SUM(f.calories * mf.gramsConsumed / f.servingSize), 0) " +
+            "FROM meal_foods mf JOIN foods f ON f.id = mf.foodId WHERE mf.mealId = meals.id), " +
+            "totalProtein = (SELECT COALESCE(SUM(f.protein * mf.gramsConsumed / f.servingSize), 0) " +
+            "FROM meal_foods mf JOIN foods f ON f.id = mf.foodId WHERE mf.mealId = meals.id), " +
+            "totalCarbs = (SELECT COALESCE(SUM(f.carbs * mf.gramsConsumed / f.servingSize), 0) " +
+            "FROM meal_foods mf JOIN foods f ON f.id = mf.foodId WHERE mf.mealId = meals.id), " +
+            "totalFats = (SELECT COALESCE(SUM(f.fats * mf.gramsConsumed / f.servingSize), 0) " +
+            "FROM meal_foods mf JOIN foods f ON f.id = mf.foodId WHERE mf.mealId = meals.id) " +
+            "WHERE userId = :userId AND date BETWEEN :startDate AND :endDate")
+    int rebuildTotalsInRange(int userId, long startDate, long endDate);
 }
\ No newline at end of file
@@ -7,6 +7,8 @@ import androidx.room.Insert;
 import androidx.room.Query;
 import androidx.room.Update;
 
+import com.example.fitnessapp.model.NutrientTotals;
+
 import java.util.List;
 
 /**
@@ -91,7 +93,7 @@ public interface MealFoodDao {
      * Get foods with their details (JOIN query).
      * Returns MealFood entries with actual Food info.
      */
-    @Query("SELECT mf.*, f.name, f.calories, f.protein, f.carbs, f.fats " +
+    @Query("SELECT mf.*, f.name, f.servingSize, f.calories, f.protein, f.carbs, f.fats " +
             "FROM meal_foods mf " +
             "INNER JOIN foods f ON mf.foodId = f.id " +
             "WHERE mf.mealId = :mealId")
@@ -108,8 +110,9 @@ public interface MealFoodDao {
         public double servings;
         public double gramsConsumed;
 
-        // Food details
+        // Food details (nutrition per servingSize grams)
         public String name;
+        public double servingSize;
         public double calories;
         public double protein;
         public double carbs;
@@ -117,9 +120,10 @@ public interface MealFoodDao {
 
         /**
          * Calculate nutrition for this serving.
+         * Allocates per call; use addNutritionTo when summing many rows.
          */
         public double[] calculateNutrition() {
-            double ratio = gramsConsumed / 100.0;  // Nutrition is per 100g
+            double ratio = gramsConsumed / servingSize;
             return new double[]{
                     calories * ratio,
                     protein * ratio,
@@ -127,5 +131,12 @@ public interface MealFoodDao {
                     fats * ratio
             };
         }
+
+        /**
+         * Adds the nutrition of this serving to running totals without allocating.
+         */
+        public void addNutritionTo(NutrientTotals totals) {
+            totals.addScaled(calories, protein, carbs, fats, gramsConsumed / servingSize);
+        }
     }
 }
\ No newline at end of file
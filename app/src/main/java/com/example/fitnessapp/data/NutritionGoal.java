@@ -24,6 +24,9 @@ import androidx.room.PrimaryKey;
 )
 public class NutritionGoal {
 
+    // Goals older than this are recalculated (30 days)
+    public static final long RECALCULATION_INTERVAL_MS = 30L * 24 * 60 * 60 * 1000;
+
     @PrimaryKey(autoGenerate = true)
     private int id;
 
@@ -199,8 +202,14 @@ public class NutritionGoal {
      * Check if goals need recalculation (older than 30 days).
      */
     public boolean needsRecalculation() {
-        long thirtyDaysMs = 30L * 24 * 60 * 60 * 1000;
-        return (System.currentTimeMillis() - calculatedAt) > thirtyDaysMs;
+        return needsRecalculation(System.currentTimeMillis());
+    }
+
+    /**
+     * Same check against a caller-supplied clock (GoalRecalculationJob).
+     */
+    public boolean needsRecalculation(long currentTime) {
+        return (currentTime - calculatedAt) > RECALCULATION_INTERVAL_MS;
     }
 
     @Override
@@ -112,6 +112,20 @@ public interface NutritionGoalDao {
     @Query("SELECT ((:currentTime - calculatedAt) > 2592000000) FROM nutrition_goals WHERE userId = :userId")
     boolean needsRecalculation(int userId, long currentTime);
 
+    // ===== BATCH RECALCULATION =====
+
+    /**
+     * Get every goal calculated before a cutoff, with the profile inputs and the user's
+     * latest logged weight (kg), in one query. The weight subquery is a single index seek
+     * on weight_entry_table (userId, timestamp); latestWeight is null when the user has no
+     * weight entries. Used by GoalRecalculationJob.
+     */
+    @Query("SELECT g.userId, g.height, g.age, g.gender, g.activityLevel, g.goal, " +
+            "(SELECT w.weight FROM weight_entry_table w WHERE w.userId = g.userId " +
+            "ORDER BY w.timestamp DESC LIMIT 1) AS latestWeight " +
+            "FROM nutrition_goals g WHERE g.calculatedAt < :staleBefore ORDER BY g.userId ASC")
+    java.util.List<StaleGoal> getStaleGoalsSync(long staleBefore);
+
     /**
      * Get goals by fitness goal type (for statistics/comparisons).
      */
@@ -123,4 +137,19 @@ public interface NutritionGoalDao {
      */
     @Query("SELECT COUNT(*) FROM nutrition_goals WHERE goal = :goalType")
     LiveData<Integer> countUsersByGoalType(String goalType);
-}
\ No newline at end of file
+
+    // ===== POJO CLASSES =====
+
+    /**
+     * Profile inputs of a goal due for recalculation, plus the user's latest weight.
+     */
+    class StaleGoal {
+        public int userId;
+        public double height;
+        public int age;
+        public String gender;
+        public String activityLevel;
+        public String goal;
+        public Double latestWeight;      // kg; null if no weight entries
+    }
+}
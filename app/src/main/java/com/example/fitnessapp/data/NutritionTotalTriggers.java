@@ -0,0 +1,140 @@
+package com.example.fitnessapp.data;
+
+import androidx.sqlite.db.SupportSQLiteDatabase;
+
+/**
+ * SQLite triggers that keep the denormalized nutrition totals correct:
+ * meals.total* from meal_foods × foods, and daily_nutrition_summary from meals.
+ * Totals are recomputed from their sources (a handful of index-backed rows per meal or day)
+ * rather than adjusted by deltas, so they cannot drift and run inside the writing statement's
+ * transaction. Installed by MIGRATION_9_10 and on every database open, so a destructive
+ * schema reset gets them too (reinstalled by MIGRATION_12_13 around its table rebuild).
+ *
+ * Trigger chain:
+ *   meal_foods INSERT/UPDATE/DELETE → touch the owning meal(s)
+ *   meals INSERT/UPDATE             → recompute the meal's totals, then its day
+ *   meals moved to another day/user → also recompute the day it left
+ *   meals DELETE                    → recompute the day; a day without meals loses its summary
+ *
+ * meals_after_update also runs on Room @Update of a Meal, so a stale entity written back
+ * cannot overwrite the totals. (SQLite does not re-fire a trigger from its own body.)
+ */
+public final class NutritionTotalTriggers {
+
+    private static final String[] NUTRIENTS = {"Calories", "Protein", "Carbs", "Fats"};
+
+    private static final String[] TRIGGERS = {
+            "meal_foods_after_insert", "meal_foods_after_update", "meal_foods_after_delete",
+            "meals_after_insert", "meals_after_update", "meals_after_move", "meals_after_delete"
+    };
+
+    private NutritionTotalTriggers() {
+    }
+
+    /**
+     * Creates the triggers (idempotent).
+     */
+    public static void install(SupportSQLiteDatabase database) {
+        // --- meal_foods: mark the owning meal as changed ---
+        database.execSQL("CREATE TRIGGER IF NOT EXISTS `meal_foods_after_insert` " +
+                "AFTER INSERT ON `meal_foods` BEGIN " +
+                touchMeal("NEW.mealId") +
+                "END");
+        database.execSQL("CREATE TRIGGER IF NOT EXISTS `meal_foods_after_update` " +
+                "AFTER UPDATE ON `meal_foods` BEGIN " +
+                touchMeal("NEW.mealId OR id = OLD.mealId") +
+                "END");
+        database.execSQL("CREATE TRIGGER IF NOT EXISTS `meal_foods_after_delete` " +
+                "AFTER DELETE ON `meal_foods` BEGIN " +
+                touchMeal("OLD.mealId") +
+                "END");
+
+        // --- meals: recompute meal totals and daily summaries ---
+        database.execSQL("CREATE TRIGGER IF NOT EXISTS `meals_after_insert` " +
+                "AFTER INSERT ON `meals` BEGIN " +
+                recomputeMeal("NEW.id") +
+                recomputeDay("NEW") +
+                "END");
+        database.execSQL("CREATE TRIGGER IF NOT EXISTS `meals_after_update` " +
+                "AFTER UPDATE OF `userId`, `date`, `totalCalories`, `totalProtein`, `totalCarbs`, `totalFats` " +
+                "ON `meals` BEGIN " +
+                recomputeMeal("NEW.id") +
+                recomputeDay("NEW") +
+                "END");
+        database.execSQL("CREATE TRIGGER IF NOT EXISTS `meals_after_move` " +
+                "AFTER UPDATE OF `userId`, `date` ON `meals` " +
+                "WHEN OLD.`userId` <> NEW.`userId` OR OLD.`date` IS NOT NEW.`date` BEGIN " +
+                recomputeDay("OLD") +
+                "END");
+        database.execSQL("CREATE TRIGGER IF NOT EXISTS `meals_after_delete` " +
+                "AFTER DELETE ON `meals` BEGIN " +
+                recomputeDay("OLD") +
+                "END");
+    }
+
+    /**
+     * Drops the triggers (idempotent), e.g. while a migration rebuilds the tables they reference.
+     */
+    public static void uninstall(SupportSQLiteDatabase database) {
+        for (String trigger : TRIGGERS) {
+            database.execSQL("DROP TRIGGER IF EXISTS `" + trigger + "`");
+        }
+    }
+
+    /**
+     * Recomputes every meal's totals and every summary of a day that has meals
+     * (one-off repair of totals maintained by hand before the triggers existed).
+     */
+    public static void recomputeAll(SupportSQLiteDatabase database) {
+        // Fires meals_after_update for each meal
+        database.execSQL("UPDATE `meals` SET `totalCalories` = `totalCalories`");
+    }
+
+    /**
+     * No-op write that fires meals_after_update for the given meal(s).
+     */
+    private static String touchMeal(String mealIdCondition) {
+        return "UPDATE `meals` SET `totalCalories` = `totalCalories` WHERE id = " + mealIdCondition + "; ";
+    }
+
+    private static String recomputeMeal(String mealId) {
+        StringBuilder sql = new StringBuilder("UPDATE `meals` SET ");
+        for (int i = 0; i < NUTRIENTS.length; i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append("`total").append(NUTRIENTS[i]).append("` = (")
+                    .append("SELECT COALESCE(SUM(f.`").append(NUTRIENTS[i].toLowerCase())
+                    .append("` * mf.`gramsConsumed` / f.`servingSize`), 0) ")
+                    .append("FROM `meal_foods` mf JOIN `foods` f ON f.`id` = mf.`foodId` ")
+                    .append("WHERE mf.`mealId` = ").append(mealId).append(")");
+        }
+        return sql.append(" WHERE `id` = ").append(mealId).append("; ").toString();
+    }
+
+    /**
+     * @param row NEW or OLD meals row whose (userId, date) summary is recomputed
+     */
+    private static String recomputeDay(String row) {
+        String day = "`userId` = " + row + ".`userId` AND `date` = " + row + ".`date`";
+
+        StringBuilder sql = new StringBuilder();
+        sql.append("INSERT OR IGNORE INTO `daily_nutrition_summary` (`userId`, `date`, ")
+                .append("`totalCalories`, `totalProtein`, `totalCarbs`, `totalFats`, `mealsLogged`, `lastUpdated`) ")
+                .append("SELECT ").append(row).append(".`userId`, ").append(row).append(".`date`, 0, 0, 0, 0, 0, 0 ")
+                .append("WHERE EXISTS (SELECT 1 FROM `meals` WHERE ").append(day).append("); ");
+
+        sql.append("UPDATE `daily_nutrition_summary` SET ");
+        for (String nutrient : NUTRIENTS) {
+            sql.append("`total").append(nutrient).append("` = (SELECT COALESCE(SUM(`total")
+                    .append(nutrient).append("`), 0) FROM `meals` WHERE ").append(day).append("), ");
+        }
+        sql.append("`mealsLogged` = (SELECT COUNT(*) FROM `meals` WHERE ").append(day).append("), ")
+                .append("`lastUpdated` = CAST(strftime('%s', 'now') AS INTEGER) * 1000 ")
+                .append("WHERE ").append(day).append("; ");
+
+        sql.append("DELETE FROM `daily_nutrition_summary` WHERE ").append(day)
+                .append(" AND NOT EXISTS (SELECT 1 FROM `meals` WHERE ").append(day).append("); ");
+        return sql.toString();
+    }
+}
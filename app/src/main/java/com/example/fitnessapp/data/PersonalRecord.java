@@ -34,7 +34,8 @@ import androidx.room.PrimaryKey;
         indices = {
                 @Index(value = "userId"),
                 @Index(value = "exerciseId"),
-                @Index(value = {"userId", "exerciseId", "recordType"}, unique = true)
+                @Index(value = {"userId", "exerciseId", "recordType"}, unique = true),
+                @Index(value = {"userId", "dateAchieved"})
         }
 )
 public class PersonalRecord {
@@ -47,11 +48,11 @@ public class PersonalRecord {
     private String recordType;        // 'max_weight', 'max_volume', 'max_reps', 'estimated_1rm'
     private double recordValue;       // The actual record value (lbs or count)
     private Integer reps;             // For max_weight records (how many reps at that weight)
-    private String dateAchieved;      // 'YYYY-MM-DD'
+    private long dateAchieved;        // Epoch day (EpochDays)
     private Integer workoutSetId;     // Reference to the set that achieved this PR
 
     // Constructor
-    public PersonalRecord(int userId, int exerciseId, String recordType, double recordValue, String dateAchieved) {
+    public PersonalRecord(int userId, int exerciseId, String recordType, double recordValue, long dateAchieved) {
         this.userId = userId;
         this.exerciseId = exerciseId;
         this.recordType = recordType;
@@ -108,11 +109,11 @@ public class PersonalRecord {
         this.reps = reps;
     }
 
-    public String getDateAchieved() {
+    public long getDateAchieved() {
         return dateAchieved;
     }
 
-    public void setDateAchieved(String dateAchieved) {
+    public void setDateAchieved(long dateAchieved) {
         this.dateAchieved = dateAchieved;
     }
 
@@ -12,6 +12,7 @@ import java.util.List;
 
 /**
  * DAO for PersonalRecord entity.
+ * Dates are epoch days (EpochDays); ranges are inclusive.
  */
 @Dao
 public interface PersonalRecordDao {
@@ -94,7 +95,7 @@ public interface PersonalRecordDao {
      * Get PRs achieved in date range.
      */
     @Query("SELECT * FROM personal_records WHERE userId = :userId AND dateAchieved BETWEEN :startDate AND :endDate ORDER BY dateAchieved DESC")
-    LiveData<List<PersonalRecord>> getRecordsInRange(int userId, String startDate, String endDate);
+    LiveData<List<PersonalRecord>> getRecordsInRange(int userId, long startDate, long endDate);
 
     /**
      * Count total PRs for user.
@@ -0,0 +1,109 @@
+package com.example.fitnessapp.data;
+
+import androidx.room.Entity;
+import androidx.room.ForeignKey;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+
+/**
+ * Entity representing a user's multi-ingredient dish.
+ * The recipe is logged through its own custom Food (foodId), whose per-100g nutrition is
+ * the flattened sum of the ingredients, kept current by SQLite triggers (see RecipeTriggers).
+ * Logging a recipe is therefore one meal_foods row, and meal and daily totals need no
+ * extra join.
+ */
+@Entity(
+        tableName = "recipes",
+        foreignKeys = {
+                @ForeignKey(
+                        entity = User.class,
+                        parentColumns = "id",
+                        childColumns = "userId",
+                        onDelete = ForeignKey.CASCADE
+                ),
+                @ForeignKey(
+                        entity = Food.class,
+                        parentColumns = "id",
+                        childColumns = "foodId",
+                        onDelete = ForeignKey.CASCADE
+                )
+        },
+        indices = {
+                @Index(value = "userId"),
+                @Index(value = "foodId", unique = true)  // One recipe per flattened food
+        }
+)
+public class Recipe {
+
+    @PrimaryKey(autoGenerate = true)
+    private int id;
+
+    private int userId;
+    private int foodId;              // Flattened Food (name, per-100g nutrition) that gets logged
+    private double yieldGrams;       // Finished weight; 0 = sum of ingredient grams
+    private long createdAt;
+    private long updatedAt;
+
+    // Constructor
+    public Recipe(int userId, int foodId, double yieldGrams) {
+        this.userId = userId;
+        this.foodId = foodId;
+        this.yieldGrams = yieldGrams;
+        this.createdAt = System.currentTimeMillis();
+        this.updatedAt = this.createdAt;
+    }
+
+    // Getters and Setters
+    public int getId() {
+        return id;
+    }
+
+    public void setId(int id) {
+        this.id = id;
+    }
+
+    public int getUserId() {
+        return userId;
+    }
+
+    public void setUserId(int userId) {
+        this.userId = userId;
+    }
+
+    public int getFoodId() {
+        return foodId;
+    }
+
+    public void setFoodId(int foodId) {
+        this.foodId = foodId;
+    }
+
+    public double getYieldGrams() {
+        return yieldGrams;
+    }
+
+    public void setYieldGrams(double yieldGrams) {
+        this.yieldGrams = yieldGrams;
+    }
+
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(long createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public long getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(long updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    @Override
+    public String toString() {
+        return "Recipe{food=" + foodId + ", yield=" + String.format("%.0f g", yieldGrams) + "}";
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.fitnessapp.data;
+
+import androidx.lifecycle.LiveData;
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.Query;
+import androidx.room.Update;
+
+import java.util.List;
+
+/**
+ * DAO for Recipe and RecipeIngredient entities.
+ * The flattened nutrition lives on each recipe's Food (maintained by RecipeTriggers);
+ * recipes are saved and deleted through NutritionRepository.
+ */
+@Dao
+public interface RecipeDao {
+
+    // ===== INSERT =====
+
+    @Insert
+    long insert(Recipe recipe);
+
+    @Insert
+    List<Long> insertIngredients(List<RecipeIngredient> ingredients);
+
+    // ===== UPDATE =====
+
+    @Update
+    void update(Recipe recipe);
+
+    // ===== DELETE =====
+
+    @Query("DELETE FROM recipes WHERE id = :recipeId")
+    void deleteById(int recipeId);
+
+    /**
+     * Delete all ingredients of a recipe (before saving a new ingredient list).
+     */
+    @Query("DELETE FROM recipe_ingredients WHERE recipeId = :recipeId")
+    void deleteIngredientsForRecipe(int recipeId);
+
+    // ===== QUERIES =====
+
+    @Query("SELECT * FROM recipes WHERE id = :recipeId")
+    Recipe getRecipeByIdSync(int recipeId);
+
+    /**
+     * Get the recipe behind a flattened food (null for ordinary foods).
+     */
+    @Query("SELECT * FROM recipes WHERE foodId = :foodId")
+    Recipe getRecipeByFoodIdSync(int foodId);
+
+    /**
+     * Get the ingredients of a recipe.
+     */
+    @Query("SELECT * FROM recipe_ingredients WHERE recipeId = :recipeId")
+    List<RecipeIngredient> getIngredientsSync(int recipeId);
+
+    /**
+     * Get a user's recipes as their loggable foods, by name.
+     */
+    @Query("SELECT f.* FROM foods f INNER JOIN recipes r ON r.foodId = f.id " +
+            "WHERE r.userId = :userId ORDER BY f.name ASC")
+    LiveData<List<Food>> getRecipeFoodsForUser(int userId);
+
+    /**
+     * Count how many of the given foods are recipe foods.
+     */
+    @Query("SELECT COUNT(*) FROM recipes WHERE foodId IN (:foodIds)")
+    int countRecipeFoods(List<Integer> foodIds);
+
+    /**
+     * Check if a food has been logged in any meal (its Food row must then be kept).
+     */
+    @Query("SELECT COUNT(*) FROM meal_foods WHERE foodId = :foodId")
+    int countMealUses(int foodId);
+}
@@ -0,0 +1,87 @@
+package com.example.fitnessapp.data;
+
+import androidx.room.Entity;
+import androidx.room.ForeignKey;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+
+/**
+ * Join table linking recipes to their ingredient foods.
+ * Represents: "This recipe uses X grams of this food."
+ */
+@Entity(
+        tableName = "recipe_ingredients",
+        foreignKeys = {
+                @ForeignKey(
+                        entity = Recipe.class,
+                        parentColumns = "id",
+                        childColumns = "recipeId",
+                        onDelete = ForeignKey.CASCADE
+                ),
+                @ForeignKey(
+                        entity = Food.class,
+                        parentColumns = "id",
+                        childColumns = "foodId",
+                        onDelete = ForeignKey.RESTRICT
+                )
+        },
+        indices = {
+                @Index(value = "recipeId"),
+                @Index(value = "foodId")
+        }
+)
+public class RecipeIngredient {
+
+    @PrimaryKey(autoGenerate = true)
+    private int id;
+
+    private int recipeId;            // Which recipe this belongs to
+    private int foodId;              // Ingredient food (not itself a recipe)
+    private double grams;            // Raw grams used
+
+    // Constructor
+    public RecipeIngredient(int recipeId, int foodId, double grams) {
+        this.recipeId = recipeId;
+        this.foodId = foodId;
+        this.grams = grams;
+    }
+
+    // Getters and Setters
+    public int getId() {
+        return id;
+    }
+
+    public void setId(int id) {
+        this.id = id;
+    }
+
+    public int getRecipeId() {
+        return recipeId;
+    }
+
+    public void setRecipeId(int recipeId) {
+        this.recipeId = recipeId;
+    }
+
+    public int getFoodId() {
+        return foodId;
+    }
+
+    public void setFoodId(int foodId) {
+        this.foodId = foodId;
+    }
+
+    public double getGrams() {
+        return grams;
+    }
+
+    public void setGrams(double grams) {
+        this.grams = grams;
+    }
+
+    @Override
+    public String toString() {
+        return "RecipeIngredient{recipe=" + recipeId + ", food=" + foodId + ", " +
+                String.format("%.0f g", grams) + "}";
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.fitnessapp.data;
+
+import androidx.sqlite.db.SupportSQLiteDatabase;
+
+/**
+ * SQLite triggers that keep each recipe's flattened Food current: per-100g nutrition
+ * = Σ(ingredient nutrition × grams / servingSize) × 100 / yield, where the yield is
+ * Recipe.yieldGrams or, if 0, the total ingredient grams. Like NutritionTotalTriggers the
+ * values are recomputed from the ingredients (a few index-backed rows), never adjusted.
+ * Installed by MIGRATION_13_14 and on every open (AppDatabase.onOpen).
+ *
+ * Trigger chain:
+ *   recipe_ingredients INSERT/UPDATE/DELETE → recompute the owning recipe(s)
+ *   recipes yield changed                   → recompute the recipe
+ *   foods nutrition changed                 → recompute every recipe using that food
+ *
+ * A recipe's foodId is fixed once created: re-pointing it would leave the old food holding
+ * the recipe's nutrition with nothing maintaining it, so recipes_before_update_food aborts
+ * the update.
+ *
+ * Recipes cannot be ingredients of other recipes (NutritionRepository rejects them): SQLite
+ * does not re-fire foods_after_update_recipe_ingredient from its own body, so changes would
+ * not cascade further. Meals that already logged a recipe keep their totals until a
+ * totals rebuild, as for any edited food.
+ */
+public final class RecipeTriggers {
+
+    private static final String[] NUTRIENTS = {"calories", "protein", "carbs", "fats", "fiber", "sugar"};
+
+    private RecipeTriggers() {
+    }
+
+    /**
+     * Creates the triggers (idempotent).
+     */
+    public static void install(SupportSQLiteDatabase database) {
+        database.execSQL("CREATE TRIGGER IF NOT EXISTS `recipe_ingredients_after_insert` " +
+                "AFTER INSERT ON `recipe_ingredients` BEGIN " +
+                recomputeRecipes("`id` = NEW.`recipeId`") +
+                "END");
+        database.execSQL("CREATE TRIGGER IF NOT EXISTS `recipe_ingredients_after_update` " +
+                "AFTER UPDATE ON `recipe_ingredients` BEGIN " +
+                recomputeRecipes("`id` IN (NEW.`recipeId`, OLD.`recipeId`)") +
+                "END");
+        database.execSQL("CREATE TRIGGER IF NOT EXISTS `recipe_ingredients_after_delete` " +
+                "AFTER DELETE ON `recipe_ingredients` BEGIN " +
+                recomputeRecipes("`id` = OLD.`recipeId`") +
+                "END");
+        database.execSQL("CREATE TRIGGER IF NOT EXISTS `recipes_before_update_food` " +
+                "BEFORE UPDATE OF `foodId` ON `recipes` WHEN NEW.`foodId` IS NOT OLD.`foodId` BEGIN " +
+                "SELECT RAISE(ABORT, 'recipes.foodId cannot be changed'); " +
+                "END");
+        database.execSQL("CREATE TRIGGER IF NOT EXISTS `recipes_after_update` " +
+                "AFTER UPDATE OF `yieldGrams` ON `recipes` BEGIN " +
+                recomputeRecipes("`id` = NEW.`id`") +
+                "END");
+        database.execSQL("CREATE TRIGGER IF NOT EXISTS `foods_after_update_recipe_ingredient` " +
+                "AFTER UPDATE OF `servingSize`, `calories`, `protein`, `carbs`, `fats`, `fiber`, `sugar` " +
+                "ON `foods` WHEN EXISTS (SELECT 1 FROM `recipe_ingredients` WHERE `foodId` = NEW.`id`) BEGIN " +
+                recomputeRecipes("`id` IN (SELECT `recipeId` FROM `recipe_ingredients` WHERE `foodId` = NEW.`id`)") +
+                "END");
+    }
+
+    /**
+     * @param recipeCondition Condition on recipes selecting the recipes to recompute
+     */
+    private static String recomputeRecipes(String recipeCondition) {
+        StringBuilder sql = new StringBuilder("UPDATE `foods` SET `servingSize` = 100.0");
+        for (String nutrient : NUTRIENTS) {
+            sql.append(", `").append(nutrient).append("` = (")
+                    .append("SELECT COALESCE(SUM(f.`").append(nutrient)
+                    .append("` * ri.`grams` / f.`servingSize`) * 100.0 / ")
+                    .append("CASE WHEN MAX(r.`yieldGrams`) > 0 THEN MAX(r.`yieldGrams`) ELSE SUM(ri.`grams`) END, 0) ")
+                    .append("FROM `recipes` r ")
+                    .append("JOIN `recipe_ingredients` ri ON ri.`recipeId` = r.`id` ")
+                    .append("JOIN `foods` f ON f.`id` = ri.`foodId` ")
+                    .append("WHERE r.`foodId` = `foods`.`id`)");
+        }
+        return sql.append(" WHERE `id` IN (SELECT `foodId` FROM `recipes` WHERE ")
+                .append(recipeCondition).append("); ").toString();
+    }
+}
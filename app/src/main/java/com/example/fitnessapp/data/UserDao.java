@@ -67,4 +67,22 @@ public interface UserDao {
      */
     @Query("SELECT * FROM user_table WHERE id = :userId LIMIT 1")
     User getUserByIdSync(int userId);
-}
\ No newline at end of file
+
+    /**
+     * Gets every user's ID and goal weight (for batch jobs that do not need full User rows).
+     *
+     * @return One UserGoal per user, ordered by ID
+     */
+    @Query("SELECT id, goalWeight FROM user_table ORDER BY id ASC")
+    List<UserGoal> getAllUserGoalsSync();
+
+    // --- POJO Classes ---
+
+    /**
+     * Projection of a user's ID and goal weight.
+     */
+    class UserGoal {
+        public int id;
+        public double goalWeight;
+    }
+}
@@ -3,6 +3,7 @@ package com.example.fitnessapp.data;
 import androidx.room.ColumnInfo;
 import androidx.room.Entity;
 import androidx.room.ForeignKey;
+import androidx.room.Index;
 import androidx.room.PrimaryKey;
 
 /**
@@ -15,7 +16,10 @@ import androidx.room.PrimaryKey;
                 parentColumns = "id", // The parent's primary key
                 childColumns = "userId", // The column in this table that links to the parent
                 onDelete = ForeignKey.CASCADE // If the parent user is deleted, delete all their entries
-        ))
+        ),
+        indices = {
+                @Index(value = {"userId", "timestamp"}) // Per-user history and "latest N" lookups
+        })
 public class WeightEntry {
 
     @PrimaryKey(autoGenerate = true)
@@ -1,5 +1,7 @@
 package com.example.fitnessapp.data;
 
+import android.database.Cursor;
+
 import androidx.lifecycle.LiveData;
 import androidx.room.Dao;
 import androidx.room.Delete;
@@ -8,6 +10,8 @@ import androidx.room.OnConflictStrategy;
 import androidx.room.Query;
 import androidx.room.Update;
 
+import com.example.fitnessapp.model.WeightSeries;
+
 import java.util.List;
 
 /**
@@ -20,9 +24,10 @@ public interface WeightEntryDao {
     /**
      * Inserts a new weight entry into the database.
      * @param entry The WeightEntry object to insert.
+     * @return The new row ID, or -1 if the insert was ignored.
      */
     @Insert(onConflict = OnConflictStrategy.IGNORE)
-    void insert(WeightEntry entry);
+    long insert(WeightEntry entry);
 
     /**
      * Updates an existing weight entry.
@@ -47,4 +52,196 @@ public interface WeightEntryDao {
      */
     @Query("SELECT * FROM weight_entry_table WHERE userId = :userId ORDER BY timestamp DESC")
     LiveData<List<WeightEntry>> getAllEntriesForUser(int userId);
-}
\ No newline at end of file
+
+    /**
+     * Retrieves a single weight entry by ID (non-LiveData, for background work).
+     *
+     * @param entryId The entry ID.
+     * @return The WeightEntry, or null if it does not exist.
+     */
+    @Query("SELECT * FROM weight_entry_table WHERE id = :entryId")
+    WeightEntry getEntryByIdSync(int entryId);
+
+    /**
+     * Retrieves all weight entries for a user in chronological order (non-LiveData).
+     * Used to rebuild derived state; normal reads should prefer the LiveData query.
+     *
+     * @param userId The ID of the user whose entries should be fetched.
+     * @return Entries ordered oldest first.
+     */
+    @Query("SELECT * FROM weight_entry_table WHERE userId = :userId ORDER BY timestamp ASC")
+    List<WeightEntry> getAllEntriesForUserSync(int userId);
+
+    /**
+     * Retrieves the most recent entries for a user, newest first (non-LiveData).
+     * Served from the (userId, timestamp) index without scanning the full history.
+     *
+     * @param userId The ID of the user whose entries should be fetched.
+     * @param limit Maximum number of entries to return.
+     * @return Up to {@code limit} entries ordered by timestamp descending.
+     */
+    @Query("SELECT * FROM weight_entry_table WHERE userId = :userId ORDER BY timestamp DESC LIMIT :limit")
+    List<WeightEntry> getLatestEntriesSync(int userId, int limit);
+
+    /**
+     * Raw (timestamp, weight) projection for a user, oldest first.
+     * Prefer {@link #loadWeightSeries(int)}, which closes the cursor.
+     *
+     * @param userId The ID of the user whose entries should be fetched.
+     * @return Cursor over the two columns; the caller must close it.
+     */
+    @Query("SELECT timestamp, weight FROM weight_entry_table WHERE userId = :userId ORDER BY timestamp ASC")
+    Cursor queryWeightSeries(int userId);
+
+    /**
+     * Raw (timestamp, weight) projection for a user within a time range, oldest first.
+     *
+     * @param userId The ID of the user whose entries should be fetched.
+     * @param startTime Inclusive start timestamp.
+     * @param endTime Inclusive end timestamp.
+     * @return Cursor over the two columns; the caller must close it.
+     */
+    @Query("SELECT timestamp, weight FROM weight_entry_table WHERE userId = :userId " +
+            "AND timestamp BETWEEN :startTime AND :endTime ORDER BY timestamp ASC")
+    Cursor queryWeightSeriesInRange(int userId, long startTime, long endTime);
+
+    /**
+     * Loads a user's full history as a columnar WeightSeries without creating entities.
+     * MUST be called on a background thread.
+     *
+     * @param userId The ID of the user whose entries should be fetched.
+     * @return The series, oldest first.
+     */
+    default WeightSeries loadWeightSeries(int userId) {
+        try (Cursor cursor = queryWeightSeries(userId)) {
+            return readWeightSeries(cursor);
+        }
+    }
+
+    /**
+     * Loads a time range of a user's history as a columnar WeightSeries.
+     * MUST be called on a background thread.
+     *
+     * @param userId The ID of the user whose entries should be fetched.
+     * @param startTime Inclusive start timestamp.
+     * @param endTime Inclusive end timestamp.
+     * @return The series, oldest first.
+     */
+    default WeightSeries loadWeightSeriesInRange(int userId, long startTime, long endTime) {
+        try (Cursor cursor = queryWeightSeriesInRange(userId, startTime, endTime)) {
+            return readWeightSeries(cursor);
+        }
+    }
+
+    /**
+     * Fills a WeightSeries straight from a {@code (timestamp, weight)} cursor projection.
+     * The cursor is read to the end but not closed.
+     *
+     * Time Complexity: O(n)
+     */
+    static WeightSeries readWeightSeries(Cursor cursor) {
+        int n = cursor.getCount();
+        if (n <= 0) {
+            return WeightSeries.empty();
+        }
+
+        int timestampColumn = cursor.getColumnIndexOrThrow("timestamp");
+        int weightColumn = cursor.getColumnIndexOrThrow("weight");
+
+        long[] timestamps = new long[n];
+        double[] weights = new double[n];
+        int i = 0;
+        while (i < n && cursor.moveToNext()) {
+            timestamps[i] = cursor.getLong(timestampColumn);
+            weights[i] = cursor.getDouble(weightColumn);
+            i++;
+        }
+        return new WeightSeries(timestamps, weights, i);
+    }
+
+    // ===== Aggregate push-down (computed inside SQLite) =====
+    // These avoid window functions so they run on the platform SQLite of every supported API level.
+
+    /**
+     * Least-squares and variance sums for a user's entries in a time range.
+     * x is days since the earliest entry in the range, y is weight.
+     * Only one row of doubles is returned instead of every entry.
+     *
+     * @param userId The ID of the user.
+     * @param startTime Inclusive start timestamp.
+     * @param endTime Inclusive end timestamp.
+     * @return The sums (entryCount = 0 when the range is empty).
+     */
+    @Query("SELECT COUNT(*) AS entryCount, MIN(timestamp) AS originTimestamp, " +
+            "TOTAL(x) AS sumX, TOTAL(weight) AS sumY, TOTAL(x * weight) AS sumXY, " +
+            "TOTAL(x * x) AS sumX2, TOTAL(weight * weight) AS sumY2 " +
+            "FROM (SELECT timestamp, weight, (timestamp - (SELECT MIN(timestamp) FROM weight_entry_table " +
+            "WHERE userId = :userId AND timestamp BETWEEN :startTime AND :endTime)) / 86400000.0 AS x " +
+            "FROM weight_entry_table WHERE userId = :userId AND timestamp BETWEEN :startTime AND :endTime)")
+    RegressionSums getRegressionSums(int userId, long startTime, long endTime);
+
+    /**
+     * Average of the user's most recent {@code limit} entries up to a point in time.
+     *
+     * @param userId The ID of the user.
+     * @param endTime Inclusive end timestamp.
+     * @param limit Number of entries in the window.
+     * @return The average weight, or null if the user has no entries.
+     */
+    @Query("SELECT AVG(weight) FROM (SELECT weight FROM weight_entry_table " +
+            "WHERE userId = :userId AND timestamp <= :endTime ORDER BY timestamp DESC LIMIT :limit)")
+    Double getLatestAverage(int userId, long endTime, int limit);
+
+    /**
+     * Rolling time-window average for every entry in a range: each entry's average covers
+     * the preceding {@code windowMillis} (inclusive). Served by the (userId, timestamp) index.
+     *
+     * @param userId The ID of the user.
+     * @param startTime Inclusive start timestamp.
+     * @param endTime Inclusive end timestamp.
+     * @param windowMillis Window length in milliseconds (e.g. 7 days).
+     * @return One averaged point per entry, oldest first.
+     */
+    @Query("SELECT a.timestamp AS timestamp, AVG(b.weight) AS average, COUNT(b.id) AS samples " +
+            "FROM weight_entry_table a " +
+            "INNER JOIN weight_entry_table b ON b.userId = a.userId " +
+            "AND b.timestamp > a.timestamp - :windowMillis AND b.timestamp <= a.timestamp " +
+            "WHERE a.userId = :userId AND a.timestamp BETWEEN :startTime AND :endTime " +
+            "GROUP BY a.id ORDER BY a.timestamp ASC")
+    List<RollingAverage> getRollingAverages(int userId, long startTime, long endTime, long windowMillis);
+
+    /**
+     * Retrieves the most recent entries in a time range, newest first (non-LiveData).
+     *
+     * @param userId The ID of the user.
+     * @param startTime Inclusive start timestamp.
+     * @param endTime Inclusive end timestamp.
+     * @param limit Maximum number of entries to return.
+     * @return Up to {@code limit} entries ordered by timestamp descending.
+     */
+    @Query("SELECT * FROM weight_entry_table WHERE userId = :userId " +
+            "AND timestamp BETWEEN :startTime AND :endTime ORDER BY timestamp DESC LIMIT :limit")
+    List<WeightEntry> getLatestEntriesInRangeSync(int userId, long startTime, long endTime, int limit);
+
+    /**
+     * POJO for the regression aggregate query.
+     */
+    class RegressionSums {
+        public int entryCount;
+        public Long originTimestamp;   // NULL when the range is empty
+        public double sumX;
+        public double sumY;
+        public double sumXY;
+        public double sumX2;
+        public double sumY2;
+    }
+
+    /**
+     * POJO for one point of the rolling-average query.
+     */
+    class RollingAverage {
+        public long timestamp;
+        public double average;
+        public int samples;            // Entries inside the window
+    }
+}
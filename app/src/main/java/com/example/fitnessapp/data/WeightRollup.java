@@ -0,0 +1,270 @@
+package com.example.fitnessapp.data;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.ForeignKey;
+
+import java.util.Calendar;
+
+/**
+ * Entity storing materialized weight aggregates per user per time bucket.
+ * One record per (userId, resolution, bucketStart); maintained by EntryRepository in the
+ * same transaction as every WeightEntry write, so long-range views read a few hundred
+ * rollup rows instead of the full history.
+ *
+ * Buckets follow the device's local calendar: days start at midnight,
+ * weeks start on Monday (ISO-8601), months start on the 1st. A stored bucket keeps the
+ * boundaries it was created with; after a time-zone change, incremental writes go through
+ * {@link #boundsFor} so they never create a bucket overlapping a stored one.
+ */
+@Entity(
+        tableName = "weight_rollups",
+        primaryKeys = {"userId", "resolution", "bucketStart"},
+        foreignKeys = @ForeignKey(
+                entity = User.class,
+                parentColumns = "id",
+                childColumns = "userId",
+                onDelete = ForeignKey.CASCADE
+        )
+)
+public class WeightRollup {
+
+    public static final String RESOLUTION_DAY = "day";
+    public static final String RESOLUTION_WEEK = "week";
+    public static final String RESOLUTION_MONTH = "month";
+
+    public static final String[] RESOLUTIONS = {RESOLUTION_DAY, RESOLUTION_WEEK, RESOLUTION_MONTH};
+
+    private int userId;
+
+    @NonNull
+    private String resolution;       // 'day', 'week', 'month'
+
+    private long bucketStart;        // Inclusive bucket start (ms)
+    private long bucketEnd;          // Exclusive bucket end (ms)
+
+    private int entryCount;
+    private double sumWeight;
+    private double minWeight;
+    private double maxWeight;
+    private long firstTimestamp;
+    private double firstWeight;
+    private long lastTimestamp;
+    private double lastWeight;
+
+    // Constructor
+    public WeightRollup(int userId, @NonNull String resolution, long bucketStart, long bucketEnd) {
+        this.userId = userId;
+        this.resolution = resolution;
+        this.bucketStart = bucketStart;
+        this.bucketEnd = bucketEnd;
+    }
+
+    // Getters and Setters
+    public int getUserId() {
+        return userId;
+    }
+
+    public void setUserId(int userId) {
+        this.userId = userId;
+    }
+
+    @NonNull
+    public String getResolution() {
+        return resolution;
+    }
+
+    public void setResolution(@NonNull String resolution) {
+        this.resolution = resolution;
+    }
+
+    public long getBucketStart() {
+        return bucketStart;
+    }
+
+    public void setBucketStart(long bucketStart) {
+        this.bucketStart = bucketStart;
+    }
+
+    public long getBucketEnd() {
+        return bucketEnd;
+    }
+
+    public void setBucketEnd(long bucketEnd) {
+        this.bucketEnd = bucketEnd;
+    }
+
+    public int getEntryCount() {
+        return entryCount;
+    }
+
+    public void setEntryCount(int entryCount) {
+        this.entryCount = entryCount;
+    }
+
+    public double getSumWeight() {
+        return sumWeight;
+    }
+
+    public void setSumWeight(double sumWeight) {
+        this.sumWeight = sumWeight;
+    }
+
+    public double getMinWeight() {
+        return minWeight;
+    }
+
+    public void setMinWeight(double minWeight) {
+        this.minWeight = minWeight;
+    }
+
+    public double getMaxWeight() {
+        return maxWeight;
+    }
+
+    public void setMaxWeight(double maxWeight) {
+        this.maxWeight = maxWeight;
+    }
+
+    public long getFirstTimestamp() {
+        return firstTimestamp;
+    }
+
+    public void setFirstTimestamp(long firstTimestamp) {
+        this.firstTimestamp = firstTimestamp;
+    }
+
+    public double getFirstWeight() {
+        return firstWeight;
+    }
+
+    public void setFirstWeight(double firstWeight) {
+        this.firstWeight = firstWeight;
+    }
+
+    public long getLastTimestamp() {
+        return lastTimestamp;
+    }
+
+    public void setLastTimestamp(long lastTimestamp) {
+        this.lastTimestamp = lastTimestamp;
+    }
+
+    public double getLastWeight() {
+        return lastWeight;
+    }
+
+    public void setLastWeight(double lastWeight) {
+        this.lastWeight = lastWeight;
+    }
+
+    /**
+     * Average weight in this bucket.
+     */
+    public double getAverageWeight() {
+        return entryCount == 0 ? 0.0 : sumWeight / entryCount;
+    }
+
+    /**
+     * Computes the inclusive start of the bucket containing a timestamp.
+     *
+     * @param resolution RESOLUTION_DAY, RESOLUTION_WEEK or RESOLUTION_MONTH
+     * @param timestamp Time in milliseconds
+     * @return Bucket start in milliseconds (local time)
+     */
+    public static long bucketStartFor(String resolution, long timestamp) {
+        Calendar calendar = Calendar.getInstance();
+        calendar.setTimeInMillis(timestamp);
+        calendar.set(Calendar.HOUR_OF_DAY, 0);
+        calendar.set(Calendar.MINUTE, 0);
+        calendar.set(Calendar.SECOND, 0);
+        calendar.set(Calendar.MILLISECOND, 0);
+
+        switch (resolution) {
+            case RESOLUTION_WEEK:
+                // Days since Monday (Calendar.SUNDAY = 1 ... SATURDAY = 7)
+                int daysSinceMonday = (calendar.get(Calendar.DAY_OF_WEEK) + 5) % 7;
+                calendar.add(Calendar.DAY_OF_MONTH, -daysSinceMonday);
+                break;
+            case RESOLUTION_MONTH:
+                calendar.set(Calendar.DAY_OF_MONTH, 1);
+                break;
+            case RESOLUTION_DAY:
+            default:
+                break;
+        }
+
+        return calendar.getTimeInMillis();
+    }
+
+    /**
+     * Computes the exclusive end of a bucket from its start.
+     *
+     * @param resolution RESOLUTION_DAY, RESOLUTION_WEEK or RESOLUTION_MONTH
+     * @param bucketStart Bucket start from {@link #bucketStartFor}
+     * @return Bucket end in milliseconds (local time)
+     */
+    public static long bucketEndFor(String resolution, long bucketStart) {
+        Calendar calendar = Calendar.getInstance();
+        calendar.setTimeInMillis(bucketStart);
+
+        switch (resolution) {
+            case RESOLUTION_WEEK:
+                calendar.add(Calendar.DAY_OF_MONTH, 7);
+                break;
+            case RESOLUTION_MONTH:
+                calendar.add(Calendar.MONTH, 1);
+                break;
+            case RESOLUTION_DAY:
+            default:
+                calendar.add(Calendar.DAY_OF_MONTH, 1);
+                break;
+        }
+
+        return calendar.getTimeInMillis();
+    }
+
+    /**
+     * Bounds of the bucket a write at {@code timestamp} belongs to, given the user's stored
+     * buckets of that resolution (weight_rollups or weight_sketches).
+     * A stored bucket containing the timestamp is reused as is. Otherwise the local-calendar
+     * bucket is clipped to the gap between its stored neighbours, which only differs from it
+     * when those neighbours were created under another time zone.
+     *
+     * @param resolution RESOLUTION_DAY, RESOLUTION_WEEK or RESOLUTION_MONTH
+     * @param timestamp Time in milliseconds
+     * @param previous Stored bucket with the latest start at or before timestamp, or null
+     * @param next Stored bucket with the earliest start after timestamp, or null
+     * @return Bucket bounds containing timestamp and overlapping no stored bucket
+     */
+    public static Bounds boundsFor(String resolution, long timestamp, Bounds previous, Bounds next) {
+        if (previous != null && previous.bucketEnd > timestamp) {
+            return previous;
+        }
+
+        Bounds bounds = new Bounds();
+        bounds.bucketStart = bucketStartFor(resolution, timestamp);
+        bounds.bucketEnd = bucketEndFor(resolution, bounds.bucketStart);
+        if (previous != null) {
+            bounds.bucketStart = Math.max(bounds.bucketStart, previous.bucketEnd);
+        }
+        if (next != null) {
+            bounds.bucketEnd = Math.min(bounds.bucketEnd, next.bucketStart);
+        }
+        return bounds;
+    }
+
+    /**
+     * Stored bucket range (rollup or sketch row).
+     */
+    public static class Bounds {
+        public long bucketStart;
+        public long bucketEnd;
+    }
+
+    @Override
+    public String toString() {
+        return "WeightRollup{" + resolution + " @" + bucketStart + ", " + entryCount +
+                " entries, avg=" + String.format("%.1f", getAverageWeight()) + "}";
+    }
+}
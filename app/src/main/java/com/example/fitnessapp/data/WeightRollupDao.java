@@ -0,0 +1,132 @@
+package com.example.fitnessapp.data;
+
+import androidx.lifecycle.LiveData;
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+import androidx.room.Transaction;
+
+import java.util.List;
+
+/**
+ * DAO for WeightRollup entity.
+ * Rollup rows are derived data: they are recomputed per bucket from weight_entry_table
+ * (an index-backed scan of at most one month of entries) whenever an entry changes.
+ */
+@Dao
+public interface WeightRollupDao {
+
+    // ===== MAINTENANCE =====
+
+    /**
+     * Recomputes one bucket from the raw entries it covers.
+     * Inserts nothing when the bucket has no entries (GROUP BY yields no group; a bare
+     * HAVING would need SQLite 3.39+, newer than API 24's bundled SQLite).
+     */
+    @Query("INSERT OR REPLACE INTO weight_rollups (userId, resolution, bucketStart, bucketEnd, " +
+            "entryCount, sumWeight, minWeight, maxWeight, " +
+            "firstTimestamp, firstWeight, lastTimestamp, lastWeight) " +
+            "SELECT :userId, :resolution, :bucketStart, :bucketEnd, " +
+            "COUNT(*), SUM(weight), MIN(weight), MAX(weight), " +
+            "MIN(timestamp), " +
+            "(SELECT f.weight FROM weight_entry_table f WHERE f.userId = :userId " +
+            "AND f.timestamp >= :bucketStart AND f.timestamp < :bucketEnd ORDER BY f.timestamp ASC LIMIT 1), " +
+            "MAX(timestamp), " +
+            "(SELECT l.weight FROM weight_entry_table l WHERE l.userId = :userId " +
+            "AND l.timestamp >= :bucketStart AND l.timestamp < :bucketEnd ORDER BY l.timestamp DESC LIMIT 1) " +
+            "FROM weight_entry_table WHERE userId = :userId " +
+            "AND timestamp >= :bucketStart AND timestamp < :bucketEnd " +
+            "GROUP BY userId")
+    void upsertBucketFromEntries(int userId, String resolution, long bucketStart, long bucketEnd);
+
+    @Query("DELETE FROM weight_rollups WHERE userId = :userId AND resolution = :resolution " +
+            "AND bucketStart = :bucketStart")
+    void deleteBucket(int userId, String resolution, long bucketStart);
+
+    /**
+     * Brings the bucket containing {@code timestamp} in line with the raw entries.
+     * The bucket is located by stored range (see WeightRollup.boundsFor), so a time-zone
+     * change does not leave a second, overlapping bucket behind.
+     * MUST be called inside the same transaction as the entry write.
+     */
+    @Transaction
+    default void refreshBucket(int userId, String resolution, long timestamp) {
+        WeightRollup.Bounds bounds = WeightRollup.boundsFor(resolution, timestamp,
+                getBoundsAtOrBefore(userId, resolution, timestamp),
+                getBoundsAfter(userId, resolution, timestamp));
+        deleteBucket(userId, resolution, bounds.bucketStart);
+        upsertBucketFromEntries(userId, resolution, bounds.bucketStart, bounds.bucketEnd);
+    }
+
+    /**
+     * Refreshes the day, week and month buckets containing {@code timestamp}.
+     */
+    @Transaction
+    default void refreshAllResolutions(int userId, long timestamp) {
+        for (String resolution : WeightRollup.RESOLUTIONS) {
+            refreshBucket(userId, resolution, timestamp);
+        }
+    }
+
+    @Query("DELETE FROM weight_rollups WHERE userId = :userId")
+    void deleteAllForUser(int userId);
+
+    /**
+     * Insert or replace rollups computed outside SQLite (full rebuilds from one history scan).
+     */
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void insertAll(List<WeightRollup> rollups);
+
+    // ===== QUERIES =====
+
+    /**
+     * Get the stored bucket with the latest start at or before a timestamp (index-backed).
+     */
+    @Query("SELECT bucketStart, bucketEnd FROM weight_rollups WHERE userId = :userId " +
+            "AND resolution = :resolution AND bucketStart <= :timestamp " +
+            "ORDER BY bucketStart DESC LIMIT 1")
+    WeightRollup.Bounds getBoundsAtOrBefore(int userId, String resolution, long timestamp);
+
+    /**
+     * Get the stored bucket with the earliest start after a timestamp (index-backed).
+     */
+    @Query("SELECT bucketStart, bucketEnd FROM weight_rollups WHERE userId = :userId " +
+            "AND resolution = :resolution AND bucketStart > :timestamp " +
+            "ORDER BY bucketStart ASC LIMIT 1")
+    WeightRollup.Bounds getBoundsAfter(int userId, String resolution, long timestamp);
+
+    /**
+     * Get rollups overlapping a time range (for charts and long-range views).
+     */
+    @Query("SELECT * FROM weight_rollups WHERE userId = :userId AND resolution = :resolution " +
+            "AND bucketEnd > :startTime AND bucketStart <= :endTime ORDER BY bucketStart ASC")
+    LiveData<List<WeightRollup>> getRollupsInRange(int userId, String resolution, long startTime, long endTime);
+
+    /**
+     * Get rollups overlapping a time range (non-LiveData).
+     */
+    @Query("SELECT * FROM weight_rollups WHERE userId = :userId AND resolution = :resolution " +
+            "AND bucketEnd > :startTime AND bucketStart <= :endTime ORDER BY bucketStart ASC")
+    List<WeightRollup> getRollupsInRangeSync(int userId, String resolution, long startTime, long endTime);
+
+    /**
+     * Get the most recent N buckets of a resolution (e.g. last 30 days).
+     */
+    @Query("SELECT * FROM weight_rollups WHERE userId = :userId AND resolution = :resolution " +
+            "ORDER BY bucketStart DESC LIMIT :limit")
+    LiveData<List<WeightRollup>> getRecentRollups(int userId, String resolution, int limit);
+
+    /**
+     * Average weight over a range, computed from day rollups (entry-weighted).
+     */
+    @Query("SELECT SUM(sumWeight) / SUM(entryCount) FROM weight_rollups WHERE userId = :userId " +
+            "AND resolution = 'day' AND bucketStart >= :startTime AND bucketStart <= :endTime")
+    Double getAverageWeightInRange(int userId, long startTime, long endTime);
+
+    /**
+     * Count rollup rows for a user (0 means they have not been built yet).
+     */
+    @Query("SELECT COUNT(*) FROM weight_rollups WHERE userId = :userId")
+    int countRollupsForUser(int userId);
+}
@@ -0,0 +1,205 @@
+package com.example.fitnessapp.data;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.ForeignKey;
+
+import com.example.fitnessapp.algorithm.TDigest;
+
+/**
+ * Entity storing a serialized quantile sketch (TDigest) of a user's weights per bucket.
+ * One record per (userId, resolution, bucketStart) for week and month buckets, plus one
+ * RESOLUTION_ALL record covering the user's whole history.
+ *
+ * The common quantiles are stored alongside the digest so median, p10/p90 bands and IQR
+ * are read from columns; the digest is only needed to merge sketches across periods.
+ */
+@Entity(
+        tableName = "weight_sketches",
+        primaryKeys = {"userId", "resolution", "bucketStart"},
+        foreignKeys = @ForeignKey(
+                entity = User.class,
+                parentColumns = "id",
+                childColumns = "userId",
+                onDelete = ForeignKey.CASCADE
+        )
+)
+public class WeightSketch {
+
+    public static final String RESOLUTION_ALL = "all";
+
+    /** Bucket resolutions that get a sketch (day buckets hold one or two points). */
+    public static final String[] RESOLUTIONS = {WeightRollup.RESOLUTION_WEEK, WeightRollup.RESOLUTION_MONTH};
+
+    private int userId;
+
+    @NonNull
+    private String resolution;       // 'week', 'month', 'all'
+
+    private long bucketStart;        // Inclusive bucket start (ms); 0 for 'all'
+    private long bucketEnd;          // Exclusive bucket end (ms); Long.MAX_VALUE for 'all'
+
+    private int entryCount;
+    private double p10;
+    private double p25;
+    private double median;
+    private double p75;
+    private double p90;
+
+    @NonNull
+    private byte[] digest;           // TDigest.toBytes()
+
+    private long updatedAt;
+
+    // Constructor
+    public WeightSketch(int userId, @NonNull String resolution, long bucketStart, long bucketEnd,
+                        @NonNull byte[] digest) {
+        this.userId = userId;
+        this.resolution = resolution;
+        this.bucketStart = bucketStart;
+        this.bucketEnd = bucketEnd;
+        this.digest = digest;
+        this.updatedAt = System.currentTimeMillis();
+    }
+
+    /**
+     * Builds a row from a digest, precomputing the stored quantiles.
+     */
+    public static WeightSketch fromDigest(int userId, @NonNull String resolution, long bucketStart,
+                                          long bucketEnd, TDigest tDigest) {
+        WeightSketch sketch = new WeightSketch(userId, resolution, bucketStart, bucketEnd, tDigest.toBytes());
+        sketch.setEntryCount((int) tDigest.size());
+        sketch.setP10(tDigest.quantile(0.10));
+        sketch.setP25(tDigest.quantile(0.25));
+        sketch.setMedian(tDigest.quantile(0.50));
+        sketch.setP75(tDigest.quantile(0.75));
+        sketch.setP90(tDigest.quantile(0.90));
+        return sketch;
+    }
+
+    /**
+     * Deserializes the stored digest (for merging or arbitrary quantiles).
+     */
+    public TDigest toDigest() {
+        return TDigest.fromBytes(digest);
+    }
+
+    /**
+     * Interquartile range (p75 - p25).
+     */
+    public double getInterquartileRange() {
+        return p75 - p25;
+    }
+
+    /**
+     * Width of the p10-p90 fluctuation band.
+     */
+    public double getFluctuationBand() {
+        return p90 - p10;
+    }
+
+    // Getters and Setters
+    public int getUserId() {
+        return userId;
+    }
+
+    public void setUserId(int userId) {
+        this.userId = userId;
+    }
+
+    @NonNull
+    public String getResolution() {
+        return resolution;
+    }
+
+    public void setResolution(@NonNull String resolution) {
+        this.resolution = resolution;
+    }
+
+    public long getBucketStart() {
+        return bucketStart;
+    }
+
+    public void setBucketStart(long bucketStart) {
+        this.bucketStart = bucketStart;
+    }
+
+    public long getBucketEnd() {
+        return bucketEnd;
+    }
+
+    public void setBucketEnd(long bucketEnd) {
+        this.bucketEnd = bucketEnd;
+    }
+
+    public int getEntryCount() {
+        return entryCount;
+    }
+
+    public void setEntryCount(int entryCount) {
+        this.entryCount = entryCount;
+    }
+
+    public double getP10() {
+        return p10;
+    }
+
+    public void setP10(double p10) {
+        this.p10 = p10;
+    }
+
+    public double getP25() {
+        return p25;
+    }
+
+    public void setP25(double p25) {
+        this.p25 = p25;
+    }
+
+    public double getMedian() {
+        return median;
+    }
+
+    public void setMedian(double median) {
+        this.median = median;
+    }
+
+    public double getP75() {
+        return p75;
+    }
+
+    public void setP75(double p75) {
+        this.p75 = p75;
+    }
+
+    public double getP90() {
+        return p90;
+    }
+
+    public void setP90(double p90) {
+        this.p90 = p90;
+    }
+
+    @NonNull
+    public byte[] getDigest() {
+        return digest;
+    }
+
+    public void setDigest(@NonNull byte[] digest) {
+        this.digest = digest;
+    }
+
+    public long getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(long updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    @Override
+    public String toString() {
+        return "WeightSketch{" + resolution + "@" + bucketStart + ", n=" + entryCount +
+                ", median=" + median + ", p10=" + p10 + ", p90=" + p90 + "}";
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.fitnessapp.data;
+
+import androidx.lifecycle.LiveData;
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+
+import java.util.List;
+
+/**
+ * DAO for WeightSketch entity.
+ * Sketches are derived data maintained by EntryRepository alongside weight_rollups.
+ */
+@Dao
+public interface WeightSketchDao {
+
+    // ===== INSERT / UPDATE =====
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void upsert(WeightSketch sketch);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void upsertAll(List<WeightSketch> sketches);
+
+    // ===== DELETE =====
+
+    @Query("DELETE FROM weight_sketches WHERE userId = :userId AND resolution = :resolution " +
+            "AND bucketStart = :bucketStart")
+    void deleteSketch(int userId, String resolution, long bucketStart);
+
+    @Query("DELETE FROM weight_sketches WHERE userId = :userId")
+    void deleteAllForUser(int userId);
+
+    // ===== QUERIES =====
+
+    /**
+     * Bounds of the week or month sketch a write at {@code timestamp} belongs to, located by
+     * stored range like rollup buckets (see WeightRollup.boundsFor).
+     */
+    default WeightRollup.Bounds boundsFor(int userId, String resolution, long timestamp) {
+        return WeightRollup.boundsFor(resolution, timestamp,
+                getBoundsAtOrBefore(userId, resolution, timestamp),
+                getBoundsAfter(userId, resolution, timestamp));
+    }
+
+    @Query("SELECT bucketStart, bucketEnd FROM weight_sketches WHERE userId = :userId " +
+            "AND resolution = :resolution AND bucketStart <= :timestamp " +
+            "ORDER BY bucketStart DESC LIMIT 1")
+    WeightRollup.Bounds getBoundsAtOrBefore(int userId, String resolution, long timestamp);
+
+    @Query("SELECT bucketStart, bucketEnd FROM weight_sketches WHERE userId = :userId " +
+            "AND resolution = :resolution AND bucketStart > :timestamp " +
+            "ORDER BY bucketStart ASC LIMIT 1")
+    WeightRollup.Bounds getBoundsAfter(int userId, String resolution, long timestamp);
+
+    /**
+     * Get one bucket's sketch.
+     */
+    @Query("SELECT * FROM weight_sketches WHERE userId = :userId AND resolution = :resolution " +
+            "AND bucketStart = :bucketStart")
+    WeightSketch getSketchSync(int userId, String resolution, long bucketStart);
+
+    /**
+     * Get the whole-history sketch (median/p10/p90/IQR read straight from its columns).
+     */
+    @Query("SELECT * FROM weight_sketches WHERE userId = :userId AND resolution = 'all'")
+    LiveData<WeightSketch> getOverallSketch(int userId);
+
+    /**
+     * Get sketches overlapping a time range, oldest first (for fluctuation bands and merges).
+     */
+    @Query("SELECT * FROM weight_sketches WHERE userId = :userId AND resolution = :resolution " +
+            "AND bucketEnd > :startTime AND bucketStart <= :endTime ORDER BY bucketStart ASC")
+    List<WeightSketch> getSketchesInRangeSync(int userId, String resolution, long startTime, long endTime);
+
+    /**
+     * Count sketch rows for a user (0 means they have not been built yet).
+     */
+    @Query("SELECT COUNT(*) FROM weight_sketches WHERE userId = :userId")
+    int countSketchesForUser(int userId);
+}
@@ -0,0 +1,177 @@
+package com.example.fitnessapp.data;
+
+import androidx.room.Entity;
+import androidx.room.ForeignKey;
+import androidx.room.PrimaryKey;
+
+import com.example.fitnessapp.model.WeightTrendAnalysis;
+
+/**
+ * Entity caching the latest weight trend analysis per user.
+ * Written by the nightly batch job so coaching screens can list every user's trend
+ * without re-running the analysis.
+ */
+@Entity(
+        tableName = "weight_trend_cache",
+        foreignKeys = @ForeignKey(
+                entity = User.class,
+                parentColumns = "id",
+                childColumns = "userId",
+                onDelete = ForeignKey.CASCADE
+        )
+)
+public class WeightTrendCache {
+
+    @PrimaryKey
+    private int userId;
+
+    private int entryCount;          // Entries the analysis was computed from
+    private double goalWeight;       // Goal weight used for daysToGoal
+
+    private double currentWeight;
+    private double sevenDayAverage;
+    private double thirtyDayAverage;
+    private double weeklyChangeRate;
+    private String trend;            // "LOSING", "GAINING", "MAINTAINING", "INSUFFICIENT_DATA"
+    private double predictedWeightIn30Days;
+    private int daysToGoal;
+    private double standardDeviation;
+
+    private long computedAt;         // Timestamp of the batch run
+
+    // Constructor
+    public WeightTrendCache(int userId) {
+        this.userId = userId;
+        this.computedAt = System.currentTimeMillis();
+    }
+
+    /**
+     * Creates a cache row from a computed analysis.
+     *
+     * @param userId Owner of the analysis
+     * @param analysis Computed analysis (non-null)
+     * @param entryCount Number of entries analyzed
+     * @param goalWeight Goal weight used
+     * @return Cache row ready to upsert
+     */
+    public static WeightTrendCache fromAnalysis(int userId, WeightTrendAnalysis analysis,
+                                                int entryCount, double goalWeight) {
+        WeightTrendCache cache = new WeightTrendCache(userId);
+        cache.entryCount = entryCount;
+        cache.goalWeight = goalWeight;
+        cache.currentWeight = analysis.getCurrentWeight();
+        cache.sevenDayAverage = analysis.getSevenDayAverage();
+        cache.thirtyDayAverage = analysis.getThirtyDayAverage();
+        cache.weeklyChangeRate = analysis.getWeeklyChangeRate();
+        cache.trend = analysis.getTrend();
+        cache.predictedWeightIn30Days = analysis.getPredictedWeightIn30Days();
+        cache.daysToGoal = analysis.getDaysToGoal();
+        cache.standardDeviation = analysis.getStandardDeviation();
+        return cache;
+    }
+
+    /**
+     * Converts this row back into the model used by the UI.
+     */
+    public WeightTrendAnalysis toAnalysis() {
+        return new WeightTrendAnalysis(currentWeight, sevenDayAverage, thirtyDayAverage,
+                weeklyChangeRate, trend, predictedWeightIn30Days, daysToGoal, standardDeviation);
+    }
+
+    // Getters and Setters
+    public int getUserId() {
+        return userId;
+    }
+
+    public void setUserId(int userId) {
+        this.userId = userId;
+    }
+
+    public int getEntryCount() {
+        return entryCount;
+    }
+
+    public void setEntryCount(int entryCount) {
+        this.entryCount = entryCount;
+    }
+
+    public double getGoalWeight() {
+        return goalWeight;
+    }
+
+    public void setGoalWeight(double goalWeight) {
+        this.goalWeight = goalWeight;
+    }
+
+    public double getCurrentWeight() {
+        return currentWeight;
+    }
+
+    public void setCurrentWeight(double currentWeight) {
+        this.currentWeight = currentWeight;
+    }
+
+    public double getSevenDayAverage() {
+        return sevenDayAverage;
+    }
+
+    public void setSevenDayAverage(double sevenDayAverage) {
+        this.sevenDayAverage = sevenDayAverage;
+    }
+
+    public double getThirtyDayAverage() {
+        return thirtyDayAverage;
+    }
+
+    public void setThirtyDayAverage(double thirtyDayAverage) {
+        this.thirtyDayAverage = thirtyDayAverage;
+    }
+
+    public double getWeeklyChangeRate() {
+        return weeklyChangeRate;
+    }
+
+    public void setWeeklyChangeRate(double weeklyChangeRate) {
+        this.weeklyChangeRate = weeklyChangeRate;
+    }
+
+    public String getTrend() {
+        return trend;
+    }
+
+    public void setTrend(String trend) {
+        this.trend = trend;
+    }
+
+    public double getPredictedWeightIn30Days() {
+        return predictedWeightIn30Days;
+    }
+
+    public void setPredictedWeightIn30Days(double predictedWeightIn30Days) {
+        this.predictedWeightIn30Days = predictedWeightIn30Days;
+    }
+
+    public int getDaysToGoal() {
+        return daysToGoal;
+    }
+
+    public void setDaysToGoal(int daysToGoal) {
+        this.daysToGoal = daysToGoal;
+    }
+
+    public double getStandardDeviation() {
+        return standardDeviation;
+    }
+
+    public void setStandardDeviation(double standardDeviation) {
+        this.standardDeviation = standardDeviation;
+    }
+
+    public long getComputedAt() {
+        return computedAt;
+    }
+
+    public void setComputedAt(long computedAt) {
+        this.computedAt = computedAt;
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.fitnessapp.data;
+
+import androidx.lifecycle.LiveData;
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+
+import java.util.List;
+
+/**
+ * DAO for WeightTrendCache entity.
+ * Rows are written in bulk by the batch trend analysis job.
+ */
+@Dao
+public interface WeightTrendCacheDao {
+
+    // ===== INSERT / UPDATE =====
+
+    /**
+     * Insert or replace a batch of cached analyses (one row per user).
+     */
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void upsertAll(List<WeightTrendCache> rows);
+
+    // ===== DELETE =====
+
+    @Query("DELETE FROM weight_trend_cache WHERE userId = :userId")
+    void deleteForUser(int userId);
+
+    // ===== QUERIES =====
+
+    /**
+     * Get the cached analysis for a user.
+     */
+    @Query("SELECT * FROM weight_trend_cache WHERE userId = :userId")
+    LiveData<WeightTrendCache> getForUser(int userId);
+
+    /**
+     * Get the cached analysis for a user (non-LiveData).
+     */
+    @Query("SELECT * FROM weight_trend_cache WHERE userId = :userId")
+    WeightTrendCache getForUserSync(int userId);
+
+    /**
+     * Get all cached analyses (coach overview).
+     */
+    @Query("SELECT * FROM weight_trend_cache ORDER BY userId ASC")
+    LiveData<List<WeightTrendCache>> getAll();
+
+    /**
+     * Get cached analyses with a given trend (e.g. all users currently "GAINING").
+     */
+    @Query("SELECT * FROM weight_trend_cache WHERE trend = :trend ORDER BY weeklyChangeRate DESC")
+    LiveData<List<WeightTrendCache>> getByTrend(String trend);
+}
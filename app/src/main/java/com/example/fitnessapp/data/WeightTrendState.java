@@ -0,0 +1,136 @@
+package com.example.fitnessapp.data;
+
+import androidx.room.Entity;
+import androidx.room.ForeignKey;
+import androidx.room.PrimaryKey;
+
+/**
+ * Entity persisting the running regression/variance sums for a user's weight history.
+ * One record per user, updated in O(1) whenever a WeightEntry is inserted, updated or deleted,
+ * so trend statistics can be served without rescanning weight_entry_table.
+ *
+ * x values are days since originTimestamp; y values are weights.
+ */
+@Entity(
+        tableName = "weight_trend_state",
+        foreignKeys = @ForeignKey(
+                entity = User.class,
+                parentColumns = "id",
+                childColumns = "userId",
+                onDelete = ForeignKey.CASCADE
+        )
+)
+public class WeightTrendState {
+
+    @PrimaryKey
+    private int userId;
+
+    private long originTimestamp;    // Timestamp treated as day 0
+    private int entryCount;
+
+    // Least-squares sums
+    private double sumX;
+    private double sumY;
+    private double sumXY;
+    private double sumX2;
+
+    // Welford running mean and sum of squared deviations
+    private double mean;
+    private double m2;
+
+    private long lastUpdated;        // Timestamp of last update
+
+    // Constructor
+    public WeightTrendState(int userId, long originTimestamp) {
+        this.userId = userId;
+        this.originTimestamp = originTimestamp;
+        this.lastUpdated = System.currentTimeMillis();
+    }
+
+    // Getters and Setters
+    public int getUserId() {
+        return userId;
+    }
+
+    public void setUserId(int userId) {
+        this.userId = userId;
+    }
+
+    public long getOriginTimestamp() {
+        return originTimestamp;
+    }
+
+    public void setOriginTimestamp(long originTimestamp) {
+        this.originTimestamp = originTimestamp;
+    }
+
+    public int getEntryCount() {
+        return entryCount;
+    }
+
+    public void setEntryCount(int entryCount) {
+        this.entryCount = entryCount;
+    }
+
+    public double getSumX() {
+        return sumX;
+    }
+
+    public void setSumX(double sumX) {
+        this.sumX = sumX;
+    }
+
+    public double getSumY() {
+        return sumY;
+    }
+
+    public void setSumY(double sumY) {
+        this.sumY = sumY;
+    }
+
+    public double getSumXY() {
+        return sumXY;
+    }
+
+    public void setSumXY(double sumXY) {
+        this.sumXY = sumXY;
+    }
+
+    public double getSumX2() {
+        return sumX2;
+    }
+
+    public void setSumX2(double sumX2) {
+        this.sumX2 = sumX2;
+    }
+
+    public double getMean() {
+        return mean;
+    }
+
+    public void setMean(double mean) {
+        this.mean = mean;
+    }
+
+    public double getM2() {
+        return m2;
+    }
+
+    public void setM2(double m2) {
+        this.m2 = m2;
+    }
+
+    public long getLastUpdated() {
+        return lastUpdated;
+    }
+
+    public void setLastUpdated(long lastUpdated) {
+        this.lastUpdated = lastUpdated;
+    }
+
+    @Override
+    public String toString() {
+        return "WeightTrendState{userId=" + userId + ", entries=" + entryCount +
+                ", mean=" + String.format("%.1f", mean) + "}";
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.fitnessapp.data;
+
+import androidx.lifecycle.LiveData;
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+
+/**
+ * DAO for WeightTrendState entity.
+ * Stores one running trend accumulator per user (maintained by EntryRepository).
+ */
+@Dao
+public interface WeightTrendStateDao {
+
+    // ===== INSERT / UPDATE =====
+
+    /**
+     * Insert or replace the user's state (one row per user).
+     */
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void upsert(WeightTrendState state);
+
+    // ===== DELETE =====
+
+    @Query("DELETE FROM weight_trend_state WHERE userId = :userId")
+    void deleteStateForUser(int userId);
+
+    // ===== QUERIES =====
+
+    /**
+     * Get the trend state for a user.
+     */
+    @Query("SELECT * FROM weight_trend_state WHERE userId = :userId")
+    LiveData<WeightTrendState> getStateForUser(int userId);
+
+    /**
+     * Get the trend state for a user (non-LiveData, for use inside write transactions).
+     */
+    @Query("SELECT * FROM weight_trend_state WHERE userId = :userId")
+    WeightTrendState getStateForUserSync(int userId);
+}
@@ -5,6 +5,8 @@ import androidx.room.ForeignKey;
 import androidx.room.Index;
 import androidx.room.PrimaryKey;
 
+import com.example.fitnessapp.util.EpochDays;
+
 /**
  * Entity representing a workout session (one workout on a specific date).
  * Total volume is auto-calculated from associated workout sets.
@@ -29,7 +31,7 @@ public class WorkoutSession {
     private int id;
 
     private int userId;
-    private String date;              // 'YYYY-MM-DD'
+    private long date;                // Epoch day (EpochDays)
     private long timestamp;
     private int durationMinutes;
     private String notes;
@@ -37,7 +39,7 @@ public class WorkoutSession {
     private int totalSets;            // Auto-calculated: count of sets
 
     // Constructor
-    public WorkoutSession(int userId, String date) {
+    public WorkoutSession(int userId, long date) {
         this.userId = userId;
         this.date = date;
         this.timestamp = System.currentTimeMillis();
@@ -63,11 +65,11 @@ public class WorkoutSession {
         this.userId = userId;
     }
 
-    public String getDate() {
+    public long getDate() {
         return date;
     }
 
-    public void setDate(String date) {
+    public void setDate(long date) {
         this.date = date;
     }
 
@@ -121,7 +123,7 @@ public class WorkoutSession {
 
     @Override
     public String toString() {
-        return "WorkoutSession{date='" + date + "', volume=" + String.format("%.0f", totalVolume) +
+        return "WorkoutSession{date='" + EpochDays.format(date) + "', volume=" + String.format("%.0f", totalVolume) +
                 ", sets=" + totalSets + "}";
     }
 }
\ No newline at end of file
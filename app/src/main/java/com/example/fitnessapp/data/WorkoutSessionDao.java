@@ -11,6 +11,7 @@ import java.util.List;
 
 /**
  * DAO for WorkoutSession entity.
+ * Dates are epoch days (EpochDays); ranges are inclusive.
  */
 @Dao
 public interface WorkoutSessionDao {
@@ -54,19 +55,19 @@ public interface WorkoutSessionDao {
      * Get sessions for a specific date.
      */
     @Query("SELECT * FROM workout_sessions WHERE userId = :userId AND date = :date ORDER BY timestamp ASC")
-    LiveData<List<WorkoutSession>> getSessionsByDate(int userId, String date);
+    LiveData<List<WorkoutSession>> getSessionsByDate(int userId, long date);
 
     @Query("SELECT * FROM workout_sessions WHERE userId = :userId AND date = :date ORDER BY timestamp ASC")
-    List<WorkoutSession> getSessionsByDateSync(int userId, String date);
+    List<WorkoutSession> getSessionsByDateSync(int userId, long date);
 
     /**
      * Get sessions within a date range.
      */
     @Query("SELECT * FROM workout_sessions WHERE userId = :userId AND date BETWEEN :startDate AND :endDate ORDER BY date ASC")
-    LiveData<List<WorkoutSession>> getSessionsInRange(int userId, String startDate, String endDate);
+    LiveData<List<WorkoutSession>> getSessionsInRange(int userId, long startDate, long endDate);
 
     @Query("SELECT * FROM workout_sessions WHERE userId = :userId AND date BETWEEN :startDate AND :endDate ORDER BY date ASC")
-    List<WorkoutSession> getSessionsInRangeSync(int userId, String startDate, String endDate);
+    List<WorkoutSession> getSessionsInRangeSync(int userId, long startDate, long endDate);
 
     /**
      * Get recent sessions.
@@ -78,23 +79,23 @@ public interface WorkoutSessionDao {
      * Get total volume for a date range.
      */
     @Query("SELECT SUM(totalVolume) FROM workout_sessions WHERE userId = :userId AND date BETWEEN :startDate AND :endDate")
-    LiveData<Double> getTotalVolumeInRange(int userId, String startDate, String endDate);
+    LiveData<Double> getTotalVolumeInRange(int userId, long startDate, long endDate);
 
     /**
      * Count sessions in date range.
      */
     @Query("SELECT COUNT(*) FROM workout_sessions WHERE userId = :userId AND date BETWEEN :startDate AND :endDate")
-    LiveData<Integer> getSessionCountInRange(int userId, String startDate, String endDate);
+    LiveData<Integer> getSessionCountInRange(int userId, long startDate, long endDate);
 
     /**
      * Get all dates with workouts.
      */
     @Query("SELECT DISTINCT date FROM workout_sessions WHERE userId = :userId ORDER BY date DESC")
-    LiveData<List<String>> getDatesWithWorkouts(int userId);
+    LiveData<List<Long>> getDatesWithWorkouts(int userId);
 
     /**
      * Get average session duration.
      */
     @Query("SELECT AVG(durationMinutes) FROM workout_sessions WHERE userId = :userId AND date BETWEEN :startDate AND :endDate")
-    LiveData<Double> getAverageDurationInRange(int userId, String startDate, String endDate);
+    LiveData<Double> getAverageDurationInRange(int userId, long startDate, long endDate);
 }
\ No newline at end of file
@@ -0,0 +1,195 @@
+package com.example.fitnessapp.model;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Model class representing a proposed day of meals (MealPlanSolver output).
+ * Items are grouped by meal type in day order; totals are the sum of all items.
+ */
+public class MealPlan {
+
+    private final List<Item> items;
+    private final double totalCalories;
+    private final double totalProtein;
+    private final double totalCarbs;
+    private final double totalFats;
+    private final double calorieTarget;
+    private final double proteinTarget;
+    private final double carbsTarget;
+    private final double fatsTarget;
+    private final boolean withinTolerance;
+    private final double score;
+    private final int candidateCount;
+    private final long elapsedNanos;
+
+    public MealPlan(List<Item> items,
+                    double totalCalories,
+                    double totalProtein,
+                    double totalCarbs,
+                    double totalFats,
+                    double calorieTarget,
+                    double proteinTarget,
+                    double carbsTarget,
+                    double fatsTarget,
+                    boolean withinTolerance,
+                    double score,
+                    int candidateCount,
+                    long elapsedNanos) {
+        this.items = Collections.unmodifiableList(items);
+        this.totalCalories = totalCalories;
+        this.totalProtein = totalProtein;
+        this.totalCarbs = totalCarbs;
+        this.totalFats = totalFats;
+        this.calorieTarget = calorieTarget;
+        this.proteinTarget = proteinTarget;
+        this.carbsTarget = carbsTarget;
+        this.fatsTarget = fatsTarget;
+        this.withinTolerance = withinTolerance;
+        this.score = score;
+        this.candidateCount = candidateCount;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    // Getters
+    public List<Item> getItems() {
+        return items;
+    }
+
+    public double getTotalCalories() {
+        return totalCalories;
+    }
+
+    public double getTotalProtein() {
+        return totalProtein;
+    }
+
+    public double getTotalCarbs() {
+        return totalCarbs;
+    }
+
+    public double getTotalFats() {
+        return totalFats;
+    }
+
+    public double getCalorieTarget() {
+        return calorieTarget;
+    }
+
+    public double getProteinTarget() {
+        return proteinTarget;
+    }
+
+    public double getCarbsTarget() {
+        return carbsTarget;
+    }
+
+    public double getFatsTarget() {
+        return fatsTarget;
+    }
+
+    /**
+     * True if calories are within MEAL_PLAN_CALORIE_TOLERANCE and each macro within
+     * MEAL_PLAN_MACRO_TOLERANCE of its target (FormulaConstants).
+     */
+    public boolean isWithinTolerance() {
+        return withinTolerance;
+    }
+
+    /**
+     * Weighted squared relative error of the totals (0 = exact; lower is better).
+     */
+    public double getScore() {
+        return score;
+    }
+
+    public int getCandidateCount() {
+        return candidateCount;
+    }
+
+    public double getElapsedMillis() {
+        return elapsedNanos / 1_000_000.0;
+    }
+
+    public boolean isEmpty() {
+        return items.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("MealPlan{%.0f/%.0f kcal, P %.0f/%.0f g, C %.0f/%.0f g, F %.0f/%.0f g, %s, %.1f ms}",
+                totalCalories, calorieTarget, totalProtein, proteinTarget,
+                totalCarbs, carbsTarget, totalFats, fatsTarget,
+                withinTolerance ? "within tolerance" : "outside tolerance", getElapsedMillis()));
+        for (Item item : items) {
+            sb.append("\n  ").append(item);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * One food portion in the plan.
+     */
+    public static class Item {
+
+        private final int foodId;
+        private final String name;
+        private final String mealType;       // 'breakfast', 'lunch', 'dinner', 'snack'
+        private final double grams;
+        private final double calories;
+        private final double protein;
+        private final double carbs;
+        private final double fats;
+
+        public Item(int foodId, String name, String mealType, double grams,
+                    double calories, double protein, double carbs, double fats) {
+            this.foodId = foodId;
+            this.name = name;
+            this.mealType = mealType;
+            this.grams = grams;
+            this.calories = calories;
+            this.protein = protein;
+            this.carbs = carbs;
+            this.fats = fats;
+        }
+
+        public int getFoodId() {
+            return foodId;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getMealType() {
+            return mealType;
+        }
+
+        public double getGrams() {
+            return grams;
+        }
+
+        public double getCalories() {
+            return calories;
+        }
+
+        public double getProtein() {
+            return protein;
+        }
+
+        public double getCarbs() {
+            return carbs;
+        }
+
+        public double getFats() {
+            return fats;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: %.0f g %s (%.0f kcal, P %.1f, C %.1f, F %.1f)",
+                    mealType, grams, name, calories, protein, carbs, fats);
+        }
+    }
+}
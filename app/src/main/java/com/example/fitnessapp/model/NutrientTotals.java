@@ -0,0 +1,105 @@
+package com.example.fitnessapp.model;
+
+/**
+ * Mutable running totals of calories and macros (grams).
+ * Callers keep one instance and reset it between aggregations, so summing food rows
+ * allocates nothing per row (Food.addServingTo, MealFoodWithDetails.addNutritionTo and the
+ * cursor path NutritionRepository.sumNutritionInRangeSync). Not thread-safe.
+ */
+public class NutrientTotals {
+
+    private double calories;
+    private double protein;
+    private double carbs;
+    private double fats;
+    private int rows;
+
+    /**
+     * Clears the totals for reuse.
+     *
+     * @return this, for chaining
+     */
+    public NutrientTotals reset() {
+        calories = 0.0;
+        protein = 0.0;
+        carbs = 0.0;
+        fats = 0.0;
+        rows = 0;
+        return this;
+    }
+
+    /**
+     * Adds one row of absolute values.
+     *
+     * Time Complexity: O(1)
+     */
+    public void add(double calories, double protein, double carbs, double fats) {
+        this.calories += calories;
+        this.protein += protein;
+        this.carbs += carbs;
+        this.fats += fats;
+        rows++;
+    }
+
+    /**
+     * Adds one row of per-serving values scaled by {@code ratio} (grams eaten / serving size).
+     *
+     * Time Complexity: O(1)
+     */
+    public void addScaled(double calories, double protein, double carbs, double fats, double ratio) {
+        this.calories += calories * ratio;
+        this.protein += protein * ratio;
+        this.carbs += carbs * ratio;
+        this.fats += fats * ratio;
+        rows++;
+    }
+
+    /**
+     * Adds another accumulator's totals (e.g. merging per-meal totals into a day).
+     */
+    public void add(NutrientTotals other) {
+        calories += other.calories;
+        protein += other.protein;
+        carbs += other.carbs;
+        fats += other.fats;
+        rows += other.rows;
+    }
+
+    // Getters
+    public double getCalories() {
+        return calories;
+    }
+
+    public double getProtein() {
+        return protein;
+    }
+
+    public double getCarbs() {
+        return carbs;
+    }
+
+    public double getFats() {
+        return fats;
+    }
+
+    /**
+     * Number of rows added since the last reset.
+     */
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * Copies the totals into the {calories, protein, carbs, fats} layout of
+     * Food.calculateForServing (allocates; for callers of the array API).
+     */
+    public double[] toArray() {
+        return new double[]{calories, protein, carbs, fats};
+    }
+
+    @Override
+    public String toString() {
+        return String.format("NutrientTotals{%.0f kcal, P %.1f g, C %.1f g, F %.1f g, rows=%d}",
+                calories, protein, carbs, fats, rows);
+    }
+}
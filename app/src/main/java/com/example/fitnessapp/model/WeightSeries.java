@@ -0,0 +1,103 @@
+package com.example.fitnessapp.model;
+
+import com.example.fitnessapp.data.WeightEntry;
+
+import java.util.List;
+
+/**
+ * Columnar, read-only view of a user's weight history.
+ * Holds parallel primitive arrays instead of one Room entity per point,
+ * so long histories can be analyzed without per-entry object allocation.
+ *
+ * Points are expected in chronological order (oldest first).
+ */
+public class WeightSeries {
+
+    private static final WeightSeries EMPTY = new WeightSeries(new long[0], new double[0], 0);
+
+    private final long[] timestamps;
+    private final double[] weights;
+    private final int size;
+
+    /**
+     * Wraps existing arrays without copying. Only the first {@code size} values are used.
+     */
+    public WeightSeries(long[] timestamps, double[] weights, int size) {
+        if (timestamps.length < size || weights.length < size) {
+            throw new IllegalArgumentException("Arrays shorter than series size");
+        }
+        this.timestamps = timestamps;
+        this.weights = weights;
+        this.size = size;
+    }
+
+    /**
+     * Returns a shared empty series.
+     */
+    public static WeightSeries empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Builds a series from a list of entities (sorted by date).
+     *
+     * Time Complexity: O(n)
+     */
+    public static WeightSeries fromEntries(List<WeightEntry> entries) {
+        if (entries == null || entries.isEmpty()) {
+            return EMPTY;
+        }
+
+        int n = entries.size();
+        long[] timestamps = new long[n];
+        double[] weights = new double[n];
+        for (int i = 0; i < n; i++) {
+            WeightEntry entry = entries.get(i);
+            timestamps[i] = entry.getTimestamp();
+            weights[i] = entry.getWeight();
+        }
+        return new WeightSeries(timestamps, weights, n);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public long getTimestamp(int index) {
+        return timestamps[index];
+    }
+
+    public double getWeight(int index) {
+        return weights[index];
+    }
+
+    /**
+     * Most recent weight, or 0 if the series is empty.
+     */
+    public double getLatestWeight() {
+        return size == 0 ? 0.0 : weights[size - 1];
+    }
+
+    /**
+     * Backing timestamp array (not copied; only the first {@link #size()} values are valid).
+     */
+    public long[] getTimestamps() {
+        return timestamps;
+    }
+
+    /**
+     * Backing weight array (not copied; only the first {@link #size()} values are valid).
+     */
+    public double[] getWeights() {
+        return weights;
+    }
+
+    @Override
+    public String toString() {
+        return "WeightSeries{size=" + size + "}";
+    }
+}
@@ -0,0 +1,208 @@
+package com.example.fitnessapp.repository;
+
+import androidx.annotation.NonNull;
+import androidx.room.InvalidationTracker;
+
+import com.example.fitnessapp.algorithm.AlgorithmService;
+import com.example.fitnessapp.algorithm.NutritionCalculator;
+import com.example.fitnessapp.data.AppDatabase;
+import com.example.fitnessapp.data.WeightEntry;
+import com.example.fitnessapp.model.NutritionProfile;
+import com.example.fitnessapp.model.WeightTrendAnalysis;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Versioned memoization cache for AlgorithmService results.
+ * Keys are (userId, inputs, data version). Room's InvalidationTracker bumps the weight version
+ * whenever weight_entry_table changes and the nutrition version whenever nutrition_goals
+ * changes, so stale results are never served and repeated LiveData emissions for unchanged
+ * data become map lookups.
+ *
+ * One instance per database, held by AppDatabase (shared by all repositories); thread-safe.
+ */
+public class AnalysisCache {
+
+    private static final int MAX_ENTRIES = 64;
+
+    private final AtomicLong weightVersion = new AtomicLong();
+    private final AtomicLong nutritionVersion = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    // Access-ordered LRU; guarded by itself
+    private final Map<List<Object>, Object> entries =
+            new LinkedHashMap<List<Object>, Object>(MAX_ENTRIES, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<List<Object>, Object> eldest) {
+                    return size() > MAX_ENTRIES;
+                }
+            };
+
+    private final InvalidationTracker.Observer observer =
+            new InvalidationTracker.Observer("weight_entry_table", "nutrition_goals") {
+                @Override
+                public void onInvalidated(@NonNull Set<String> tables) {
+                    if (tables.contains("weight_entry_table")) {
+                        weightVersion.incrementAndGet();
+                    }
+                    if (tables.contains("nutrition_goals")) {
+                        nutritionVersion.incrementAndGet();
+                    }
+                }
+            };
+
+    private AnalysisCache(AppDatabase db) {
+        db.getInvalidationTracker().addObserver(observer);
+    }
+
+    /**
+     * Gets the cache bound to the given database, registering its table observer once.
+     */
+    public static AnalysisCache getInstance(AppDatabase db) {
+        return db.getOrCreateCache(AnalysisCache.class, AnalysisCache::new);
+    }
+
+    // --- Cached AlgorithmService calls ---
+
+    /**
+     * Cached {@link AlgorithmService#analyzeWeightTrend(List, double)}.
+     * The list's size and first/last timestamps are part of the key, so different
+     * slices of the same history are cached separately. Entries may be oldest-first or
+     * newest-first (as emitted by WeightEntryDao.getAllEntriesForUser); newest-first lists
+     * are reversed on a miss only.
+     *
+     * @param userId Owner of the entries
+     * @param entries List of weight entries (sorted by date, either direction)
+     * @param goalWeight User's goal weight
+     * @return WeightTrendAnalysis, or null if there are no entries
+     */
+    public WeightTrendAnalysis analyzeWeightTrend(int userId, List<WeightEntry> entries, double goalWeight) {
+        if (entries == null || entries.isEmpty()) {
+            return null;
+        }
+        List<Object> key = Arrays.asList("trend", userId, weightVersion.get(), goalWeight,
+                entries.size(),
+                entries.get(0).getTimestamp(),
+                entries.get(entries.size() - 1).getTimestamp());
+        return getOrCompute(key, () -> {
+            List<WeightEntry> chronological = entries;
+            if (entries.get(0).getTimestamp() > entries.get(entries.size() - 1).getTimestamp()) {
+                chronological = new ArrayList<>(entries);
+                Collections.reverse(chronological);
+            }
+            return AlgorithmService.analyzeWeightTrend(chronological, goalWeight);
+        });
+    }
+
+    /**
+     * Caches an arbitrary weight trend computation for a user (e.g. the repository's
+     * state-backed or SQL-backed analysis).
+     *
+     * @param userId Owner of the data
+     * @param variant Name distinguishing the computation
+     * @param goalWeight User's goal weight
+     * @param compute Computation to run on a miss; its exceptions propagate to the caller
+     * @return Cached or freshly computed analysis
+     */
+    public WeightTrendAnalysis getWeightTrend(int userId, String variant, double goalWeight,
+                                              Supplier<WeightTrendAnalysis> compute) {
+        List<Object> key = Arrays.asList(variant, userId, weightVersion.get(), goalWeight);
+        return getOrCompute(key, compute);
+    }
+
+    /**
+     * Cached {@link AlgorithmService#calculateNutritionProfile}.
+     *
+     * @return Complete NutritionProfile
+     */
+    public NutritionProfile calculateNutritionProfile(int userId,
+                                                      double weightKg,
+                                                      double heightCm,
+                                                      int age,
+                                                      NutritionCalculator.Gender gender,
+                                                      NutritionCalculator.ActivityLevel activityLevel,
+                                                      NutritionCalculator.Goal goal) {
+        List<Object> key = Arrays.asList("nutrition", userId, nutritionVersion.get(),
+                weightKg, heightCm, age, gender, activityLevel, goal);
+        return getOrCompute(key, () -> AlgorithmService.calculateNutritionProfile(
+                weightKg, heightCm, age, gender, activityLevel, goal));
+    }
+
+    /**
+     * Bumps the weight version immediately. Called by EntryRepository after its own writes
+     * so the next read misses even before the InvalidationTracker refresh runs.
+     */
+    public void invalidateWeightData() {
+        weightVersion.incrementAndGet();
+    }
+
+    // --- Statistics ---
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    /**
+     * Fraction of lookups served from the cache (0 if there were none).
+     */
+    public double getHitRate() {
+        long h = hits.get();
+        long total = h + misses.get();
+        return total == 0 ? 0.0 : (double) h / total;
+    }
+
+    /**
+     * Drops all cached results (counters are kept).
+     */
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("AnalysisCache{hits=%d, misses=%d, hitRate=%.1f%%, weightVersion=%d, nutritionVersion=%d}",
+                hits.get(), misses.get(), getHitRate() * 100.0, weightVersion.get(), nutritionVersion.get());
+    }
+
+    @SuppressWarnings("unchecked")
+    /**
+     * Returns the cached value for {@code key} or runs {@code compute}. A computation that
+     * throws caches nothing and the exception reaches the caller, so a failure is never
+     * mistaken for "no data".
+     */
+    private <T> T getOrCompute(List<Object> key, Supplier<T> compute) {
+        synchronized (entries) {
+            Object cached = entries.get(key);
+            if (cached != null) {
+                hits.incrementAndGet();
+                return (T) cached;
+            }
+        }
+
+        misses.incrementAndGet();
+        T value = compute.get();
+
+        // Null results (no data) are not cached; they are cheap to recompute
+        if (value != null) {
+            synchronized (entries) {
+                entries.put(key, value);
+            }
+        }
+        return value;
+    }
+}
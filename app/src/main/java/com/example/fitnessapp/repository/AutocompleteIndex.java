@@ -0,0 +1,210 @@
+package com.example.fitnessapp.repository;
+
+import android.database.Cursor;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.room.InvalidationTracker;
+
+import com.example.fitnessapp.algorithm.TrigramIndex;
+import com.example.fitnessapp.data.AppDatabase;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.IntFunction;
+
+/**
+ * In-process autocomplete for the food and exercise pickers. Each table has two TrigramIndexes:
+ * one for catalog rows and a small one for users' custom rows. Both are built on first use on
+ * AppDatabase.databaseWriteExecutor from an (id, name, userId) cursor, shortest names first.
+ * Until they are ready, searches return an empty list, so callers fall back to SQL search
+ * (FoodDao.searchFoodsRanked).
+ *
+ * The catalog index stops after a few times k full matches in document order, so a custom
+ * row appended after the build could rank below hundreds of catalog names it beats. Custom
+ * rows therefore live in their own index, which every search scores and merges with the
+ * catalog top k.
+ *
+ * Room's InvalidationTracker schedules a catch-up whenever foods or exercises change; it indexes
+ * rows with an ID above the highest one indexed, so new custom foods and exercises become
+ * searchable within one background query. Renamed or deleted rows stay in the index until the
+ * process restarts; callers resolve matches by ID, which drops deleted rows.
+ *
+ * One instance per database, held by AppDatabase (shared by all repositories); thread-safe.
+ */
+public class AutocompleteIndex {
+
+    private static final String TAG = "AutocompleteIndex";
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int INITIAL_CUSTOM_CAPACITY = 64;
+
+    private final Source foods;
+    private final Source exercises;
+
+    private final InvalidationTracker.Observer observer =
+            new InvalidationTracker.Observer("foods", "exercises") {
+                @Override
+                public void onInvalidated(@NonNull Set<String> tables) {
+                    if (tables.contains("foods")) {
+                        foods.catchUp();
+                    }
+                    if (tables.contains("exercises")) {
+                        exercises.catchUp();
+                    }
+                }
+            };
+
+    private AutocompleteIndex(AppDatabase db) {
+        foods = new Source("foods", afterId -> db.foodDao().queryFoodNamesAfter(afterId));
+        exercises = new Source("exercises", afterId -> db.exerciseDao().queryExerciseNamesAfter(afterId));
+        db.getInvalidationTracker().addObserver(observer);
+    }
+
+    /**
+     * Gets the index bound to the given database, registering its table observer once.
+     */
+    public static AutocompleteIndex getInstance(AppDatabase db) {
+        return db.getOrCreateCache(AutocompleteIndex.class, AutocompleteIndex::new);
+    }
+
+    /**
+     * Starts building both indexes in the background (e.g. when a picker screen opens).
+     */
+    public void warmUp() {
+        foods.start();
+        exercises.start();
+    }
+
+    // --- Search ---
+
+    /**
+     * Top-k typo-tolerant matches among catalog foods and the user's custom foods.
+     * Safe to call on the main thread.
+     *
+     * @return Matches, best first; empty while the index is loading
+     */
+    public List<TrigramIndex.Match> searchFoods(String query, int userId, int k) {
+        return foods.search(query, userId, k);
+    }
+
+    /**
+     * Top-k typo-tolerant matches among catalog exercises and the user's custom exercises.
+     * Safe to call on the main thread.
+     *
+     * @return Matches, best first; empty while the index is loading
+     */
+    public List<TrigramIndex.Match> searchExercises(String query, int userId, int k) {
+        return exercises.search(query, userId, k);
+    }
+
+    public boolean isFoodIndexReady() {
+        return foods.ready;
+    }
+
+    public boolean isExerciseIndexReady() {
+        return exercises.ready;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("AutocompleteIndex{foods=%d%s, exercises=%d%s}",
+                foods.size(), foods.ready ? "" : " (loading)",
+                exercises.size(), exercises.ready ? "" : " (loading)");
+    }
+
+    /**
+     * One table's catalog and custom indexes and their loading state.
+     */
+    private static final class Source {
+        final String table;
+        volatile TrigramIndex index = new TrigramIndex(0);
+        volatile TrigramIndex custom = new TrigramIndex(0);
+        final IntFunction<Cursor> queryAfter;
+        final AtomicBoolean started = new AtomicBoolean();
+        final Object loadLock = new Object();
+        volatile boolean ready;
+
+        Source(String table, IntFunction<Cursor> queryAfter) {
+            this.table = table;
+            this.queryAfter = queryAfter;
+        }
+
+        void start() {
+            if (started.compareAndSet(false, true)) {
+                AppDatabase.databaseWriteExecutor.execute(this::load);
+            }
+        }
+
+        /**
+         * Indexes new rows if the initial build has been requested (otherwise it will see them).
+         */
+        void catchUp() {
+            if (started.get()) {
+                AppDatabase.databaseWriteExecutor.execute(this::load);
+            }
+        }
+
+        List<TrigramIndex.Match> search(String query, int userId, int k) {
+            if (!ready) {
+                start();
+                return new ArrayList<>();
+            }
+            List<TrigramIndex.Match> matches = index.search(query, userId, k);
+            List<TrigramIndex.Match> customMatches = custom.search(query, userId, k);
+            if (customMatches.isEmpty()) {
+                return matches;
+            }
+            matches.addAll(customMatches);
+            matches.sort(TrigramIndex.Match.BEST_FIRST);
+            return matches.size() > k ? new ArrayList<>(matches.subList(0, k)) : matches;
+        }
+
+        int size() {
+            return index.size() + custom.size();
+        }
+
+        /**
+         * Adds every row with an ID above the highest indexed one, catalog rows to the catalog
+         * index and custom rows to the custom index. Serialized, so a catch-up queued during the
+         * initial build only sees rows the build missed. The initial build fills fresh indexes
+         * that are published only once complete.
+         */
+        private void load() {
+            synchronized (loadLock) {
+                long start = System.nanoTime();
+                TrigramIndex target = ready ? index : new TrigramIndex(INITIAL_CAPACITY);
+                TrigramIndex customTarget = ready ? custom : new TrigramIndex(INITIAL_CUSTOM_CAPACITY);
+                int added = 0;
+                try (Cursor cursor = queryAfter.apply(Math.max(target.getMaxId(), customTarget.getMaxId()))) {
+                    while (cursor.moveToNext()) {
+                        int ownerId = cursor.isNull(2) ? TrigramIndex.SHARED : cursor.getInt(2);
+                        (ownerId == TrigramIndex.SHARED ? target : customTarget)
+                                .add(cursor.getInt(0), ownerId, cursor.getString(1));
+                        added++;
+                    }
+                } catch (Exception e) {
+                    Log.e(TAG, "Loading " + table + " names failed", e);
+                    if (!ready) {
+                        // Discard the partial build; the next search retries
+                        started.set(false);
+                    }
+                    return;
+                }
+
+                if (!ready) {
+                    index = target;
+                    custom = customTarget;
+                    ready = true;
+                    Log.d(TAG, "Built " + table + " index: " + added + " names ("
+                            + custom.size() + " custom), "
+                            + (index.getPostingBytes() + custom.getPostingBytes()) / 1024 + " KiB postings, "
+                            + (System.nanoTime() - start) / 1_000_000 + " ms");
+                } else if (added > 0) {
+                    Log.d(TAG, "Indexed " + added + " new " + table);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.fitnessapp.repository;
+
+import androidx.annotation.NonNull;
+import androidx.room.InvalidationTracker;
+
+import com.example.fitnessapp.data.AppDatabase;
+import com.example.fitnessapp.data.Food;
+import com.example.fitnessapp.data.FoodDao;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * LRU cache of recent barcode scans (userId + barcode → Food), including misses, so a
+ * scan-to-log flow reads each product from disk once. Logging a meal does not touch the foods
+ * table, so entries survive it; Room's InvalidationTracker clears the cache whenever foods
+ * changes (a new custom food for an unknown code, an edit, an import).
+ *
+ * Cached Food objects are shared between callers and must be treated as read-only.
+ *
+ * One instance per database, held by AppDatabase (shared by all repositories); thread-safe.
+ */
+public class BarcodeCache {
+
+    private static final int MAX_ENTRIES = 256;
+
+    // Marks a cached miss (LinkedHashMap.get cannot tell a stored null from an absent key)
+    private static final Food NOT_FOUND = new Food("", 0, 0, 0, 0);
+
+    private final FoodDao foodDao;
+    private final AtomicLong version = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    // Access-ordered LRU; guarded by itself
+    private final Map<String, Food> entries =
+            new LinkedHashMap<String, Food>(MAX_ENTRIES, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Food> eldest) {
+                    return size() > MAX_ENTRIES;
+                }
+            };
+
+    private final InvalidationTracker.Observer observer =
+            new InvalidationTracker.Observer("foods") {
+                @Override
+                public void onInvalidated(@NonNull Set<String> tables) {
+                    invalidate();
+                }
+            };
+
+    private BarcodeCache(AppDatabase db) {
+        foodDao = db.foodDao();
+        db.getInvalidationTracker().addObserver(observer);
+    }
+
+    /**
+     * Gets the cache bound to the given database, registering its table observer once.
+     */
+    public static BarcodeCache getInstance(AppDatabase db) {
+        return db.getOrCreateCache(BarcodeCache.class, BarcodeCache::new);
+    }
+
+    /**
+     * Resolves a scanned barcode through the cache (see FoodDao.getFoodByBarcodeSync).
+     * MUST be called on a background thread (hits do no I/O)
+     *
+     * @param barcode Code as scanned; surrounding whitespace is ignored
+     * @param userId The ID of the user whose custom foods are checked
+     * @return The food, or null if the barcode is unknown or blank
+     */
+    public Food lookup(String barcode, int userId) {
+        String code = barcode == null ? "" : barcode.trim();
+        if (code.isEmpty()) {
+            return null;
+        }
+
+        String key = userId + ":" + code;
+        long loadVersion;
+        synchronized (entries) {
+            Food cached = entries.get(key);
+            if (cached != null) {
+                hits.incrementAndGet();
+                return cached == NOT_FOUND ? null : cached;
+            }
+            loadVersion = version.get();
+        }
+
+        misses.incrementAndGet();
+        Food food = foodDao.getFoodByBarcodeSync(code, userId);
+        synchronized (entries) {
+            // Skip caching if foods changed while loading; the result may be stale
+            if (version.get() == loadVersion) {
+                entries.put(key, food == null ? NOT_FOUND : food);
+            }
+        }
+        return food;
+    }
+
+    /**
+     * Drops all entries. Called by the foods observer; callers that just wrote a food may call
+     * it directly so the next scan misses even before the InvalidationTracker refresh runs.
+     */
+    public void invalidate() {
+        synchronized (entries) {
+            version.incrementAndGet();
+            entries.clear();
+        }
+    }
+
+    // --- Statistics ---
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    @Override
+    public String toString() {
+        synchronized (entries) {
+            return String.format("BarcodeCache{entries=%d, hits=%d, misses=%d}",
+                    entries.size(), hits.get(), misses.get());
+        }
+    }
+}
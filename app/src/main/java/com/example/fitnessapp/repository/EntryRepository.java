@@ -3,28 +3,50 @@ package com.example.fitnessapp.repository;
 import android.app.Application;
 import androidx.lifecycle.LiveData;
 
+import com.example.fitnessapp.algorithm.AlgorithmService;
+import com.example.fitnessapp.algorithm.FormulaConstants;
+import com.example.fitnessapp.algorithm.TDigest;
+import com.example.fitnessapp.algorithm.WeightTrendAccumulator;
 import com.example.fitnessapp.data.AppDatabase;
 import com.example.fitnessapp.data.User;
 import com.example.fitnessapp.data.UserDao;
 import com.example.fitnessapp.data.WeightEntry;
 import com.example.fitnessapp.data.WeightEntryDao;
+import com.example.fitnessapp.data.WeightRollup;
+import com.example.fitnessapp.data.WeightRollupDao;
+import com.example.fitnessapp.data.WeightSketch;
+import com.example.fitnessapp.data.WeightSketchDao;
+import com.example.fitnessapp.data.WeightTrendState;
+import com.example.fitnessapp.data.WeightTrendStateDao;
+import com.example.fitnessapp.model.WeightSeries;
+import com.example.fitnessapp.model.WeightTrendAnalysis;
 import com.example.fitnessapp.util.Result;
 import com.example.fitnessapp.util.SecurityUtils;
 import com.example.fitnessapp.util.ValidationUtils;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.Future;
 
 public class EntryRepository {
 
+    private final AppDatabase db;
     private final WeightEntryDao weightEntryDao;
+    private final WeightTrendStateDao weightTrendStateDao;
+    private final WeightRollupDao weightRollupDao;
+    private final WeightSketchDao weightSketchDao;
     private final UserDao userDao;
+    private final AnalysisCache analysisCache;
 
     // --- Constructor ---
     public EntryRepository(Application application) {
-        AppDatabase db = AppDatabase.getDatabase(application);
+        db = AppDatabase.getDatabase(application);
         weightEntryDao = db.weightEntryDao();
+        weightTrendStateDao = db.weightTrendStateDao();
+        weightRollupDao = db.weightRollupDao();
+        weightSketchDao = db.weightSketchDao();
         userDao = db.userDao();
+        analysisCache = AnalysisCache.getInstance(db);
     }
 
     // --- LiveData Fetches (Used by ViewModel) ---
@@ -43,18 +65,455 @@ public class EntryRepository {
         return userDao.getUserById(userId);
     }
 
+    /**
+     * Loads a user's full weight history as a columnar series (oldest first).
+     * Reads only (timestamp, weight) from a cursor; no WeightEntry objects are created.
+     * MUST be called on a background thread
+     *
+     * @param userId The user ID
+     * @return The user's WeightSeries (empty if no entries)
+     */
+    public WeightSeries getWeightSeriesSync(int userId) {
+        return weightEntryDao.loadWeightSeries(userId);
+    }
+
+    /**
+     * Builds the weight trend analysis from the persisted running sums.
+     * Reads one weight_trend_state row plus the latest 30 entries (index-backed),
+     * instead of scanning the user's whole history.
+     * MUST be called on a background thread
+     *
+     * @param userId The user ID
+     * @param goalWeight The user's goal weight
+     * @return The analysis, or null if the user has no entries
+     */
+    public WeightTrendAnalysis getWeightTrendAnalysisSync(int userId, double goalWeight) {
+        return analysisCache.getWeightTrend(userId, "trendState", goalWeight,
+                () -> computeWeightTrendAnalysis(userId, goalWeight));
+    }
+
+    private WeightTrendAnalysis computeWeightTrendAnalysis(int userId, double goalWeight) {
+        WeightTrendState state = weightTrendStateDao.getStateForUserSync(userId);
+        if (state == null) {
+            // First use after migration: build the state once from the full history
+            state = db.runInTransaction(() -> rebuildTrendState(userId));
+            if (state == null) {
+                return null;
+            }
+        }
+
+        List<WeightEntry> recent = weightEntryDao.getLatestEntriesSync(
+                userId, FormulaConstants.MOVING_AVERAGE_LONG_WINDOW);
+        return AlgorithmService.analyzeWeightTrend(
+                WeightTrendAccumulator.fromState(state), recent, goalWeight);
+    }
+
+    /**
+     * Builds the weight trend analysis for a time range with the regression pushed into SQLite.
+     * Only one aggregate row and the latest 30 entries of the range leave the database.
+     * MUST be called on a background thread
+     *
+     * @param userId The user ID
+     * @param startTime Inclusive range start
+     * @param endTime Inclusive range end
+     * @param goalWeight The user's goal weight
+     * @return The analysis, or null if the range has no entries
+     */
+    public WeightTrendAnalysis getWeightTrendAnalysisInRangeSync(int userId, long startTime,
+                                                                 long endTime, double goalWeight) {
+        return analysisCache.getWeightTrend(userId, "range:" + startTime + ":" + endTime, goalWeight,
+                () -> computeWeightTrendAnalysisInRange(userId, startTime, endTime, goalWeight));
+    }
+
+    private WeightTrendAnalysis computeWeightTrendAnalysisInRange(int userId, long startTime,
+                                                                  long endTime, double goalWeight) {
+        WeightEntryDao.RegressionSums sums = weightEntryDao.getRegressionSums(userId, startTime, endTime);
+        if (sums == null || sums.entryCount == 0 || sums.originTimestamp == null) {
+            return null;
+        }
+
+        WeightTrendAccumulator accumulator = WeightTrendAccumulator.fromSums(
+                sums.originTimestamp, sums.entryCount,
+                sums.sumX, sums.sumY, sums.sumXY, sums.sumX2, sums.sumY2);
+        List<WeightEntry> recent = weightEntryDao.getLatestEntriesInRangeSync(
+                userId, startTime, endTime, FormulaConstants.MOVING_AVERAGE_LONG_WINDOW);
+        return AlgorithmService.analyzeWeightTrend(accumulator, recent, goalWeight);
+    }
+
+    /**
+     * Analyzes an already-loaded entry list (e.g. a LiveData emission), reusing the previous
+     * result while weight_entry_table has not changed.
+     *
+     * @param userId The user ID
+     * @param entries List of weight entries (sorted by date, either direction)
+     * @param goalWeight The user's goal weight
+     * @return The analysis, or null if there are no entries
+     */
+    public WeightTrendAnalysis analyzeWeightTrend(int userId, List<WeightEntry> entries, double goalWeight) {
+        return analysisCache.analyzeWeightTrend(userId, entries, goalWeight);
+    }
+
+    /**
+     * Returns the shared analysis cache (for hit/miss reporting).
+     */
+    public AnalysisCache getAnalysisCache() {
+        return analysisCache;
+    }
+
+    /**
+     * Retrieves materialized weight rollups overlapping a time range.
+     * Builds the user's rollups from their full history the first time they are needed.
+     * MUST be called on a background thread
+     *
+     * @param userId The user ID
+     * @param resolution WeightRollup.RESOLUTION_DAY, RESOLUTION_WEEK or RESOLUTION_MONTH
+     * @param startTime Range start
+     * @param endTime Range end
+     * @return Rollups in chronological order
+     */
+    public List<WeightRollup> getWeightRollupsSync(int userId, String resolution,
+                                                   long startTime, long endTime) {
+        if (weightRollupDao.countRollupsForUser(userId) == 0) {
+            db.runInTransaction(() -> rebuildRollups(userId));
+        }
+        return weightRollupDao.getRollupsInRangeSync(userId, resolution, startTime, endTime);
+    }
+
+    /**
+     * Retrieves the quantile sketch of a user's whole weight history.
+     * Median, p10/p90 and IQR are stored columns, so this is a single-row read.
+     * MUST be called on a background thread
+     *
+     * @param userId The user ID
+     * @return The sketch, or null if the user has no entries
+     */
+    public WeightSketch getWeightDistributionSync(int userId) {
+        ensureSketches(userId);
+        return weightSketchDao.getSketchSync(userId, WeightSketch.RESOLUTION_ALL, 0L);
+    }
+
+    /**
+     * Retrieves per-bucket quantile sketches overlapping a time range (e.g. monthly p10/p90 bands).
+     * MUST be called on a background thread
+     *
+     * @param userId The user ID
+     * @param resolution WeightRollup.RESOLUTION_WEEK or RESOLUTION_MONTH
+     * @param startTime Range start
+     * @param endTime Range end
+     * @return Sketches in chronological order
+     */
+    public List<WeightSketch> getWeightSketchesSync(int userId, String resolution,
+                                                    long startTime, long endTime) {
+        ensureSketches(userId);
+        return weightSketchDao.getSketchesInRangeSync(userId, resolution, startTime, endTime);
+    }
+
+    /**
+     * Weight distribution over a time range, merged from the stored bucket sketches without
+     * reading any entries. The range is widened to whole buckets: months for ranges of 90 days
+     * or more, otherwise weeks.
+     * MUST be called on a background thread
+     *
+     * @param userId The user ID
+     * @param startTime Range start
+     * @param endTime Range end
+     * @return A transient (not stored) sketch of the merged buckets, or null if they are empty
+     */
+    public WeightSketch getWeightDistributionInRangeSync(int userId, long startTime, long endTime) {
+        String resolution = endTime - startTime >= 90L * 24 * 60 * 60 * 1000
+                ? WeightRollup.RESOLUTION_MONTH : WeightRollup.RESOLUTION_WEEK;
+        List<WeightSketch> buckets = getWeightSketchesSync(userId, resolution, startTime, endTime);
+        if (buckets.isEmpty()) {
+            return null;
+        }
+
+        TDigest merged = new TDigest();
+        for (WeightSketch bucket : buckets) {
+            merged.merge(bucket.toDigest());
+        }
+        return WeightSketch.fromDigest(userId, resolution, buckets.get(0).getBucketStart(),
+                buckets.get(buckets.size() - 1).getBucketEnd(), merged);
+    }
+
     // --- WeightEntry CRUD Operations ---
+    // Each write also updates the user's weight_trend_state row and weight_rollups
+    // buckets in the same transaction.
 
     public void insertWeightEntry(WeightEntry entry) {
-        AppDatabase.databaseWriteExecutor.execute(() -> weightEntryDao.insert(entry));
+        AppDatabase.databaseWriteExecutor.execute(() -> {
+            db.runInTransaction(() -> {
+                if (weightEntryDao.insert(entry) != -1) {
+                    trackAdded(entry);
+                    addToSketches(entry);
+                }
+            });
+            analysisCache.invalidateWeightData();
+        });
     }
 
     public void updateWeightEntry(WeightEntry entry) {
-        AppDatabase.databaseWriteExecutor.execute(() -> weightEntryDao.update(entry));
+        AppDatabase.databaseWriteExecutor.execute(() -> {
+            db.runInTransaction(() -> {
+                WeightEntry previous = weightEntryDao.getEntryByIdSync(entry.getId());
+                weightEntryDao.update(entry);
+                if (previous != null) {
+                    trackRemoved(previous);
+                    trackAdded(entry);
+                    refreshSketches(entry.getUserId(), previous.getTimestamp(), entry.getTimestamp());
+                }
+            });
+            analysisCache.invalidateWeightData();
+        });
     }
 
     public void deleteWeightEntry(WeightEntry entry) {
-        AppDatabase.databaseWriteExecutor.execute(() -> weightEntryDao.delete(entry));
+        AppDatabase.databaseWriteExecutor.execute(() -> {
+            db.runInTransaction(() -> {
+                // Use the stored row so the subtracted values match what was added
+                WeightEntry stored = weightEntryDao.getEntryByIdSync(entry.getId());
+                weightEntryDao.delete(entry);
+                if (stored != null) {
+                    trackRemoved(stored);
+                    refreshSketches(stored.getUserId(), stored.getTimestamp());
+                }
+            });
+            analysisCache.invalidateWeightData();
+        });
+    }
+
+    // --- Incremental trend state (called inside write transactions) ---
+    // Quantile sketches are maintained separately by the write paths: a digest can absorb
+    // a new value but cannot forget one, so updates and deletes rebuild the affected buckets.
+
+    /**
+     * Adds an entry to the user's running trend sums in O(1).
+     */
+    private void trackAdded(WeightEntry entry) {
+        refreshRollups(entry.getUserId(), entry.getTimestamp());
+
+        WeightTrendState state = weightTrendStateDao.getStateForUserSync(entry.getUserId());
+        if (state == null) {
+            // No state yet: the rebuild already includes this entry
+            rebuildTrendState(entry.getUserId());
+            return;
+        }
+
+        WeightTrendAccumulator accumulator = WeightTrendAccumulator.fromState(state);
+        accumulator.add(entry.getTimestamp(), entry.getWeight());
+        weightTrendStateDao.upsert(accumulator.toState(entry.getUserId()));
+    }
+
+    /**
+     * Subtracts an entry from the user's running trend sums in O(1).
+     */
+    private void trackRemoved(WeightEntry entry) {
+        refreshRollups(entry.getUserId(), entry.getTimestamp());
+
+        WeightTrendState state = weightTrendStateDao.getStateForUserSync(entry.getUserId());
+        if (state == null) {
+            rebuildTrendState(entry.getUserId());
+            return;
+        }
+
+        WeightTrendAccumulator accumulator = WeightTrendAccumulator.fromState(state);
+        accumulator.remove(entry.getTimestamp(), entry.getWeight());
+        if (accumulator.getCount() == 0) {
+            weightTrendStateDao.deleteStateForUser(entry.getUserId());
+        } else {
+            weightTrendStateDao.upsert(accumulator.toState(entry.getUserId()));
+        }
+    }
+
+    /**
+     * Recomputes a user's trend state from their full history (one scan).
+     *
+     * @return The stored state, or null if the user has no entries
+     */
+    private WeightTrendState rebuildTrendState(int userId) {
+        WeightSeries series = weightEntryDao.loadWeightSeries(userId);
+        if (series.isEmpty()) {
+            weightTrendStateDao.deleteStateForUser(userId);
+            return null;
+        }
+
+        WeightTrendAccumulator accumulator = new WeightTrendAccumulator(series.getTimestamp(0));
+        for (int i = 0; i < series.size(); i++) {
+            accumulator.add(series.getTimestamp(i), series.getWeight(i));
+        }
+
+        WeightTrendState state = accumulator.toState(userId);
+        weightTrendStateDao.upsert(state);
+        return state;
+    }
+
+    /**
+     * Recomputes the day, week and month buckets touched by an entry write.
+     * Each bucket is re-aggregated from its raw entries, since min/max/first/last
+     * cannot be subtracted out on delete.
+     */
+    private void refreshRollups(int userId, long timestamp) {
+        if (weightRollupDao.countRollupsForUser(userId) == 0) {
+            // Not built yet (or the user's last entry was removed): build from scratch
+            rebuildRollups(userId);
+            return;
+        }
+        weightRollupDao.refreshAllResolutions(userId, timestamp);
+    }
+
+    /**
+     * Rebuilds all of a user's rollups with one history scan.
+     */
+    private void rebuildRollups(int userId) {
+        weightRollupDao.deleteAllForUser(userId);
+        WeightSeries series = weightEntryDao.loadWeightSeries(userId);
+        List<WeightRollup> rollups = new ArrayList<>();
+
+        for (String resolution : WeightRollup.RESOLUTIONS) {
+            int i = 0;
+            while (i < series.size()) {
+                long bucketStart = WeightRollup.bucketStartFor(resolution, series.getTimestamp(i));
+                long bucketEnd = WeightRollup.bucketEndFor(resolution, bucketStart);
+                WeightRollup rollup = new WeightRollup(userId, resolution, bucketStart, bucketEnd);
+                rollup.setFirstTimestamp(series.getTimestamp(i));
+                rollup.setFirstWeight(series.getWeight(i));
+                rollup.setMinWeight(series.getWeight(i));
+                rollup.setMaxWeight(series.getWeight(i));
+
+                int count = 0;
+                double sum = 0.0;
+                // Series is sorted by timestamp: consume the rest of this bucket
+                while (i < series.size() && series.getTimestamp(i) < bucketEnd) {
+                    double weight = series.getWeight(i);
+                    count++;
+                    sum += weight;
+                    rollup.setMinWeight(Math.min(rollup.getMinWeight(), weight));
+                    rollup.setMaxWeight(Math.max(rollup.getMaxWeight(), weight));
+                    rollup.setLastTimestamp(series.getTimestamp(i));
+                    rollup.setLastWeight(weight);
+                    i++;
+                }
+                rollup.setEntryCount(count);
+                rollup.setSumWeight(sum);
+                rollups.add(rollup);
+            }
+        }
+
+        weightRollupDao.insertAll(rollups);
+    }
+
+    // --- Quantile sketches (called inside write transactions) ---
+
+    /**
+     * Builds the user's sketches on first use (or after all their entries were removed).
+     */
+    private void ensureSketches(int userId) {
+        if (weightSketchDao.countSketchesForUser(userId) == 0) {
+            db.runInTransaction(() -> rebuildSketches(userId));
+        }
+    }
+
+    /**
+     * Adds a newly inserted entry to its week, month and whole-history sketches
+     * without reading any other entries.
+     */
+    private void addToSketches(WeightEntry entry) {
+        int userId = entry.getUserId();
+        if (weightSketchDao.countSketchesForUser(userId) == 0) {
+            // Not built yet: the rebuild already includes this entry
+            rebuildSketches(userId);
+            return;
+        }
+
+        for (String resolution : WeightSketch.RESOLUTIONS) {
+            WeightRollup.Bounds bounds = weightSketchDao.boundsFor(userId, resolution, entry.getTimestamp());
+            addToSketch(userId, resolution, bounds.bucketStart, bounds.bucketEnd, entry.getWeight());
+        }
+        addToSketch(userId, WeightSketch.RESOLUTION_ALL, 0L, Long.MAX_VALUE, entry.getWeight());
+    }
+
+    private void addToSketch(int userId, String resolution, long bucketStart, long bucketEnd, double weight) {
+        WeightSketch existing = weightSketchDao.getSketchSync(userId, resolution, bucketStart);
+        TDigest digest = existing == null ? new TDigest() : existing.toDigest();
+        digest.add(weight);
+        weightSketchDao.upsert(WeightSketch.fromDigest(userId, resolution, bucketStart, bucketEnd, digest));
+    }
+
+    /**
+     * Rebuilds the week and month sketches containing each timestamp from their rows
+     * (at most a month of entries each), then re-merges the whole-history sketch from the
+     * month sketches.
+     */
+    private void refreshSketches(int userId, long... timestamps) {
+        if (weightSketchDao.countSketchesForUser(userId) == 0) {
+            rebuildSketches(userId);
+            return;
+        }
+
+        for (long timestamp : timestamps) {
+            for (String resolution : WeightSketch.RESOLUTIONS) {
+                // Located by stored range, so the month re-merge below never sees two
+                // overlapping months after a time-zone change
+                WeightRollup.Bounds bounds = weightSketchDao.boundsFor(userId, resolution, timestamp);
+                long bucketStart = bounds.bucketStart;
+                long bucketEnd = bounds.bucketEnd;
+                WeightSeries bucket = weightEntryDao.loadWeightSeriesInRange(userId, bucketStart, bucketEnd - 1);
+                if (bucket.size() == 0) {
+                    weightSketchDao.deleteSketch(userId, resolution, bucketStart);
+                    continue;
+                }
+
+                TDigest digest = new TDigest();
+                for (int i = 0; i < bucket.size(); i++) {
+                    digest.add(bucket.getWeight(i));
+                }
+                weightSketchDao.upsert(WeightSketch.fromDigest(userId, resolution, bucketStart, bucketEnd, digest));
+            }
+        }
+
+        TDigest overall = new TDigest();
+        for (WeightSketch month : weightSketchDao.getSketchesInRangeSync(
+                userId, WeightRollup.RESOLUTION_MONTH, Long.MIN_VALUE, Long.MAX_VALUE)) {
+            overall.merge(month.toDigest());
+        }
+        if (overall.isEmpty()) {
+            weightSketchDao.deleteSketch(userId, WeightSketch.RESOLUTION_ALL, 0L);
+        } else {
+            weightSketchDao.upsert(WeightSketch.fromDigest(
+                    userId, WeightSketch.RESOLUTION_ALL, 0L, Long.MAX_VALUE, overall));
+        }
+    }
+
+    /**
+     * Rebuilds all of a user's sketches with one history scan.
+     */
+    private void rebuildSketches(int userId) {
+        weightSketchDao.deleteAllForUser(userId);
+        WeightSeries series = weightEntryDao.loadWeightSeries(userId);
+        if (series.size() == 0) {
+            return;
+        }
+
+        List<WeightSketch> sketches = new ArrayList<>();
+        for (String resolution : WeightSketch.RESOLUTIONS) {
+            int i = 0;
+            while (i < series.size()) {
+                long bucketStart = WeightRollup.bucketStartFor(resolution, series.getTimestamp(i));
+                long bucketEnd = WeightRollup.bucketEndFor(resolution, bucketStart);
+                TDigest digest = new TDigest();
+                while (i < series.size() && series.getTimestamp(i) < bucketEnd) {
+                    digest.add(series.getWeight(i));
+                    i++;
+                }
+                sketches.add(WeightSketch.fromDigest(userId, resolution, bucketStart, bucketEnd, digest));
+            }
+        }
+
+        TDigest overall = new TDigest();
+        for (int i = 0; i < series.size(); i++) {
+            overall.add(series.getWeight(i));
+        }
+        sketches.add(WeightSketch.fromDigest(userId, WeightSketch.RESOLUTION_ALL, 0L, Long.MAX_VALUE, overall));
+        weightSketchDao.upsertAll(sketches);
     }
 
     // --- User Operations ---
@@ -0,0 +1,181 @@
+package com.example.fitnessapp.repository;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * RFC 4180 CSV reader for FoodImporter. The first row names the columns (see
+ * FoodImportRecord for accepted names; other columns are ignored). Fields may be quoted, with
+ * doubled quotes, commas and line breaks inside quotes. Characters are read through one fixed
+ * buffer and collected in one reusable field buffer; only mapped text values become Strings.
+ */
+final class FoodCsvParser implements FoodRecordParser {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int END_OF_FIELD = 0;
+    private static final int END_OF_ROW = 1;
+
+    private final Reader reader;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int position;
+    private int limit;
+
+    private char[] field = new char[256];
+    private int fieldLength;
+
+    private final int[] columns;
+    private final String[] columnNames;
+    private long line = 1;
+    private long rowLine;
+
+    FoodCsvParser(Reader reader) throws IOException {
+        this.reader = reader;
+
+        List<String> names = new ArrayList<>();
+        if (peek() != -1) {
+            int end;
+            do {
+                end = readField();
+                names.add(new String(field, 0, fieldLength).trim());
+            } while (end == END_OF_FIELD);
+        }
+        columnNames = names.toArray(new String[0]);
+        columns = new int[columnNames.length];
+        boolean hasName = false;
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = FoodImportRecord.fieldFor(columnNames[i]);
+            hasName |= columns[i] == FoodImportRecord.NAME;
+        }
+        if (!hasName) {
+            throw new IOException("CSV header has no name column: " + names);
+        }
+    }
+
+    @Override
+    public boolean next(FoodImportRecord record) throws IOException {
+        // Skip blank lines
+        int c;
+        while ((c = peek()) == '\n' || c == '\r') {
+            read();
+            if (c == '\r' && peek() == '\n') {
+                read();
+            }
+            line++;
+        }
+        if (c == -1) {
+            return false;
+        }
+
+        record.reset();
+        rowLine = line;
+        int column = 0;
+        int end;
+        do {
+            end = readField();
+            if (column < columns.length) {
+                assign(record, column);
+            }
+            column++;
+        } while (end == END_OF_FIELD);
+        return true;
+    }
+
+    @Override
+    public long getRowLine() {
+        return rowLine;
+    }
+
+    private void assign(FoodImportRecord record, int column) {
+        int target = columns[column];
+        if (target == FoodImportRecord.UNKNOWN) {
+            return;
+        }
+        if (FoodImportRecord.isNumeric(target)) {
+            try {
+                record.setNumber(target, FoodImportRecord.parseNumber(field, 0, fieldLength));
+            } catch (NumberFormatException e) {
+                record.parseError = "bad number in column " + columnNames[column];
+            }
+        } else if (fieldLength > 0) {
+            record.setText(target, new String(field, 0, fieldLength));
+        }
+    }
+
+    /**
+     * Reads one field into the field buffer.
+     *
+     * @return END_OF_FIELD after a comma, END_OF_ROW after a line break or at end of input
+     */
+    private int readField() throws IOException {
+        fieldLength = 0;
+        int c = read();
+        if (c == '"') {
+            while (true) {
+                c = read();
+                if (c == -1) {
+                    throw new IOException("Unterminated quoted field starting on line " + rowLine);
+                }
+                if (c == '"') {
+                    c = read();
+                    if (c != '"') {
+                        break;
+                    }
+                } else if (c == '\n') {
+                    line++;
+                }
+                append((char) c);
+            }
+            // Anything between the closing quote and the delimiter is dropped
+            while (c != ',' && c != '\n' && c != '\r' && c != -1) {
+                c = read();
+            }
+        } else {
+            while (c != ',' && c != '\n' && c != '\r' && c != -1) {
+                append((char) c);
+                c = read();
+            }
+        }
+
+        if (c == ',') {
+            return END_OF_FIELD;
+        }
+        if (c == '\r' && peek() == '\n') {
+            read();
+        }
+        if (c != -1) {
+            line++;
+        }
+        return END_OF_ROW;
+    }
+
+    private void append(char c) {
+        if (fieldLength == field.length) {
+            field = Arrays.copyOf(field, fieldLength * 2);
+        }
+        field[fieldLength++] = c;
+    }
+
+    private int read() throws IOException {
+        if (position == limit && !fill()) {
+            return -1;
+        }
+        return buffer[position++];
+    }
+
+    private int peek() throws IOException {
+        if (position == limit && !fill()) {
+            return -1;
+        }
+        return buffer[position];
+    }
+
+    private boolean fill() throws IOException {
+        int count = reader.read(buffer, 0, buffer.length);
+        position = 0;
+        limit = Math.max(count, 0);
+        return count > 0;
+    }
+}
@@ -0,0 +1,360 @@
+package com.example.fitnessapp.repository;
+
+import androidx.sqlite.db.SupportSQLiteStatement;
+
+import java.util.Locale;
+
+/**
+ * Mutable buffer for one food row during a bulk import. A single instance is refilled by the
+ * parser for every row, so parsing allocates only the text values that are actually stored.
+ *
+ * Column names are matched case-insensitively against the aliases below, which cover the
+ * app's own export names and USDA-style dumps (description, brand_owner, gtin_upc, ...).
+ * Nutrient values are per servingSize grams (default 100 g).
+ */
+final class FoodImportRecord {
+
+    // --- Field IDs ---
+    static final int UNKNOWN = -1;
+    static final int NAME = 0;
+    static final int BRAND = 1;
+    static final int BARCODE = 2;
+    static final int CATEGORY = 3;
+    static final int SERVING_SIZE = 4;
+    static final int CALORIES = 5;
+    static final int PROTEIN = 6;
+    static final int CARBS = 7;
+    static final int FATS = 8;
+    static final int FIBER = 9;
+    static final int SUGAR = 10;
+
+    private static final int FIRST_NUMERIC = SERVING_SIZE;
+
+    private static final String[][] ALIASES = {
+            {"name", "description", "food_name"},
+            {"brand", "brand_owner", "brand_name"},
+            {"barcode", "gtin_upc", "upc", "ean"},
+            {"category", "food_category", "branded_food_category"},
+            {"servingsize", "serving_size", "serving_size_g"},
+            {"calories", "energy_kcal", "kcal", "energy"},
+            {"protein", "protein_g"},
+            {"carbs", "carbohydrate", "carbohydrates", "carbohydrate_g"},
+            {"fats", "fat", "total_fat", "fat_g"},
+            {"fiber", "fibre", "fiber_g"},
+            {"sugar", "sugars", "sugars_g"}
+    };
+
+    private static final int MAX_NAME_LENGTH = 200;
+    private static final double MAX_KCAL_PER_100G = 950.0;     // Pure fat is 900
+    private static final double MAX_SERVING_GRAMS = 5000.0;
+    private static final double MASS_TOLERANCE = 1.05;          // Rounding in source data
+
+    // --- Row values ---
+    String name;
+    String brand;
+    String barcode;
+    String category;
+    final double[] numbers = new double[SUGAR - FIRST_NUMERIC + 1];
+    String parseError;
+
+    /**
+     * Clears the buffer for the next row (serving size 100 g, missing nutrients NaN).
+     */
+    void reset() {
+        name = null;
+        brand = null;
+        barcode = null;
+        category = null;
+        for (int i = 0; i < numbers.length; i++) {
+            numbers[i] = Double.NaN;
+        }
+        parseError = null;
+    }
+
+    static boolean isNumeric(int field) {
+        return field >= FIRST_NUMERIC;
+    }
+
+    void setText(int field, String value) {
+        switch (field) {
+            case NAME:
+                name = value;
+                break;
+            case BRAND:
+                brand = value;
+                break;
+            case BARCODE:
+                barcode = value;
+                break;
+            case CATEGORY:
+                category = value;
+                break;
+            default:
+                break;
+        }
+    }
+
+    void setNumber(int field, double value) {
+        numbers[field - FIRST_NUMERIC] = value;
+    }
+
+    double getNumber(int field) {
+        return numbers[field - FIRST_NUMERIC];
+    }
+
+    /**
+     * Field ID for a column name (case-insensitive), or UNKNOWN.
+     */
+    static int fieldFor(String column) {
+        return fieldFor(column.toCharArray(), 0, column.length());
+    }
+
+    /**
+     * Field ID for a column name held in a char buffer, without creating a String.
+     */
+    static int fieldFor(char[] chars, int offset, int length) {
+        // Trim blanks and a UTF-8 byte order mark
+        while (length > 0 && (chars[offset] <= ' ' || chars[offset] == '\uFEFF')) {
+            offset++;
+            length--;
+        }
+        while (length > 0 && chars[offset + length - 1] <= ' ') {
+            length--;
+        }
+        for (int field = 0; field < ALIASES.length; field++) {
+            for (String alias : ALIASES[field]) {
+                if (alias.length() == length && equalsIgnoreCase(alias, chars, offset)) {
+                    return field;
+                }
+            }
+        }
+        return UNKNOWN;
+    }
+
+    private static boolean equalsIgnoreCase(String lowerCase, char[] chars, int offset) {
+        for (int i = 0; i < lowerCase.length(); i++) {
+            if (Character.toLowerCase(chars[offset + i]) != lowerCase.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Normalizes the row in place and checks it.
+     * Text is trimmed (empty becomes null); a missing serving size becomes 100 g and missing
+     * optional nutrients 0; a barcode that is not 8-14 digits is dropped rather than rejected.
+     *
+     * @return Reason the row must be skipped, or null if it is valid
+     */
+    String validate() {
+        if (parseError != null) {
+            return parseError;
+        }
+        name = trimToNull(name);
+        brand = trimToNull(brand);
+        category = trimToNull(category);
+        barcode = trimToNull(barcode);
+        if (barcode != null && !isGtin(barcode)) {
+            barcode = null;
+        }
+
+        if (name == null) {
+            return "missing name";
+        }
+        if (name.length() > MAX_NAME_LENGTH) {
+            return "name longer than " + MAX_NAME_LENGTH;
+        }
+
+        double servingSize = getNumber(SERVING_SIZE);
+        if (Double.isNaN(servingSize)) {
+            servingSize = 100.0;
+            setNumber(SERVING_SIZE, servingSize);
+        }
+        if (!(servingSize > 0 && servingSize <= MAX_SERVING_GRAMS)) {
+            return "serving size out of range";
+        }
+
+        double calories = getNumber(CALORIES);
+        if (Double.isNaN(calories)) {
+            return "missing calories";
+        }
+        if (calories < 0 || Double.isInfinite(calories)
+                || calories * 100.0 / servingSize > MAX_KCAL_PER_100G) {
+            return "calories out of range";
+        }
+
+        double mass = 0.0;
+        for (int field = PROTEIN; field <= SUGAR; field++) {
+            double value = getNumber(field);
+            if (Double.isNaN(value)) {
+                value = 0.0;
+                setNumber(field, value);
+            }
+            if (value < 0 || Double.isInfinite(value)) {
+                return "negative or infinite nutrient";
+            }
+            if (field <= FATS) {
+                mass += value;
+            }
+        }
+        if (mass > servingSize * MASS_TOLERANCE) {
+            return "macros exceed serving size";
+        }
+        return null;
+    }
+
+    /**
+     * 64-bit FNV-1a hash of the case-insensitive (name, brand, barcode) identity of a
+     * validated row. Collisions are negligible at catalog sizes (~1e-8 for 500k rows).
+     */
+    long dedupeKey() {
+        return dedupeKey(name, brand, barcode);
+    }
+
+    /**
+     * Dedupe key of stored values (trimmed first, like imported rows).
+     */
+    static long dedupeKey(String name, String brand, String barcode) {
+        long hash = 0xcbf29ce484222325L;
+        hash = hashField(hash, trimToNull(name));
+        hash = hashField(hash, trimToNull(brand));
+        return hashField(hash, trimToNull(barcode));
+    }
+
+    /**
+     * Key of a barcode alone, matching the exact-value unique barcode index.
+     */
+    static long barcodeKey(String barcode) {
+        return hashField(0xcbf29ce484222325L, barcode.trim());
+    }
+
+    private static long hashField(long hash, String value) {
+        if (value != null) {
+            for (int i = 0; i < value.length(); i++) {
+                hash ^= Character.toLowerCase(value.charAt(i));
+                hash *= 0x100000001b3L;
+            }
+        }
+        // Field separator, so ("ab", "c") and ("a", "bc") differ
+        hash ^= 0x1F;
+        return hash * 0x100000001b3L;
+    }
+
+    /**
+     * Binds a validated row to FoodImporter's INSERT statement.
+     */
+    void bind(SupportSQLiteStatement insert, long createdAt) {
+        insert.bindString(1, name);
+        bindNullable(insert, 2, brand);
+        insert.bindDouble(3, getNumber(SERVING_SIZE));
+        insert.bindDouble(4, getNumber(CALORIES));
+        insert.bindDouble(5, getNumber(PROTEIN));
+        insert.bindDouble(6, getNumber(CARBS));
+        insert.bindDouble(7, getNumber(FATS));
+        insert.bindDouble(8, getNumber(FIBER));
+        insert.bindDouble(9, getNumber(SUGAR));
+        bindNullable(insert, 10, category == null ? null : category.toLowerCase(Locale.ROOT));
+        bindNullable(insert, 11, barcode);
+        insert.bindLong(12, createdAt);
+    }
+
+    private static void bindNullable(SupportSQLiteStatement insert, int index, String value) {
+        if (value == null) {
+            insert.bindNull(index);
+        } else {
+            insert.bindString(index, value);
+        }
+    }
+
+    private static String trimToNull(String value) {
+        if (value == null) {
+            return null;
+        }
+        String trimmed = value.trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+
+    private static boolean isGtin(String code) {
+        if (code.length() < 8 || code.length() > 14) {
+            return false;
+        }
+        for (int i = 0; i < code.length(); i++) {
+            char c = code.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // --- Number parsing ---
+
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    /**
+     * Parses a decimal number from a char buffer without creating a String.
+     * Plain decimals with up to 15 significant digits (all nutrition data) take the fast path
+     * and round exactly like Double.parseDouble; anything else falls back to it.
+     *
+     * @return The value, NaN for an empty field
+     * @throws NumberFormatException If the text is not a number
+     */
+    static double parseNumber(char[] chars, int offset, int length) {
+        int end = offset + length;
+        while (offset < end && chars[offset] <= ' ') {
+            offset++;
+        }
+        while (end > offset && chars[end - 1] <= ' ') {
+            end--;
+        }
+        if (offset == end) {
+            return Double.NaN;
+        }
+
+        int i = offset;
+        boolean negative = false;
+        if (chars[i] == '-' || chars[i] == '+') {
+            negative = chars[i] == '-';
+            i++;
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int scale = 0;
+        boolean seenDigit = false;
+        boolean seenPoint = false;
+        for (; i < end; i++) {
+            char c = chars[i];
+            if (c >= '0' && c <= '9') {
+                seenDigit = true;
+                if (mantissa == 0 && c == '0') {
+                    // Leading zeros are not significant
+                } else if (digits < 15) {
+                    mantissa = mantissa * 10 + (c - '0');
+                    digits++;
+                } else {
+                    return Double.parseDouble(new String(chars, offset, end - offset));
+                }
+                if (seenPoint) {
+                    scale++;
+                }
+            } else if (c == '.' && !seenPoint) {
+                seenPoint = true;
+            } else {
+                // Exponents, NaN, Infinity and malformed input
+                return Double.parseDouble(new String(chars, offset, end - offset));
+            }
+        }
+        if (!seenDigit) {
+            throw new NumberFormatException(new String(chars, offset, end - offset));
+        }
+        // Exact: mantissa < 2^53 and 10^scale is exactly representable
+        double value = scale < POWERS_OF_TEN.length
+                ? mantissa / POWERS_OF_TEN[scale]
+                : Double.parseDouble(new String(chars, offset, end - offset));
+        return negative ? -value : value;
+    }
+}
@@ -0,0 +1,331 @@
+package com.example.fitnessapp.repository;
+
+import android.database.Cursor;
+import android.util.Log;
+
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import androidx.sqlite.db.SupportSQLiteStatement;
+
+import com.example.fitnessapp.data.AppDatabase;
+import com.example.fitnessapp.data.FoodFts;
+import com.example.fitnessapp.util.Result;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Streams a large nutrition dataset (CSV or JSON, e.g. a USDA-style dump) into the foods
+ * catalog without holding it in memory. FoodDao.insertAll needs the whole List<Food>; here a
+ * parser refills one FoodImportRecord per row, rows are validated and deduplicated by
+ * (name, brand, barcode) against the existing catalog and the file itself, and valid rows are
+ * bound to one compiled INSERT. A row whose barcode already belongs to another database food
+ * also counts as a duplicate (barcodes are unique among database foods).
+ *
+ * Rows are committed in batches of batchSize on the raw SupportSQLiteDatabase. Room only
+ * notifies observers when its own transactions end, so LiveData queries and AutocompleteIndex
+ * are not refreshed per batch; a final empty Room transaction sends one notification for the
+ * whole import. foods_fts indexing of inserted rows is suspended meanwhile and done in one
+ * statement at the end (FoodFts.suspendInsertSync), which is several times faster than the
+ * per-row trigger.
+ *
+ * Batches already committed are kept if the import stops on malformed input; running the
+ * same file again skips them as duplicates.
+ * MUST be called on a background thread
+ */
+public class FoodImporter {
+
+    private static final String TAG = "FoodImporter";
+
+    public static final int DEFAULT_BATCH_SIZE = 2000;
+    private static final int MAX_SAMPLE_ERRORS = 10;
+
+    private static final String INSERT_SQL = "INSERT INTO foods (name, brand, servingSize, calories, "
+            + "protein, carbs, fats, fiber, sugar, category, barcode, isCustom, userId, createdAt) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0, NULL, ?)";
+
+    public enum Format {
+        CSV,
+        JSON
+    }
+
+    private final AppDatabase db;
+    private final int batchSize;
+
+    // --- Constructor ---
+    public FoodImporter(AppDatabase db) {
+        this(db, DEFAULT_BATCH_SIZE);
+    }
+
+    public FoodImporter(AppDatabase db, int batchSize) {
+        this.db = db;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    /**
+     * Imports a UTF-8 file.
+     *
+     * @return Report of the import, or a failure if the file could not be read or parsed
+     */
+    public Result<ImportReport> importFile(File file, Format format) {
+        try (Reader reader = new BufferedReader(new InputStreamReader(
+                new FileInputStream(file), StandardCharsets.UTF_8))) {
+            return importFrom(reader, format);
+        } catch (IOException e) {
+            Log.e(TAG, "Error opening " + file, e);
+            return Result.failure("Could not read " + file.getName() + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Imports from any character stream. The reader is not closed.
+     *
+     * @return Report of the import, or a failure if the input is malformed
+     *         (rows in batches committed before the failure are kept)
+     */
+    public Result<ImportReport> importFrom(Reader reader, Format format) {
+        long start = System.nanoTime();
+        Runtime runtime = Runtime.getRuntime();
+        long peakHeap = runtime.totalMemory() - runtime.freeMemory();
+
+        KeySet seen = new KeySet();
+        KeySet barcodes = new KeySet();
+        loadCatalogKeys(seen, barcodes);
+        FoodImportRecord record = new FoodImportRecord();
+        List<String> sampleErrors = new ArrayList<>();
+        long createdAt = System.currentTimeMillis();
+        int read = 0;
+        int inserted = 0;
+        int duplicates = 0;
+        int invalid = 0;
+
+        SupportSQLiteDatabase sqlite = db.getOpenHelper().getWritableDatabase();
+        int lastIdBefore = db.foodDao().getMaxFoodIdSync();
+        FoodFts.suspendInsertSync(sqlite);
+        try {
+            FoodRecordParser parser = format == Format.CSV
+                    ? new FoodCsvParser(reader)
+                    : new FoodJsonParser(reader);
+            SupportSQLiteStatement insert = sqlite.compileStatement(INSERT_SQL);
+            try {
+                boolean more = true;
+                while (more) {
+                    int batchRows = 0;
+                    sqlite.beginTransaction();
+                    try {
+                        while (batchRows < batchSize && (more = parser.next(record))) {
+                            read++;
+                            String error = record.validate();
+                            if (error != null) {
+                                invalid++;
+                                if (sampleErrors.size() < MAX_SAMPLE_ERRORS) {
+                                    sampleErrors.add("Line " + parser.getRowLine() + ": " + error);
+                                }
+                                continue;
+                            }
+                            if (isDuplicate(record, seen, barcodes)) {
+                                duplicates++;
+                                continue;
+                            }
+                            record.bind(insert, createdAt);
+                            insert.executeInsert();
+                            batchRows++;
+                        }
+                        sqlite.setTransactionSuccessful();
+                    } finally {
+                        sqlite.endTransaction();
+                    }
+                    inserted += batchRows;
+                    peakHeap = Math.max(peakHeap, runtime.totalMemory() - runtime.freeMemory());
+                }
+            } finally {
+                insert.close();
+            }
+        } catch (IOException e) {
+            Log.e(TAG, "Import stopped after " + inserted + " foods", e);
+            return Result.failure(e.getMessage() + " (" + inserted + " foods imported before the error)");
+        } finally {
+            FoodFts.resumeInsertSync(sqlite, lastIdBefore);
+            notifyObservers();
+        }
+
+        ImportReport report = new ImportReport(read, inserted, duplicates, invalid,
+                System.nanoTime() - start, peakHeap, sampleErrors);
+        Log.d(TAG, report.toString());
+        return Result.success(report);
+    }
+
+    /**
+     * Checks a validated row against the keys seen so far and records its own keys.
+     * A row is a duplicate if its (name, brand, barcode) identity or its barcode alone is
+     * already present.
+     */
+    static boolean isDuplicate(FoodImportRecord record, KeySet seen, KeySet barcodes) {
+        boolean barcodeTaken = record.barcode != null
+                && !barcodes.add(FoodImportRecord.barcodeKey(record.barcode));
+        return !seen.add(record.dedupeKey()) || barcodeTaken;
+    }
+
+    /**
+     * Fills the dedupe and barcode keys of every catalog food (custom foods belong to their
+     * users and are not matched).
+     */
+    private void loadCatalogKeys(KeySet keys, KeySet barcodes) {
+        try (Cursor cursor = db.foodDao().queryCatalogFoodKeys()) {
+            while (cursor.moveToNext()) {
+                String barcode = cursor.getString(2);
+                keys.add(FoodImportRecord.dedupeKey(cursor.getString(0), cursor.getString(1), barcode));
+                if (barcode != null) {
+                    barcodes.add(FoodImportRecord.barcodeKey(barcode));
+                }
+            }
+        }
+    }
+
+    /**
+     * Ends an empty Room transaction so the InvalidationTracker picks up every table the import
+     * modified and notifies observers once.
+     */
+    private void notifyObservers() {
+        db.runInTransaction(() -> {
+        });
+    }
+
+    /**
+     * Open-addressing set of 64-bit keys (no boxing; ~16 bytes per key at the maximum load).
+     */
+    static final class KeySet {
+        private static final long EMPTY = 0L;
+
+        private long[] slots = new long[1 << 12];
+        private int size;
+        private boolean containsEmpty;
+
+        /**
+         * @return true if the key was not present
+         */
+        boolean add(long key) {
+            if (key == EMPTY) {
+                boolean added = !containsEmpty;
+                containsEmpty = true;
+                return added;
+            }
+            if (size * 2 >= slots.length) {
+                grow();
+            }
+            int mask = slots.length - 1;
+            int slot = mix(key) & mask;
+            while (slots[slot] != EMPTY) {
+                if (slots[slot] == key) {
+                    return false;
+                }
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = key;
+            size++;
+            return true;
+        }
+
+        private void grow() {
+            long[] old = slots;
+            slots = new long[old.length * 2];
+            int mask = slots.length - 1;
+            for (long key : old) {
+                if (key != EMPTY) {
+                    int slot = mix(key) & mask;
+                    while (slots[slot] != EMPTY) {
+                        slot = (slot + 1) & mask;
+                    }
+                    slots[slot] = key;
+                }
+            }
+        }
+
+        private static int mix(long key) {
+            key ^= key >>> 33;
+            key *= 0xff51afd7ed558ccdL;
+            return (int) (key ^ (key >>> 33));
+        }
+    }
+
+    /**
+     * Counts, throughput and memory use of one import.
+     */
+    public static class ImportReport {
+
+        private final int rowsRead;
+        private final int insertedCount;
+        private final int duplicateCount;
+        private final int invalidCount;
+        private final long elapsedNanos;
+        private final long peakHeapBytes;
+        private final List<String> sampleErrors;
+
+        ImportReport(int rowsRead, int insertedCount, int duplicateCount, int invalidCount,
+                     long elapsedNanos, long peakHeapBytes, List<String> sampleErrors) {
+            this.rowsRead = rowsRead;
+            this.insertedCount = insertedCount;
+            this.duplicateCount = duplicateCount;
+            this.invalidCount = invalidCount;
+            this.elapsedNanos = elapsedNanos;
+            this.peakHeapBytes = peakHeapBytes;
+            this.sampleErrors = Collections.unmodifiableList(sampleErrors);
+        }
+
+        public int getRowsRead() {
+            return rowsRead;
+        }
+
+        public int getInsertedCount() {
+            return insertedCount;
+        }
+
+        /**
+         * Rows matching a catalog food or an earlier row of the same file, or reusing its barcode.
+         */
+        public int getDuplicateCount() {
+            return duplicateCount;
+        }
+
+        public int getInvalidCount() {
+            return invalidCount;
+        }
+
+        /**
+         * The first few validation failures, as "Line N: reason".
+         */
+        public List<String> getSampleErrors() {
+            return sampleErrors;
+        }
+
+        public long getElapsedMillis() {
+            return elapsedNanos / 1_000_000L;
+        }
+
+        public double getRowsPerSecond() {
+            return elapsedNanos == 0 ? 0.0 : rowsRead * 1_000_000_000.0 / elapsedNanos;
+        }
+
+        /**
+         * Largest used heap sampled after each batch (includes garbage not yet collected).
+         */
+        public long getPeakHeapBytes() {
+            return peakHeapBytes;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("ImportReport{read=%d, inserted=%d, duplicates=%d, invalid=%d, "
+                            + "%d ms, %.0f rows/s, peak heap %d MiB}",
+                    rowsRead, insertedCount, duplicateCount, invalidCount, getElapsedMillis(),
+                    getRowsPerSecond(), peakHeapBytes / (1024 * 1024));
+        }
+    }
+}
@@ -0,0 +1,264 @@
+package com.example.fitnessapp.repository;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+
+/**
+ * Streaming JSON reader for FoodImporter. Accepts a top-level array of food objects or
+ * newline-delimited objects (JSON Lines). Each object is read as a flat record: keys are
+ * matched to FoodImportRecord fields, nested objects and arrays are skipped, null leaves a
+ * value missing, and numbers may also be given as strings (common in exported dumps).
+ * Like FoodCsvParser, it reads through one fixed buffer and one reusable value buffer.
+ */
+final class FoodJsonParser implements FoodRecordParser {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Reader reader;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int position;
+    private int limit;
+
+    private char[] value = new char[256];
+    private int valueLength;
+
+    private long line = 1;
+    private long rowLine;
+    private boolean finished;
+
+    FoodJsonParser(Reader reader) {
+        this.reader = reader;
+    }
+
+    @Override
+    public boolean next(FoodImportRecord record) throws IOException {
+        // Skip the array opening, separators and whitespace between records
+        int c;
+        while (true) {
+            c = skipWhitespace();
+            if (c == '[' || c == ',') {
+                read();
+            } else {
+                break;
+            }
+        }
+        if (c == -1 || c == ']' || finished) {
+            finished = true;
+            return false;
+        }
+        if (c != '{') {
+            throw error("Expected '{'");
+        }
+        read();
+
+        record.reset();
+        rowLine = line;
+        while (true) {
+            c = skipWhitespace();
+            read();
+            if (c == '}') {
+                return true;
+            }
+            if (c == ',') {
+                continue;
+            }
+            if (c != '"') {
+                throw error("Expected a key");
+            }
+            readString();
+            int target = FoodImportRecord.fieldFor(value, 0, valueLength);
+
+            if (skipWhitespace() != ':') {
+                throw error("Expected ':'");
+            }
+            read();
+            readValue(record, target);
+        }
+    }
+
+    @Override
+    public long getRowLine() {
+        return rowLine;
+    }
+
+    private void readValue(FoodImportRecord record, int target) throws IOException {
+        int c = skipWhitespace();
+        if (c == '{' || c == '[') {
+            skipNested();
+            return;
+        }
+
+        boolean quoted = c == '"';
+        if (quoted) {
+            read();
+            readString();
+        } else {
+            readLiteral();
+            if (isLiteral("null") || isLiteral("true") || isLiteral("false")) {
+                return;
+            }
+        }
+        if (target == FoodImportRecord.UNKNOWN) {
+            return;
+        }
+
+        if (FoodImportRecord.isNumeric(target)) {
+            try {
+                record.setNumber(target, FoodImportRecord.parseNumber(value, 0, valueLength));
+            } catch (NumberFormatException e) {
+                record.parseError = "bad number for " + new String(value, 0, valueLength);
+            }
+        } else if (valueLength > 0) {
+            // Unquoted numbers are accepted for text fields (barcodes)
+            record.setText(target, new String(value, 0, valueLength));
+        }
+    }
+
+    /**
+     * Reads a string body (opening quote already consumed) into the value buffer.
+     */
+    private void readString() throws IOException {
+        valueLength = 0;
+        while (true) {
+            int c = read();
+            if (c == -1) {
+                throw error("Unterminated string");
+            }
+            if (c == '"') {
+                return;
+            }
+            if (c == '\\') {
+                c = read();
+                switch (c) {
+                    case 'n':
+                        c = '\n';
+                        break;
+                    case 't':
+                        c = '\t';
+                        break;
+                    case 'r':
+                        c = '\r';
+                        break;
+                    case 'b':
+                        c = '\b';
+                        break;
+                    case 'f':
+                        c = '\f';
+                        break;
+                    case 'u':
+                        c = 0;
+                        for (int i = 0; i < 4; i++) {
+                            int digit = Character.digit(read(), 16);
+                            if (digit < 0) {
+                                throw error("Bad \\u escape");
+                            }
+                            c = (c << 4) | digit;
+                        }
+                        break;
+                    case -1:
+                        throw error("Unterminated string");
+                    default:
+                        // \" \\ \/ stand for themselves
+                        break;
+                }
+            } else if (c == '\n') {
+                line++;
+            }
+            append((char) c);
+        }
+    }
+
+    /**
+     * Reads a number or keyword into the value buffer.
+     */
+    private void readLiteral() throws IOException {
+        valueLength = 0;
+        int c;
+        while ((c = peek()) != -1 && c != ',' && c != '}' && c != ']' && c > ' ') {
+            append((char) read());
+        }
+        if (valueLength == 0) {
+            throw error("Expected a value");
+        }
+    }
+
+    /**
+     * Skips an object or array, including nested ones and strings containing brackets.
+     */
+    private void skipNested() throws IOException {
+        int depth = 0;
+        do {
+            int c = read();
+            if (c == -1) {
+                throw error("Unterminated object or array");
+            } else if (c == '{' || c == '[') {
+                depth++;
+            } else if (c == '}' || c == ']') {
+                depth--;
+            } else if (c == '"') {
+                readString();
+            } else if (c == '\n') {
+                line++;
+            }
+        } while (depth > 0);
+    }
+
+    private boolean isLiteral(String keyword) {
+        if (keyword.length() != valueLength) {
+            return false;
+        }
+        for (int i = 0; i < valueLength; i++) {
+            if (value[i] != keyword.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Skips whitespace and returns the next character without consuming it.
+     */
+    private int skipWhitespace() throws IOException {
+        int c;
+        while ((c = peek()) != -1 && (c <= ' ' || c == '\uFEFF')) {
+            if (c == '\n') {
+                line++;
+            }
+            read();
+        }
+        return c;
+    }
+
+    private void append(char c) {
+        if (valueLength == value.length) {
+            value = Arrays.copyOf(value, valueLength * 2);
+        }
+        value[valueLength++] = c;
+    }
+
+    private int read() throws IOException {
+        if (position == limit && !fill()) {
+            return -1;
+        }
+        return buffer[position++];
+    }
+
+    private int peek() throws IOException {
+        if (position == limit && !fill()) {
+            return -1;
+        }
+        return buffer[position];
+    }
+
+    private boolean fill() throws IOException {
+        int count = reader.read(buffer, 0, buffer.length);
+        position = 0;
+        limit = Math.max(count, 0);
+        return count > 0;
+    }
+
+    private IOException error(String message) {
+        return new IOException(message + " on line " + line);
+    }
+}
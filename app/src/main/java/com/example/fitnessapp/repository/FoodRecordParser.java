@@ -0,0 +1,23 @@
+package com.example.fitnessapp.repository;
+
+import java.io.IOException;
+
+/**
+ * Streaming source of food rows for FoodImporter.
+ */
+interface FoodRecordParser {
+
+    /**
+     * Refills {@code record} with the next row.
+     * Malformed values are reported through record.parseError; malformed structure
+     * (e.g. an unterminated quote) ends the import with an IOException.
+     *
+     * @return false at the end of the input
+     */
+    boolean next(FoodImportRecord record) throws IOException;
+
+    /**
+     * 1-based line on which the last returned row starts (for error messages).
+     */
+    long getRowLine();
+}
@@ -0,0 +1,225 @@
+package com.example.fitnessapp.repository;
+
+import android.app.Application;
+import android.util.Log;
+
+import com.example.fitnessapp.algorithm.NutritionCalculator;
+import com.example.fitnessapp.algorithm.NutritionProfileBatch;
+import com.example.fitnessapp.data.AppDatabase;
+import com.example.fitnessapp.data.NutritionGoal;
+import com.example.fitnessapp.data.NutritionGoalDao;
+
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Periodic job recalculating every nutrition goal older than
+ * NutritionGoal.RECALCULATION_INTERVAL_MS from the user's latest logged weight.
+ *
+ * One query finds all stale goals together with each user's latest weight; the goals are
+ * computed GOALS_PER_TRANSACTION at a time through a reused NutritionProfileBatch and written
+ * back with updateCalculatedValues, one transaction per batch. The clock is injectable so
+ * staleness can be driven by a fake clock.
+ * MUST be called on a background thread
+ */
+public class GoalRecalculationJob {
+
+    private static final String TAG = "GoalRecalculationJob";
+
+    // Goals per write transaction; keeps each transaction short so UI writes are not starved
+    private static final int GOALS_PER_TRANSACTION = 100;
+
+    private final AppDatabase db;
+    private final NutritionGoalDao nutritionGoalDao;
+    private final LongSupplier clock;
+
+    // --- Constructor ---
+    public GoalRecalculationJob(Application application) {
+        this(AppDatabase.getDatabase(application), System::currentTimeMillis);
+    }
+
+    /**
+     * @param clock Current time in ms (System::currentTimeMillis outside of tests)
+     */
+    public GoalRecalculationJob(AppDatabase db, LongSupplier clock) {
+        this.db = db;
+        this.nutritionGoalDao = db.nutritionGoalDao();
+        this.clock = clock;
+    }
+
+    /**
+     * Runs the job on {@code scheduler} now and then every {@code periodMs}.
+     * A failed run is logged and retried at the next period.
+     *
+     * @return Handle for cancelling the schedule
+     */
+    public ScheduledFuture<?> schedule(ScheduledExecutorService scheduler, long periodMs) {
+        return scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                run();
+            } catch (RuntimeException e) {
+                Log.e(TAG, "Goal recalculation failed", e);
+            }
+        }, 0, periodMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Recalculates every stale goal.
+     *
+     * @return Report for the run
+     */
+    public RecalculationReport run() {
+        long start = System.nanoTime();
+        long now = clock.getAsLong();
+        List<NutritionGoalDao.StaleGoal> stale =
+                nutritionGoalDao.getStaleGoalsSync(now - NutritionGoal.RECALCULATION_INTERVAL_MS);
+
+        NutritionProfileBatch batch = new NutritionProfileBatch(GOALS_PER_TRANSACTION);
+        int[] userIds = new int[GOALS_PER_TRANSACTION];
+        int recalculated = 0;
+        int skipped = 0;
+        int transactions = 0;
+
+        for (NutritionGoalDao.StaleGoal goal : stale) {
+            double weightKg = goal.latestWeight != null ? goal.latestWeight : 0.0;
+            NutritionCalculator.Gender gender = parseGender(goal.gender);
+            NutritionCalculator.ActivityLevel activityLevel = parseActivityLevel(goal.activityLevel);
+            NutritionCalculator.Goal target = parseGoal(goal.goal);
+            if (!(weightKg > 0) || goal.height <= 0 || goal.age <= 0
+                    || gender == null || activityLevel == null || target == null) {
+                // Nothing valid to calculate from; the stored targets are left as they are
+                skipped++;
+                continue;
+            }
+
+            userIds[batch.add(weightKg, goal.height, goal.age, gender, activityLevel, target)] = goal.userId;
+            if (batch.size() == GOALS_PER_TRANSACTION) {
+                recalculated += writeBatch(batch, userIds, now);
+                transactions++;
+            }
+        }
+        if (batch.size() > 0) {
+            recalculated += writeBatch(batch, userIds, now);
+            transactions++;
+        }
+
+        RecalculationReport report = new RecalculationReport(stale.size(), recalculated, skipped,
+                transactions, System.nanoTime() - start);
+        Log.d(TAG, report.toString());
+        return report;
+    }
+
+    /**
+     * Computes the batch and writes it back in one transaction, then clears it for reuse.
+     *
+     * @return Number of goals written
+     */
+    private int writeBatch(NutritionProfileBatch batch, int[] userIds, long calculatedAt) {
+        batch.compute();
+        int count = batch.size();
+        db.runInTransaction(() -> {
+            for (int i = 0; i < count; i++) {
+                nutritionGoalDao.updateCalculatedValues(userIds[i],
+                        batch.getBmr(i),
+                        batch.getTdee(i),
+                        batch.getCalorieTarget(i),
+                        batch.getProteinGrams(i),
+                        batch.getCarbsGrams(i),
+                        batch.getFatsGrams(i),
+                        batch.getWaterIntakeLiters(i),
+                        calculatedAt);
+            }
+        });
+        batch.clear();
+        return count;
+    }
+
+    /**
+     * @return The stored gender, or null if it is missing or malformed
+     */
+    private static NutritionCalculator.Gender parseGender(String gender) {
+        try {
+            return NutritionCalculator.Gender.valueOf(gender);
+        } catch (IllegalArgumentException | NullPointerException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @return The stored activity level, or null if it is missing or malformed
+     */
+    private static NutritionCalculator.ActivityLevel parseActivityLevel(String activityLevel) {
+        try {
+            return NutritionCalculator.ActivityLevel.valueOf(activityLevel);
+        } catch (IllegalArgumentException | NullPointerException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @return The stored goal type, or null if it is missing or malformed
+     */
+    private static NutritionCalculator.Goal parseGoal(String goal) {
+        try {
+            return NutritionCalculator.Goal.valueOf(goal);
+        } catch (IllegalArgumentException | NullPointerException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Summary of one run.
+     */
+    public static class RecalculationReport {
+
+        private final int staleCount;
+        private final int recalculatedCount;
+        private final int skippedCount;
+        private final int transactionCount;
+        private final long elapsedNanos;
+
+        RecalculationReport(int staleCount, int recalculatedCount, int skippedCount,
+                            int transactionCount, long elapsedNanos) {
+            this.staleCount = staleCount;
+            this.recalculatedCount = recalculatedCount;
+            this.skippedCount = skippedCount;
+            this.transactionCount = transactionCount;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        /**
+         * Goals older than the recalculation interval when the run started.
+         */
+        public int getStaleCount() {
+            return staleCount;
+        }
+
+        public int getRecalculatedCount() {
+            return recalculatedCount;
+        }
+
+        /**
+         * Stale goals left as they were (no weight history, or an incomplete or malformed profile).
+         */
+        public int getSkippedCount() {
+            return skippedCount;
+        }
+
+        public int getTransactionCount() {
+            return transactionCount;
+        }
+
+        public long getElapsedMillis() {
+            return elapsedNanos / 1_000_000L;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("RecalculationReport{stale=%d, recalculated=%d, skipped=%d, %d transactions, %d ms}",
+                    staleCount, recalculatedCount, skippedCount, transactionCount, getElapsedMillis());
+        }
+    }
+}
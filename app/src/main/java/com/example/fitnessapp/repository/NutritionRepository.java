@@ -0,0 +1,406 @@
+package com.example.fitnessapp.repository;
+
+import android.app.Application;
+import android.database.Cursor;
+import android.util.Log;
+
+import androidx.sqlite.db.SupportSQLiteDatabase;
+
+import com.example.fitnessapp.algorithm.MealPlanSolver;
+import com.example.fitnessapp.data.AppDatabase;
+import com.example.fitnessapp.data.DailyNutritionSummaryDao;
+import com.example.fitnessapp.data.Food;
+import com.example.fitnessapp.data.FoodDao;
+import com.example.fitnessapp.data.MealDao;
+import com.example.fitnessapp.data.NutritionGoal;
+import com.example.fitnessapp.data.NutritionGoalDao;
+import com.example.fitnessapp.data.NutritionTotalTriggers;
+import com.example.fitnessapp.data.Recipe;
+import com.example.fitnessapp.data.RecipeDao;
+import com.example.fitnessapp.data.RecipeIngredient;
+import com.example.fitnessapp.model.MealPlan;
+import com.example.fitnessapp.model.NutrientTotals;
+import com.example.fitnessapp.util.EpochDays;
+import com.example.fitnessapp.util.Result;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Repository for the nutrition module (foods, recipes, meals, daily summaries).
+ * Meal and daily totals are kept current by NutritionTotalTriggers on every write;
+ * the rebuild operations here cover changes the triggers cannot see (corrected food values,
+ * bulk imports).
+ */
+public class NutritionRepository {
+
+    private static final String TAG = "NutritionRepository";
+
+    // Dates per rebuild transaction; keeps each write lock short so UI reads interleave
+    private static final int REBUILD_DAYS_PER_TRANSACTION = 31;
+
+    // Category of the foods that stand in for recipes
+    private static final String RECIPE_CATEGORY = "recipe";
+
+    // Foods offered to the meal plan solver
+    private static final int MEAL_PLAN_CANDIDATES = 10_000;
+
+    private final AppDatabase db;
+    private final FoodDao foodDao;
+    private final MealDao mealDao;
+    private final DailyNutritionSummaryDao dailyNutritionSummaryDao;
+    private final NutritionGoalDao nutritionGoalDao;
+    private final RecipeDao recipeDao;
+    private final AutocompleteIndex autocompleteIndex;
+    private final BarcodeCache barcodeCache;
+    private final MealPlanSolver mealPlanSolver = new MealPlanSolver();
+
+    // --- Constructor ---
+    public NutritionRepository(Application application) {
+        this(AppDatabase.getDatabase(application));
+    }
+
+    public NutritionRepository(AppDatabase db) {
+        this.db = db;
+        this.foodDao = db.foodDao();
+        this.mealDao = db.mealDao();
+        this.dailyNutritionSummaryDao = db.dailyNutritionSummaryDao();
+        this.nutritionGoalDao = db.nutritionGoalDao();
+        this.recipeDao = db.recipeDao();
+        this.autocompleteIndex = AutocompleteIndex.getInstance(db);
+        this.barcodeCache = BarcodeCache.getInstance(db);
+    }
+
+    // --- Food search ---
+
+    /**
+     * Ranked prefix search over the food catalog and the user's custom foods (foods_fts).
+     * MUST be called on a background thread
+     *
+     * @param query Search text as typed
+     * @param userId The user ID
+     * @param limit Maximum number of results
+     */
+    public List<FoodDao.FoodSearchResult> searchFoodsSync(String query, int userId, int limit) {
+        return foodDao.searchFoodsRanked(query, userId, limit);
+    }
+
+    /**
+     * In-memory, typo-tolerant autocomplete for the food and exercise pickers.
+     * Searches return nothing until the index is built; fall back to searchFoodsSync meanwhile.
+     */
+    public AutocompleteIndex getAutocompleteIndex() {
+        return autocompleteIndex;
+    }
+
+    // --- Barcode scanning ---
+
+    /**
+     * Food for a scanned barcode: the user's custom food with that code, else the database food.
+     * Recent scans (found or not) are answered from BarcodeCache without a query.
+     * MUST be called on a background thread
+     *
+     * @param barcode Code as scanned
+     * @param userId The user ID
+     * @return The food (shared, do not modify), or null if the barcode is unknown
+     */
+    public Food findFoodByBarcodeSync(String barcode, int userId) {
+        return barcodeCache.lookup(barcode, userId);
+    }
+
+    // --- Meal planning ---
+
+    /**
+     * Proposes a day of meals meeting the user's NutritionGoal. Candidates are the user's
+     * logged and custom foods (most logged first), then generic catalog foods, then branded
+     * ones, up to MEAL_PLAN_CANDIDATES.
+     * MUST be called on a background thread
+     *
+     * @param userId The user ID
+     * @return The plan (check isWithinTolerance), or a failure if the user has no goal
+     */
+    public Result<MealPlan> proposeMealPlanSync(int userId) {
+        NutritionGoal goal = nutritionGoalDao.getGoalForUserSync(userId);
+        if (goal == null || goal.getCalorieTarget() <= 0) {
+            return Result.failure("Set a nutrition goal first");
+        }
+
+        MealPlanSolver.CandidatePool pool = new MealPlanSolver.CandidatePool(MEAL_PLAN_CANDIDATES);
+        Set<Integer> added = new HashSet<>();
+        addCandidates(pool, added, foodDao.getUserMealPlanCandidatesSync(userId, MEAL_PLAN_CANDIDATES));
+        addCandidates(pool, added, foodDao.getCatalogMealPlanCandidatesSync(true,
+                MEAL_PLAN_CANDIDATES - pool.size()));
+        addCandidates(pool, added, foodDao.getCatalogMealPlanCandidatesSync(false,
+                MEAL_PLAN_CANDIDATES - pool.size()));
+
+        MealPlan plan = mealPlanSolver.solve(pool, goal);
+        Log.d(TAG, "Meal plan from " + pool.size() + " candidates: " + plan);
+        if (plan.isEmpty()) {
+            return Result.failure("No foods available for a meal plan");
+        }
+        return Result.success(plan);
+    }
+
+    private static void addCandidates(MealPlanSolver.CandidatePool pool, Set<Integer> added,
+                                      List<FoodDao.MealPlanCandidate> candidates) {
+        for (FoodDao.MealPlanCandidate food : candidates) {
+            if (pool.size() == pool.capacity()) {
+                return;
+            }
+            if (added.add(food.id)) {
+                pool.add(food.id, food.name, food.servingSize, food.calories,
+                        food.protein, food.carbs, food.fats);
+            }
+        }
+    }
+
+    // --- Recipes ---
+
+    /**
+     * Saves a new recipe in one transaction: a custom Food named after the dish (the row that
+     * gets logged, searched and offered to the meal planner) plus its ingredients.
+     * RecipeTriggers fill in the food's per-100g nutrition as the ingredients are inserted.
+     * MUST be called on a background thread
+     *
+     * @param userId The owner
+     * @param name Dish name
+     * @param yieldGrams Finished weight, or 0 to use the total ingredient grams
+     * @param ingredients Ingredient foods and raw grams (recipeId is ignored)
+     * @return The recipe food with its flattened nutrition, or the validation error
+     */
+    public Result<Food> createRecipeSync(int userId, String name, double yieldGrams,
+                                         List<RecipeIngredient> ingredients) {
+        if (name == null || name.trim().isEmpty()) {
+            return Result.failure("Recipe name is required");
+        }
+        String error = validateRecipe(yieldGrams, ingredients);
+        if (error != null) {
+            return Result.failure(error);
+        }
+
+        int foodId = db.runInTransaction(() -> {
+            Food food = new Food(name.trim(), 0, 0, 0, 0);
+            food.setCategory(RECIPE_CATEGORY);
+            food.setCustom(true);
+            food.setUserId(userId);
+            int id = (int) foodDao.insert(food);
+            int recipeId = (int) recipeDao.insert(new Recipe(userId, id, yieldGrams));
+            recipeDao.insertIngredients(withRecipeId(recipeId, ingredients));
+            return id;
+        });
+        return Result.success(foodDao.getFoodByIdSync(foodId));
+    }
+
+    /**
+     * Replaces a recipe's ingredients and yield; the recipe food is recomputed by RecipeTriggers.
+     * Meals that already logged the recipe keep their totals until rebuildNutritionTotalsSync.
+     * MUST be called on a background thread
+     *
+     * @param recipeId The recipe ID
+     * @param yieldGrams Finished weight, or 0 to use the total ingredient grams
+     * @param ingredients Ingredient foods and raw grams (recipeId is ignored)
+     * @return The recipe food with its new nutrition, or the validation error
+     */
+    public Result<Food> updateRecipeSync(int recipeId, double yieldGrams, List<RecipeIngredient> ingredients) {
+        Recipe recipe = recipeDao.getRecipeByIdSync(recipeId);
+        if (recipe == null) {
+            return Result.failure("Recipe not found");
+        }
+        String error = validateRecipe(yieldGrams, ingredients);
+        if (error != null) {
+            return Result.failure(error);
+        }
+
+        db.runInTransaction(() -> {
+            recipeDao.deleteIngredientsForRecipe(recipeId);
+            recipeDao.insertIngredients(withRecipeId(recipeId, ingredients));
+            recipe.setYieldGrams(yieldGrams);
+            recipe.setUpdatedAt(System.currentTimeMillis());
+            recipeDao.update(recipe);
+        });
+        return Result.success(foodDao.getFoodByIdSync(recipe.getFoodId()));
+    }
+
+    /**
+     * Deletes a recipe and its ingredients. The recipe food is deleted too unless a meal
+     * logged it, in which case it stays as a plain custom food with its last nutrition.
+     * MUST be called on a background thread
+     *
+     * @param recipeId The recipe ID
+     */
+    public void deleteRecipeSync(int recipeId) {
+        db.runInTransaction(() -> {
+            Recipe recipe = recipeDao.getRecipeByIdSync(recipeId);
+            if (recipe == null) {
+                return;
+            }
+            recipeDao.deleteById(recipeId);
+            if (recipeDao.countMealUses(recipe.getFoodId()) == 0) {
+                foodDao.deleteById(recipe.getFoodId());
+            }
+        });
+    }
+
+    /**
+     * @return Error message, or null if the recipe can be saved
+     */
+    private String validateRecipe(double yieldGrams, List<RecipeIngredient> ingredients) {
+        if (ingredients == null || ingredients.isEmpty()) {
+            return "A recipe needs at least one ingredient";
+        }
+        if (!(yieldGrams >= 0) || Double.isInfinite(yieldGrams)) {
+            return "Invalid recipe yield";
+        }
+        List<Integer> foodIds = new ArrayList<>(ingredients.size());
+        for (RecipeIngredient ingredient : ingredients) {
+            if (!(ingredient.getGrams() > 0) || Double.isInfinite(ingredient.getGrams())) {
+                return "Ingredient amounts must be positive";
+            }
+            foodIds.add(ingredient.getFoodId());
+        }
+        // Recipe foods are recomputed by triggers that do not cascade into other recipes
+        if (recipeDao.countRecipeFoods(foodIds) > 0) {
+            return "A recipe cannot contain another recipe";
+        }
+        return null;
+    }
+
+    private static List<RecipeIngredient> withRecipeId(int recipeId, List<RecipeIngredient> ingredients) {
+        List<RecipeIngredient> rows = new ArrayList<>(ingredients.size());
+        for (RecipeIngredient ingredient : ingredients) {
+            rows.add(new RecipeIngredient(recipeId, ingredient.getFoodId(), ingredient.getGrams()));
+        }
+        return rows;
+    }
+
+    // --- Nutrient aggregation ---
+
+    /**
+     * Sums the nutrition of every food a user logged in an inclusive date range straight from
+     * a cursor into {@code totals} (reset first), allocating nothing per row. Values are
+     * computed from meal_foods × foods like the meal totals of NutritionTotalTriggers.
+     * MUST be called on a background thread
+     *
+     * @param userId The user ID
+     * @param startDate Inclusive start date (epoch day)
+     * @param endDate Inclusive end date (epoch day)
+     * @param totals Accumulator to fill (reusable across calls)
+     * @return {@code totals}, for chaining
+     */
+    public NutrientTotals sumNutritionInRangeSync(int userId, long startDate, long endDate,
+                                                  NutrientTotals totals) {
+        totals.reset();
+        try (Cursor cursor = mealDao.queryMealFoodNutritionInRange(userId, startDate, endDate)) {
+            while (cursor.moveToNext()) {
+                // gramsConsumed, servingSize, calories, protein, carbs, fats
+                totals.addScaled(cursor.getDouble(2), cursor.getDouble(3), cursor.getDouble(4),
+                        cursor.getDouble(5), cursor.getDouble(0) / cursor.getDouble(1));
+            }
+        }
+        return totals;
+    }
+
+    // --- Totals rebuild ---
+
+    /**
+     * Recomputes every meal total and daily summary of a user in an inclusive date range
+     * with set-based statements: one UPDATE over meal_foods × foods for the meals and one
+     * INSERT OR REPLACE … GROUP BY for the summaries, per chunk of
+     * REBUILD_DAYS_PER_TRANSACTION dates, each chunk in its own transaction.
+     * NutritionTotalTriggers are dropped inside each transaction and recreated before it
+     * commits: otherwise meals_after_update would recompute every meal and its day once more
+     * per updated row. Other connections never see the schema without them, and a rollback
+     * restores them.
+     * MUST be called on a background thread
+     *
+     * @param userId The user ID
+     * @param startDate Inclusive start date (epoch day)
+     * @param endDate Inclusive end date (epoch day)
+     * @return Rows rebuilt and throughput
+     */
+    public RebuildReport rebuildNutritionTotalsSync(int userId, long startDate, long endDate) {
+        long start = System.nanoTime();
+        List<Long> dates = mealDao.getMealDatesInRangeSync(userId, startDate, endDate);
+
+        int meals = 0;
+        int transactions = 0;
+        for (int from = 0; from < dates.size(); from += REBUILD_DAYS_PER_TRANSACTION) {
+            long chunkStart = dates.get(from);
+            long chunkEnd = dates.get(Math.min(from + REBUILD_DAYS_PER_TRANSACTION, dates.size()) - 1);
+            meals += db.runInTransaction(() -> {
+                SupportSQLiteDatabase sqlite = db.getOpenHelper().getWritableDatabase();
+                NutritionTotalTriggers.uninstall(sqlite);
+                int updated = mealDao.rebuildTotalsInRange(userId, chunkStart, chunkEnd);
+                // Summaries last, in one statement, from the rebuilt meal totals
+                dailyNutritionSummaryDao.rebuildFromMealsInRange(
+                        userId, chunkStart, chunkEnd, System.currentTimeMillis());
+                NutritionTotalTriggers.install(sqlite);
+                return updated;
+            });
+            transactions++;
+        }
+
+        int removed = dailyNutritionSummaryDao.deleteSummariesWithoutMealsInRange(userId, startDate, endDate);
+        RebuildReport report = new RebuildReport(meals, dates.size(), removed, transactions,
+                System.nanoTime() - start);
+        Log.d(TAG, "Rebuilt nutrition totals for user " + userId + " " + EpochDays.format(startDate) + ".." + EpochDays.format(endDate) + ": " + report);
+        return report;
+    }
+
+    /**
+     * Result of a totals rebuild.
+     */
+    public static class RebuildReport {
+        private final int mealsRebuilt;
+        private final int summariesRebuilt;
+        private final int summariesRemoved;
+        private final int transactions;
+        private final long elapsedNanos;
+
+        RebuildReport(int mealsRebuilt, int summariesRebuilt, int summariesRemoved,
+                      int transactions, long elapsedNanos) {
+            this.mealsRebuilt = mealsRebuilt;
+            this.summariesRebuilt = summariesRebuilt;
+            this.summariesRemoved = summariesRemoved;
+            this.transactions = transactions;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public int getMealsRebuilt() {
+            return mealsRebuilt;
+        }
+
+        public int getSummariesRebuilt() {
+            return summariesRebuilt;
+        }
+
+        public int getSummariesRemoved() {
+            return summariesRemoved;
+        }
+
+        public int getTransactions() {
+            return transactions;
+        }
+
+        public long getElapsedMillis() {
+            return elapsedNanos / 1_000_000;
+        }
+
+        /**
+         * Meal and summary rows written per second.
+         */
+        public double getRowsPerSecond() {
+            return elapsedNanos == 0 ? 0.0
+                    : (mealsRebuilt + summariesRebuilt) * 1_000_000_000.0 / elapsedNanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("RebuildReport{meals=%d, summaries=%d, removed=%d, transactions=%d, %d ms, %.0f rows/s}",
+                    mealsRebuilt, summariesRebuilt, summariesRemoved, transactions,
+                    getElapsedMillis(), getRowsPerSecond());
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package com.example.fitnessapp.repository;
+
+import android.app.Application;
+import android.util.Log;
+
+import com.example.fitnessapp.algorithm.AlgorithmService;
+import com.example.fitnessapp.data.AppDatabase;
+import com.example.fitnessapp.data.UserDao;
+import com.example.fitnessapp.data.WeightEntryDao;
+import com.example.fitnessapp.data.WeightTrendCache;
+import com.example.fitnessapp.data.WeightTrendCacheDao;
+import com.example.fitnessapp.model.WeightSeries;
+import com.example.fitnessapp.model.WeightTrendAnalysis;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Batch job computing the weight trend analysis for every user and storing it in
+ * weight_trend_cache (nightly run for the multi-account coaching setup).
+ *
+ * Users are split into chunks on a ForkJoinPool. Each chunk streams its users' weight
+ * series from a cursor one at a time (no full entity lists are held), analyzes them and
+ * writes its cache rows in one transaction.
+ * MUST be called on a background thread
+ */
+public class WeightTrendBatchJob {
+
+    private static final String TAG = "WeightTrendBatchJob";
+
+    // Users per leaf task; small enough to balance, large enough to amortize the write transaction
+    private static final int USERS_PER_TASK = 32;
+
+    private final AppDatabase db;
+    private final UserDao userDao;
+    private final WeightEntryDao weightEntryDao;
+    private final WeightTrendCacheDao weightTrendCacheDao;
+
+    // --- Constructor ---
+    public WeightTrendBatchJob(Application application) {
+        this(AppDatabase.getDatabase(application));
+    }
+
+    public WeightTrendBatchJob(AppDatabase db) {
+        this.db = db;
+        this.userDao = db.userDao();
+        this.weightEntryDao = db.weightEntryDao();
+        this.weightTrendCacheDao = db.weightTrendCacheDao();
+    }
+
+    /**
+     * Runs the batch on {@code scheduler} after {@code initialDelayMs} and then every
+     * {@code periodMs}. A failed run is logged and retried at the next period.
+     *
+     * @return Handle for cancelling the schedule
+     */
+    public ScheduledFuture<?> schedule(ScheduledExecutorService scheduler, long initialDelayMs, long periodMs) {
+        return scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                runAll();
+            } catch (RuntimeException e) {
+                Log.e(TAG, "Weight trend batch failed", e);
+            }
+        }, initialDelayMs, periodMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Analyzes every user using one worker per available core.
+     *
+     * @return Throughput report for the run
+     */
+    public BatchReport runAll() {
+        return runAll(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Analyzes every user on a pool of the given size.
+     *
+     * @param parallelism Number of worker threads (at least 1)
+     * @return Throughput report for the run
+     */
+    public BatchReport runAll(int parallelism) {
+        long start = System.nanoTime();
+        List<UserDao.UserGoal> users = userDao.getAllUserGoalsSync();
+
+        int analyzed = 0;
+        if (!users.isEmpty()) {
+            ForkJoinPool pool = new ForkJoinPool(Math.max(1, parallelism));
+            try {
+                analyzed = pool.invoke(new AnalyzeTask(users, 0, users.size()));
+            } finally {
+                pool.shutdown();
+            }
+        }
+
+        BatchReport report = new BatchReport(parallelism, users.size(), analyzed,
+                System.nanoTime() - start);
+        Log.d(TAG, report.toString());
+        return report;
+    }
+
+    /**
+     * Runs the batch at 1, 2, 4 ... up to the core count to show per-core scaling.
+     * Each run rewrites the same cache rows, so this is safe to call on live data.
+     *
+     * @return One report per parallelism level
+     */
+    public List<BatchReport> measureScaling() {
+        int cores = Runtime.getRuntime().availableProcessors();
+        List<BatchReport> reports = new ArrayList<>();
+        for (int parallelism = 1; parallelism < cores; parallelism *= 2) {
+            reports.add(runAll(parallelism));
+        }
+        reports.add(runAll(cores));
+
+        double baseline = reports.get(0).getUsersPerSecond();
+        for (BatchReport report : reports) {
+            Log.d(TAG, String.format("%d threads: %.0f users/s (%.2fx)",
+                    report.getParallelism(), report.getUsersPerSecond(),
+                    baseline > 0 ? report.getUsersPerSecond() / baseline : 0.0));
+        }
+        return reports;
+    }
+
+    /**
+     * Analyzes a single user and builds their cache row.
+     *
+     * @return Cache row, or null if the user has no weight entries
+     */
+    private WeightTrendCache analyzeUser(UserDao.UserGoal user) {
+        WeightSeries series = weightEntryDao.loadWeightSeries(user.id);
+        WeightTrendAnalysis analysis = AlgorithmService.analyzeWeightTrend(series, user.goalWeight);
+        if (analysis == null) {
+            return null;
+        }
+        return WeightTrendCache.fromAnalysis(user.id, analysis, series.size(), user.goalWeight);
+    }
+
+    /**
+     * Fork/join task over a slice of the user list. Returns the number of users analyzed.
+     */
+    private class AnalyzeTask extends RecursiveTask<Integer> {
+
+        private final List<UserDao.UserGoal> users;
+        private final int from;
+        private final int to;
+
+        AnalyzeTask(List<UserDao.UserGoal> users, int from, int to) {
+            this.users = users;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Integer compute() {
+            if (to - from <= USERS_PER_TASK) {
+                return analyzeChunk();
+            }
+
+            int mid = (from + to) >>> 1;
+            AnalyzeTask left = new AnalyzeTask(users, from, mid);
+            left.fork();
+            int right = new AnalyzeTask(users, mid, to).compute();
+            return left.join() + right;
+        }
+
+        private int analyzeChunk() {
+            List<WeightTrendCache> rows = new ArrayList<>(to - from);
+            List<Integer> emptyUserIds = new ArrayList<>();
+            for (int i = from; i < to; i++) {
+                UserDao.UserGoal user = users.get(i);
+                WeightTrendCache row = analyzeUser(user);
+                if (row != null) {
+                    rows.add(row);
+                } else {
+                    emptyUserIds.add(user.id);
+                }
+            }
+
+            db.runInTransaction(() -> {
+                weightTrendCacheDao.upsertAll(rows);
+                // Drop stale rows for users whose entries were all deleted
+                for (int userId : emptyUserIds) {
+                    weightTrendCacheDao.deleteForUser(userId);
+                }
+            });
+            return rows.size();
+        }
+    }
+
+    /**
+     * Throughput report for one batch run.
+     */
+    public static class BatchReport {
+
+        private final int parallelism;
+        private final int userCount;
+        private final int analyzedCount;
+        private final long elapsedNanos;
+
+        BatchReport(int parallelism, int userCount, int analyzedCount, long elapsedNanos) {
+            this.parallelism = parallelism;
+            this.userCount = userCount;
+            this.analyzedCount = analyzedCount;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public int getParallelism() {
+            return parallelism;
+        }
+
+        public int getUserCount() {
+            return userCount;
+        }
+
+        /**
+         * Users with at least one weight entry (rows written to the cache).
+         */
+        public int getAnalyzedCount() {
+            return analyzedCount;
+        }
+
+        public long getElapsedMillis() {
+            return elapsedNanos / 1_000_000L;
+        }
+
+        public double getUsersPerSecond() {
+            return elapsedNanos == 0 ? 0.0 : userCount * 1_000_000_000.0 / elapsedNanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("BatchReport{threads=%d, users=%d, analyzed=%d, %d ms, %.0f users/s}",
+                    parallelism, userCount, analyzedCount, getElapsedMillis(), getUsersPerSecond());
+        }
+    }
+}
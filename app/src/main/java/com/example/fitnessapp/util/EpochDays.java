@@ -0,0 +1,141 @@
+package com.example.fitnessapp.util;
+
+import java.util.Calendar;
+import java.util.TimeZone;
+
+/**
+ * Calendar date ↔ epoch day (days since 1970-01-01) conversion for the INTEGER date
+ * columns (Meal.date, DailyNutritionSummary.date, WorkoutSession.date,
+ * PersonalRecord.dateAchieved). Plain integer arithmetic (proleptic Gregorian calendar),
+ * so hot paths need no SimpleDateFormat or Calendar; java.time.LocalDate is not available
+ * below API 26 without desugaring.
+ *
+ * Time Complexity: O(1) for every conversion
+ */
+public final class EpochDays {
+
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+
+    // Days from 0000-03-01 to 1970-01-01 (the civil algorithm counts years from March)
+    private static final long DAYS_0000_TO_1970 = 719_468L;
+    private static final long DAYS_PER_ERA = 146_097L;   // 400 Gregorian years
+
+    private EpochDays() {
+    }
+
+    /**
+     * @param year Year (e.g. 2024)
+     * @param month Month 1-12
+     * @param day Day of month 1-31
+     * @return Epoch day of the date
+     */
+    public static long of(int year, int month, int day) {
+        long y = month <= 2 ? year - 1 : year;
+        long era = Math.floorDiv(y, 400);
+        long yearOfEra = y - era * 400;
+        long dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * DAYS_PER_ERA + dayOfEra - DAYS_0000_TO_1970;
+    }
+
+    /**
+     * Epoch day of the local calendar date containing an instant.
+     *
+     * @param millis Epoch milliseconds
+     * @param timeZone Zone defining the user's day
+     */
+    public static long fromMillis(long millis, TimeZone timeZone) {
+        return Math.floorDiv(millis + timeZone.getOffset(millis), MILLIS_PER_DAY);
+    }
+
+    /**
+     * Today's epoch day in the device time zone.
+     */
+    public static long today() {
+        return fromMillis(System.currentTimeMillis(), TimeZone.getDefault());
+    }
+
+    /**
+     * Parses a 'YYYY-MM-DD' date.
+     *
+     * @throws IllegalArgumentException if the text is not a valid date in that format
+     */
+    public static long parse(String date) {
+        if (date == null || date.length() != 10 || date.charAt(4) != '-' || date.charAt(7) != '-') {
+            throw new IllegalArgumentException("Expected YYYY-MM-DD: " + date);
+        }
+        int year = digits(date, 0, 4);
+        int month = digits(date, 5, 7);
+        int day = digits(date, 8, 10);
+        if (month < 1 || month > 12 || day < 1 || day > lengthOfMonth(year, month)) {
+            throw new IllegalArgumentException("Invalid date: " + date);
+        }
+        return of(year, month, day);
+    }
+
+    /**
+     * Formats an epoch day as 'YYYY-MM-DD' (display and logging only).
+     */
+    public static String format(long epochDay) {
+        int[] ymd = toYearMonthDay(epochDay);
+        char[] out = new char[10];
+        out[0] = (char) ('0' + ymd[0] / 1000 % 10);
+        out[1] = (char) ('0' + ymd[0] / 100 % 10);
+        out[2] = (char) ('0' + ymd[0] / 10 % 10);
+        out[3] = (char) ('0' + ymd[0] % 10);
+        out[4] = '-';
+        out[5] = (char) ('0' + ymd[1] / 10);
+        out[6] = (char) ('0' + ymd[1] % 10);
+        out[7] = '-';
+        out[8] = (char) ('0' + ymd[2] / 10);
+        out[9] = (char) ('0' + ymd[2] % 10);
+        return new String(out);
+    }
+
+    /**
+     * @return {year, month (1-12), day of month}
+     */
+    public static int[] toYearMonthDay(long epochDay) {
+        long z = epochDay + DAYS_0000_TO_1970;
+        long era = Math.floorDiv(z, DAYS_PER_ERA);
+        long dayOfEra = z - era * DAYS_PER_ERA;
+        long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long mp = (5 * dayOfYear + 2) / 153;
+        int day = (int) (dayOfYear - (153 * mp + 2) / 5 + 1);
+        int month = (int) (mp < 10 ? mp + 3 : mp - 9);
+        int year = (int) (yearOfEra + era * 400 + (month <= 2 ? 1 : 0));
+        return new int[]{year, month, day};
+    }
+
+    /**
+     * Epoch milliseconds of local midnight starting the given day (for Calendar-based UI).
+     */
+    public static long toStartOfDayMillis(long epochDay, TimeZone timeZone) {
+        int[] ymd = toYearMonthDay(epochDay);
+        Calendar calendar = Calendar.getInstance(timeZone);
+        calendar.clear();
+        calendar.set(ymd[0], ymd[1] - 1, ymd[2]);
+        return calendar.getTimeInMillis();
+    }
+
+    private static int lengthOfMonth(int year, int month) {
+        if (month == 2) {
+            boolean leap = (year % 4 == 0 && year % 100 != 0) || year % 400 == 0;
+            return leap ? 29 : 28;
+        }
+        return month == 4 || month == 6 || month == 9 || month == 11 ? 30 : 31;
+    }
+
+    private static int digits(String text, int from, int to) {
+        int value = 0;
+        for (int i = from; i < to; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                throw new IllegalArgumentException("Expected YYYY-MM-DD: " + text);
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+}
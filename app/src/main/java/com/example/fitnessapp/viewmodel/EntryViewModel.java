@@ -8,6 +8,7 @@ import androidx.lifecycle.LiveData;
 
 import com.example.fitnessapp.data.User;
 import com.example.fitnessapp.data.WeightEntry;
+import com.example.fitnessapp.model.WeightTrendAnalysis;
 import com.example.fitnessapp.repository.EntryRepository;
 
 import java.util.List;
@@ -54,6 +55,17 @@ public class EntryViewModel extends AndroidViewModel {
         return currentUser;
     }
 
+    /**
+     * Computes the weight trend analysis for an entries emission.
+     * Results are memoized until weight_entry_table changes, so re-emissions are free.
+     * @param entries The entries from getAllEntriesForUser().
+     * @param goalWeight The user's goal weight.
+     * @return WeightTrendAnalysis, or null if there are no entries.
+     */
+    public WeightTrendAnalysis getWeightTrendAnalysis(List<WeightEntry> entries, double goalWeight) {
+        return repository.analyzeWeightTrend(userId, entries, goalWeight);
+    }
+
     /**
      * Inserts a new weight entry via the repository.
      * @param entry The WeightEntry object to insert.
@@ -0,0 +1,197 @@
+package com.example.fitnessapp.algorithm;
+
+import com.example.fitnessapp.model.MealPlan;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Latency benchmark for MealPlanSolver on a synthetic catalog (no Android or database
+ * dependencies, so it runs as a local unit test).
+ * Foods are variations of common whole foods, dishes and snacks; goals span 1500-3500 kcal
+ * with the macro split of a random fitness goal (NutritionCalculator.calculateMacros).
+ * The first runs are discarded as JIT warm-up.
+ */
+public class MealPlanBenchmark {
+
+    // Per 100 g: calories, protein, carbs, fats
+    private static final String[] ARCHETYPE_NAMES = {
+            "Chicken breast", "Salmon", "Lean beef", "Egg", "Tofu", "Lentils", "Rice", "Oats",
+            "Pasta", "Bread", "Potato", "Broccoli", "Spinach", "Apple", "Banana", "Greek yogurt",
+            "Milk", "Cheddar", "Almonds", "Peanut butter", "Olive oil", "Avocado", "Whey protein",
+            "Chocolate", "Potato chips"
+    };
+    private static final double[][] ARCHETYPES = {
+            {165, 31, 0, 3.6}, {208, 20, 0, 13}, {250, 26, 0, 15}, {155, 13, 1.1, 11},
+            {76, 8, 1.9, 4.8}, {116, 9, 20, 0.4}, {130, 2.7, 28, 0.3}, {389, 17, 66, 7},
+            {158, 5.8, 31, 0.9}, {265, 9, 49, 3.2}, {77, 2, 17, 0.1}, {34, 2.8, 7, 0.4},
+            {23, 2.9, 3.6, 0.4}, {52, 0.3, 14, 0.2}, {89, 1.1, 23, 0.3}, {59, 10, 3.6, 0.4},
+            {61, 3.2, 4.8, 3.3}, {403, 25, 1.3, 33}, {579, 21, 22, 50}, {588, 25, 20, 50},
+            {884, 0, 0, 100}, {160, 2, 8.5, 15}, {400, 80, 8, 6}, {546, 4.9, 61, 31},
+            {536, 7, 53, 34}
+    };
+
+    private static final int WARM_UP_RUNS = 50;
+
+    @Test
+    public void solvesRandomGoals() {
+        BenchmarkReport report = run(10_000, 500, 42L);
+        System.out.println(report);
+        // Latency is reported, not asserted; plan quality must hold
+        assertTrue(report.toString(), report.getWithinToleranceRate() >= 0.95);
+    }
+
+    /**
+     * Solves plans for random goals against one synthetic pool.
+     *
+     * @param candidateCount Foods in the pool
+     * @param goalCount Measured solves (after warm-up)
+     * @param seed Random seed for the pool and goals
+     * @return Latency distribution and plan quality
+     */
+    public static BenchmarkReport run(int candidateCount, int goalCount, long seed) {
+        Random random = new Random(seed);
+        MealPlanSolver.CandidatePool pool = generatePool(candidateCount, random);
+        MealPlanSolver solver = new MealPlanSolver();
+        NutritionCalculator.Goal[] goalTypes = NutritionCalculator.Goal.values();
+
+        double[] millis = new double[goalCount];
+        int withinTolerance = 0;
+        double scoreSum = 0;
+        int itemSum = 0;
+        for (int run = -WARM_UP_RUNS; run < goalCount; run++) {
+            double calories = 1500 + random.nextInt(2001);
+            double[] macros = NutritionCalculator.calculateMacros(calories,
+                    goalTypes[random.nextInt(goalTypes.length)]);
+
+            long start = System.nanoTime();
+            MealPlan plan = solver.solve(pool, calories, macros[0], macros[1], macros[2]);
+            long elapsed = System.nanoTime() - start;
+            if (run < 0) {
+                continue;
+            }
+            millis[run] = elapsed / 1_000_000.0;
+            if (plan.isWithinTolerance()) {
+                withinTolerance++;
+            }
+            scoreSum += plan.getScore();
+            itemSum += plan.getItems().size();
+        }
+
+        Arrays.sort(millis);
+        return new BenchmarkReport(candidateCount, goalCount,
+                goalCount == 0 ? 0 : Arrays.stream(millis).average().orElse(0),
+                percentile(millis, 0.50), percentile(millis, 0.95),
+                goalCount == 0 ? 0 : millis[goalCount - 1],
+                goalCount == 0 ? 0 : (double) withinTolerance / goalCount,
+                goalCount == 0 ? 0 : scoreSum / goalCount,
+                goalCount == 0 ? 0 : (double) itemSum / goalCount);
+    }
+
+    /**
+     * Pool of archetype variations: each macro scaled by ±25%, calories recomputed from the
+     * macros (Atwater factors) with ±5% label noise.
+     */
+    static MealPlanSolver.CandidatePool generatePool(int count, Random random) {
+        MealPlanSolver.CandidatePool pool = new MealPlanSolver.CandidatePool(count);
+        for (int i = 0; i < count; i++) {
+            int a = random.nextInt(ARCHETYPES.length);
+            double protein = ARCHETYPES[a][1] * (0.75 + random.nextDouble() * 0.5);
+            double carbs = ARCHETYPES[a][2] * (0.75 + random.nextDouble() * 0.5);
+            double fats = ARCHETYPES[a][3] * (0.75 + random.nextDouble() * 0.5);
+            double calories = (protein * FormulaConstants.CALORIES_PER_GRAM_PROTEIN
+                    + carbs * FormulaConstants.CALORIES_PER_GRAM_CARBS
+                    + fats * FormulaConstants.CALORIES_PER_GRAM_FATS) * (0.95 + random.nextDouble() * 0.1);
+            pool.add(i + 1, ARCHETYPE_NAMES[a] + " #" + (i + 1), 100.0, calories, protein, carbs, fats);
+        }
+        return pool;
+    }
+
+    private static double percentile(double[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(p * sorted.length) - 1)];
+    }
+
+    /**
+     * Solve latency (milliseconds) and plan quality over one benchmark run.
+     */
+    public static class BenchmarkReport {
+
+        private final int candidateCount;
+        private final int goalCount;
+        private final double meanMillis;
+        private final double medianMillis;
+        private final double p95Millis;
+        private final double maxMillis;
+        private final double withinToleranceRate;
+        private final double meanScore;
+        private final double meanItems;
+
+        BenchmarkReport(int candidateCount, int goalCount, double meanMillis, double medianMillis,
+                        double p95Millis, double maxMillis, double withinToleranceRate,
+                        double meanScore, double meanItems) {
+            this.candidateCount = candidateCount;
+            this.goalCount = goalCount;
+            this.meanMillis = meanMillis;
+            this.medianMillis = medianMillis;
+            this.p95Millis = p95Millis;
+            this.maxMillis = maxMillis;
+            this.withinToleranceRate = withinToleranceRate;
+            this.meanScore = meanScore;
+            this.meanItems = meanItems;
+        }
+
+        public int getCandidateCount() {
+            return candidateCount;
+        }
+
+        public int getGoalCount() {
+            return goalCount;
+        }
+
+        public double getMeanMillis() {
+            return meanMillis;
+        }
+
+        public double getMedianMillis() {
+            return medianMillis;
+        }
+
+        public double getP95Millis() {
+            return p95Millis;
+        }
+
+        public double getMaxMillis() {
+            return maxMillis;
+        }
+
+        /**
+         * Fraction of plans with all totals within tolerance.
+         */
+        public double getWithinToleranceRate() {
+            return withinToleranceRate;
+        }
+
+        public double getMeanScore() {
+            return meanScore;
+        }
+
+        public double getMeanItems() {
+            return meanItems;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("MealPlanBenchmark{candidates=%d, goals=%d, mean %.2f ms, p50 %.2f ms, "
+                            + "p95 %.2f ms, max %.2f ms, within tolerance %.1f%%, mean score %.5f, %.1f items}",
+                    candidateCount, goalCount, meanMillis, medianMillis, p95Millis, maxMillis,
+                    withinToleranceRate * 100.0, meanScore, meanItems);
+        }
+    }
+}
@@ -0,0 +1,319 @@
+package com.example.fitnessapp.repository;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Streams 500k generated rows through FoodCsvParser / FoodJsonParser, FoodImportRecord
+ * validation and FoodImporter's dedupe step on the local JVM (no database).
+ *
+ * Every block of 100 rows holds one bad number, one missing name, one case-insensitive
+ * repeat of the previous row and one reuse of the previous row's barcode, so 96 rows per
+ * block are new. Quoted fields (commas, doubled quotes, line breaks), CRLF line endings,
+ * string numbers, nulls and nested values are mixed in. The printed throughput includes
+ * generating the input and checking every row, so it is a lower bound for the import loop.
+ */
+public class FoodImportParserTest {
+
+    private static final int ROWS = 500_000;
+    private static final int BLOCK = 100;
+
+    @Test
+    public void csvStreamsValidatesAndDedupes() throws IOException {
+        long start = System.nanoTime();
+        Counts counts = importAll(new FoodCsvParser(new CsvRows(ROWS)));
+        print("CSV", System.nanoTime() - start);
+
+        assertCounts(counts);
+        // Rows 5, 25, ... carry one quoted line break each
+        assertEquals(1 + ROWS + ROWS / 20, counts.lastRowLine);
+    }
+
+    @Test
+    public void jsonStreamsValidatesAndDedupes() throws IOException {
+        long start = System.nanoTime();
+        Counts counts = importAll(new FoodJsonParser(new JsonRows(ROWS)));
+        print("JSON", System.nanoTime() - start);
+
+        assertCounts(counts);
+        // "[" on line 1, one object per line
+        assertEquals(ROWS + 1, counts.lastRowLine);
+    }
+
+    @Test
+    public void csvHandlesQuotesAndCrlf() throws IOException {
+        String csv = "name,brand,calories,notes\r\n"
+                + "\"Oats, rolled \"\"extra\"\"\",Acme,389,\"a, b\"\r\n"
+                + "\"Two\r\nlines\",,52,\r\n"
+                + "\r\n"
+                + "Plain,Brand,12x,\n";
+        FoodCsvParser parser = new FoodCsvParser(new StringReader(csv));
+        FoodImportRecord record = new FoodImportRecord();
+
+        assertTrue(parser.next(record));
+        assertNull(record.validate());
+        assertEquals("Oats, rolled \"extra\"", record.name);
+        assertEquals("Acme", record.brand);
+        assertEquals(389.0, record.getNumber(FoodImportRecord.CALORIES), 0.0);
+        assertEquals(2, parser.getRowLine());
+
+        assertTrue(parser.next(record));
+        assertNull(record.validate());
+        assertEquals("Two\r\nlines", record.name);
+        assertNull(record.brand);
+        assertEquals(3, parser.getRowLine());
+
+        // Blank CRLF line skipped
+        assertTrue(parser.next(record));
+        assertEquals("bad number in column calories", record.validate());
+        assertEquals(6, parser.getRowLine());
+
+        assertFalse(parser.next(record));
+    }
+
+    @Test
+    public void parseNumberMatchesParseDouble() {
+        String[] inputs = {"0", "12", "12.5", " 7.25 ", "-0.1", "+3", "0.000123", "1e3",
+                "123456789012345678", "98.60000000000001", ".5", "5."};
+        for (String input : inputs) {
+            char[] chars = input.toCharArray();
+            assertEquals(input, Double.parseDouble(input.trim()),
+                    FoodImportRecord.parseNumber(chars, 0, chars.length), 0.0);
+        }
+        assertTrue(Double.isNaN(FoodImportRecord.parseNumber("  ".toCharArray(), 0, 2)));
+        for (String bad : new String[]{"12x", "-", ".", "1.2.3", "abc"}) {
+            try {
+                FoodImportRecord.parseNumber(bad.toCharArray(), 0, bad.length());
+                throw new AssertionError("parsed " + bad);
+            } catch (NumberFormatException expected) {
+                // Reported as a bad number by the parsers
+            }
+        }
+    }
+
+    // --- Import loop (FoodImporter.importFrom without the database) ---
+
+    private static Counts importAll(FoodRecordParser parser) throws IOException {
+        Counts counts = new Counts();
+        FoodImporter.KeySet seen = new FoodImporter.KeySet();
+        FoodImporter.KeySet barcodes = new FoodImporter.KeySet();
+        FoodImportRecord record = new FoodImportRecord();
+        int row = 0;
+        while (parser.next(record)) {
+            String error = record.validate();
+            int kind = row % BLOCK;
+            if (error != null) {
+                counts.invalid++;
+                if (kind == 7) {
+                    assertTrue(error, error.startsWith("bad number"));
+                } else {
+                    assertEquals("row " + row, 13, kind);
+                    assertEquals("missing name", error);
+                }
+            } else if (FoodImporter.isDuplicate(record, seen, barcodes)) {
+                counts.duplicates++;
+                assertTrue("row " + row, kind == 50 || kind == 60);
+            } else {
+                counts.inserted++;
+                checkValues(record, row);
+            }
+            counts.read++;
+            counts.lastRowLine = parser.getRowLine();
+            row++;
+        }
+        return counts;
+    }
+
+    private static void checkValues(FoodImportRecord record, int row) {
+        assertEquals(expectedName(row), record.name);
+        assertEquals("Brand " + row % 50, record.brand);
+        assertEquals(row % 10 == 9 ? barcode(row) : null, record.barcode);
+        assertEquals("cat" + row % 7, record.category);
+        assertEquals(calories(row), record.getNumber(FoodImportRecord.CALORIES), 0.0);
+        assertEquals(protein(row), record.getNumber(FoodImportRecord.PROTEIN), 0.0);
+        assertEquals(100.0, record.getNumber(FoodImportRecord.SERVING_SIZE), 0.0);
+    }
+
+    private static void assertCounts(Counts counts) {
+        int blocks = ROWS / BLOCK;
+        assertEquals(ROWS, counts.read);
+        assertEquals(2 * blocks, counts.invalid);
+        assertEquals(2 * blocks, counts.duplicates);
+        assertEquals(96 * blocks, counts.inserted);
+    }
+
+    private static void print(String format, long nanos) {
+        System.out.println(String.format("%s: %d rows in %d ms (%.0f rows/s)", format, ROWS,
+                nanos / 1_000_000L, ROWS * 1_000_000_000.0 / nanos));
+    }
+
+    // --- Generated rows ---
+
+    private static String expectedName(int row) {
+        int kind = row % BLOCK;
+        if (kind == 50) {
+            return ("Food " + (row - 1)).toUpperCase();
+        }
+        if (row % 20 == 5) {
+            return "Food " + row + "\nline two";
+        }
+        if (row % 10 == 0) {
+            return "Food " + row + ", \"extra\"";
+        }
+        return "Food " + row;
+    }
+
+    /**
+     * Identity row: the repeat (kind 50) copies the previous row's brand and barcode.
+     */
+    private static int identityRow(int row) {
+        return row % BLOCK == 50 ? row - 1 : row;
+    }
+
+    private static String barcode(int row) {
+        String digits = Integer.toString(row);
+        return "0000000000000".substring(digits.length()) + digits;
+    }
+
+    private static String barcodeFor(int row) {
+        int kind = row % BLOCK;
+        if (kind == 60) {
+            return barcode(row - 1);
+        }
+        int identity = identityRow(row);
+        return identity % 10 == 9 ? barcode(identity) : null;
+    }
+
+    private static double calories(int row) {
+        return 50 + row % 400;
+    }
+
+    private static double protein(int row) {
+        return row % 30 + 0.5;
+    }
+
+    private static final class CsvRows extends RowReader {
+
+        CsvRows(int rows) {
+            super(rows);
+            text.append("name,brand,barcode,calories,protein,carbs,fats,notes,category\n");
+        }
+
+        @Override
+        void appendRow(StringBuilder out, int row) {
+            int kind = row % BLOCK;
+            String name = kind == 13 ? "" : expectedName(row);
+            if (name.indexOf(',') >= 0 || name.indexOf('"') >= 0 || name.indexOf('\n') >= 0
+                    || row % 10 == 0) {
+                out.append('"').append(name.replace("\"", "\"\"")).append('"');
+            } else {
+                out.append(name);
+            }
+            String barcode = barcodeFor(row);
+            out.append(',').append("Brand ").append(identityRow(row) % 50)
+                    .append(',').append(barcode == null ? "" : barcode)
+                    .append(',').append(kind == 7 ? "12x" : formatNumber(calories(row)))
+                    .append(',').append(formatNumber(protein(row)))
+                    .append(',').append(row % 40).append(".25")
+                    .append(',').append(row % 20 / 10.0)
+                    .append(',').append("\"note, ").append(row).append('"')
+                    .append(',').append("cat").append(row % 7)
+                    .append(row % 3 == 0 ? "\r\n" : "\n");
+        }
+    }
+
+    private static final class JsonRows extends RowReader {
+
+        JsonRows(int rows) {
+            super(rows);
+            text.append("[\n");
+        }
+
+        @Override
+        void appendRow(StringBuilder out, int row) {
+            int kind = row % BLOCK;
+            String barcode = barcodeFor(row);
+            out.append("{\"description\": ");
+            if (kind == 13) {
+                out.append("null");
+            } else {
+                out.append('"').append(expectedName(row).replace("\"", "\\\"").replace("\n", "\\n"))
+                        .append('"');
+            }
+            out.append(", \"brand_owner\": \"Brand ").append(identityRow(row) % 50).append('"')
+                    .append(", \"gtin_upc\": ").append(barcode == null ? "null" : "\"" + barcode + "\"")
+                    .append(", \"extra\": {\"tags\": [\"a]\", {\"b\": 1}]}")
+                    .append(", \"energy_kcal\": ");
+            if (kind == 7) {
+                out.append("\"abc\"");
+            } else if (row % 4 == 1) {
+                out.append('"').append(formatNumber(calories(row))).append('"');
+            } else {
+                out.append(formatNumber(calories(row)));
+            }
+            out.append(", \"protein_g\": ").append(formatNumber(protein(row)))
+                    .append(", \"fiber\": null")
+                    .append(", \"food_category\": \"cat").append(row % 7).append("\"}")
+                    .append(row == rows - 1 ? "\n]\n" : ",\n");
+        }
+    }
+
+    private static String formatNumber(double value) {
+        return value == Math.rint(value) ? Long.toString((long) value) : Double.toString(value);
+    }
+
+    /**
+     * Reader producing rows on demand, so the input is never held in memory.
+     */
+    private abstract static class RowReader extends Reader {
+
+        final int rows;
+        final StringBuilder text = new StringBuilder();
+        private int position;
+        private int nextRow;
+
+        RowReader(int rows) {
+            this.rows = rows;
+        }
+
+        abstract void appendRow(StringBuilder out, int row);
+
+        @Override
+        public int read(char[] buffer, int offset, int length) {
+            while (text.length() - position < length && nextRow < rows) {
+                if (position > 0) {
+                    text.delete(0, position);
+                    position = 0;
+                }
+                appendRow(text, nextRow++);
+            }
+            int count = Math.min(length, text.length() - position);
+            if (count <= 0) {
+                return -1;
+            }
+            text.getChars(position, position + count, buffer, offset);
+            position += count;
+            return count;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    private static final class Counts {
+        int read;
+        int inserted;
+        int duplicates;
+        int invalid;
+        long lastRowLine;
+    }
+}